@@ -98,6 +98,7 @@ import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64IncNodeFactory.LLVMAMD64IncqNo
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64IncNodeFactory.LLVMAMD64IncwNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64LoadFlagsFactory.LLVMAMD64LahfNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64LoadFlagsFactory.LLVMAMD64ReadFlagswNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64MovsNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64MulNodeFactory.LLVMAMD64MulbNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64MulNodeFactory.LLVMAMD64MullNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64MulNodeFactory.LLVMAMD64MulqNodeGen;
@@ -127,7 +128,11 @@ import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RdSeedNodeFactory.LLVMAMD64RdS
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RdSeedNodeFactory.LLVMAMD64RdSeedqNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RdSeedNodeFactory.LLVMAMD64RdSeedwNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RdtscNodeGen;
-import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RepNode;
+import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RepMovsNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RepStosNodeFactory.LLVMAMD64RepStosbNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RepStosNodeFactory.LLVMAMD64RepStosdNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RepStosNodeFactory.LLVMAMD64RepStosqNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RepStosNodeFactory.LLVMAMD64RepStoswNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RolNodeFactory.LLVMAMD64RolbNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RolNodeFactory.LLVMAMD64RollNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.LLVMAMD64RolNodeFactory.LLVMAMD64RolqNodeGen;
@@ -196,6 +201,7 @@ import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64ToI8NodeFactory.LLVMAM
 import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64ToRegisterNodeFactory.LLVMI16ToR64NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64ToRegisterNodeFactory.LLVMI32ToR64NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64ToRegisterNodeFactory.LLVMI8ToR64NodeGen;
+import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64UpdateFlagsNode;
 import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64UpdateFlagsNode.LLVMAMD64UpdateCPAZSOFlagsNode;
 import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64UpdateFlagsNode.LLVMAMD64UpdateCPZSOFlagsNode;
 import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64UpdateFlagsNode.LLVMAMD64UpdatePZSFlagsNode;
@@ -218,7 +224,9 @@ import com.oracle.truffle.llvm.nodes.cast.LLVMToI64NodeGen.LLVMToI64ZeroExtNodeG
 import com.oracle.truffle.llvm.nodes.cast.LLVMToI8NodeGen.LLVMToI8NoZeroExtNodeGen;
 import com.oracle.truffle.llvm.nodes.func.LLVMArgNodeGen;
 import com.oracle.truffle.llvm.nodes.func.LLVMInlineAssemblyRootNode;
-import com.oracle.truffle.llvm.nodes.memory.LLVMFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMAcquireFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMReleaseFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMSequentiallyConsistentFenceNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVMPointerDirectLoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI16LoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI32LoadNodeGen;
@@ -242,6 +250,7 @@ import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMLoadNode;
 import com.oracle.truffle.llvm.runtime.types.PointerType;
 import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
 import com.oracle.truffle.llvm.runtime.types.PrimitiveType.PrimitiveKind;
@@ -270,6 +279,9 @@ class AsmFactory {
 
     private String currentPrefix;
 
+    private final List<FlagEffects> instructionFlags;
+    private FlagEffects currentFlags;
+
     private final LLVMLanguage language;
     private final LLVMSourceLocation sourceLocation;
 
@@ -282,6 +294,7 @@ class AsmFactory {
         this.statements = new ArrayList<>();
         this.arguments = new ArrayList<>();
         this.registers = new ArrayList<>();
+        this.instructionFlags = new ArrayList<>();
         this.retType = retType;
         this.retTypes = retTypes;
         this.retOffsets = retOffsets;
@@ -388,12 +401,43 @@ class AsmFactory {
     }
 
     LLVMInlineAssemblyRootNode finishInline() {
+        computeFlagLiveness();
         getArguments();
         return new LLVMInlineAssemblyRootNode(language, sourceLocation, frameDescriptor, statements.toArray(new LLVMExpressionNode[statements.size()]), arguments, result);
     }
 
     void setPrefix(String prefix) {
         this.currentPrefix = prefix;
+        // every instruction is preceded by exactly one call to setPrefix
+        this.currentFlags = null;
+    }
+
+    /**
+     * Backward liveness analysis over the flags read and written by each instruction. The
+     * instruction sequence is straight-line code and the flags are not visible after the inline
+     * assembly returns, so flag writes that are not read by a later instruction are disabled.
+     */
+    private void computeFlagLiveness() {
+        long live = 0;
+        for (int i = instructionFlags.size() - 1; i >= 0; i--) {
+            FlagEffects effects = instructionFlags.get(i);
+            for (LLVMAMD64UpdateFlagsNode node : effects.updates) {
+                node.setLiveFlags(live);
+            }
+            for (int j = 0; j < effects.writes.size(); j++) {
+                effects.writes.get(j).setLive((live & LLVMAMD64UpdateFlagsNode.mask(effects.writtenFlags.get(j))) != 0);
+            }
+            // reads of an instruction happen before its writes (e.g., adc reads and writes CF)
+            live = (live & ~effects.kills) | effects.reads;
+        }
+    }
+
+    private FlagEffects getFlagEffects() {
+        if (currentFlags == null) {
+            currentFlags = new FlagEffects();
+            instructionFlags.add(currentFlags);
+        }
+        return currentFlags;
     }
 
     void createInt(AsmImmediateOperand nr) {
@@ -405,14 +449,85 @@ class AsmFactory {
         }
     }
 
-    private void createRep(LLVMExpressionNode body) {
+    private void createStos(PrimitiveType type, String register) {
+        LLVMExpressionNode value = getOperandLoad(type, new AsmRegisterOperand(register));
+        LLVMExpressionNode rdi = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
+        LLVMExpressionNode df = getFlag(LLVMAMD64Flags.DF);
+        LLVMAMD64WriteValueNode writeRDI = getStore(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
         if ("rep".equals(currentPrefix)) {
             LLVMExpressionNode rcx = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rcx"));
             LLVMAMD64WriteValueNode writeRCX = getStore(PrimitiveType.I64, new AsmRegisterOperand("rcx"));
-            LLVMExpressionNode rep = new LLVMAMD64RepNode(writeRCX, rcx, body);
-            statements.add(rep);
+            switch (type.getPrimitiveKind()) {
+                case I8:
+                    statements.add(LLVMAMD64RepStosbNodeGen.create(writeRCX, writeRDI, rcx, value, rdi, df));
+                    break;
+                case I16:
+                    statements.add(LLVMAMD64RepStoswNodeGen.create(writeRCX, writeRDI, rcx, value, rdi, df));
+                    break;
+                case I32:
+                    statements.add(LLVMAMD64RepStosdNodeGen.create(writeRCX, writeRDI, rcx, value, rdi, df));
+                    break;
+                case I64:
+                    statements.add(LLVMAMD64RepStosqNodeGen.create(writeRCX, writeRDI, rcx, value, rdi, df));
+                    break;
+                default:
+                    throw new AsmParseException("invalid operand size: " + type);
+            }
         } else {
-            statements.add(body);
+            switch (type.getPrimitiveKind()) {
+                case I8:
+                    statements.add(LLVMAMD64StosbNodeGen.create(writeRDI, value, rdi, df));
+                    break;
+                case I16:
+                    statements.add(LLVMAMD64StoswNodeGen.create(writeRDI, value, rdi, df));
+                    break;
+                case I32:
+                    statements.add(LLVMAMD64StosdNodeGen.create(writeRDI, value, rdi, df));
+                    break;
+                case I64:
+                    statements.add(LLVMAMD64StosqNodeGen.create(writeRDI, value, rdi, df));
+                    break;
+                default:
+                    throw new AsmParseException("invalid operand size: " + type);
+            }
+        }
+    }
+
+    private void createMovs(PrimitiveType type) {
+        LLVMExpressionNode rsi = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rsi"));
+        LLVMExpressionNode rdi = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
+        LLVMExpressionNode df = getFlag(LLVMAMD64Flags.DF);
+        LLVMAMD64WriteValueNode writeRSI = getStore(PrimitiveType.I64, new AsmRegisterOperand("rsi"));
+        LLVMAMD64WriteValueNode writeRDI = getStore(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
+        int size = type.getBitSize() / Byte.SIZE;
+        LLVMLoadNode load;
+        LLVMStoreNode store;
+        switch (type.getPrimitiveKind()) {
+            case I8:
+                load = LLVMI8LoadNodeGen.create(null);
+                store = LLVMI8StoreNodeGen.create(null, null);
+                break;
+            case I16:
+                load = LLVMI16LoadNodeGen.create(null);
+                store = LLVMI16StoreNodeGen.create(null, null);
+                break;
+            case I32:
+                load = LLVMI32LoadNodeGen.create(null);
+                store = LLVMI32StoreNodeGen.create(null, null);
+                break;
+            case I64:
+                load = LLVMI64LoadNodeGen.create(null);
+                store = LLVMI64StoreNodeGen.create(null, null);
+                break;
+            default:
+                throw new AsmParseException("invalid operand size: " + type);
+        }
+        if ("rep".equals(currentPrefix)) {
+            LLVMExpressionNode rcx = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rcx"));
+            LLVMAMD64WriteValueNode writeRCX = getStore(PrimitiveType.I64, new AsmRegisterOperand("rcx"));
+            statements.add(LLVMAMD64RepMovsNodeGen.create(size, load, store, writeRCX, writeRSI, writeRDI, rcx, rsi, rdi, df));
+        } else {
+            statements.add(LLVMAMD64MovsNodeGen.create(size, load, store, writeRSI, writeRDI, rsi, rdi, df));
         }
     }
 
@@ -472,9 +587,13 @@ class AsmFactory {
                 // TODO: implement properly
                 break;
             case "mfence":
-            case "lfance":
+                statements.add(LLVMSequentiallyConsistentFenceNodeGen.create());
+                break;
+            case "lfence":
+                statements.add(LLVMAcquireFenceNodeGen.create());
+                break;
             case "sfence":
-                statements.add(LLVMFenceNodeGen.create());
+                statements.add(LLVMReleaseFenceNodeGen.create());
                 break;
             case "rdtsc": {
                 LLVMAMD64WriteValueNode high = getRegisterStore("rdx");
@@ -507,42 +626,32 @@ class AsmFactory {
                 statements.add(getOperandStore(PrimitiveType.I64, new AsmRegisterOperand("rax"), syscall));
                 break;
             }
-            case "stosb": {
-                LLVMExpressionNode al = getOperandLoad(PrimitiveType.I8, new AsmRegisterOperand("al"));
-                LLVMExpressionNode rdi = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode df = getFlag(LLVMAMD64Flags.DF);
-                LLVMAMD64WriteValueNode writeRDI = getStore(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode stosb = LLVMAMD64StosbNodeGen.create(writeRDI, al, rdi, df);
-                createRep(stosb);
+            case "stosb":
+                createStos(PrimitiveType.I8, "al");
                 break;
-            }
-            case "stosw": {
-                LLVMExpressionNode ax = getOperandLoad(PrimitiveType.I16, new AsmRegisterOperand("ax"));
-                LLVMExpressionNode rdi = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode df = getFlag(LLVMAMD64Flags.DF);
-                LLVMAMD64WriteValueNode writeRDI = getStore(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode stosw = LLVMAMD64StoswNodeGen.create(writeRDI, ax, rdi, df);
-                createRep(stosw);
+            case "stosw":
+                createStos(PrimitiveType.I16, "ax");
                 break;
-            }
-            case "stosd": {
-                LLVMExpressionNode eax = getOperandLoad(PrimitiveType.I32, new AsmRegisterOperand("eax"));
-                LLVMExpressionNode rdi = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode df = getFlag(LLVMAMD64Flags.DF);
-                LLVMAMD64WriteValueNode writeRDI = getStore(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode stosd = LLVMAMD64StosdNodeGen.create(writeRDI, eax, rdi, df);
-                createRep(stosd);
+            case "stosl":
+            case "stosd":
+                createStos(PrimitiveType.I32, "eax");
                 break;
-            }
-            case "stosq": {
-                LLVMExpressionNode rax = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rax"));
-                LLVMExpressionNode rdi = getOperandLoad(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode df = getFlag(LLVMAMD64Flags.DF);
-                LLVMAMD64WriteValueNode writeRDI = getStore(PrimitiveType.I64, new AsmRegisterOperand("rdi"));
-                LLVMExpressionNode stosq = LLVMAMD64StosqNodeGen.create(writeRDI, rax, rdi, df);
-                createRep(stosq);
+            case "stosq":
+                createStos(PrimitiveType.I64, "rax");
+                break;
+            case "movsb":
+                createMovs(PrimitiveType.I8);
+                break;
+            case "movsw":
+                createMovs(PrimitiveType.I16);
+                break;
+            case "movsl":
+            case "movsd":
+                createMovs(PrimitiveType.I32);
+                break;
+            case "movsq":
+                createMovs(PrimitiveType.I64);
                 break;
-            }
             default:
                 statements.add(new LLVMUnsupportedInlineAssemblerNode(sourceLocation, "Unsupported operation: " + operation));
                 return;
@@ -2348,28 +2457,49 @@ class AsmFactory {
     }
 
     private LLVMExpressionNode getFlag(long flag) {
+        getFlagEffects().reads |= LLVMAMD64UpdateFlagsNode.mask(flag);
         return LLVMI1ReadNodeGen.create(getFlagSlot(flag));
     }
 
     private LLVMAMD64WriteBooleanNode getFlagWrite(long flag) {
-        return new LLVMAMD64WriteBooleanNode(getFlagSlot(flag));
+        LLVMAMD64WriteBooleanNode node = new LLVMAMD64WriteBooleanNode(getFlagSlot(flag));
+        FlagEffects effects = getFlagEffects();
+        effects.kills |= LLVMAMD64UpdateFlagsNode.mask(flag);
+        effects.writes.add(node);
+        effects.writtenFlags.add(flag);
+        return node;
+    }
+
+    private <T extends LLVMAMD64UpdateFlagsNode> T recordFlagUpdate(T node) {
+        FlagEffects effects = getFlagEffects();
+        effects.kills |= node.getWrittenFlags();
+        effects.updates.add(node);
+        return node;
     }
 
     private LLVMAMD64UpdatePZSFlagsNode getUpdatePZSFlagsNode() {
-        return new LLVMAMD64UpdatePZSFlagsNode(getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.ZF), getFlagSlot(LLVMAMD64Flags.SF));
+        return recordFlagUpdate(new LLVMAMD64UpdatePZSFlagsNode(getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.ZF), getFlagSlot(LLVMAMD64Flags.SF)));
     }
 
     private LLVMAMD64UpdatePZSOFlagsNode getUpdatePZSOFlagsNode() {
-        return new LLVMAMD64UpdatePZSOFlagsNode(getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.ZF), getFlagSlot(LLVMAMD64Flags.SF), getFlagSlot(LLVMAMD64Flags.OF));
+        return recordFlagUpdate(new LLVMAMD64UpdatePZSOFlagsNode(getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.ZF), getFlagSlot(LLVMAMD64Flags.SF), getFlagSlot(LLVMAMD64Flags.OF)));
     }
 
     private LLVMAMD64UpdateCPZSOFlagsNode getUpdateCPZSOFlagsNode() {
-        return new LLVMAMD64UpdateCPZSOFlagsNode(getFlagSlot(LLVMAMD64Flags.CF), getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.ZF), getFlagSlot(LLVMAMD64Flags.SF),
-                        getFlagSlot(LLVMAMD64Flags.OF));
+        return recordFlagUpdate(new LLVMAMD64UpdateCPZSOFlagsNode(getFlagSlot(LLVMAMD64Flags.CF), getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.ZF), getFlagSlot(LLVMAMD64Flags.SF),
+                        getFlagSlot(LLVMAMD64Flags.OF)));
     }
 
     private LLVMAMD64UpdateCPAZSOFlagsNode getUpdateCPAZSOFlagsNode() {
-        return new LLVMAMD64UpdateCPAZSOFlagsNode(getFlagSlot(LLVMAMD64Flags.CF), getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.AF), getFlagSlot(LLVMAMD64Flags.ZF),
-                        getFlagSlot(LLVMAMD64Flags.SF), getFlagSlot(LLVMAMD64Flags.OF));
+        return recordFlagUpdate(new LLVMAMD64UpdateCPAZSOFlagsNode(getFlagSlot(LLVMAMD64Flags.CF), getFlagSlot(LLVMAMD64Flags.PF), getFlagSlot(LLVMAMD64Flags.AF), getFlagSlot(LLVMAMD64Flags.ZF),
+                        getFlagSlot(LLVMAMD64Flags.SF), getFlagSlot(LLVMAMD64Flags.OF)));
+    }
+
+    private static final class FlagEffects {
+        long reads;
+        long kills;
+        final List<LLVMAMD64UpdateFlagsNode> updates = new ArrayList<>();
+        final List<LLVMAMD64WriteBooleanNode> writes = new ArrayList<>();
+        final List<Long> writtenFlags = new ArrayList<>();
     }
 }
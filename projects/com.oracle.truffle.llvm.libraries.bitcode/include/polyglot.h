@@ -434,6 +434,54 @@ void polyglot_set_array_element(void *array, int idx, ...);
  */
 bool polyglot_remove_array_element(void *array, int idx);
 
+/**
+ * Copy a range of elements from a polyglot array into a buffer.
+ *
+ * Reads the elements with the indices start to start+count-1 from the polyglot
+ * array and stores them to consecutive elements of the buffer. If the polyglot
+ * array is backed by a host array of the matching primitive type, the whole
+ * range is copied at once.
+ *
+ * There is one variant of this function for each primitive element type:
+ * polyglot_get_array_elements_i8, polyglot_get_array_elements_i16,
+ * polyglot_get_array_elements_i32, polyglot_get_array_elements_i64,
+ * polyglot_get_array_elements_float and polyglot_get_array_elements_double.
+ *
+ * @param array the polyglot array to read from
+ * @param start the index of the first element to copy
+ * @param buffer the destination buffer, with room for at least count elements
+ * @param count the number of elements to copy
+ */
+void polyglot_get_array_elements_i8(const void *array, uint64_t start, int8_t *buffer, uint64_t count);
+void polyglot_get_array_elements_i16(const void *array, uint64_t start, int16_t *buffer, uint64_t count);
+void polyglot_get_array_elements_i32(const void *array, uint64_t start, int32_t *buffer, uint64_t count);
+void polyglot_get_array_elements_i64(const void *array, uint64_t start, int64_t *buffer, uint64_t count);
+void polyglot_get_array_elements_float(const void *array, uint64_t start, float *buffer, uint64_t count);
+void polyglot_get_array_elements_double(const void *array, uint64_t start, double *buffer, uint64_t count);
+
+/**
+ * Copy a range of elements from a buffer into a polyglot array.
+ *
+ * Loads count consecutive elements of the buffer and writes them to the
+ * polyglot array, starting at the index start. If the polyglot array is backed
+ * by a host array of the matching primitive type, the whole range is copied at
+ * once.
+ *
+ * There is one variant of this function for each primitive element type,
+ * analogous to polyglot_get_array_elements_i8 and its siblings.
+ *
+ * @param array the polyglot array to write to
+ * @param start the index of the first element to overwrite
+ * @param buffer the source buffer, holding at least count elements
+ * @param count the number of elements to copy
+ */
+void polyglot_set_array_elements_i8(void *array, uint64_t start, const int8_t *buffer, uint64_t count);
+void polyglot_set_array_elements_i16(void *array, uint64_t start, const int16_t *buffer, uint64_t count);
+void polyglot_set_array_elements_i32(void *array, uint64_t start, const int32_t *buffer, uint64_t count);
+void polyglot_set_array_elements_i64(void *array, uint64_t start, const int64_t *buffer, uint64_t count);
+void polyglot_set_array_elements_float(void *array, uint64_t start, const float *buffer, uint64_t count);
+void polyglot_set_array_elements_double(void *array, uint64_t start, const double *buffer, uint64_t count);
+
 /** @} */
 
 /**
@@ -716,6 +716,13 @@ unsigned int sulong_eh_canCatch(_Unwind_Exception *unwindHeader, std::type_info
     }
 }
 
+// helper routine for Sulong
+extern "C"
+std::type_info *sulong_eh_getType(_Unwind_Exception *unwindHeader) {
+    __cxa_exception *ex = cxa_exception_from_exception_unwind_exception(unwindHeader);
+    return ex->exceptionType;
+}
+
 }  // extern "C"
 
 }  // abi
@@ -32,6 +32,8 @@
 #include <setjmp.h>
 #include "unsupported.h"
 
+// direct calls to setjmp are replaced by a builtin, and longjmp is an intrinsic
+
 int setjmp(jmp_buf env) {
   WARN_UNSUPPORTED(setjmp);
   return 0;
@@ -41,11 +43,3 @@ int sigsetjmp(sigjmp_buf env, int savesigs) {
   WARN_UNSUPPORTED(sigsetjmp);
   return 0;
 }
-
-void longjmp(jmp_buf env, int val) {
-  ERR_UNSUPPORTED(longjmp);
-}
-
-void siglongjmp(sigjmp_buf env, int val) {
-  ERR_UNSUPPORTED(siglongjmp);
-}
@@ -34,6 +34,7 @@
 #include <fcntl.h>
 #include <stdio.h>
 #include <poll.h>
+#include <time.h>
 #include <sys/types.h>
 #include <sys/stat.h>
 #include <sys/ioctl.h>
@@ -46,6 +47,9 @@
 #include <sys/klog.h>
 #include <sys/syscall.h>
 #include <sys/sendfile.h>
+#include <sys/epoll.h>
+#include <sys/eventfd.h>
+#include <sys/timerfd.h>
 #endif
 
 #ifdef __linux__
@@ -85,6 +89,16 @@ ssize_t __sulong_posix_write(int fd, const void* buf, size_t count)
 	CALL(ssize_t, write, fd, buf, count)
 }
 
+ssize_t __sulong_posix_pread64(int fd, void* buf, size_t count, off_t offset)
+{
+	CALL(ssize_t, pread, fd, buf, count, offset)
+}
+
+ssize_t __sulong_posix_pwrite64(int fd, const void* buf, size_t count, off_t offset)
+{
+	CALL(ssize_t, pwrite, fd, buf, count, offset)
+}
+
 ssize_t __sulong_posix_readv(int fd, const struct iovec* iov, int iovcnt)
 {
 	CALL(ssize_t, readv, fd, iov, iovcnt);
@@ -150,6 +164,26 @@ int __sulong_posix_munmap(void* addr, size_t length)
 	CALL(int, munmap, addr, length);
 }
 
+void* __sulong_posix_mremap(void* old_address, size_t old_size, size_t new_size, int flags, void* new_address)
+{
+	CALL(void*, mremap, old_address, old_size, new_size, flags, new_address);
+}
+
+int __sulong_posix_mprotect(void* addr, size_t len, int prot)
+{
+	CALL(int, mprotect, addr, len, prot);
+}
+
+int __sulong_posix_msync(void* addr, size_t length, int flags)
+{
+	CALL(int, msync, addr, length, flags);
+}
+
+int __sulong_posix_madvise(void* addr, size_t length, int advice)
+{
+	CALL(int, madvise, addr, length, advice);
+}
+
 int __sulong_posix_unlink(const char *path)
 {
 	CALL(int, unlink, path);
@@ -165,6 +199,51 @@ int __sulong_posix_chown(const char *filename, uid_t user, gid_t group)
 	CALL(int, chown, filename, user, group);
 }
 
+int __sulong_posix_nanosleep(const struct timespec* req, struct timespec* rem)
+{
+	CALL(int, nanosleep, req, rem);
+}
+
+int __sulong_posix_epoll_create1(int flags)
+{
+	CALL(int, epoll_create1, flags);
+}
+
+int __sulong_posix_epoll_ctl(int epfd, int op, int fd, struct epoll_event* event)
+{
+	CALL(int, epoll_ctl, epfd, op, fd, event);
+}
+
+int __sulong_posix_epoll_wait(int epfd, struct epoll_event* events, int maxevents, int timeout)
+{
+	CALL(int, epoll_wait, epfd, events, maxevents, timeout);
+}
+
+int __sulong_posix_epoll_pwait(int epfd, struct epoll_event* events, int maxevents, int timeout, const sigset_t* sigmask)
+{
+	CALL(int, epoll_pwait, epfd, events, maxevents, timeout, sigmask);
+}
+
+int __sulong_posix_eventfd2(unsigned int initval, int flags)
+{
+	CALL(int, eventfd, initval, flags);
+}
+
+int __sulong_posix_timerfd_create(int clockid, int flags)
+{
+	CALL(int, timerfd_create, clockid, flags);
+}
+
+int __sulong_posix_timerfd_settime(int fd, int flags, const struct itimerspec* new_value, struct itimerspec* old_value)
+{
+	CALL(int, timerfd_settime, fd, flags, new_value, old_value);
+}
+
+int __sulong_posix_timerfd_gettime(int fd, struct itimerspec* curr_value)
+{
+	CALL(int, timerfd_gettime, fd, curr_value);
+}
+
 int __sulong_posix_socket(int domain, int type, int protocol)
 {
 	CALL(int, socket, domain, type, protocol);
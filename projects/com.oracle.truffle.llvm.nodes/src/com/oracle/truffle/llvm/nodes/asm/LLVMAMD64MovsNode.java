@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.asm;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64WriteValueNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMLoadNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStoreNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
+
+@NodeChildren({@NodeChild(value = "rsi", type = LLVMExpressionNode.class), @NodeChild(value = "rdi", type = LLVMExpressionNode.class), @NodeChild(value = "df", type = LLVMExpressionNode.class)})
+public abstract class LLVMAMD64MovsNode extends LLVMExpressionNode {
+    private final int elementSize;
+
+    @Child private LLVMLoadNode load;
+    @Child private LLVMStoreNode store;
+    @Child private LLVMAMD64WriteValueNode writeRSI;
+    @Child private LLVMAMD64WriteValueNode writeRDI;
+
+    public LLVMAMD64MovsNode(int elementSize, LLVMLoadNode load, LLVMStoreNode store, LLVMAMD64WriteValueNode writeRSI, LLVMAMD64WriteValueNode writeRDI) {
+        this.elementSize = elementSize;
+        this.load = load;
+        this.store = store;
+        this.writeRSI = writeRSI;
+        this.writeRDI = writeRDI;
+    }
+
+    @Specialization
+    protected Object doNative(VirtualFrame frame, long rsi, long rdi, boolean df) {
+        store.executeWithTarget(LLVMNativePointer.create(rdi), load.executeWithTarget(LLVMNativePointer.create(rsi)));
+        long delta = df ? -elementSize : elementSize;
+        writeRSI.execute(frame, rsi + delta);
+        writeRDI.execute(frame, rdi + delta);
+        return null;
+    }
+
+    @Specialization
+    protected Object doPointer(VirtualFrame frame, Object rsi, Object rdi, boolean df) {
+        store.executeWithTarget(toPointer(rdi), load.executeWithTarget(toPointer(rsi)));
+        long delta = df ? -elementSize : elementSize;
+        writeRSI.execute(frame, advance(rsi, delta));
+        writeRDI.execute(frame, advance(rdi, delta));
+        return null;
+    }
+
+    /**
+     * Registers hold either plain addresses or pointers, depending on what the asm statement got
+     * as input operands.
+     */
+    static LLVMPointer toPointer(Object register) {
+        if (register instanceof Long) {
+            return LLVMNativePointer.create((long) register);
+        } else {
+            return LLVMPointer.cast(register);
+        }
+    }
+
+    static Object advance(Object register, long delta) {
+        if (register instanceof Long) {
+            return (long) register + delta;
+        } else {
+            return LLVMPointer.cast(register).increment(delta);
+        }
+    }
+}
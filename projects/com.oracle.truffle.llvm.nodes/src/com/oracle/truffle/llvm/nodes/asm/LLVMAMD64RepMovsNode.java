@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.asm;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64WriteValueNode;
+import com.oracle.truffle.llvm.nodes.memory.NativeProfiledMemMoveNodeGen;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemMoveNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMLoadNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStoreNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
+
+/**
+ * Executes {@code rep movs*} as a single bulk copy instead of one loop iteration per element. The
+ * bulk copy is only used for native memory with the direction flag cleared and when the regions do
+ * not overlap in a way that makes the element-wise semantics differ from a memmove. All other cases
+ * use a tight load/store loop. RCX, RSI and RDI are updated once at the end.
+ */
+@NodeChildren({@NodeChild(value = "rcx", type = LLVMExpressionNode.class), @NodeChild(value = "rsi", type = LLVMExpressionNode.class),
+                @NodeChild(value = "rdi", type = LLVMExpressionNode.class), @NodeChild(value = "df", type = LLVMExpressionNode.class)})
+public abstract class LLVMAMD64RepMovsNode extends LLVMExpressionNode {
+    private final int elementSize;
+
+    @Child private LLVMLoadNode load;
+    @Child private LLVMStoreNode store;
+    @Child private LLVMMemMoveNode memMove;
+    @Child private LLVMAMD64WriteValueNode writeRCX;
+    @Child private LLVMAMD64WriteValueNode writeRSI;
+    @Child private LLVMAMD64WriteValueNode writeRDI;
+
+    public LLVMAMD64RepMovsNode(int elementSize, LLVMLoadNode load, LLVMStoreNode store, LLVMAMD64WriteValueNode writeRCX, LLVMAMD64WriteValueNode writeRSI,
+                    LLVMAMD64WriteValueNode writeRDI) {
+        this.elementSize = elementSize;
+        this.load = load;
+        this.store = store;
+        this.memMove = NativeProfiledMemMoveNodeGen.create();
+        this.writeRCX = writeRCX;
+        this.writeRSI = writeRSI;
+        this.writeRDI = writeRDI;
+    }
+
+    @Specialization
+    protected Object doNative(VirtualFrame frame, long rcx, long rsi, long rdi, boolean df) {
+        if (rcx != 0) {
+            long length = rcx * elementSize;
+            if (!df && canCopyInBulk(rsi, rdi, length)) {
+                memMove.executeWithTarget(LLVMNativePointer.create(rdi), LLVMNativePointer.create(rsi), length);
+            } else {
+                copyElements(LLVMNativePointer.create(rsi), LLVMNativePointer.create(rdi), rcx, df);
+            }
+            long delta = df ? -length : length;
+            writeRSI.execute(frame, rsi + delta);
+            writeRDI.execute(frame, rdi + delta);
+            writeRCX.execute(frame, 0L);
+        }
+        return null;
+    }
+
+    @Specialization
+    protected Object doPointer(VirtualFrame frame, long rcx, Object rsi, Object rdi, boolean df) {
+        if (rcx != 0) {
+            long length = rcx * elementSize;
+            LLVMPointer source = LLVMAMD64MovsNode.toPointer(rsi);
+            LLVMPointer target = LLVMAMD64MovsNode.toPointer(rdi);
+            if (!df && LLVMNativePointer.isInstance(source) && LLVMNativePointer.isInstance(target) &&
+                            canCopyInBulk(LLVMNativePointer.cast(source).asNative(), LLVMNativePointer.cast(target).asNative(), length)) {
+                memMove.executeWithTarget(target, source, length);
+            } else {
+                copyElements(source, target, rcx, df);
+            }
+            long delta = df ? -length : length;
+            writeRSI.execute(frame, LLVMAMD64MovsNode.advance(rsi, delta));
+            writeRDI.execute(frame, LLVMAMD64MovsNode.advance(rdi, delta));
+            writeRCX.execute(frame, 0L);
+        }
+        return null;
+    }
+
+    /**
+     * A forward element-wise copy is only equivalent to a memmove if the target does not start
+     * inside the source region.
+     */
+    private static boolean canCopyInBulk(long source, long target, long length) {
+        return target == source || Long.compareUnsigned(target - source, length) >= 0;
+    }
+
+    private void copyElements(LLVMPointer source, LLVMPointer target, long count, boolean df) {
+        long step = df ? -elementSize : elementSize;
+        for (long i = 0; i < count; i++) {
+            long offset = i * step;
+            store.executeWithTarget(target.increment(offset), load.executeWithTarget(source.increment(offset)));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.asm;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.nodes.asm.support.LLVMAMD64WriteValueNode;
+import com.oracle.truffle.llvm.nodes.memory.NativeMemSetNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI16StoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI32StoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI64StoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemSetNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStoreNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
+
+/**
+ * Executes {@code rep stos*} as a single bulk store instead of one loop iteration per element. On
+ * native memory, values whose bytes are all equal (most notably zero) are written with one memset.
+ * All other values, and all stores to managed objects, use a tight store loop. RCX and RDI are
+ * updated once at the end.
+ */
+@NodeChildren({@NodeChild(value = "rcx", type = LLVMExpressionNode.class), @NodeChild(value = "rax", type = LLVMExpressionNode.class),
+                @NodeChild(value = "rdi", type = LLVMExpressionNode.class), @NodeChild(value = "df", type = LLVMExpressionNode.class)})
+public abstract class LLVMAMD64RepStosNode extends LLVMExpressionNode {
+    private final int elementSize;
+
+    @Child private LLVMStoreNode store;
+    @Child private LLVMMemSetNode memSet;
+    @Child private LLVMAMD64WriteValueNode writeRCX;
+    @Child private LLVMAMD64WriteValueNode writeRDI;
+
+    LLVMAMD64RepStosNode(int elementSize, LLVMStoreNode store, LLVMAMD64WriteValueNode writeRCX, LLVMAMD64WriteValueNode writeRDI) {
+        this.elementSize = elementSize;
+        this.store = store;
+        this.memSet = NativeMemSetNodeGen.create();
+        this.writeRCX = writeRCX;
+        this.writeRDI = writeRDI;
+    }
+
+    protected Object repNative(VirtualFrame frame, long rcx, Object value, long pattern, long rdi, boolean df) {
+        if (rcx != 0) {
+            long length = rcx * elementSize;
+            long start = df ? rdi - length + elementSize : rdi;
+            fill(LLVMNativePointer.create(start), value, pattern, rcx, true);
+            writeRDI.execute(frame, df ? rdi - length : rdi + length);
+            writeRCX.execute(frame, 0L);
+        }
+        return null;
+    }
+
+    protected Object repPointer(VirtualFrame frame, long rcx, Object value, long pattern, LLVMPointer rdi, boolean df) {
+        if (rcx != 0) {
+            long length = rcx * elementSize;
+            LLVMPointer start = df ? rdi.increment(-length + elementSize) : rdi;
+            fill(start, value, pattern, rcx, LLVMNativePointer.isInstance(rdi));
+            writeRDI.execute(frame, rdi.increment(df ? -length : length));
+            writeRCX.execute(frame, 0L);
+        }
+        return null;
+    }
+
+    private void fill(LLVMPointer start, Object value, long pattern, long count, boolean isNative) {
+        if (isNative && isRepeatedByte(pattern)) {
+            memSet.executeWithTarget(start, (byte) pattern, count * elementSize);
+        } else {
+            for (long i = 0; i < count; i++) {
+                store.executeWithTarget(start.increment(i * elementSize), value);
+            }
+        }
+    }
+
+    private boolean isRepeatedByte(long pattern) {
+        long repeated = (pattern & I8_MASK) * 0x0101_0101_0101_0101L;
+        if (elementSize == I64_SIZE_IN_BYTES) {
+            return pattern == repeated;
+        } else {
+            long mask = (1L << (elementSize * Byte.SIZE)) - 1;
+            return (pattern & mask) == (repeated & mask);
+        }
+    }
+
+    public abstract static class LLVMAMD64RepStosbNode extends LLVMAMD64RepStosNode {
+        public LLVMAMD64RepStosbNode(LLVMAMD64WriteValueNode writeRCX, LLVMAMD64WriteValueNode writeRDI) {
+            super(I8_SIZE_IN_BYTES, LLVMI8StoreNodeGen.create(null, null), writeRCX, writeRDI);
+        }
+
+        @Specialization
+        protected Object doNative(VirtualFrame frame, long rcx, byte al, long rdi, boolean df) {
+            return repNative(frame, rcx, al, al, rdi, df);
+        }
+
+        @Specialization
+        protected Object doPointer(VirtualFrame frame, long rcx, byte al, LLVMPointer rdi, boolean df) {
+            return repPointer(frame, rcx, al, al, rdi, df);
+        }
+    }
+
+    public abstract static class LLVMAMD64RepStoswNode extends LLVMAMD64RepStosNode {
+        public LLVMAMD64RepStoswNode(LLVMAMD64WriteValueNode writeRCX, LLVMAMD64WriteValueNode writeRDI) {
+            super(I16_SIZE_IN_BYTES, LLVMI16StoreNodeGen.create(null, null), writeRCX, writeRDI);
+        }
+
+        @Specialization
+        protected Object doNative(VirtualFrame frame, long rcx, short ax, long rdi, boolean df) {
+            return repNative(frame, rcx, ax, ax, rdi, df);
+        }
+
+        @Specialization
+        protected Object doPointer(VirtualFrame frame, long rcx, short ax, LLVMPointer rdi, boolean df) {
+            return repPointer(frame, rcx, ax, ax, rdi, df);
+        }
+    }
+
+    public abstract static class LLVMAMD64RepStosdNode extends LLVMAMD64RepStosNode {
+        public LLVMAMD64RepStosdNode(LLVMAMD64WriteValueNode writeRCX, LLVMAMD64WriteValueNode writeRDI) {
+            super(I32_SIZE_IN_BYTES, LLVMI32StoreNodeGen.create(null, null), writeRCX, writeRDI);
+        }
+
+        @Specialization
+        protected Object doNative(VirtualFrame frame, long rcx, int eax, long rdi, boolean df) {
+            return repNative(frame, rcx, eax, eax, rdi, df);
+        }
+
+        @Specialization
+        protected Object doPointer(VirtualFrame frame, long rcx, int eax, LLVMPointer rdi, boolean df) {
+            return repPointer(frame, rcx, eax, eax, rdi, df);
+        }
+    }
+
+    public abstract static class LLVMAMD64RepStosqNode extends LLVMAMD64RepStosNode {
+        public LLVMAMD64RepStosqNode(LLVMAMD64WriteValueNode writeRCX, LLVMAMD64WriteValueNode writeRDI) {
+            super(I64_SIZE_IN_BYTES, LLVMI64StoreNodeGen.create(null, null), writeRCX, writeRDI);
+        }
+
+        @Specialization
+        protected Object doNative(VirtualFrame frame, long rcx, long rax, long rdi, boolean df) {
+            return repNative(frame, rcx, rax, rax, rdi, df);
+        }
+
+        @Specialization
+        protected Object doPointer(VirtualFrame frame, long rcx, long rax, LLVMPointer rdi, boolean df) {
+            return repPointer(frame, rcx, rax, rax, rdi, df);
+        }
+    }
+}
@@ -29,45 +29,93 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.support;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 
-public class LLVMAMD64UpdateFlagsNode extends LLVMNode {
+/**
+ * Writes the arithmetic flags produced by an instruction. Flags that are overwritten before they
+ * are read are not materialized: the parser computes the set of live flags after parsing the
+ * whole inline assembly string and passes it to {@link #setLiveFlags(long)}.
+ */
+public abstract class LLVMAMD64UpdateFlagsNode extends LLVMNode {
+    private final long writtenFlags;
+    @CompilationFinal private long liveFlags;
+
+    protected LLVMAMD64UpdateFlagsNode(long writtenFlags) {
+        this.writtenFlags = writtenFlags;
+        this.liveFlags = writtenFlags;
+    }
+
+    /**
+     * @return bit mask (indexed by the {@link LLVMAMD64Flags} constants) of all flags this node
+     *         writes
+     */
+    public long getWrittenFlags() {
+        return writtenFlags;
+    }
+
+    /**
+     * Restricts this node to the given flags; writes to all other flags are skipped.
+     */
+    public void setLiveFlags(long flags) {
+        this.liveFlags = flags & writtenFlags;
+    }
+
+    protected final boolean isLive(long flag) {
+        return (liveFlags & mask(flag)) != 0;
+    }
+
+    public static long mask(long flag) {
+        return 1L << flag;
+    }
+
+    protected final void updatePZS(VirtualFrame frame, FrameSlot pf, FrameSlot zf, FrameSlot sf, boolean sign, boolean zero, byte lowByte) {
+        if (isLive(LLVMAMD64Flags.SF)) {
+            frame.setBoolean(sf, sign);
+        }
+        if (isLive(LLVMAMD64Flags.ZF)) {
+            frame.setBoolean(zf, zero);
+        }
+        if (isLive(LLVMAMD64Flags.PF)) {
+            frame.setBoolean(pf, getParity(lowByte));
+        }
+    }
+
+    protected final void update(VirtualFrame frame, FrameSlot slot, long flag, boolean value) {
+        if (isLive(flag)) {
+            frame.setBoolean(slot, value);
+        }
+    }
+
     public static class LLVMAMD64UpdatePZSFlagsNode extends LLVMAMD64UpdateFlagsNode {
         private final FrameSlot pf;
         private final FrameSlot zf;
         private final FrameSlot sf;
 
         public LLVMAMD64UpdatePZSFlagsNode(FrameSlot pf, FrameSlot zf, FrameSlot sf) {
+            super(mask(LLVMAMD64Flags.PF) | mask(LLVMAMD64Flags.ZF) | mask(LLVMAMD64Flags.SF));
             this.pf = pf;
             this.zf = zf;
             this.sf = sf;
         }
 
         public void execute(VirtualFrame frame, byte value) {
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity(value));
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, value);
         }
 
         public void execute(VirtualFrame frame, short value) {
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, int value) {
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, long value) {
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
     }
 
@@ -78,6 +126,7 @@ public class LLVMAMD64UpdateFlagsNode extends LLVMNode {
         private final FrameSlot of;
 
         public LLVMAMD64UpdatePZSOFlagsNode(FrameSlot pf, FrameSlot zf, FrameSlot sf, FrameSlot of) {
+            super(mask(LLVMAMD64Flags.PF) | mask(LLVMAMD64Flags.ZF) | mask(LLVMAMD64Flags.SF) | mask(LLVMAMD64Flags.OF));
             this.pf = pf;
             this.zf = zf;
             this.sf = sf;
@@ -85,31 +134,23 @@ public class LLVMAMD64UpdateFlagsNode extends LLVMNode {
         }
 
         public void execute(VirtualFrame frame, boolean overflow, byte value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity(value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, short value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, int value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, long value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
     }
 
@@ -121,6 +162,7 @@ public class LLVMAMD64UpdateFlagsNode extends LLVMNode {
         private final FrameSlot of;
 
         public LLVMAMD64UpdateCPZSOFlagsNode(FrameSlot cf, FrameSlot pf, FrameSlot zf, FrameSlot sf, FrameSlot of) {
+            super(mask(LLVMAMD64Flags.CF) | mask(LLVMAMD64Flags.PF) | mask(LLVMAMD64Flags.ZF) | mask(LLVMAMD64Flags.SF) | mask(LLVMAMD64Flags.OF));
             this.cf = cf;
             this.pf = pf;
             this.zf = zf;
@@ -129,35 +171,27 @@ public class LLVMAMD64UpdateFlagsNode extends LLVMNode {
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, byte value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity(value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, short value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, int value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, long value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
     }
 
@@ -170,6 +204,7 @@ public class LLVMAMD64UpdateFlagsNode extends LLVMNode {
         private final FrameSlot of;
 
         public LLVMAMD64UpdateCPAZSOFlagsNode(FrameSlot cf, FrameSlot pf, FrameSlot af, FrameSlot zf, FrameSlot sf, FrameSlot of) {
+            super(mask(LLVMAMD64Flags.CF) | mask(LLVMAMD64Flags.PF) | mask(LLVMAMD64Flags.AF) | mask(LLVMAMD64Flags.ZF) | mask(LLVMAMD64Flags.SF) | mask(LLVMAMD64Flags.OF));
             this.cf = cf;
             this.pf = pf;
             this.af = af;
@@ -179,39 +214,31 @@ public class LLVMAMD64UpdateFlagsNode extends LLVMNode {
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, boolean adjust, byte value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(af, adjust);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity(value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            update(frame, af, LLVMAMD64Flags.AF, adjust);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, boolean adjust, short value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(af, adjust);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            update(frame, af, LLVMAMD64Flags.AF, adjust);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, boolean adjust, int value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(af, adjust);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            update(frame, af, LLVMAMD64Flags.AF, adjust);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
 
         public void execute(VirtualFrame frame, boolean overflow, boolean carry, boolean adjust, long value) {
-            frame.setBoolean(of, overflow);
-            frame.setBoolean(cf, carry);
-            frame.setBoolean(af, adjust);
-            frame.setBoolean(sf, value < 0);
-            frame.setBoolean(zf, value == 0);
-            frame.setBoolean(pf, getParity((byte) value));
+            update(frame, of, LLVMAMD64Flags.OF, overflow);
+            update(frame, cf, LLVMAMD64Flags.CF, carry);
+            update(frame, af, LLVMAMD64Flags.AF, adjust);
+            updatePZS(frame, pf, zf, sf, value < 0, value == 0, (byte) value);
         }
     }
 
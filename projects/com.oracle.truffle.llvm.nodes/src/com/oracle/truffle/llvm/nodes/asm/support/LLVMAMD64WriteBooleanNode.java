@@ -29,12 +29,14 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.support;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 
 public class LLVMAMD64WriteBooleanNode extends LLVMNode {
     private final FrameSlot slot;
+    @CompilationFinal private boolean live = true;
 
     public LLVMAMD64WriteBooleanNode(FrameSlot slot) {
         this.slot = slot;
@@ -44,7 +46,16 @@ public class LLVMAMD64WriteBooleanNode extends LLVMNode {
         return slot;
     }
 
+    /**
+     * Marks this write as dead, i.e., the written value is overwritten before it is read.
+     */
+    public void setLive(boolean live) {
+        this.live = live;
+    }
+
     public void execute(VirtualFrame frame, boolean value) {
-        frame.setBoolean(slot, value);
+        if (live) {
+            frame.setBoolean(slot, value);
+        }
     }
 }
@@ -34,10 +34,14 @@ import java.io.PrintStream;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.SystemContextExtension;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
@@ -45,13 +49,23 @@ import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 
 @NodeChildren({@NodeChild("rax"), @NodeChild("rdi"), @NodeChild("rsi"), @NodeChild("rdx"), @NodeChild("r10"), @NodeChild("r8"), @NodeChild("r9")})
 public abstract class LLVMAMD64SyscallNode extends LLVMExpressionNode {
-    protected static final int NUM_SYSCALLS = 332;
+    /*
+     * Typical syscall sites (e.g. inside libc wrappers) only ever see one or two numbers. Sites
+     * that see more are generic dispatchers and go through the shared table in doI64 instead of
+     * growing a long guard chain.
+     */
+    protected static final int SYSCALL_CACHE_SIZE = 8;
 
     protected LLVMSyscallOperationNode createNode(long rax) {
         return getContextReference().get().getContextExtension(SystemContextExtension.class).createSyscallNode(rax);
     }
 
-    @Specialization(guards = "rax == cachedRax", limit = "NUM_SYSCALLS")
+    @TruffleBoundary
+    private RootCallTarget getSyscallTarget(LLVMContext context, long rax) {
+        return context.getContextExtension(SystemContextExtension.class).getSyscallTarget(getLLVMLanguage(), rax);
+    }
+
+    @Specialization(guards = "rax == cachedRax", limit = "SYSCALL_CACHE_SIZE")
     protected long cachedSyscall(@SuppressWarnings("unused") long rax, Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9,
                     @Cached("rax") @SuppressWarnings("unused") long cachedRax,
                     @Cached("createNode(rax)") LLVMSyscallOperationNode node) {
@@ -65,11 +79,23 @@ public abstract class LLVMAMD64SyscallNode extends LLVMExpressionNode {
         return result;
     }
 
+    /*
+     * Megamorphic syscall site: dispatch through the per-context table of shared syscall call
+     * targets instead of creating a new operation node for every call.
+     */
     @Specialization(replaces = "cachedSyscall")
-    protected long doI64(long rax, Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9) {
-        // TODO: implement big switch with type casts + logic + ...?
-        CompilerDirectives.transferToInterpreter();
-        return createNode(rax).execute(rdi, rsi, rdx, r10, r8, r9);
+    protected long doI64(long rax, Object rdi, Object rsi, Object rdx, Object r10, Object r8, Object r9,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context,
+                    @Cached("create()") IndirectCallNode callNode) {
+        RootCallTarget target = getSyscallTarget(context.get(), rax);
+        if (traceEnabled()) {
+            trace("[sulong] syscall: %s (%s, %s, %s, %s, %s, %s)\n", target.getRootNode(), rdi, rsi, rdx, r10, r8, r9);
+        }
+        long result = (long) callNode.call(target, new Object[]{rdi, rsi, rdx, r10, r8, r9});
+        if (traceEnabled()) {
+            trace("         result: %d\n", result);
+        }
+        return result;
     }
 
     @CompilationFinal private boolean traceEnabledFlag;
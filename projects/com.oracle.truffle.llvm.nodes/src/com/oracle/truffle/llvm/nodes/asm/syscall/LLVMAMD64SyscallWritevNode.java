@@ -29,13 +29,23 @@
  */
 package com.oracle.truffle.llvm.nodes.asm.syscall;
 
+import java.io.IOException;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.posix.LLVMAMD64PosixCallNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMStdStreams;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 public abstract class LLVMAMD64SyscallWritevNode extends LLVMSyscallOperationNode {
+    private static final int IOVEC_SIZE = 2 * Long.BYTES;
+
     @Child private LLVMAMD64PosixCallNode writev;
 
     public LLVMAMD64SyscallWritevNode() {
@@ -48,12 +58,41 @@ public abstract class LLVMAMD64SyscallWritevNode extends LLVMSyscallOperationNod
     }
 
     @Specialization
-    protected long doOp(long fd, LLVMNativePointer ptr, long size) {
+    protected long doOp(long fd, LLVMNativePointer ptr, long size,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        LLVMStdStreams streams = context.get().getStdStreams();
+        if (streams.isRedirectedOutput(fd)) {
+            try {
+                return writev(streams, fd, memory, ptr.asNative(), size);
+            } catch (IOException e) {
+                CompilerDirectives.transferToInterpreter();
+                return -LLVMAMD64Error.EIO;
+            }
+        }
         return (long) writev.execute((int) fd, ptr.asNative(), size);
     }
 
     @Specialization
-    protected long doOp(long fd, long ptr, long size) {
-        return doOp(fd, LLVMNativePointer.create(ptr), size);
+    protected long doOp(long fd, long ptr, long size,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        return doOp(fd, LLVMNativePointer.create(ptr), size, context, memory);
+    }
+
+    /**
+     * Writes the buffers of an {@code iovec} array, each described by a base pointer and a length.
+     */
+    private static long writev(LLVMStdStreams streams, long fd, LLVMMemory memory, long iov, long iovcnt) throws IOException {
+        long written = 0;
+        for (long i = 0; i < iovcnt; i++) {
+            long entry = iov + i * IOVEC_SIZE;
+            long base = memory.getI64(entry);
+            long length = memory.getI64(entry + Long.BYTES);
+            if (length > 0) {
+                written += streams.write(fd, memory, base, length);
+            }
+        }
+        return written;
     }
 }
@@ -82,10 +82,19 @@ public class LLVMBasicBlockNode extends LLVMExpressionNode {
         successorExecutionCount = termInstruction.needsBranchProfiling() ? new long[termInstruction.getSuccessorCount()] : null;
     }
 
-    @ExplodeLoop
     public void executeStatements(VirtualFrame frame) {
+        executeStatements(frame, 0);
+    }
+
+    /**
+     * Executes the statements of this block starting at the given index, which must be a
+     * partial evaluation constant.
+     */
+    @ExplodeLoop
+    public void executeStatements(VirtualFrame frame, int firstStatement) {
+        CompilerAsserts.partialEvaluationConstant(firstStatement);
         blockEntered.enter();
-        for (int i = 0; i < statements.length; i++) {
+        for (int i = firstStatement; i < statements.length; i++) {
             LLVMExpressionNode statement = statements[i];
             try {
                 statement.executeGeneric(frame);
@@ -134,6 +143,10 @@ public class LLVMBasicBlockNode extends LLVMExpressionNode {
         return null;
     }
 
+    public LLVMExpressionNode[] getStatements() {
+        return statements;
+    }
+
     public int getBlockId() {
         return blockId;
     }
@@ -29,23 +29,33 @@
  */
 package com.oracle.truffle.llvm.nodes.control;
 
+import java.util.ArrayList;
+
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.FrameUtil;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.instrumentation.Tag;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.ExplodeLoop.LoopExplosionKind;
 import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.llvm.nodes.base.LLVMBasicBlockNode;
 import com.oracle.truffle.llvm.nodes.base.LLVMFrameNullerUtil;
 import com.oracle.truffle.llvm.nodes.func.LLVMInvokeNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMResumeNode;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMSetJmp;
 import com.oracle.truffle.llvm.nodes.others.LLVMUnreachableNode;
+import com.oracle.truffle.llvm.nodes.vars.LLVMWriteNode;
 import com.oracle.truffle.llvm.runtime.LLVMException;
+import com.oracle.truffle.llvm.runtime.LLVMLongJmpException;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
+import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
+import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
@@ -58,14 +68,53 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
     @CompilationFinal(dimensions = 2) private final FrameSlot[][] afterBlockNuller;
     @Children private final LLVMExpressionNode[] copyArgumentsToFrame;
 
+    // setjmp call sites of this function, null if there are none
+    @CompilationFinal(dimensions = 1) private final int[] setJmpBlocks;
+    @CompilationFinal(dimensions = 1) private final int[] setJmpStatements;
+    @CompilationFinal(dimensions = 1) private final LLVMWriteNode[] setJmpResults;
+    @CompilationFinal private FrameSlot setJmpActivationSlot;
+    @CompilationFinal private FrameSlot stackPointerSlot;
+
     public LLVMDispatchBasicBlockNode(FrameSlot exceptionValueSlot, LLVMBasicBlockNode[] bodyNodes, FrameSlot[][] beforeBlockNuller, FrameSlot[][] afterBlockNuller, LLVMSourceLocation source,
                     LLVMExpressionNode[] copyArgumentsToFrame) {
         this.exceptionValueSlot = exceptionValueSlot;
         this.bodyNodes = bodyNodes;
-        this.beforeBlockNuller = beforeBlockNuller;
-        this.afterBlockNuller = afterBlockNuller;
         this.source = source;
         this.copyArgumentsToFrame = copyArgumentsToFrame;
+
+        ArrayList<LLVMWriteNode> results = new ArrayList<>();
+        ArrayList<Integer> blocks = new ArrayList<>();
+        ArrayList<Integer> statements = new ArrayList<>();
+        for (int i = 0; i < bodyNodes.length; i++) {
+            LLVMExpressionNode[] blockStatements = bodyNodes[i].getStatements();
+            for (int j = 0; j < blockStatements.length; j++) {
+                if (blockStatements[j] instanceof LLVMWriteNode) {
+                    LLVMSetJmp setJmp = NodeUtil.findFirstNodeInstance(blockStatements[j], LLVMSetJmp.class);
+                    if (setJmp != null) {
+                        setJmp.setSite(results.size());
+                        results.add((LLVMWriteNode) blockStatements[j]);
+                        blocks.add(i);
+                        statements.add(j);
+                    }
+                }
+            }
+        }
+
+        if (results.isEmpty()) {
+            this.setJmpResults = null;
+            this.setJmpBlocks = null;
+            this.setJmpStatements = null;
+            this.beforeBlockNuller = beforeBlockNuller;
+            this.afterBlockNuller = afterBlockNuller;
+        } else {
+            this.setJmpResults = results.toArray(new LLVMWriteNode[results.size()]);
+            this.setJmpBlocks = blocks.stream().mapToInt(Integer::intValue).toArray();
+            this.setJmpStatements = statements.stream().mapToInt(Integer::intValue).toArray();
+            // a longjmp may resume after any setjmp, so values that the liveness analysis
+            // considers dead may still be needed
+            this.beforeBlockNuller = new FrameSlot[bodyNodes.length][];
+            this.afterBlockNuller = new FrameSlot[bodyNodes.length][];
+        }
     }
 
     @ExplodeLoop
@@ -85,12 +134,32 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
         CompilerAsserts.compilationConstant(bodyNodes.length);
         int basicBlockIndex = 0;
         int backEdgeCounter = 0;
+        int firstStatement = 0;
         outer: while (basicBlockIndex != LLVMBasicBlockNode.RETURN_FROM_FUNCTION) {
             CompilerAsserts.partialEvaluationConstant(basicBlockIndex);
             LLVMBasicBlockNode bb = bodyNodes[basicBlockIndex];
 
             // execute all statements
-            bb.executeStatements(frame);
+            if (setJmpBlocks == null) {
+                bb.executeStatements(frame);
+            } else {
+                try {
+                    bb.executeStatements(frame, firstStatement);
+                } catch (LLVMLongJmpException e) {
+                    if (isLongJmpTarget(frame, e)) {
+                        for (int i = 0; i < setJmpBlocks.length; i++) {
+                            if (e.getSite() == i) {
+                                resumeAfterSetJmp(frame, i, e);
+                                basicBlockIndex = setJmpBlocks[i];
+                                firstStatement = setJmpStatements[i] + 1;
+                                continue outer;
+                            }
+                        }
+                    }
+                    throw e;
+                }
+                firstStatement = 0;
+            }
 
             // execute control flow node, write phis, null stack frame slots, and dispatch to
             // the correct successor block
@@ -262,6 +331,23 @@ public final class LLVMDispatchBasicBlockNode extends LLVMExpressionNode {
         return returnValue;
     }
 
+    private boolean isLongJmpTarget(VirtualFrame frame, LLVMLongJmpException e) {
+        if (setJmpActivationSlot == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            setJmpActivationSlot = getRootNode().getFrameDescriptor().findOrAddFrameSlot(LLVMLongJmpException.FRAME_SLOT_ID, FrameSlotKind.Long);
+        }
+        return frame.isLong(setJmpActivationSlot) && FrameUtil.getLongSafe(frame, setJmpActivationSlot) == e.getActivation();
+    }
+
+    private void resumeAfterSetJmp(VirtualFrame frame, int site, LLVMLongJmpException e) {
+        if (stackPointerSlot == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            stackPointerSlot = getRootNode().getFrameDescriptor().findFrameSlot(LLVMStack.FRAME_ID);
+        }
+        ((StackPointer) FrameUtil.getObjectSafe(frame, stackPointerSlot)).set(e.getStackPointer());
+        setJmpResults[site].executeWithTarget(frame, e.getValue());
+    }
+
     @ExplodeLoop
     private static void executePhis(VirtualFrame frame, LLVMControlFlowNode controlFlowNode, int successorIndex) {
         LLVMExpressionNode phi = controlFlowNode.getPhiNode(successorIndex);
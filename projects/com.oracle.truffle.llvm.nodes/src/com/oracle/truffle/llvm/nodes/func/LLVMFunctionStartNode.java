@@ -55,13 +55,14 @@ public class LLVMFunctionStartNode extends RootNode {
     private final DebugInformation debugInformation;
 
     public LLVMFunctionStartNode(SourceSection sourceSection, LLVMLanguage language, LLVMExpressionNode node,
-                    FrameDescriptor frameDescriptor, String name, int explicitArgumentsCount, String originalName, Source bcSource, LLVMSourceLocation location) {
+                    FrameDescriptor frameDescriptor, FrameSlot[] frameSlotsToInitialize, String name, int explicitArgumentsCount, String originalName, Source bcSource,
+                    LLVMSourceLocation location) {
         super(language, frameDescriptor);
         this.debugInformation = new DebugInformation(sourceSection, originalName, bcSource, location);
         this.explicitArgumentsCount = explicitArgumentsCount;
         this.node = node;
         this.name = name;
-        this.frameSlotsToInitialize = frameDescriptor.getSlots().toArray(new FrameSlot[0]);
+        this.frameSlotsToInitialize = frameSlotsToInitialize;
     }
 
     @Override
@@ -94,6 +94,8 @@ public class LLVMGlobalRootNode extends RootNode {
             } finally {
                 // if not done already, we want at least call a shutdown command
                 getContext().shutdownThreads();
+                // data written to the standard streams must not stay in their buffers
+                getContext().getStdStreams().flush();
             }
         }
     }
@@ -31,16 +31,20 @@ package com.oracle.truffle.llvm.nodes.func;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.nodes.func.LLVMLandingpadNodeFactory.LLVMCanCatchNodeGen;
 import com.oracle.truffle.llvm.runtime.LLVMBitcodeLibraryFunctions;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMException;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNodeGen;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -54,6 +58,8 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
     private final boolean cleanup;
 
     @Child private LLVMToNativeNode unwindHeaderToNative;
+    @Child private LLVMBitcodeLibraryFunctions.SulongGetExceptionTypeNode getExceptionType;
+    @Child private LLVMToNativeNode exceptionTypeToNative;
 
     public LLVMLandingpadNode(LLVMExpressionNode getStack, LLVMExpressionNode allocateLandingPadValue, FrameSlot exceptionSlot, boolean cleanup,
                     LandingpadEntryNode[] entries) {
@@ -63,6 +69,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
         this.cleanup = cleanup;
         this.entries = entries;
         this.unwindHeaderToNative = LLVMToNativeNode.createToNativeWithTarget();
+        this.exceptionTypeToNative = LLVMToNativeNode.createToNativeWithTarget();
     }
 
     @CompilationFinal private LLVMMemory memory;
@@ -75,6 +82,15 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
         return memory;
     }
 
+    private long getExceptionType(LLVMStack.StackPointer stack, Object unwindHeader) {
+        if (getExceptionType == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            LLVMContext context = getContextReference().get();
+            getExceptionType = insert(new LLVMBitcodeLibraryFunctions.SulongGetExceptionTypeNode(context));
+        }
+        return exceptionTypeToNative.executeWithTarget(getExceptionType.getType(stack, unwindHeader)).asNative();
+    }
+
     @Override
     public Object executeGeneric(VirtualFrame frame) {
         try {
@@ -82,7 +98,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
             Object unwindHeader = exception.getUnwindHeader();
             LLVMStack.StackPointer stack = (LLVMStack.StackPointer) getStack.executeGeneric(frame);
 
-            int clauseId = getEntryIdentifier(frame, stack, unwindHeader);
+            int clauseId = entries.length == 0 ? 0 : getEntryIdentifier(frame, stack, unwindHeader, getExceptionType(stack, unwindHeader));
             if (clauseId == 0 && !cleanup) {
                 throw exception;
             } else {
@@ -98,9 +114,9 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
     }
 
     @ExplodeLoop
-    private int getEntryIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader) {
+    private int getEntryIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader, long exceptionType) {
         for (int i = 0; i < entries.length; i++) {
-            int clauseId = entries[i].getIdentifier(frame, stack, unwindHeader);
+            int clauseId = entries[i].getIdentifier(frame, stack, unwindHeader, exceptionType);
             if (clauseId != 0) {
                 return clauseId;
             }
@@ -110,7 +126,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
 
     public abstract static class LandingpadEntryNode extends LLVMExpressionNode {
 
-        public abstract int getIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader);
+        public abstract int getIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader, long exceptionType);
 
         @Override
         public final Object executeGeneric(VirtualFrame frame) {
@@ -122,23 +138,15 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
     public static final class LandingpadCatchEntryNode extends LandingpadEntryNode {
 
         @Child private LLVMToNativeNode catchType;
-        @Child private LLVMBitcodeLibraryFunctions.SulongCanCatchNode canCatch;
+        @Child private LLVMCanCatchNode canCatch;
 
         public LandingpadCatchEntryNode(LLVMExpressionNode catchType) {
             this.catchType = LLVMToNativeNodeGen.create(catchType);
-        }
-
-        public LLVMBitcodeLibraryFunctions.SulongCanCatchNode getCanCatch() {
-            if (canCatch == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                LLVMContext context = getContextReference().get();
-                this.canCatch = insert(new LLVMBitcodeLibraryFunctions.SulongCanCatchNode(context));
-            }
-            return canCatch;
+            this.canCatch = LLVMCanCatchNodeGen.create();
         }
 
         @Override
-        public int getIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader) {
+        public int getIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader, long exceptionType) {
             LLVMNativePointer catchAddress = catchType.execute(frame);
             if (catchAddress.asNative() == 0) {
                 /*
@@ -147,7 +155,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
                  */
                 return 1;
             }
-            if (getCanCatch().canCatch(stack, unwindHeader, catchAddress) != 0) {
+            if (canCatch.execute(stack, unwindHeader, exceptionType, catchAddress)) {
                 return (int) catchAddress.asNative();
             }
             return 0;
@@ -157,24 +165,19 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
     public static final class LandingpadFilterEntryNode extends LandingpadEntryNode {
 
         @Children private final LLVMToNativeNode[] filterTypes;
-        @Child private LLVMBitcodeLibraryFunctions.SulongCanCatchNode canCatch;
+        @Children private final LLVMCanCatchNode[] canCatch;
 
         public LandingpadFilterEntryNode(LLVMToNativeNode[] filterTypes) {
             this.filterTypes = filterTypes;
-        }
-
-        public LLVMBitcodeLibraryFunctions.SulongCanCatchNode getCanCatch() {
-            if (canCatch == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                LLVMContext context = getContextReference().get();
-                this.canCatch = insert(new LLVMBitcodeLibraryFunctions.SulongCanCatchNode(context));
+            this.canCatch = new LLVMCanCatchNode[filterTypes.length];
+            for (int i = 0; i < filterTypes.length; i++) {
+                canCatch[i] = LLVMCanCatchNodeGen.create();
             }
-            return canCatch;
         }
 
         @Override
-        public int getIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader) {
-            if (!filterMatches(frame, stack, unwindHeader)) {
+        public int getIdentifier(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader, long exceptionType) {
+            if (!filterMatches(frame, stack, unwindHeader, exceptionType)) {
                 // when this clause is matched, the selector value has to be negative
                 return -1;
             }
@@ -182,7 +185,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
         }
 
         @ExplodeLoop
-        private boolean filterMatches(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader) {
+        private boolean filterMatches(VirtualFrame frame, LLVMStack.StackPointer stack, Object unwindHeader, long exceptionType) {
             /*
              * Landingpad should be entered if the exception being thrown does not match any of the
              * types in the list
@@ -196,7 +199,7 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
                      */
                     return true;
                 }
-                if (getCanCatch().canCatch(stack, unwindHeader, filterAddress) != 0) {
+                if (canCatch[i].execute(stack, unwindHeader, exceptionType, filterAddress)) {
                     return true;
                 }
             }
@@ -204,4 +207,40 @@ public final class LLVMLandingpadNode extends LLVMExpressionNode {
         }
     }
 
+    /**
+     * Caches whether a clause type can catch a thrown type, so that non-matching clauses do not
+     * search the type_info hierarchy on every throw. A successful match has to call the bitcode
+     * helper nevertheless, because it stores the adjusted pointer of the thrown object in the
+     * exception.
+     */
+    abstract static class LLVMCanCatchNode extends LLVMNode {
+
+        protected static final int CACHE_LIMIT = 4;
+
+        @Child private LLVMBitcodeLibraryFunctions.SulongCanCatchNode canCatch;
+
+        abstract boolean execute(LLVMStack.StackPointer stack, Object unwindHeader, long exceptionType, LLVMNativePointer catchType);
+
+        @Specialization(limit = "CACHE_LIMIT", guards = {"exceptionType == cachedExceptionType", "catchType.asNative() == cachedCatchType"})
+        protected boolean doCached(LLVMStack.StackPointer stack, Object unwindHeader, @SuppressWarnings("unused") long exceptionType, LLVMNativePointer catchType,
+                        @Cached("exceptionType") @SuppressWarnings("unused") long cachedExceptionType,
+                        @Cached("catchType.asNative()") @SuppressWarnings("unused") long cachedCatchType,
+                        @Cached("canCatch(stack, unwindHeader, catchType)") boolean matches) {
+            return matches && canCatch(stack, unwindHeader, catchType);
+        }
+
+        @Specialization(replaces = "doCached")
+        protected boolean doGeneric(LLVMStack.StackPointer stack, Object unwindHeader, @SuppressWarnings("unused") long exceptionType, LLVMNativePointer catchType) {
+            return canCatch(stack, unwindHeader, catchType);
+        }
+
+        protected boolean canCatch(LLVMStack.StackPointer stack, Object unwindHeader, LLVMNativePointer catchType) {
+            if (canCatch == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                LLVMContext context = getContextReference().get();
+                canCatch = insert(new LLVMBitcodeLibraryFunctions.SulongCanCatchNode(context));
+            }
+            return canCatch.canCatch(stack, unwindHeader, catchType) != 0;
+        }
+    }
 }
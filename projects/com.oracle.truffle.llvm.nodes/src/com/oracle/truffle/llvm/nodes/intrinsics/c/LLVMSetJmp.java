@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.intrinsics.c;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.FrameUtil;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMBuiltin;
+import com.oracle.truffle.llvm.runtime.LLVMLongJmpException;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
+import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+/**
+ * Implements setjmp and sigsetjmp. The node accesses the frame of the calling function and must
+ * therefore not be hidden behind a call target. The jump buffer records the activation of the
+ * calling function, the call site and the stack pointer; {@link LLVMLongJmp} unwinds back to that
+ * activation, which then resumes after the call site (see
+ * {@code LLVMDispatchBasicBlockNode}). The signal mask is not saved.
+ */
+@NodeChild(type = LLVMExpressionNode.class)
+public abstract class LLVMSetJmp extends LLVMBuiltin {
+
+    static final int ACTIVATION_OFFSET = 0;
+    static final int SITE_OFFSET = 8;
+    static final int STACK_POINTER_OFFSET = 16;
+
+    @CompilationFinal private FrameSlot stackPointerSlot;
+    @CompilationFinal private FrameSlot activationSlot;
+    @CompilationFinal private int site = -1;
+
+    public void setSite(int site) {
+        this.site = site;
+    }
+
+    private FrameSlot getStackPointerSlot() {
+        if (stackPointerSlot == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            stackPointerSlot = getRootNode().getFrameDescriptor().findFrameSlot(LLVMStack.FRAME_ID);
+        }
+        return stackPointerSlot;
+    }
+
+    private FrameSlot getActivationSlot() {
+        if (activationSlot == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            activationSlot = getRootNode().getFrameDescriptor().findOrAddFrameSlot(LLVMLongJmpException.FRAME_SLOT_ID, FrameSlotKind.Long);
+        }
+        return activationSlot;
+    }
+
+    @Specialization
+    protected int doNative(VirtualFrame frame, LLVMNativePointer env,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        save(frame, env.asNative(), memory);
+        return 0;
+    }
+
+    @Specialization
+    protected int doGlobal(VirtualFrame frame, LLVMGlobal env,
+                    @Cached("createToNativeWithTarget()") LLVMToNativeNode globalAccess,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        save(frame, globalAccess.executeWithTarget(env).asNative(), memory);
+        return 0;
+    }
+
+    private void save(VirtualFrame frame, long env, LLVMMemory memory) {
+        assert site >= 0 : "setjmp call site was not registered";
+        StackPointer stackPointer = (StackPointer) FrameUtil.getObjectSafe(frame, getStackPointerSlot());
+        FrameSlot slot = getActivationSlot();
+        long activation;
+        if (frame.isLong(slot)) {
+            activation = FrameUtil.getLongSafe(frame, slot);
+        } else {
+            activation = stackPointer.nextSetJmpActivation();
+            frame.setLong(slot, activation);
+        }
+        memory.putI64(env + ACTIVATION_OFFSET, activation);
+        memory.putI64(env + SITE_OFFSET, site);
+        memory.putI64(env + STACK_POINTER_OFFSET, stackPointer.get(memory));
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.intrinsics.c;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.func.LLVMLookupDispatchNode;
+import com.oracle.truffle.llvm.nodes.func.LLVMLookupDispatchNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMIntrinsic;
+import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMPointer;
+import com.oracle.truffle.llvm.runtime.types.FunctionType;
+import com.oracle.truffle.llvm.runtime.types.PointerType;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+import com.oracle.truffle.llvm.runtime.types.Type;
+
+/**
+ * Intrinsics for {@code qsort} and {@code bsearch}. The comparator is called through an inline
+ * cache of the intrinsic, so that a call site with a single comparator can inline it. The sort
+ * neither recurses nor allocates: it is an introsort (median-of-three quicksort that falls back to
+ * heapsort and finishes small ranges with insertion sort) that swaps elements in place.
+ */
+public abstract class LLVMSortIntrinsic extends LLVMIntrinsic {
+
+    private static final FunctionType COMPARATOR_TYPE = new FunctionType(PrimitiveType.I32, new Type[]{new PointerType(null), PointerType.I8, PointerType.I8}, false);
+
+    @Child private LLVMLookupDispatchNode comparatorDispatch = LLVMLookupDispatchNodeGen.create(COMPARATOR_TYPE);
+
+    @CompilationFinal private LLVMMemory memory;
+
+    protected LLVMMemory getMemory() {
+        if (memory == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            memory = getLLVMMemory();
+        }
+        return memory;
+    }
+
+    protected boolean isAutoDerefHandle(LLVMNativePointer address) {
+        return getMemory().isDerefMemory(address);
+    }
+
+    protected int compare(StackPointer stackPointer, Object comparator, Object a, Object b) {
+        return (int) comparatorDispatch.executeDispatch(comparator, new Object[]{stackPointer, a, b});
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class),
+                    @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMQsort extends LLVMSortIntrinsic {
+
+        private static final int INSERTION_SORT_THRESHOLD = 16;
+
+        @Specialization(guards = "!isAutoDerefHandle(base)")
+        protected Object doNative(StackPointer stackPointer, LLVMNativePointer base, long count, long size, Object comparator) {
+            sort(stackPointer, comparator, base.asNative(), count, size);
+            return null;
+        }
+
+        @Specialization(replaces = "doNative")
+        protected Object doGeneric(StackPointer stackPointer, Object base, long count, long size, Object comparator,
+                        @Cached("createToNativeWithTarget()") LLVMToNativeNode toNative) {
+            sort(stackPointer, comparator, toNative.executeWithTarget(base).asNative(), count, size);
+            return null;
+        }
+
+        private void sort(StackPointer stackPointer, Object comparator, long base, long count, long size) {
+            if (count < 2 || size == 0) {
+                return;
+            }
+            // the smaller partition is always sorted first, so the stack never exceeds log2(count)
+            long[] lows = new long[Long.SIZE];
+            long[] highs = new long[Long.SIZE];
+            int[] depths = new int[Long.SIZE];
+            int top = 0;
+            lows[top] = 0;
+            highs[top] = count - 1;
+            depths[top] = 2 * (Long.SIZE - Long.numberOfLeadingZeros(count));
+            top++;
+
+            while (top > 0) {
+                top--;
+                long lo = lows[top];
+                long hi = highs[top];
+                int depth = depths[top];
+                while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+                    if (depth == 0) {
+                        heapSort(stackPointer, comparator, base, lo, hi, size);
+                        hi = lo;
+                        break;
+                    }
+                    depth--;
+                    long pivot = partition(stackPointer, comparator, base, lo, hi, size);
+                    if (pivot - lo < hi - pivot) {
+                        lows[top] = pivot + 1;
+                        highs[top] = hi;
+                        depths[top] = depth;
+                        hi = pivot - 1;
+                    } else {
+                        lows[top] = lo;
+                        highs[top] = pivot - 1;
+                        depths[top] = depth;
+                        lo = pivot + 1;
+                    }
+                    top++;
+                }
+                insertionSort(stackPointer, comparator, base, lo, hi, size);
+            }
+        }
+
+        /**
+         * Partitions {@code [lo, hi]} around the median of the first, middle and last element and
+         * returns the final index of the pivot. Requires at least three elements.
+         */
+        private long partition(StackPointer stackPointer, Object comparator, long base, long lo, long hi, long size) {
+            long mid = lo + (hi - lo) / 2;
+            if (compareAt(stackPointer, comparator, base, mid, lo, size) < 0) {
+                swap(base, mid, lo, size);
+            }
+            if (compareAt(stackPointer, comparator, base, hi, mid, size) < 0) {
+                swap(base, hi, mid, size);
+                if (compareAt(stackPointer, comparator, base, mid, lo, size) < 0) {
+                    swap(base, mid, lo, size);
+                }
+            }
+            // element lo is a sentinel for j, element hi - 1 (the pivot) is a sentinel for i
+            long pivot = hi - 1;
+            swap(base, mid, pivot, size);
+            long i = lo;
+            long j = pivot;
+            while (true) {
+                do {
+                    i++;
+                } while (compareAt(stackPointer, comparator, base, i, pivot, size) < 0);
+                do {
+                    j--;
+                } while (compareAt(stackPointer, comparator, base, j, pivot, size) > 0);
+                if (i >= j) {
+                    break;
+                }
+                swap(base, i, j, size);
+            }
+            swap(base, i, pivot, size);
+            return i;
+        }
+
+        private void insertionSort(StackPointer stackPointer, Object comparator, long base, long lo, long hi, long size) {
+            for (long i = lo + 1; i <= hi; i++) {
+                for (long j = i; j > lo && compareAt(stackPointer, comparator, base, j - 1, j, size) > 0; j--) {
+                    swap(base, j - 1, j, size);
+                }
+            }
+        }
+
+        private void heapSort(StackPointer stackPointer, Object comparator, long base, long lo, long hi, long size) {
+            long count = hi - lo + 1;
+            long heap = base + lo * size;
+            for (long i = count / 2 - 1; i >= 0; i--) {
+                siftDown(stackPointer, comparator, heap, i, count, size);
+            }
+            for (long end = count - 1; end > 0; end--) {
+                swap(heap, 0, end, size);
+                siftDown(stackPointer, comparator, heap, 0, end, size);
+            }
+        }
+
+        private void siftDown(StackPointer stackPointer, Object comparator, long heap, long start, long count, long size) {
+            long root = start;
+            long child;
+            while ((child = 2 * root + 1) < count) {
+                if (child + 1 < count && compareAt(stackPointer, comparator, heap, child, child + 1, size) < 0) {
+                    child++;
+                }
+                if (compareAt(stackPointer, comparator, heap, root, child, size) >= 0) {
+                    return;
+                }
+                swap(heap, root, child, size);
+                root = child;
+            }
+        }
+
+        private int compareAt(StackPointer stackPointer, Object comparator, long base, long a, long b, long size) {
+            return compare(stackPointer, comparator, LLVMNativePointer.create(base + a * size), LLVMNativePointer.create(base + b * size));
+        }
+
+        private void swap(long base, long a, long b, long size) {
+            LLVMMemory mem = getMemory();
+            long ptrA = base + a * size;
+            long ptrB = base + b * size;
+            long offset = 0;
+            for (; offset + Long.BYTES <= size; offset += Long.BYTES) {
+                long value = mem.getI64(ptrA + offset);
+                mem.putI64(ptrA + offset, mem.getI64(ptrB + offset));
+                mem.putI64(ptrB + offset, value);
+            }
+            for (; offset < size; offset++) {
+                byte value = mem.getI8(ptrA + offset);
+                mem.putI8(ptrA + offset, mem.getI8(ptrB + offset));
+                mem.putI8(ptrB + offset, value);
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class),
+                    @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
+    public abstract static class LLVMBsearch extends LLVMSortIntrinsic {
+
+        @Specialization
+        protected Object doOp(StackPointer stackPointer, Object key, LLVMPointer base, long count, long size, Object comparator) {
+            return search(stackPointer, key, base, count, size, comparator);
+        }
+
+        @Specialization
+        protected Object doGlobal(StackPointer stackPointer, Object key, LLVMGlobal base, long count, long size, Object comparator,
+                        @Cached("createToNativeWithTarget()") LLVMToNativeNode globalAccess) {
+            return search(stackPointer, key, globalAccess.executeWithTarget(base), count, size, comparator);
+        }
+
+        private Object search(StackPointer stackPointer, Object key, LLVMPointer base, long count, long size, Object comparator) {
+            long lo = 0;
+            long hi = count;
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                LLVMPointer element = base.increment(mid * size);
+                int result = compare(stackPointer, comparator, key, element);
+                if (result < 0) {
+                    hi = mid;
+                } else if (result > 0) {
+                    lo = mid + 1;
+                } else {
+                    return element;
+                }
+            }
+            return LLVMNativePointer.createNull();
+        }
+    }
+}
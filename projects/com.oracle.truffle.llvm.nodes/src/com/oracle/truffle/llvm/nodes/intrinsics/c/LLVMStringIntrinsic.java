@@ -0,0 +1,523 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.intrinsics.c;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNode.LLVMIncrementPointerNode;
+import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNodeGen.LLVMIncrementPointerNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMI8LoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
+import com.oracle.truffle.llvm.runtime.interop.LLVMAsForeignNode;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemMoveNode;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemSetNode;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMLoadNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStoreNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+/**
+ * Intrinsics for the string and memory functions of the C library. Native memory is scanned eight
+ * bytes at a time (SWAR): a word is only read if it does not cross a page boundary, so scanning
+ * beyond the end of a string never touches an unmapped page. All other pointers are accessed byte
+ * by byte through the regular load and store nodes. Like the bitcode implementations in
+ * {@code string.c}, {@code strlen} and {@code strcmp} respect the size of foreign arrays.
+ */
+public abstract class LLVMStringIntrinsic extends LLVMExpressionNode {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long LOWS = 0x7f7f7f7f7f7f7f7fL;
+    private static final long PAGE_SIZE = 4096;
+
+    @CompilationFinal private LLVMMemory memory;
+
+    @Child private LLVMLoadNode load;
+    @Child private LLVMStoreNode store;
+    @Child private LLVMIncrementPointerNode increment;
+    @Child private LLVMAsForeignNode asForeign;
+    @Child private Node hasSize;
+    @Child private Node getSize;
+    @Child private ForeignToLLVM toI64;
+
+    protected LLVMMemory getMemory() {
+        if (memory == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            memory = getLLVMMemory();
+        }
+        return memory;
+    }
+
+    protected boolean isAutoDerefHandle(LLVMNativePointer address) {
+        return getMemory().isDerefMemory(address);
+    }
+
+    /**
+     * @return a mask with the highest bit of the lowest zero byte of {@code word} set (higher
+     *         bytes may contain false positives), or 0 if there is no zero byte
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGHS;
+    }
+
+    /**
+     * @return a mask with the highest bit of every non-zero byte of {@code word} set
+     */
+    private static long nonZeroBytes(long word) {
+        return (((word & LOWS) + LOWS) | word) & HIGHS;
+    }
+
+    private static int firstByte(long mask) {
+        return Long.numberOfTrailingZeros(mask) >>> 3;
+    }
+
+    private static int byteAt(long word, int index) {
+        return (int) (word >>> (index * Byte.SIZE)) & 0xFF;
+    }
+
+    /**
+     * Sizes are unsigned, treat values beyond {@link Long#MAX_VALUE} as unlimited.
+     */
+    private static long limit(long n) {
+        return n < 0 ? Long.MAX_VALUE : n;
+    }
+
+    private static boolean canReadWord(long address) {
+        return (address & (PAGE_SIZE - 1)) <= PAGE_SIZE - Long.BYTES;
+    }
+
+    public static long strlen(LLVMMemory memory, long address) {
+        return strnlen(memory, address, Long.MAX_VALUE);
+    }
+
+    public static long strnlen(LLVMMemory memory, long address, long limit) {
+        long i = 0;
+        while (i < limit) {
+            if (canReadWord(address + i) && limit - i >= Long.BYTES) {
+                long zeros = zeroBytes(memory.getI64(address + i));
+                if (zeros != 0) {
+                    return i + firstByte(zeros);
+                }
+                i += Long.BYTES;
+            } else {
+                if (memory.getI8(address + i) == 0) {
+                    return i;
+                }
+                i++;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Scans an {@code int[]} backed virtual allocation; words and bytes are only read within the
+     * bounds of the array. A string without terminator ends at the end of the allocation.
+     */
+    public static long strlen(UnsafeArrayAccess access, LLVMVirtualAllocationAddress address) {
+        int[] array = address.getObject();
+        long end = (long) array.length * Integer.BYTES;
+        long offset = address.getOffset();
+        long i = offset;
+        while (i + Long.BYTES <= end) {
+            long zeros = zeroBytes(access.getI64(array, i));
+            if (zeros != 0) {
+                return i - offset + firstByte(zeros);
+            }
+            i += Long.BYTES;
+        }
+        while (i < end) {
+            if (access.getI8(array, i) == 0) {
+                return i - offset;
+            }
+            i++;
+        }
+        return Math.max(end - offset, 0);
+    }
+
+    private static int compare(LLVMMemory memory, long a, long b, long limit, boolean stopAtZero) {
+        long i = 0;
+        while (i < limit) {
+            if (limit - i >= Long.BYTES && (!stopAtZero || (canReadWord(a + i) && canReadWord(b + i)))) {
+                long wordA = memory.getI64(a + i);
+                long wordB = memory.getI64(b + i);
+                long mask = nonZeroBytes(wordA ^ wordB);
+                if (stopAtZero) {
+                    mask |= zeroBytes(wordA);
+                }
+                if (mask != 0) {
+                    int index = firstByte(mask);
+                    return byteAt(wordA, index) - byteAt(wordB, index);
+                }
+                i += Long.BYTES;
+            } else {
+                int byteA = Byte.toUnsignedInt(memory.getI8(a + i));
+                int byteB = Byte.toUnsignedInt(memory.getI8(b + i));
+                if (byteA != byteB || (stopAtZero && byteA == 0)) {
+                    return byteA - byteB;
+                }
+                i++;
+            }
+        }
+        return 0;
+    }
+
+    private static long find(LLVMMemory memory, long address, byte value, long limit, boolean stopAtZero) {
+        long pattern = (value & 0xFFL) * ONES;
+        long i = 0;
+        while (i < limit) {
+            if (limit - i >= Long.BYTES && (!stopAtZero || canReadWord(address + i))) {
+                long word = memory.getI64(address + i);
+                long mask = zeroBytes(word ^ pattern);
+                if (stopAtZero) {
+                    mask |= zeroBytes(word);
+                }
+                if (mask != 0) {
+                    int index = firstByte(mask);
+                    return (byte) byteAt(word, index) == value ? i + index : -1;
+                }
+                i += Long.BYTES;
+            } else {
+                byte b = memory.getI8(address + i);
+                if (b == value) {
+                    return i;
+                } else if (stopAtZero && b == 0) {
+                    return -1;
+                }
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    protected byte loadI8(Object address) {
+        if (load == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            load = insert(LLVMI8LoadNodeGen.create(null));
+        }
+        return (byte) load.executeWithTarget(address);
+    }
+
+    protected void storeI8(Object address, byte value) {
+        if (store == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            store = insert(LLVMI8StoreNodeGen.create(null, null));
+        }
+        store.executeWithTarget(address, value);
+    }
+
+    protected Object increment(Object address, int value) {
+        if (increment == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            increment = insert(LLVMIncrementPointerNodeGen.create());
+        }
+        return increment.executeWithTarget(address, value);
+    }
+
+    /**
+     * @return the size of a foreign array, or -1 if {@code address} does not point to a foreign
+     *         object with a size
+     */
+    protected long foreignSize(Object address) {
+        if (!LLVMManagedPointer.isInstance(address)) {
+            return -1;
+        }
+        if (asForeign == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            asForeign = insert(LLVMAsForeignNode.createOptional());
+            hasSize = insert(Message.HAS_SIZE.createNode());
+            getSize = insert(Message.GET_SIZE.createNode());
+            toI64 = insert(ForeignToLLVM.create(ForeignToLLVMType.I64));
+        }
+        TruffleObject foreign = asForeign.execute(LLVMManagedPointer.cast(address));
+        if (foreign == null || !ForeignAccess.sendHasSize(hasSize, foreign)) {
+            return -1;
+        }
+        try {
+            return (long) toI64.executeWithTarget(ForeignAccess.sendGetSize(getSize, foreign));
+        } catch (UnsupportedMessageException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NodeChild(value = "s", type = LLVMExpressionNode.class)
+    public abstract static class LLVMStrlen extends LLVMStringIntrinsic {
+
+        @Specialization(guards = "!isAutoDerefHandle(s)")
+        protected long doNative(LLVMNativePointer s) {
+            return strlen(getMemory(), s.asNative());
+        }
+
+        @Specialization
+        protected long doVirtual(LLVMVirtualAllocationAddress s,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess access) {
+            return strlen(access, s);
+        }
+
+        @Fallback
+        protected long doGeneric(Object s) {
+            long size = foreignSize(s);
+            if (size >= 0) {
+                return size;
+            }
+            Object ptr = s;
+            long length = 0;
+            while (loadI8(ptr) != 0) {
+                length++;
+                ptr = increment(ptr, Byte.BYTES);
+            }
+            return length;
+        }
+    }
+
+    @NodeChildren({@NodeChild(value = "s1", type = LLVMExpressionNode.class), @NodeChild(value = "s2", type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrcmp extends LLVMStringIntrinsic {
+
+        @Specialization(guards = {"!isAutoDerefHandle(s1)", "!isAutoDerefHandle(s2)"})
+        protected int doNative(LLVMNativePointer s1, LLVMNativePointer s2) {
+            return compare(getMemory(), s1.asNative(), s2.asNative(), Long.MAX_VALUE, true);
+        }
+
+        @Fallback
+        protected int doGeneric(Object s1, Object s2) {
+            long size1 = foreignSize(s1);
+            long size2 = foreignSize(s2);
+            long length = Math.min(size1 < 0 ? Long.MAX_VALUE : size1, size2 < 0 ? Long.MAX_VALUE : size2);
+            Object p1 = s1;
+            Object p2 = s2;
+            for (long i = 0; i < length; i++) {
+                byte c1 = loadI8(p1);
+                byte c2 = loadI8(p2);
+                if (c1 == 0 || c1 != c2) {
+                    return Byte.toUnsignedInt(c1) - Byte.toUnsignedInt(c2);
+                }
+                p1 = increment(p1, Byte.BYTES);
+                p2 = increment(p2, Byte.BYTES);
+            }
+            if (size1 > length) {
+                return loadI8(p1);
+            } else if (size2 > length) {
+                return -loadI8(p2);
+            } else {
+                return 0;
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(value = "s1", type = LLVMExpressionNode.class), @NodeChild(value = "s2", type = LLVMExpressionNode.class),
+                    @NodeChild(value = "n", type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrncmp extends LLVMStringIntrinsic {
+
+        @Specialization(guards = {"!isAutoDerefHandle(s1)", "!isAutoDerefHandle(s2)"})
+        protected int doNative(LLVMNativePointer s1, LLVMNativePointer s2, long n) {
+            return compare(getMemory(), s1.asNative(), s2.asNative(), limit(n), true);
+        }
+
+        @Specialization(replaces = "doNative")
+        protected int doGeneric(Object s1, Object s2, long n) {
+            Object p1 = s1;
+            Object p2 = s2;
+            for (long i = 0; Long.compareUnsigned(i, n) < 0; i++) {
+                int c1 = Byte.toUnsignedInt(loadI8(p1));
+                int c2 = Byte.toUnsignedInt(loadI8(p2));
+                if (c1 != c2 || c1 == 0) {
+                    return c1 - c2;
+                }
+                p1 = increment(p1, Byte.BYTES);
+                p2 = increment(p2, Byte.BYTES);
+            }
+            return 0;
+        }
+    }
+
+    @NodeChildren({@NodeChild(value = "s1", type = LLVMExpressionNode.class), @NodeChild(value = "s2", type = LLVMExpressionNode.class),
+                    @NodeChild(value = "n", type = LLVMExpressionNode.class)})
+    public abstract static class LLVMMemcmp extends LLVMStringIntrinsic {
+
+        @Specialization(guards = {"!isAutoDerefHandle(s1)", "!isAutoDerefHandle(s2)"})
+        protected int doNative(LLVMNativePointer s1, LLVMNativePointer s2, long n) {
+            return compare(getMemory(), s1.asNative(), s2.asNative(), limit(n), false);
+        }
+
+        @Specialization(replaces = "doNative")
+        protected int doGeneric(Object s1, Object s2, long n) {
+            Object p1 = s1;
+            Object p2 = s2;
+            for (long i = 0; Long.compareUnsigned(i, n) < 0; i++) {
+                int c1 = Byte.toUnsignedInt(loadI8(p1));
+                int c2 = Byte.toUnsignedInt(loadI8(p2));
+                if (c1 != c2) {
+                    return c1 - c2;
+                }
+                p1 = increment(p1, Byte.BYTES);
+                p2 = increment(p2, Byte.BYTES);
+            }
+            return 0;
+        }
+    }
+
+    @NodeChildren({@NodeChild(value = "s", type = LLVMExpressionNode.class), @NodeChild(value = "c", type = LLVMExpressionNode.class),
+                    @NodeChild(value = "n", type = LLVMExpressionNode.class)})
+    public abstract static class LLVMMemchr extends LLVMStringIntrinsic {
+
+        @Specialization(guards = "!isAutoDerefHandle(s)")
+        protected Object doNative(LLVMNativePointer s, int c, long n) {
+            long index = find(getMemory(), s.asNative(), (byte) c, limit(n), false);
+            return index < 0 ? LLVMNativePointer.createNull() : s.increment(index);
+        }
+
+        @Specialization(replaces = "doNative")
+        protected Object doGeneric(Object s, int c, long n) {
+            Object ptr = s;
+            for (long i = 0; Long.compareUnsigned(i, n) < 0; i++) {
+                if (loadI8(ptr) == (byte) c) {
+                    return ptr;
+                }
+                ptr = increment(ptr, Byte.BYTES);
+            }
+            return LLVMNativePointer.createNull();
+        }
+    }
+
+    @NodeChildren({@NodeChild(value = "s", type = LLVMExpressionNode.class), @NodeChild(value = "c", type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrchr extends LLVMStringIntrinsic {
+
+        @Specialization(guards = "!isAutoDerefHandle(s)")
+        protected Object doNative(LLVMNativePointer s, int c) {
+            long index = find(getMemory(), s.asNative(), (byte) c, Long.MAX_VALUE, true);
+            return index < 0 ? LLVMNativePointer.createNull() : s.increment(index);
+        }
+
+        @Specialization(replaces = "doNative")
+        protected Object doGeneric(Object s, int c) {
+            Object ptr = s;
+            while (true) {
+                byte b = loadI8(ptr);
+                if (b == (byte) c) {
+                    return ptr;
+                } else if (b == 0) {
+                    return LLVMNativePointer.createNull();
+                }
+                ptr = increment(ptr, Byte.BYTES);
+            }
+        }
+    }
+
+    @NodeChildren({@NodeChild(value = "dest", type = LLVMExpressionNode.class), @NodeChild(value = "src", type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrcpy extends LLVMStringIntrinsic {
+
+        @Child private LLVMMemMoveNode memmove;
+
+        public LLVMStrcpy(LLVMMemMoveNode memmove) {
+            this.memmove = memmove;
+        }
+
+        @Specialization(guards = {"!isAutoDerefHandle(dest)", "!isAutoDerefHandle(src)"})
+        protected Object doNative(LLVMNativePointer dest, LLVMNativePointer src) {
+            long length = strlen(getMemory(), src.asNative());
+            memmove.executeWithTarget(dest, src, length + 1);
+            return dest;
+        }
+
+        @Specialization(replaces = "doNative")
+        protected Object doGeneric(Object dest, Object src) {
+            Object d = dest;
+            Object s = src;
+            byte b;
+            do {
+                b = loadI8(s);
+                storeI8(d, b);
+                d = increment(d, Byte.BYTES);
+                s = increment(s, Byte.BYTES);
+            } while (b != 0);
+            return dest;
+        }
+    }
+
+    @NodeChildren({@NodeChild(value = "dest", type = LLVMExpressionNode.class), @NodeChild(value = "src", type = LLVMExpressionNode.class),
+                    @NodeChild(value = "n", type = LLVMExpressionNode.class)})
+    public abstract static class LLVMStrncpy extends LLVMStringIntrinsic {
+
+        @Child private LLVMMemMoveNode memmove;
+        @Child private LLVMMemSetNode memset;
+
+        public LLVMStrncpy(LLVMMemMoveNode memmove, LLVMMemSetNode memset) {
+            this.memmove = memmove;
+            this.memset = memset;
+        }
+
+        @Specialization(guards = {"!isAutoDerefHandle(dest)", "!isAutoDerefHandle(src)"})
+        protected Object doNative(LLVMNativePointer dest, LLVMNativePointer src, long n) {
+            long length = strnlen(getMemory(), src.asNative(), n);
+            memmove.executeWithTarget(dest, src, length);
+            if (length < n) {
+                memset.executeWithTarget(dest.increment(length), (byte) 0, n - length);
+            }
+            return dest;
+        }
+
+        @Specialization(replaces = "doNative")
+        protected Object doGeneric(Object dest, Object src, long n) {
+            Object d = dest;
+            Object s = src;
+            long i = 0;
+            for (; i < n; i++) {
+                byte b = loadI8(s);
+                if (b == 0) {
+                    break;
+                }
+                storeI8(d, b);
+                d = increment(d, Byte.BYTES);
+                s = increment(s, Byte.BYTES);
+            }
+            for (; i < n; i++) {
+                storeI8(d, (byte) 0);
+                d = increment(d, Byte.BYTES);
+            }
+            return dest;
+        }
+    }
+}
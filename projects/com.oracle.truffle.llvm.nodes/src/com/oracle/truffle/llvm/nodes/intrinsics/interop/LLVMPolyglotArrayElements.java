@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.intrinsics.interop;
+
+import java.lang.reflect.Array;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMIntrinsic;
+import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNode.LLVMIncrementPointerNode;
+import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNodeGen.LLVMIncrementPointerNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMDoubleLoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMFloatLoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMI16LoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMI32LoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMI64LoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMI8LoadNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMDoubleStoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMFloatStoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI16StoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI32StoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI64StoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.interop.LLVMAsForeignNode;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
+import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMLoadNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMStoreNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
+
+/**
+ * Bulk transfer of primitive elements between C memory and polyglot arrays.
+ *
+ * If the polyglot array is a host array of the matching primitive type and the C buffer is in
+ * native memory, the whole range is copied with a single raw memory copy. Otherwise, the elements
+ * are transferred one by one using interop messages.
+ */
+public final class LLVMPolyglotArrayElements {
+
+    public enum ElementType {
+        I8(ForeignToLLVMType.I8, byte[].class, Byte.BYTES, UnsafeArrayAccess.ARRAY_BYTE_BASE_OFFSET),
+        I16(ForeignToLLVMType.I16, short[].class, Short.BYTES, UnsafeArrayAccess.ARRAY_SHORT_BASE_OFFSET),
+        I32(ForeignToLLVMType.I32, int[].class, Integer.BYTES, UnsafeArrayAccess.ARRAY_INT_BASE_OFFSET),
+        I64(ForeignToLLVMType.I64, long[].class, Long.BYTES, UnsafeArrayAccess.ARRAY_LONG_BASE_OFFSET),
+        FLOAT(ForeignToLLVMType.FLOAT, float[].class, Float.BYTES, UnsafeArrayAccess.ARRAY_FLOAT_BASE_OFFSET),
+        DOUBLE(ForeignToLLVMType.DOUBLE, double[].class, Double.BYTES, UnsafeArrayAccess.ARRAY_DOUBLE_BASE_OFFSET);
+
+        private final ForeignToLLVMType foreignType;
+        private final Class<?> hostArrayClass;
+        private final int elementSize;
+        private final long arrayBaseOffset;
+
+        ElementType(ForeignToLLVMType foreignType, Class<?> hostArrayClass, int elementSize, long arrayBaseOffset) {
+            this.foreignType = foreignType;
+            this.hostArrayClass = hostArrayClass;
+            this.elementSize = elementSize;
+            this.arrayBaseOffset = arrayBaseOffset;
+        }
+
+        LLVMLoadNode createLoad() {
+            switch (this) {
+                case I8:
+                    return LLVMI8LoadNodeGen.create(null);
+                case I16:
+                    return LLVMI16LoadNodeGen.create(null);
+                case I32:
+                    return LLVMI32LoadNodeGen.create(null);
+                case I64:
+                    return LLVMI64LoadNodeGen.create(null);
+                case FLOAT:
+                    return LLVMFloatLoadNodeGen.create(null);
+                case DOUBLE:
+                    return LLVMDoubleLoadNodeGen.create(null);
+                default:
+                    throw new AssertionError(this);
+            }
+        }
+
+        LLVMStoreNode createStore() {
+            switch (this) {
+                case I8:
+                    return LLVMI8StoreNodeGen.create(null, null);
+                case I16:
+                    return LLVMI16StoreNodeGen.create(null, null);
+                case I32:
+                    return LLVMI32StoreNodeGen.create(null, null);
+                case I64:
+                    return LLVMI64StoreNodeGen.create(null, null);
+                case FLOAT:
+                    return LLVMFloatStoreNodeGen.create(null, null);
+                case DOUBLE:
+                    return LLVMDoubleStoreNodeGen.create(null, null);
+                default:
+                    throw new AssertionError(this);
+            }
+        }
+    }
+
+    abstract static class LLVMPolyglotArrayElementsNode extends LLVMIntrinsic {
+
+        protected final ElementType elementType;
+
+        @Child private LLVMAsForeignNode asForeign = LLVMAsForeignNode.create();
+        @Child private LLVMIncrementPointerNode inc = LLVMIncrementPointerNodeGen.create();
+
+        private final ConditionProfile bulkProfile = ConditionProfile.createBinaryProfile();
+
+        LLVMPolyglotArrayElementsNode(ElementType elementType) {
+            this.elementType = elementType;
+        }
+
+        abstract void copyBulk(UnsafeArrayAccess access, Object hostArray, long arrayOffset, long address, long length);
+
+        abstract void copyElement(TruffleObject foreign, long index, Object ptr) throws InteropException;
+
+        protected Object doCopy(LLVMManagedPointer array, long start, Object buffer, long count, ContextReference<LLVMContext> ctxRef, LLVMMemory memory,
+                        UnsafeArrayAccess access) {
+            TruffleObject foreign = asForeign.execute(array);
+            Object hostArray = getHostArray(ctxRef.get().getEnv(), foreign);
+            if (bulkProfile.profile(hostArray != null && LLVMNativePointer.isInstance(buffer) && !memory.isDerefMemory(LLVMNativePointer.cast(buffer)) &&
+                            start >= 0 && count >= 0 && count <= Array.getLength(hostArray) - start)) {
+                long size = elementType.elementSize;
+                copyBulk(access, hostArray, elementType.arrayBaseOffset + start * size, LLVMNativePointer.cast(buffer).asNative(), count * size);
+                return null;
+            }
+
+            try {
+                Object ptr = buffer;
+                for (long i = 0; i < count; i++) {
+                    copyElement(foreign, start + i, ptr);
+                    ptr = inc.executeWithTarget(ptr, elementType.elementSize);
+                }
+            } catch (InteropException ex) {
+                CompilerDirectives.transferToInterpreter();
+                throw ex.raise();
+            }
+            return null;
+        }
+
+        private Object getHostArray(Env env, TruffleObject foreign) {
+            return LLVMPolyglotArrayElements.getHostArray(env, foreign, elementType.hostArrayClass);
+        }
+    }
+
+    /**
+     * Returns the host array behind {@code foreign} if it is a primitive array of the given class,
+     * or {@code null} otherwise.
+     */
+    static Object getHostArray(Env env, TruffleObject foreign, Class<?> hostArrayClass) {
+        if (env.isHostObject(foreign)) {
+            Object object = env.asHostObject(foreign);
+            if (object != null && object.getClass() == hostArrayClass) {
+                return object;
+            }
+        }
+        return null;
+    }
+
+    @NodeChild(type = LLVMExpressionNode.class)
+    @NodeChild(type = LLVMExpressionNode.class)
+    @NodeChild(type = LLVMExpressionNode.class)
+    @NodeChild(type = LLVMExpressionNode.class)
+    public abstract static class LLVMPolyglotGetArrayElements extends LLVMPolyglotArrayElementsNode {
+
+        @Child private Node foreignRead = Message.READ.createNode();
+        @Child private ForeignToLLVM toLLVM;
+        @Child private LLVMStoreNode store;
+
+        protected LLVMPolyglotGetArrayElements(ElementType elementType) {
+            super(elementType);
+            this.toLLVM = ForeignToLLVM.create(elementType.foreignType);
+            this.store = elementType.createStore();
+        }
+
+        @Specialization
+        protected Object doGet(LLVMManagedPointer array, long start, Object buffer, long count,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> ctxRef,
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess access) {
+            return doCopy(array, start, buffer, count, ctxRef, memory, access);
+        }
+
+        @Override
+        void copyBulk(UnsafeArrayAccess access, Object hostArray, long arrayOffset, long address, long length) {
+            access.copyToNative(hostArray, arrayOffset, address, length);
+        }
+
+        @Override
+        void copyElement(TruffleObject foreign, long index, Object ptr) throws InteropException {
+            Object raw = ForeignAccess.sendRead(foreignRead, foreign, index);
+            store.executeWithTarget(ptr, toLLVM.executeWithTarget(raw));
+        }
+
+        @Fallback
+        @TruffleBoundary
+        @SuppressWarnings("unused")
+        public Object error(Object array, Object start, Object buffer, Object count) {
+            throw new IllegalArgumentException("Non-polyglot value passed to polyglot_get_array_elements.");
+        }
+    }
+
+    @NodeChild(type = LLVMExpressionNode.class)
+    @NodeChild(type = LLVMExpressionNode.class)
+    @NodeChild(type = LLVMExpressionNode.class)
+    @NodeChild(type = LLVMExpressionNode.class)
+    public abstract static class LLVMPolyglotSetArrayElements extends LLVMPolyglotArrayElementsNode {
+
+        @Child private Node foreignWrite = Message.WRITE.createNode();
+        @Child private LLVMLoadNode load;
+
+        protected LLVMPolyglotSetArrayElements(ElementType elementType) {
+            super(elementType);
+            this.load = elementType.createLoad();
+        }
+
+        @Specialization
+        protected Object doSet(LLVMManagedPointer array, long start, Object buffer, long count,
+                        @Cached("getContextReference()") ContextReference<LLVMContext> ctxRef,
+                        @Cached("getLLVMMemory()") LLVMMemory memory,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess access) {
+            return doCopy(array, start, buffer, count, ctxRef, memory, access);
+        }
+
+        @Override
+        void copyBulk(UnsafeArrayAccess access, Object hostArray, long arrayOffset, long address, long length) {
+            access.copyFromNative(address, hostArray, arrayOffset, length);
+        }
+
+        @Override
+        void copyElement(TruffleObject foreign, long index, Object ptr) throws InteropException {
+            ForeignAccess.sendWrite(foreignWrite, foreign, index, load.executeWithTarget(ptr));
+        }
+
+        @Fallback
+        @TruffleBoundary
+        @SuppressWarnings("unused")
+        public Object error(Object array, Object start, Object buffer, Object count) {
+            throw new IllegalArgumentException("Non-polyglot value passed to polyglot_set_array_elements.");
+        }
+    }
+}
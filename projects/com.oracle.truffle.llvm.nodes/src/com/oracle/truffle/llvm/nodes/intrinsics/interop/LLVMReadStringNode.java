@@ -29,7 +29,11 @@
  */
 package com.oracle.truffle.llvm.nodes.intrinsics.interop;
 
+import java.nio.charset.StandardCharsets;
+
 import com.oracle.truffle.llvm.runtime.interop.LLVMAsForeignNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -40,13 +44,17 @@ import com.oracle.truffle.api.interop.Message;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsic;
 import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMReadStringNodeGen.ForeignReadStringNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNode.LLVMIncrementPointerNode;
 import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNodeGen.LLVMIncrementPointerNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI8LoadNodeGen;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMLoadNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 public abstract class LLVMReadStringNode extends LLVMNode {
 
@@ -121,7 +129,22 @@ public abstract class LLVMReadStringNode extends LLVMNode {
         @Child private LLVMIncrementPointerNode inc = LLVMIncrementPointerNodeGen.create();
         @Child private LLVMLoadNode read = LLVMI8LoadNodeGen.create(null);
 
+        @CompilationFinal private LLVMMemory memory;
+        private final ConditionProfile nativeProfile = ConditionProfile.createBinaryProfile();
+
+        private LLVMMemory getMemory() {
+            if (memory == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                memory = getLLVMMemory();
+            }
+            return memory;
+        }
+
         public String readPointer(Object address) {
+            if (nativeProfile.profile(LLVMNativePointer.isInstance(address) && !getMemory().isDerefMemory(LLVMNativePointer.cast(address)))) {
+                return readNative(LLVMNativePointer.cast(address).asNative());
+            }
+
             Object ptr = address;
             int length = 0;
             while ((byte) read.executeWithTarget(ptr) != 0) {
@@ -140,11 +163,27 @@ public abstract class LLVMReadStringNode extends LLVMNode {
             return toString(string);
         }
 
+        private String readNative(long address) {
+            LLVMMemory mem = getMemory();
+            int length = (int) LLVMStringIntrinsic.strlen(mem, address);
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = mem.getI8(address + i);
+            }
+            return toString(bytes);
+        }
+
         @TruffleBoundary
         private static String toString(char[] string) {
             return new String(string);
         }
 
+        @TruffleBoundary
+        private static String toString(byte[] bytes) {
+            // ISO-8859-1 maps every byte to the char with the same unsigned value
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
         public static PointerReadStringNode create() {
             return new PointerReadStringNode();
         }
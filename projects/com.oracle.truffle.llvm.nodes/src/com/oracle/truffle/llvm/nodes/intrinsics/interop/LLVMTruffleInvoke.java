@@ -108,6 +108,16 @@ public abstract class LLVMTruffleInvoke extends LLVMIntrinsic {
         }
     }
 
+    @SuppressWarnings("unused")
+    @Specialization(limit = "2", guards = "id == cachedId")
+    protected Object cachedConstant(VirtualFrame frame, LLVMManagedPointer value, String id,
+                    @Cached("id") String cachedId,
+                    @Cached("getContextReference()") ContextReference<LLVMContext> context,
+                    @Cached("create()") LLVMGetStackNode getStack) {
+        TruffleObject foreign = asForeign.execute(value);
+        return doInvoke(frame, foreign, cachedId, context, getStack);
+    }
+
     @SuppressWarnings("unused")
     @Specialization(limit = "2", guards = "idStr.equals(readStr.executeWithTarget(id))")
     protected Object cachedId(VirtualFrame frame, LLVMManagedPointer value, Object id,
@@ -119,7 +129,7 @@ public abstract class LLVMTruffleInvoke extends LLVMIntrinsic {
         return doInvoke(frame, foreign, idStr, context, getStack);
     }
 
-    @Specialization(replaces = "cachedId")
+    @Specialization(replaces = {"cachedConstant", "cachedId"})
     protected Object uncached(VirtualFrame frame, LLVMManagedPointer value, Object id,
                     @Cached("createReadString()") LLVMReadStringNode readStr,
                     @Cached("getContextReference()") ContextReference<LLVMContext> context,
@@ -29,7 +29,12 @@
  */
 package com.oracle.truffle.llvm.nodes.intrinsics.interop;
 
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.CanResolve;
@@ -40,13 +45,23 @@ import com.oracle.truffle.api.interop.Resolve;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMIntrinsic;
+import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.interop.LLVMInternalTruffleObject;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.BooleanBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ByteBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI16;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI32;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI64;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI8;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ShortBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMObjectAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMObjectAccess.LLVMObjectReadNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMObjectAccess.LLVMObjectWriteNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 @NodeChild(type = LLVMExpressionNode.class)
 public abstract class LLVMTruffleManagedMalloc extends LLVMIntrinsic {
@@ -81,42 +96,367 @@ public abstract class LLVMTruffleManagedMalloc extends LLVMIntrinsic {
         @Resolve(message = "READ")
         public abstract static class ForeignReadNode extends Node {
 
+            private final UnsafeArrayAccess memory = LLVMLanguage.getLanguage().getCapability(UnsafeArrayAccess.class);
+
             protected Object access(ManagedMallocObject malloc, int index) {
-                return malloc.get(index);
+                return malloc.get(memory, index);
             }
         }
 
         @Resolve(message = "WRITE")
         public abstract static class ForeignWriteNode extends Node {
 
+            private final UnsafeArrayAccess memory = LLVMLanguage.getLanguage().getCapability(UnsafeArrayAccess.class);
+
             protected Object access(ManagedMallocObject malloc, int index, Object value) {
-                malloc.set(index, value);
+                malloc.set(memory, index, value);
                 return value;
             }
         }
 
     }
 
+    /**
+     * A managed allocation. The bytes of the allocation are kept in a {@code long[]} and accessed
+     * at byte offsets, so loads and stores of any primitive width reinterpret the underlying bytes,
+     * and atomic operations work on the actual location of the value. Managed pointers and foreign
+     * objects have no bit representation. They are kept in a separate word-addressed
+     * {@code Object[]} that is only created when the first such value is stored. A primitive store
+     * into a word removes the object from that word.
+     *
+     * As a polyglot array, the allocation has one element per 8-byte word. An element reads as the
+     * object stored into the word, or otherwise as the word interpreted as the type of the first
+     * primitive store into the allocation, so a buffer of doubles reads as doubles. Writing an
+     * element replaces the whole word.
+     */
     public static class ManagedMallocObject implements LLVMObjectAccess, LLVMInternalTruffleObject {
 
-        private final Object[] contents;
+        private static final long BASE_OFFSET = UnsafeArrayAccess.ARRAY_LONG_BASE_OFFSET;
+
+        private final long[] contents;
+        private volatile Object[] objects;
+        private volatile ForeignToLLVMType elementType;
+
+        public ManagedMallocObject(int words) {
+            this.contents = new long[words];
+        }
+
+        private void checkBounds(long offset, long size) {
+            long byteSize = (long) contents.length * LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES;
+            if (offset < 0 || size < 0 || offset > byteSize - size) {
+                CompilerDirectives.transferToInterpreter();
+                throw new IndexOutOfBoundsException("Access to managed allocation of " + byteSize + " bytes at offset " + offset);
+            }
+        }
 
-        public ManagedMallocObject(int entries) {
-            contents = new Object[entries];
+        private void checkPrimitive(long offset, int size) {
+            checkBounds(offset, size);
+            Object[] current = objects;
+            if (current != null && current[getWord(offset)] != null) {
+                CompilerDirectives.transferToInterpreter();
+                throw new IllegalStateException("Cannot access the object stored at offset " + offset + " of a managed allocation as a primitive");
+            }
         }
 
-        public Object get(int index) {
-            return contents[index];
+        private void beforePrimitiveWrite(ForeignToLLVMType type, long offset, int size) {
+            checkBounds(offset, size);
+            if (elementType == null) {
+                initializeElementType(type);
+            }
         }
 
-        public void set(int index, Object value) {
-            contents[index] = value;
+        @TruffleBoundary
+        private synchronized void initializeElementType(ForeignToLLVMType type) {
+            if (elementType == null) {
+                elementType = type;
+            }
+        }
+
+        private void afterPrimitiveWrite(long offset, long size) {
+            Object[] current = objects;
+            if (current != null) {
+                removeObjects(current, offset, size);
+            }
+        }
+
+        private static void removeObjects(Object[] current, long offset, long size) {
+            for (int i = getWord(offset); i <= getWord(offset + size - 1); i++) {
+                current[i] = null;
+            }
+        }
+
+        private Object[] getObjects() {
+            Object[] current = objects;
+            if (current == null) {
+                current = initializeObjects();
+            }
+            return current;
+        }
+
+        @TruffleBoundary
+        private synchronized Object[] initializeObjects() {
+            if (objects == null) {
+                objects = new Object[contents.length];
+            }
+            return objects;
+        }
+
+        private static int getWord(long offset) {
+            return (int) (offset / LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES);
+        }
+
+        public Object get(UnsafeArrayAccess memory, int index) {
+            ForeignToLLVMType type = elementType;
+            return read(memory, type == null ? ForeignToLLVMType.I64 : type, (long) index * LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES);
+        }
+
+        public void set(UnsafeArrayAccess memory, int index, Object value) {
+            long offset = (long) index * LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES;
+            ForeignToLLVMType type = getPrimitiveType(value);
+            if (type == null) {
+                write(memory, offset, value);
+            } else {
+                beforePrimitiveWrite(type, offset, Long.BYTES);
+                memory.writeI64(contents, BASE_OFFSET, offset, toBits(value));
+                afterPrimitiveWrite(offset, Long.BYTES);
+            }
         }
 
         public int getSize() {
             return contents.length;
         }
 
+        public Object read(UnsafeArrayAccess memory, ForeignToLLVMType type, long offset) {
+            checkBounds(offset, Byte.BYTES);
+            Object[] current = objects;
+            if (current != null) {
+                Object object = current[getWord(offset)];
+                if (object != null) {
+                    return object;
+                }
+            }
+            switch (type) {
+                case I1:
+                    return getI1(memory, offset);
+                case I8:
+                    return getI8(memory, offset);
+                case I16:
+                    return getI16(memory, offset);
+                case I32:
+                    return getI32(memory, offset);
+                case FLOAT:
+                    return getFloat(memory, offset);
+                case DOUBLE:
+                    return getDouble(memory, offset);
+                case POINTER:
+                    return LLVMNativePointer.create(getI64(memory, offset));
+                default:
+                    return getI64(memory, offset);
+            }
+        }
+
+        public void write(UnsafeArrayAccess memory, long offset, Object value) {
+            if (value instanceof Boolean) {
+                putI1(memory, offset, (boolean) value);
+            } else if (value instanceof Byte) {
+                putI8(memory, offset, (byte) value);
+            } else if (value instanceof Short) {
+                putI16(memory, offset, (short) value);
+            } else if (value instanceof Character) {
+                putI16(memory, offset, (short) (char) value);
+            } else if (value instanceof Integer) {
+                putI32(memory, offset, (int) value);
+            } else if (value instanceof Long) {
+                putI64(memory, offset, (long) value);
+            } else if (value instanceof Float) {
+                putFloat(memory, offset, (float) value);
+            } else if (value instanceof Double) {
+                putDouble(memory, offset, (double) value);
+            } else if (LLVMNativePointer.isInstance(value)) {
+                beforePrimitiveWrite(ForeignToLLVMType.POINTER, offset, Long.BYTES);
+                memory.writeI64(contents, BASE_OFFSET, offset, LLVMNativePointer.cast(value).asNative());
+                afterPrimitiveWrite(offset, Long.BYTES);
+            } else {
+                assert offset % LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES == 0 : "invalid offset";
+                checkBounds(offset, Long.BYTES);
+                getObjects()[getWord(offset)] = value;
+            }
+        }
+
+        public boolean getI1(UnsafeArrayAccess memory, long offset) {
+            checkPrimitive(offset, 1);
+            return memory.getI1(contents, BASE_OFFSET, offset);
+        }
+
+        public void putI1(UnsafeArrayAccess memory, long offset, boolean value) {
+            beforePrimitiveWrite(ForeignToLLVMType.I1, offset, 1);
+            memory.writeI1(contents, BASE_OFFSET, offset, value);
+            afterPrimitiveWrite(offset, 1);
+        }
+
+        public byte getI8(UnsafeArrayAccess memory, long offset) {
+            checkPrimitive(offset, Byte.BYTES);
+            return memory.getI8(contents, BASE_OFFSET, offset);
+        }
+
+        public void putI8(UnsafeArrayAccess memory, long offset, byte value) {
+            beforePrimitiveWrite(ForeignToLLVMType.I8, offset, Byte.BYTES);
+            memory.writeI8(contents, BASE_OFFSET, offset, value);
+            afterPrimitiveWrite(offset, Byte.BYTES);
+        }
+
+        public short getI16(UnsafeArrayAccess memory, long offset) {
+            checkPrimitive(offset, Short.BYTES);
+            return memory.getI16(contents, BASE_OFFSET, offset);
+        }
+
+        public void putI16(UnsafeArrayAccess memory, long offset, short value) {
+            beforePrimitiveWrite(ForeignToLLVMType.I16, offset, Short.BYTES);
+            memory.writeI16(contents, BASE_OFFSET, offset, value);
+            afterPrimitiveWrite(offset, Short.BYTES);
+        }
+
+        public int getI32(UnsafeArrayAccess memory, long offset) {
+            checkPrimitive(offset, Integer.BYTES);
+            return memory.getI32(contents, BASE_OFFSET, offset);
+        }
+
+        public void putI32(UnsafeArrayAccess memory, long offset, int value) {
+            beforePrimitiveWrite(ForeignToLLVMType.I32, offset, Integer.BYTES);
+            memory.writeI32(contents, BASE_OFFSET, offset, value);
+            afterPrimitiveWrite(offset, Integer.BYTES);
+        }
+
+        public long getI64(UnsafeArrayAccess memory, long offset) {
+            checkPrimitive(offset, Long.BYTES);
+            return memory.getI64(contents, BASE_OFFSET, offset);
+        }
+
+        public void putI64(UnsafeArrayAccess memory, long offset, long value) {
+            beforePrimitiveWrite(ForeignToLLVMType.I64, offset, Long.BYTES);
+            memory.writeI64(contents, BASE_OFFSET, offset, value);
+            afterPrimitiveWrite(offset, Long.BYTES);
+        }
+
+        public float getFloat(UnsafeArrayAccess memory, long offset) {
+            checkPrimitive(offset, Float.BYTES);
+            return memory.getFloat(contents, BASE_OFFSET, offset);
+        }
+
+        public void putFloat(UnsafeArrayAccess memory, long offset, float value) {
+            beforePrimitiveWrite(ForeignToLLVMType.FLOAT, offset, Float.BYTES);
+            memory.writeFloat(contents, BASE_OFFSET, offset, value);
+            afterPrimitiveWrite(offset, Float.BYTES);
+        }
+
+        public double getDouble(UnsafeArrayAccess memory, long offset) {
+            checkPrimitive(offset, Double.BYTES);
+            return memory.getDouble(contents, BASE_OFFSET, offset);
+        }
+
+        public void putDouble(UnsafeArrayAccess memory, long offset, double value) {
+            beforePrimitiveWrite(ForeignToLLVMType.DOUBLE, offset, Double.BYTES);
+            memory.writeDouble(contents, BASE_OFFSET, offset, value);
+            afterPrimitiveWrite(offset, Double.BYTES);
+        }
+
+        /**
+         * Sets {@code length} bytes starting at {@code offset} to zero.
+         */
+        public void clear(UnsafeArrayAccess memory, long offset, long length) {
+            checkBounds(offset, length);
+            for (long i = 0; i < length; i++) {
+                memory.writeI8(contents, BASE_OFFSET, offset + i, (byte) 0);
+            }
+            if (length > 0) {
+                afterPrimitiveWrite(offset, length);
+            }
+        }
+
+        /*
+         * Atomic operations work on the value at its byte offset. Values narrower than 32 bits are
+         * updated with a CAS on the containing aligned int, like in native memory.
+         */
+
+        public boolean getAndOpI1(UnsafeArrayAccess memory, long offset, boolean value, BooleanBinaryOperator f) {
+            checkPrimitive(offset, 1);
+            return memory.getAndOpI1(contents, BASE_OFFSET, offset, value, f);
+        }
+
+        public byte getAndOpI8(UnsafeArrayAccess memory, long offset, byte value, ByteBinaryOperator f) {
+            checkPrimitive(offset, Byte.BYTES);
+            return memory.getAndOpI8(contents, BASE_OFFSET, offset, value, f);
+        }
+
+        public short getAndOpI16(UnsafeArrayAccess memory, long offset, short value, ShortBinaryOperator f) {
+            checkPrimitive(offset, Short.BYTES);
+            return memory.getAndOpI16(contents, BASE_OFFSET, offset, value, f);
+        }
+
+        public int getAndOpI32(UnsafeArrayAccess memory, long offset, int value, IntBinaryOperator f) {
+            checkPrimitive(offset, Integer.BYTES);
+            return memory.getAndOpI32(contents, BASE_OFFSET, offset, value, f);
+        }
+
+        public long getAndOpI64(UnsafeArrayAccess memory, long offset, long value, LongBinaryOperator f) {
+            checkPrimitive(offset, Long.BYTES);
+            return memory.getAndOpI64(contents, BASE_OFFSET, offset, value, f);
+        }
+
+        public CMPXCHGI8 compareAndSwapI8(UnsafeArrayAccess memory, long offset, byte comparisonValue, byte newValue) {
+            checkPrimitive(offset, Byte.BYTES);
+            return memory.compareAndSwapI8(contents, BASE_OFFSET, offset, comparisonValue, newValue);
+        }
+
+        public CMPXCHGI16 compareAndSwapI16(UnsafeArrayAccess memory, long offset, short comparisonValue, short newValue) {
+            checkPrimitive(offset, Short.BYTES);
+            return memory.compareAndSwapI16(contents, BASE_OFFSET, offset, comparisonValue, newValue);
+        }
+
+        public CMPXCHGI32 compareAndSwapI32(UnsafeArrayAccess memory, long offset, int comparisonValue, int newValue) {
+            checkPrimitive(offset, Integer.BYTES);
+            return memory.compareAndSwapI32(contents, BASE_OFFSET, offset, comparisonValue, newValue);
+        }
+
+        public CMPXCHGI64 compareAndSwapI64(UnsafeArrayAccess memory, long offset, long comparisonValue, long newValue) {
+            checkPrimitive(offset, Long.BYTES);
+            return memory.compareAndSwapI64(contents, BASE_OFFSET, offset, comparisonValue, newValue);
+        }
+
+        private static ForeignToLLVMType getPrimitiveType(Object value) {
+            if (value instanceof Boolean) {
+                return ForeignToLLVMType.I1;
+            } else if (value instanceof Byte) {
+                return ForeignToLLVMType.I8;
+            } else if (value instanceof Short || value instanceof Character) {
+                return ForeignToLLVMType.I16;
+            } else if (value instanceof Integer) {
+                return ForeignToLLVMType.I32;
+            } else if (value instanceof Long) {
+                return ForeignToLLVMType.I64;
+            } else if (value instanceof Float) {
+                return ForeignToLLVMType.FLOAT;
+            } else if (value instanceof Double) {
+                return ForeignToLLVMType.DOUBLE;
+            } else {
+                return null;
+            }
+        }
+
+        private static long toBits(Object value) {
+            if (value instanceof Boolean) {
+                return (boolean) value ? 1 : 0;
+            } else if (value instanceof Character) {
+                return (char) value;
+            } else if (value instanceof Float) {
+                return Float.floatToRawIntBits((float) value);
+            } else if (value instanceof Double) {
+                return Double.doubleToRawLongBits((double) value);
+            } else {
+                return ((Number) value).longValue();
+            }
+        }
+
         @Override
         public ForeignAccess getForeignAccess() {
             return ManagedMallocForeignAccessForeign.ACCESS;
@@ -124,7 +464,7 @@ public abstract class LLVMTruffleManagedMalloc extends LLVMIntrinsic {
 
         @Override
         public LLVMObjectReadNode createReadNode(ForeignToLLVMType type) {
-            return new ManagedReadNode();
+            return new ManagedReadNode(type);
         }
 
         @Override
@@ -135,31 +475,52 @@ public abstract class LLVMTruffleManagedMalloc extends LLVMIntrinsic {
 
     static class ManagedReadNode extends LLVMObjectReadNode {
 
+        private final ForeignToLLVMType type;
+        @CompilationFinal private UnsafeArrayAccess memory;
+
+        ManagedReadNode(ForeignToLLVMType type) {
+            this.type = type;
+        }
+
         @Override
         public boolean canAccess(Object obj) {
             return obj instanceof ManagedMallocObject;
         }
 
+        private UnsafeArrayAccess getMemory() {
+            if (memory == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                memory = getUnsafeArrayAccess();
+            }
+            return memory;
+        }
+
         @Override
         public Object executeRead(Object obj, long offset) throws InteropException {
-            assert offset % LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES == 0 : "invalid offset";
-            long idx = offset / LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES;
-            return ((ManagedMallocObject) obj).get((int) idx);
+            return ((ManagedMallocObject) obj).read(getMemory(), type, offset);
         }
     }
 
     static class ManagedWriteNode extends LLVMObjectWriteNode {
 
+        @CompilationFinal private UnsafeArrayAccess memory;
+
         @Override
         public boolean canAccess(Object obj) {
             return obj instanceof ManagedMallocObject;
         }
 
+        private UnsafeArrayAccess getMemory() {
+            if (memory == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                memory = getUnsafeArrayAccess();
+            }
+            return memory;
+        }
+
         @Override
         public void executeWrite(Object obj, long offset, Object value) throws InteropException {
-            assert offset % LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES == 0 : "invalid offset";
-            long idx = offset / LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES;
-            ((ManagedMallocObject) obj).set((int) idx, value);
+            ((ManagedMallocObject) obj).write(getMemory(), offset, value);
         }
     }
 
@@ -171,9 +532,9 @@ public abstract class LLVMTruffleManagedMalloc extends LLVMIntrinsic {
         }
 
         long sizeInWords = (size + LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES - 1) / LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES;
-        if (sizeInWords > Integer.MAX_VALUE) {
+        if (sizeInWords > Integer.MAX_VALUE / LLVMExpressionNode.ADDRESS_SIZE_IN_BYTES) {
             CompilerDirectives.transferToInterpreter();
-            throw new IllegalArgumentException("Can't truffle_managed_malloc for more than 2^31 objects");
+            throw new IllegalArgumentException("Can't truffle_managed_malloc for more than 2^31 bytes");
         }
 
         return LLVMManagedPointer.create(new ManagedMallocObject((int) sizeInWords));
@@ -81,6 +81,14 @@ public abstract class LLVMTruffleRead extends LLVMIntrinsic {
             this.toLLVM = toLLVM;
         }
 
+        @SuppressWarnings("unused")
+        @Specialization(limit = "2", guards = "id == cachedId")
+        protected Object cachedConstant(LLVMManagedPointer value, String id,
+                        @Cached("id") String cachedId) {
+            TruffleObject foreign = asForeign.execute(value);
+            return doRead(foreign, cachedId, foreignRead, toLLVM);
+        }
+
         @SuppressWarnings("unused")
         @Specialization(limit = "2", guards = "cachedId.equals(readStr.executeWithTarget(id))")
         protected Object cached(LLVMManagedPointer value, Object id,
@@ -90,7 +98,7 @@ public abstract class LLVMTruffleRead extends LLVMIntrinsic {
             return doRead(foreign, cachedId, foreignRead, toLLVM);
         }
 
-        @Specialization(replaces = "cached")
+        @Specialization(replaces = {"cachedConstant", "cached"})
         protected Object uncached(LLVMManagedPointer value, Object id,
                         @Cached("createReadString()") LLVMReadStringNode readStr) {
             TruffleObject foreign = asForeign.execute(value);
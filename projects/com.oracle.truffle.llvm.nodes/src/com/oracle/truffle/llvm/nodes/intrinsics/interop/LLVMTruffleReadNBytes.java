@@ -29,6 +29,8 @@
  */
 package com.oracle.truffle.llvm.nodes.intrinsics.interop;
 
+import java.lang.reflect.Array;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
@@ -42,11 +44,12 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMIntrinsic;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.interop.LLVMTypedForeignObject;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM;
-import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -54,17 +57,15 @@ import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 @NodeChildren({@NodeChild(type = LLVMExpressionNode.class), @NodeChild(type = LLVMExpressionNode.class)})
 public abstract class LLVMTruffleReadNBytes extends LLVMIntrinsic {
 
+    private final ConditionProfile bulkProfile = ConditionProfile.createBinaryProfile();
+
     @Specialization
     protected Object doIntrinsic(LLVMNativePointer value, int n,
-                    @Cached("getLLVMMemory()") LLVMMemory memory,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess access,
                     @Cached("getContextReference()") ContextReference<LLVMContext> ctxRef) {
         int count = n < 0 ? 0 : n;
         byte[] bytes = new byte[count];
-        long ptr = value.asNative();
-        for (int i = 0; i < count; i++) {
-            bytes[i] = memory.getI8(ptr);
-            ptr += Byte.BYTES;
-        }
+        access.copyFromNative(value.asNative(), bytes, UnsafeArrayAccess.ARRAY_BYTE_BASE_OFFSET, count);
         TruffleObject ret = (TruffleObject) ctxRef.get().getEnv().asGuestValue(bytes);
         return LLVMManagedPointer.create(LLVMTypedForeignObject.createUnknown(ret));
     }
@@ -77,15 +78,23 @@ public abstract class LLVMTruffleReadNBytes extends LLVMIntrinsic {
         long offset = objectWithOffset.getOffset();
         TruffleObject object = objectWithOffset.getObject();
         byte[] chars = new byte[n];
-        for (int i = 0; i < n; i++) {
-            Object rawValue;
-            try {
-                rawValue = ForeignAccess.sendRead(foreignRead, object, offset + i);
-            } catch (UnknownIdentifierException | UnsupportedMessageException e) {
-                CompilerDirectives.transferToInterpreter();
-                throw new IllegalStateException(e);
+        Object hostArray = null;
+        if (object instanceof LLVMTypedForeignObject) {
+            hostArray = LLVMPolyglotArrayElements.getHostArray(ctxRef.get().getEnv(), ((LLVMTypedForeignObject) object).getForeign(), byte[].class);
+        }
+        if (bulkProfile.profile(hostArray != null && offset >= 0 && n <= Array.getLength(hostArray) - offset)) {
+            System.arraycopy(hostArray, (int) offset, chars, 0, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                Object rawValue;
+                try {
+                    rawValue = ForeignAccess.sendRead(foreignRead, object, offset + i);
+                } catch (UnknownIdentifierException | UnsupportedMessageException e) {
+                    CompilerDirectives.transferToInterpreter();
+                    throw new IllegalStateException(e);
+                }
+                chars[i] = (byte) toLLVM.executeWithTarget(rawValue);
             }
-            chars[i] = (byte) toLLVM.executeWithTarget(rawValue);
         }
         TruffleObject ret = (TruffleObject) ctxRef.get().getEnv().asGuestValue(chars);
         return LLVMManagedPointer.create(LLVMTypedForeignObject.createUnknown(ret));
@@ -80,6 +80,15 @@ public final class LLVMTruffleWrite {
             this.prepareValueForEscape = LLVMDataEscapeNode.create();
         }
 
+        @SuppressWarnings("unused")
+        @Specialization(limit = "2", guards = "id == cachedId")
+        protected Object cachedConstant(LLVMManagedPointer value, String id, Object v,
+                        @Cached("id") String cachedId) {
+            TruffleObject foreign = asForeign.execute(value);
+            doWrite(foreignWrite, foreign, cachedId, prepareValueForEscape.executeWithTarget(v));
+            return null;
+        }
+
         @SuppressWarnings("unused")
         @Specialization(limit = "2", guards = "cachedId.equals(readStr.executeWithTarget(id))")
         protected Object cached(LLVMManagedPointer value, Object id, Object v,
@@ -29,10 +29,15 @@
  */
 package com.oracle.truffle.llvm.nodes.intrinsics.llvm.x86;
 
+import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.nodes.func.LLVMCallNode;
 import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNode.LLVMIncrementPointerNode;
 import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNodeGen.LLVMIncrementPointerNodeGen;
@@ -169,105 +174,173 @@ public abstract class LLVMX86_64VAStart extends LLVMExpressionNode {
         }
     }
 
-    private static Object[] getArgumentsArray(VirtualFrame frame) {
-        Object[] arguments = frame.getArguments();
-        Object[] newArguments = new Object[arguments.length - LLVMCallNode.USER_ARGUMENT_OFFSET];
-        System.arraycopy(arguments, LLVMCallNode.USER_ARGUMENT_OFFSET, newArguments, 0, newArguments.length);
-
-        return newArguments;
+    /**
+     * The part of the layout that is not determined by the class of an argument.
+     */
+    private static int getArgumentSize(Object arg) {
+        if (arg instanceof LLVMVarArgCompoundValue) {
+            return ((LLVMVarArgCompoundValue) arg).getSize();
+        } else if (arg instanceof LLVMFloatVector) {
+            return ((LLVMFloatVector) arg).getLength();
+        }
+        return 0;
     }
 
-    private int computeOverflowArgAreaSize(Object[] realArguments) {
-        assert numberOfExplicitArguments <= realArguments.length;
-
-        int overflowArea = 0;
-        int gpOffset = calculateUsedGpArea(realArguments);
-        int fpOffset = X86_64BitVarArgs.GP_LIMIT + calculateUsedFpArea(realArguments);
-        for (int i = numberOfExplicitArguments; i < realArguments.length; i++) {
-            final Object arg = realArguments[i];
-            final VarArgArea area = getVarArgArea(arg);
-            if (area == VarArgArea.GP_AREA && gpOffset < X86_64BitVarArgs.GP_LIMIT) {
-                gpOffset += X86_64BitVarArgs.GP_STEP;
-            } else if (area == VarArgArea.FP_AREA && fpOffset < X86_64BitVarArgs.FP_LIMIT) {
-                fpOffset += X86_64BitVarArgs.FP_STEP;
-            } else if (area != VarArgArea.OVERFLOW_AREA) {
-                overflowArea += X86_64BitVarArgs.STACK_STEP;
-            } else if (arg instanceof LLVM80BitFloat) {
-                overflowArea += 16;
-            } else if (arg instanceof LLVMVarArgCompoundValue) {
-                LLVMVarArgCompoundValue obj = (LLVMVarArgCompoundValue) arg;
-                overflowArea += obj.getSize();
-            } else {
-                throw new AssertionError(arg);
-            }
+    private static int getOverflowAreaSize(Object arg) {
+        if (arg instanceof LLVM80BitFloat) {
+            return 16;
+        } else if (arg instanceof LLVMVarArgCompoundValue) {
+            return ((LLVMVarArgCompoundValue) arg).getSize();
+        } else if (arg instanceof LLVMFloatVector) {
+            return ((LLVMFloatVector) arg).getLength() * Float.BYTES;
         }
-        return overflowArea;
-
+        return X86_64BitVarArgs.STACK_STEP;
     }
 
-    private int calculateUsedFpArea(Object[] realArguments) {
-        assert numberOfExplicitArguments <= realArguments.length;
-
-        int usedFpArea = 0;
-        final int fpAreaLimit = X86_64BitVarArgs.FP_LIMIT - X86_64BitVarArgs.GP_LIMIT;
-        for (int i = 0; i < numberOfExplicitArguments && usedFpArea < fpAreaLimit; i++) {
-            if (getVarArgArea(realArguments[i]) == VarArgArea.FP_AREA) {
-                usedFpArea += X86_64BitVarArgs.FP_STEP;
-            }
+    /**
+     * The layout of the register save area and the overflow area for one combination of argument
+     * types, i.e., where each of the variable arguments is stored and how the va_list is
+     * initialized. It only depends on the classes of the arguments (and the size of compound
+     * values and vectors), so that it can be computed once per call site signature instead of on
+     * every call.
+     */
+    static final class VarArgsLayout {
+
+        @CompilationFinal(dimensions = 1) private final Class<?>[] argumentClasses;
+        @CompilationFinal(dimensions = 1) private final int[] argumentSizes;
+
+        @CompilationFinal(dimensions = 1) private final boolean[] inRegSaveArea;
+        @CompilationFinal(dimensions = 1) private final int[] offsets;
+
+        private final int gpOffset;
+        private final int fpOffset;
+        private final int overflowArgAreaSize;
+
+        private VarArgsLayout(Class<?>[] argumentClasses, int[] argumentSizes, boolean[] inRegSaveArea, int[] offsets, int gpOffset, int fpOffset, int overflowArgAreaSize) {
+            this.argumentClasses = argumentClasses;
+            this.argumentSizes = argumentSizes;
+            this.inRegSaveArea = inRegSaveArea;
+            this.offsets = offsets;
+            this.gpOffset = gpOffset;
+            this.fpOffset = fpOffset;
+            this.overflowArgAreaSize = overflowArgAreaSize;
         }
-        return usedFpArea;
-    }
 
-    private int calculateUsedGpArea(Object[] realArguments) {
-        assert numberOfExplicitArguments <= realArguments.length;
+        static VarArgsLayout create(Object[] frameArguments, int numberOfExplicitArguments) {
+            CompilerAsserts.neverPartOfCompilation();
+            int argumentCount = frameArguments.length - LLVMCallNode.USER_ARGUMENT_OFFSET;
+            assert numberOfExplicitArguments <= argumentCount;
+
+            Class<?>[] argumentClasses = new Class<?>[argumentCount];
+            int[] argumentSizes = new int[argumentCount];
+            int usedGpArea = 0;
+            int usedFpArea = 0;
+            for (int i = 0; i < argumentCount; i++) {
+                Object arg = frameArguments[LLVMCallNode.USER_ARGUMENT_OFFSET + i];
+                argumentClasses[i] = arg.getClass();
+                argumentSizes[i] = getArgumentSize(arg);
+                if (i < numberOfExplicitArguments) {
+                    VarArgArea area = getVarArgArea(arg);
+                    if (area == VarArgArea.GP_AREA && usedGpArea < X86_64BitVarArgs.GP_LIMIT) {
+                        usedGpArea += X86_64BitVarArgs.GP_STEP;
+                    } else if (area == VarArgArea.FP_AREA && usedFpArea < X86_64BitVarArgs.FP_LIMIT - X86_64BitVarArgs.GP_LIMIT) {
+                        usedFpArea += X86_64BitVarArgs.FP_STEP;
+                    }
+                }
+            }
 
-        int usedGpArea = 0;
-        for (int i = 0; i < numberOfExplicitArguments && usedGpArea < X86_64BitVarArgs.GP_LIMIT; i++) {
-            if (getVarArgArea(realArguments[i]) == VarArgArea.GP_AREA) {
-                usedGpArea += X86_64BitVarArgs.GP_STEP;
+            int vaLength = argumentCount - numberOfExplicitArguments;
+            boolean[] inRegSaveArea = new boolean[vaLength];
+            int[] offsets = new int[vaLength];
+            int gpOffset = usedGpArea;
+            int fpOffset = X86_64BitVarArgs.GP_LIMIT + usedFpArea;
+            int overflowOffset = 0;
+            for (int i = 0; i < vaLength; i++) {
+                Object arg = frameArguments[LLVMCallNode.USER_ARGUMENT_OFFSET + numberOfExplicitArguments + i];
+                VarArgArea area = getVarArgArea(arg);
+                if (area == VarArgArea.GP_AREA && gpOffset < X86_64BitVarArgs.GP_LIMIT) {
+                    inRegSaveArea[i] = true;
+                    offsets[i] = gpOffset;
+                    gpOffset += X86_64BitVarArgs.GP_STEP;
+                } else if (area == VarArgArea.FP_AREA && fpOffset < X86_64BitVarArgs.FP_LIMIT) {
+                    inRegSaveArea[i] = true;
+                    offsets[i] = fpOffset;
+                    fpOffset += X86_64BitVarArgs.FP_STEP;
+                } else {
+                    offsets[i] = overflowOffset;
+                    overflowOffset += getOverflowAreaSize(arg);
+                }
             }
+            return new VarArgsLayout(argumentClasses, argumentSizes, inRegSaveArea, offsets, usedGpArea, X86_64BitVarArgs.GP_LIMIT + usedFpArea, overflowOffset);
         }
 
-        return usedGpArea;
+        @ExplodeLoop
+        boolean matches(Object[] frameArguments) {
+            if (frameArguments.length != LLVMCallNode.USER_ARGUMENT_OFFSET + argumentClasses.length) {
+                return false;
+            }
+            for (int i = 0; i < argumentClasses.length; i++) {
+                Object arg = frameArguments[LLVMCallNode.USER_ARGUMENT_OFFSET + i];
+                if (arg == null || arg.getClass() != argumentClasses[i] || getArgumentSize(arg) != argumentSizes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
-    @Specialization
-    protected Object vaStart(VirtualFrame frame, Object targetAddress) {
-        final Object[] arguments = getArgumentsArray(frame);
-        final int vaLength = arguments.length - numberOfExplicitArguments;
+    protected VarArgsLayout createLayout(VirtualFrame frame) {
+        return VarArgsLayout.create(frame.getArguments(), numberOfExplicitArguments);
+    }
 
+    @Specialization(guards = "layout.matches(frame.getArguments())", limit = "3")
+    protected Object vaStartCached(VirtualFrame frame, Object targetAddress,
+                    @Cached("createLayout(frame)") VarArgsLayout layout) {
+        Object[] arguments = frame.getArguments();
         Object regSaveArea = stackAllocationNode.executeWithTarget(frame, X86_64BitVarArgs.FP_LIMIT);
-        int overflowArgAreaSize = computeOverflowArgAreaSize(arguments);
-        Object overflowArgArea = stackAllocationNode.executeWithTarget(frame, overflowArgAreaSize);
+        Object overflowArgArea = stackAllocationNode.executeWithTarget(frame, layout.overflowArgAreaSize);
+        initializeVaList(targetAddress, layout.gpOffset, layout.fpOffset, overflowArgArea, regSaveArea);
 
-        int gpOffset = calculateUsedGpArea(arguments);
-        int fpOffset = X86_64BitVarArgs.GP_LIMIT + calculateUsedFpArea(arguments);
+        // reconstruct register_save_area and overflow_arg_area according to AMD64 ABI
+        storeVarArgsExploded(arguments, layout, regSaveArea, overflowArgArea);
+        return null;
+    }
 
-        initializeVaList(targetAddress, gpOffset, fpOffset, overflowArgArea, regSaveArea);
+    @Specialization(replaces = "vaStartCached")
+    protected Object vaStart(VirtualFrame frame, Object targetAddress) {
+        Object[] arguments = frame.getArguments();
+        VarArgsLayout layout = createLayoutBoundary(arguments, numberOfExplicitArguments);
+        Object regSaveArea = stackAllocationNode.executeWithTarget(frame, X86_64BitVarArgs.FP_LIMIT);
+        Object overflowArgArea = stackAllocationNode.executeWithTarget(frame, layout.overflowArgAreaSize);
+        initializeVaList(targetAddress, layout.gpOffset, layout.fpOffset, overflowArgArea, regSaveArea);
 
-        // reconstruct register_save_area and overflow_arg_area according to AMD64 ABI
-        if (vaLength > 0) {
-            int overflowOffset = 0;
+        for (int i = 0; i < layout.offsets.length; i++) {
+            storeVarArg(arguments[LLVMCallNode.USER_ARGUMENT_OFFSET + numberOfExplicitArguments + i], layout, i, regSaveArea, overflowArgArea);
+        }
+        return null;
+    }
 
-            for (int i = 0; i < vaLength; i++) {
-                final Object object = arguments[numberOfExplicitArguments + i];
-                final VarArgArea area = getVarArgArea(object);
+    @TruffleBoundary
+    private static VarArgsLayout createLayoutBoundary(Object[] frameArguments, int numberOfExplicitArguments) {
+        return VarArgsLayout.create(frameArguments, numberOfExplicitArguments);
+    }
 
-                if (area == VarArgArea.GP_AREA && gpOffset < X86_64BitVarArgs.GP_LIMIT) {
-                    storeArgument(regSaveArea, gpOffset, memmove, pointerArithmeticRegSaveArea, i64RegSaveAreaStore, i32RegSaveAreaStore, fp80bitRegSaveAreaStore, object);
-                    gpOffset += X86_64BitVarArgs.GP_STEP;
-                } else if (area == VarArgArea.FP_AREA && fpOffset < X86_64BitVarArgs.FP_LIMIT) {
-                    storeArgument(regSaveArea, fpOffset, memmove, pointerArithmeticRegSaveArea, i64RegSaveAreaStore, i32RegSaveAreaStore, fp80bitRegSaveAreaStore, object);
-                    fpOffset += X86_64BitVarArgs.FP_STEP;
-                } else {
-                    assert overflowArgAreaSize >= overflowOffset;
-                    overflowOffset += storeArgument(overflowArgArea, overflowOffset, memmove, pointerArithmeticOverflowArea, i64OverflowArgAreaStore, i32OverflowArgAreaStore,
-                                    fp80bitOverflowArgAreaStore, object);
-                }
-            }
+    @ExplodeLoop
+    private void storeVarArgsExploded(Object[] arguments, VarArgsLayout layout, Object regSaveArea, Object overflowArgArea) {
+        for (int i = 0; i < layout.offsets.length; i++) {
+            int argIndex = numberOfExplicitArguments + i;
+            Object arg = CompilerDirectives.castExact(arguments[LLVMCallNode.USER_ARGUMENT_OFFSET + argIndex], layout.argumentClasses[argIndex]);
+            storeVarArg(arg, layout, i, regSaveArea, overflowArgArea);
         }
+    }
 
-        return null;
+    private void storeVarArg(Object arg, VarArgsLayout layout, int index, Object regSaveArea, Object overflowArgArea) {
+        if (layout.inRegSaveArea[index]) {
+            storeArgument(regSaveArea, layout.offsets[index], memmove, pointerArithmeticRegSaveArea, i64RegSaveAreaStore, i32RegSaveAreaStore, fp80bitRegSaveAreaStore, arg);
+        } else {
+            assert layout.offsets[index] <= layout.overflowArgAreaSize;
+            storeArgument(overflowArgArea, layout.offsets[index], memmove, pointerArithmeticOverflowArea, i64OverflowArgAreaStore, i32OverflowArgAreaStore, fp80bitOverflowArgAreaStore, arg);
+        }
     }
 
     @Override
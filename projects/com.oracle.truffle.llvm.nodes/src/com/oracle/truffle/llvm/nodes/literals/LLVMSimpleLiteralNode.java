@@ -245,4 +245,22 @@ public class LLVMSimpleLiteralNode {
             return executeLLVMNativePointer(frame);
         }
     }
+
+    /**
+     * A constant C string that is only used as a name by the polyglot intrinsics. These accept a
+     * Java string wherever they expect a pointer to a name.
+     */
+    public static final class LLVMStringLiteralNode extends LLVMExpressionNode {
+
+        private final String literal;
+
+        public LLVMStringLiteralNode(String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public Object executeGeneric(VirtualFrame frame) {
+            return literal;
+        }
+    }
 }
@@ -37,6 +37,7 @@ import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.nodes.memory.LLVMCompareExchangeNodeGen.LLVMCMPXCHInternalNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI16LoadNode;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI16LoadNodeGen;
@@ -54,6 +55,7 @@ import com.oracle.truffle.llvm.nodes.memory.store.LLVMI64StoreNode;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI64StoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNode;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI16;
@@ -61,6 +63,7 @@ import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI32;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI64;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI8;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
@@ -89,6 +92,11 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
         return cmpxch.executeWithTarget(frame, globalAccess.executeWithTarget(address), comparisonValue, newValue);
     }
 
+    @Specialization
+    protected Object doOp(VirtualFrame frame, LLVMVirtualAllocationAddress address, Object comparisonValue, Object newValue) {
+        return cmpxch.executeWithTarget(frame, address, comparisonValue, newValue);
+    }
+
     abstract static class LLVMCMPXCHInternalNode extends LLVMNode {
 
         private final int resultSize;
@@ -162,6 +170,108 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected Object doOp(VirtualFrame frame, LLVMVirtualAllocationAddress address, byte comparisonValue, byte newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI8 compareAndSwapI8 = address.compareAndSwapI8(arrayAccess, comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI8(allocation, compareAndSwapI8.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI8.isSwap());
+            return allocation;
+        }
+
+        @Specialization
+        protected Object doOp(VirtualFrame frame, LLVMVirtualAllocationAddress address, short comparisonValue, short newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI16 compareAndSwapI16 = address.compareAndSwapI16(arrayAccess, comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI16(allocation, compareAndSwapI16.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI16.isSwap());
+            return allocation;
+        }
+
+        @Specialization
+        protected Object doOp(VirtualFrame frame, LLVMVirtualAllocationAddress address, int comparisonValue, int newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI32 compareAndSwapI32 = address.compareAndSwapI32(arrayAccess, comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI32(allocation, compareAndSwapI32.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI32.isSwap());
+            return allocation;
+        }
+
+        @Specialization
+        protected Object doOp(VirtualFrame frame, LLVMVirtualAllocationAddress address, long comparisonValue, long newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI64 compareAndSwapI64 = address.compareAndSwapI64(arrayAccess, comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI64(allocation, compareAndSwapI64.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI64.isSwap());
+            return allocation;
+        }
+
+        @Specialization
+        protected Object doOp(VirtualFrame frame, LLVMVirtualAllocationAddress address, LLVMNativePointer comparisonValue, LLVMNativePointer newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            return doOp(frame, address, comparisonValue.asNative(), newValue.asNative(), arrayAccess, memory);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected Object doOpManagedMalloc(VirtualFrame frame, LLVMManagedPointer address, byte comparisonValue, byte newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI8 compareAndSwapI8 = ((ManagedMallocObject) address.getObject()).compareAndSwapI8(arrayAccess, address.getOffset(), comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI8(allocation, compareAndSwapI8.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI8.isSwap());
+            return allocation;
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected Object doOpManagedMalloc(VirtualFrame frame, LLVMManagedPointer address, short comparisonValue, short newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI16 compareAndSwapI16 = ((ManagedMallocObject) address.getObject()).compareAndSwapI16(arrayAccess, address.getOffset(), comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI16(allocation, compareAndSwapI16.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI16.isSwap());
+            return allocation;
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected Object doOpManagedMalloc(VirtualFrame frame, LLVMManagedPointer address, int comparisonValue, int newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI32 compareAndSwapI32 = ((ManagedMallocObject) address.getObject()).compareAndSwapI32(arrayAccess, address.getOffset(), comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI32(allocation, compareAndSwapI32.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI32.isSwap());
+            return allocation;
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected Object doOpManagedMalloc(VirtualFrame frame, LLVMManagedPointer address, long comparisonValue, long newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            CMPXCHGI64 compareAndSwapI64 = ((ManagedMallocObject) address.getObject()).compareAndSwapI64(arrayAccess, address.getOffset(), comparisonValue, newValue);
+            LLVMNativePointer allocation = allocateResult(frame, memory);
+            memory.putI64(allocation, compareAndSwapI64.getValue());
+            memory.putI1(allocation.increment(secondValueOffset), compareAndSwapI64.isSwap());
+            return allocation;
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected Object doOpManagedMalloc(VirtualFrame frame, LLVMManagedPointer address, LLVMNativePointer comparisonValue, LLVMNativePointer newValue,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess arrayAccess,
+                        @Cached("getLLVMMemory()") LLVMMemory memory) {
+            return doOpManagedMalloc(frame, address, comparisonValue.asNative(), newValue.asNative(), arrayAccess, memory);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected Object doOp(VirtualFrame frame, LLVMManagedPointer address, byte comparisonValue, byte newValue,
                         @Cached("createI8Read()") LLVMI8LoadNode read,
                         @Cached("createI8Write()") LLVMI8StoreNode write,
@@ -179,7 +289,7 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected Object doOp(VirtualFrame frame, LLVMManagedPointer address, short comparisonValue, short newValue,
                         @Cached("createI16Read()") LLVMI16LoadNode read,
                         @Cached("createI16Write()") LLVMI16StoreNode write,
@@ -197,7 +307,7 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected Object doOp(VirtualFrame frame, LLVMManagedPointer address, int comparisonValue, int newValue,
                         @Cached("createI32Read()") LLVMI32LoadNode read,
                         @Cached("createI32Write()") LLVMI32StoreNode write,
@@ -215,7 +325,7 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected Object doOp(VirtualFrame frame, LLVMManagedPointer address, long comparisonValue, long newValue,
                         @Cached("createI64Read()") LLVMI64LoadNode read,
                         @Cached("createI64Write()") LLVMI64StoreNode write,
@@ -233,7 +343,7 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected Object doOp(VirtualFrame frame, LLVMManagedPointer address, LLVMNativePointer comparisonValue, LLVMNativePointer newValue,
                         @Cached("createI64Read()") LLVMI64LoadNode read,
                         @Cached("createI64Write()") LLVMI64StoreNode write,
@@ -246,6 +356,10 @@ public abstract class LLVMCompareExchangeNode extends LLVMExpressionNode {
             return allocation;
         }
 
+        protected static boolean isManagedMalloc(LLVMManagedPointer address) {
+            return address.getObject() instanceof ManagedMallocObject;
+        }
+
         protected static LLVMI8LoadNode createI8Read() {
             return LLVMI8LoadNodeGen.create(null);
         }
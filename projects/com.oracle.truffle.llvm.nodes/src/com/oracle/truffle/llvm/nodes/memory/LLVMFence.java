@@ -34,11 +34,55 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 
+/**
+ * The fence nodes only emit the barrier that the ordering of the LLVM {@code fence} instruction
+ * requires. A fence with {@code syncscope("singlethread")} only orders against signal handlers of
+ * the same thread, which needs no barrier at all.
+ */
 public abstract class LLVMFence extends LLVMExpressionNode {
 
-    @Specialization
-    protected Object doOp(@Cached("getLLVMMemory()") LLVMMemory memory) {
-        memory.fullFence();
-        return null;
+    public abstract static class LLVMAcquireFence extends LLVMFence {
+
+        @Specialization
+        protected Object doOp(@Cached("getLLVMMemory()") LLVMMemory memory) {
+            memory.loadFence();
+            return null;
+        }
+    }
+
+    public abstract static class LLVMReleaseFence extends LLVMFence {
+
+        @Specialization
+        protected Object doOp(@Cached("getLLVMMemory()") LLVMMemory memory) {
+            memory.storeFence();
+            return null;
+        }
+    }
+
+    public abstract static class LLVMAcquireReleaseFence extends LLVMFence {
+
+        @Specialization
+        protected Object doOp(@Cached("getLLVMMemory()") LLVMMemory memory) {
+            memory.loadFence();
+            memory.storeFence();
+            return null;
+        }
+    }
+
+    public abstract static class LLVMSequentiallyConsistentFence extends LLVMFence {
+
+        @Specialization
+        protected Object doOp(@Cached("getLLVMMemory()") LLVMMemory memory) {
+            memory.fullFence();
+            return null;
+        }
+    }
+
+    public abstract static class LLVMSingleThreadFence extends LLVMFence {
+
+        @Specialization
+        protected Object doOp() {
+            return null;
+        }
     }
 }
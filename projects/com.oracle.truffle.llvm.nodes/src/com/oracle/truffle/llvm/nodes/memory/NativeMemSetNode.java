@@ -37,6 +37,7 @@ import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemSetNode;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -93,14 +94,12 @@ public abstract class NativeMemSetNode extends LLVMMemSetNode {
 
     @SuppressWarnings("unused")
     @Specialization(guards = {"isManagedMallocObject(object)", "value == 0"})
-    protected Object memset(LLVMManagedPointer object, byte value, long length) {
+    protected Object memset(LLVMManagedPointer object, byte value, long length,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
         assert length % ADDRESS_SIZE_IN_BYTES == 0;
 
         final ManagedMallocObject obj = (ManagedMallocObject) object.getObject();
-        int arrayOffset = (int) (object.getOffset() / ADDRESS_SIZE_IN_BYTES);
-        for (int i = 0; i < length / ADDRESS_SIZE_IN_BYTES; i++) {
-            obj.set(arrayOffset + i, LLVMNativePointer.createNull());
-        }
+        obj.clear(memory, object.getOffset(), length);
         return null;
     }
 
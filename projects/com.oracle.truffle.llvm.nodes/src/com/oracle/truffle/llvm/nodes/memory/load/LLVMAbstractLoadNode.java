@@ -31,8 +31,10 @@ package com.oracle.truffle.llvm.nodes.memory.load;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMLoadNode;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 abstract class LLVMAbstractLoadNode extends LLVMLoadNode {
@@ -61,6 +63,10 @@ abstract class LLVMAbstractLoadNode extends LLVMLoadNode {
         return getLLVMMemoryCached().isDerefMemory(addr);
     }
 
+    protected static boolean isManagedMalloc(LLVMManagedPointer addr) {
+        return addr.getObject() instanceof ManagedMallocObject;
+    }
+
     abstract LLVMForeignReadNode createForeignRead();
 
     protected LLVMMemory getLLVMMemoryCached() {
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.nodes.memory.load;
+
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+
+/**
+ * An atomic {@code load acquire} or {@code load seq_cst}: the wrapped load is followed by a load
+ * fence, so that no later memory access can be reordered before it. Monotonic and unordered loads
+ * need no barrier and are not wrapped.
+ */
+@NodeChild(value = "load", type = LLVMExpressionNode.class)
+public abstract class LLVMAtomicLoadNode extends LLVMExpressionNode {
+
+    @Specialization
+    protected boolean doI1(boolean value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+
+    @Specialization
+    protected byte doI8(byte value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+
+    @Specialization
+    protected short doI16(short value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+
+    @Specialization
+    protected int doI32(int value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+
+    @Specialization
+    protected long doI64(long value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+
+    @Specialization
+    protected float doFloat(float value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+
+    @Specialization
+    protected double doDouble(double value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+
+    @Specialization(replaces = {"doI1", "doI8", "doI16", "doI32", "doI64", "doFloat", "doDouble"})
+    protected Object doGeneric(Object value,
+                    @Cached("getLLVMMemory()") LLVMMemory memory) {
+        memory.loadFence();
+        return value;
+    }
+}
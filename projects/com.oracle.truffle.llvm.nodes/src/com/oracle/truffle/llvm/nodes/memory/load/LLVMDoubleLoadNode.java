@@ -33,6 +33,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.DoubleValueProfile;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
@@ -73,6 +74,12 @@ public abstract class LLVMDoubleLoadNode extends LLVMAbstractLoadNode {
         return new LLVMForeignReadNode(ForeignToLLVMType.DOUBLE);
     }
 
+    @Specialization(guards = "isManagedMalloc(addr)")
+    protected double doDoubleManagedMalloc(LLVMManagedPointer addr,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        return ((ManagedMallocObject) addr.getObject()).getDouble(memory, addr.getOffset());
+    }
+
     @Specialization
     protected double doDoubleManaged(LLVMManagedPointer addr) {
         return (double) getForeignReadNode().execute(addr);
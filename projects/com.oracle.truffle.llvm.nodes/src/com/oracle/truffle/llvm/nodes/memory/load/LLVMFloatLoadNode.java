@@ -33,6 +33,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.FloatValueProfile;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
@@ -73,6 +74,12 @@ public abstract class LLVMFloatLoadNode extends LLVMAbstractLoadNode {
         return new LLVMForeignReadNode(ForeignToLLVMType.FLOAT);
     }
 
+    @Specialization(guards = "isManagedMalloc(addr)")
+    protected float doFloatManagedMalloc(LLVMManagedPointer addr,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        return ((ManagedMallocObject) addr.getObject()).getFloat(memory, addr.getOffset());
+    }
+
     @Specialization
     protected float doFloatManaged(LLVMManagedPointer addr) {
         return (float) getForeignReadNode().execute(addr);
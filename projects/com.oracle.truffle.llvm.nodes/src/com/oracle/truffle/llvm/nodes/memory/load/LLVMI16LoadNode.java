@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.nodes.memory.load;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
@@ -70,6 +71,12 @@ public abstract class LLVMI16LoadNode extends LLVMAbstractLoadNode {
         return address.getI16(memory);
     }
 
+    @Specialization(guards = "isManagedMalloc(addr)")
+    protected short doShortManagedMalloc(LLVMManagedPointer addr,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        return ((ManagedMallocObject) addr.getObject()).getI16(memory, addr.getOffset());
+    }
+
     @Specialization
     protected short doShortManaged(LLVMManagedPointer addr) {
         return (short) getForeignReadNode().execute(addr);
@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.nodes.memory.load;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
@@ -70,6 +71,12 @@ public abstract class LLVMI1LoadNode extends LLVMAbstractLoadNode {
         return new LLVMForeignReadNode(ForeignToLLVMType.I1);
     }
 
+    @Specialization(guards = "isManagedMalloc(addr)")
+    protected boolean doI1ManagedMalloc(LLVMManagedPointer addr,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        return ((ManagedMallocObject) addr.getObject()).getI1(memory, addr.getOffset());
+    }
+
     @Specialization
     protected boolean doI1Managed(LLVMManagedPointer addr) {
         return (boolean) getForeignReadNode().execute(addr);
@@ -33,6 +33,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.IntValueProfile;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
@@ -73,6 +74,12 @@ public abstract class LLVMI32LoadNode extends LLVMAbstractLoadNode {
         return new LLVMForeignReadNode(ForeignToLLVMType.I32);
     }
 
+    @Specialization(guards = "isManagedMalloc(addr)")
+    protected int doI32ManagedMalloc(LLVMManagedPointer addr,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        return ((ManagedMallocObject) addr.getObject()).getI32(memory, addr.getOffset());
+    }
+
     @Specialization
     protected int doI32Managed(LLVMManagedPointer addr) {
         return (int) getForeignReadNode().execute(addr);
@@ -33,9 +33,11 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.interop.convert.ForeignToLLVM.ForeignToLLVMType;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -53,19 +55,6 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
 
     public abstract int getSize();
 
-    LLVMForeignReadNode[] createForeignReads(ForeignToLLVMType type) {
-        LLVMForeignReadNode[] result = new LLVMForeignReadNode[getSize()];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = new LLVMForeignReadNode(type);
-        }
-        return result;
-    }
-
-    @Override
-    LLVMForeignReadNode createForeignRead() {
-        throw new AssertionError("should not reach here");
-    }
-
     public abstract static class LLVMLoadI1VectorNode extends LLVMLoadVectorNode {
         @Specialization(guards = "!isAutoDerefHandle(addr)")
         protected LLVMI1Vector doI1VectorNative(LLVMNativePointer addr) {
@@ -73,9 +62,8 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected LLVMI1Vector doI1VectorDerefHandle(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected LLVMI1Vector doI1VectorDerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
         }
 
         @Specialization
@@ -84,21 +72,36 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
             return getLLVMMemoryCached().getI1Vector(globalAccess.executeWithTarget(addr), getSize());
         }
 
+        @Specialization(guards = "isManagedMalloc(addr)")
+        @ExplodeLoop
+        protected LLVMI1Vector doManagedMalloc(LLVMManagedPointer addr,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            ManagedMallocObject object = (ManagedMallocObject) addr.getObject();
+            boolean[] vector = new boolean[getSize()];
+            long currentOffset = addr.getOffset();
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = object.getI1(memory, currentOffset);
+                currentOffset += I1_SIZE_IN_BYTES;
+            }
+            return LLVMI1Vector.create(vector);
+        }
+
         @Specialization
         @ExplodeLoop
-        protected LLVMI1Vector doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected LLVMI1Vector doForeign(LLVMManagedPointer addr) {
+            LLVMForeignReadNode foreignRead = getForeignReadNode();
             boolean[] vector = new boolean[getSize()];
             LLVMManagedPointer currentPtr = addr;
             for (int i = 0; i < vector.length; i++) {
-                vector[i] = (Boolean) foreignReads[i].execute(currentPtr);
+                vector[i] = (Boolean) foreignRead.execute(currentPtr);
                 currentPtr = currentPtr.increment(I1_SIZE_IN_BYTES);
             }
             return LLVMI1Vector.create(vector);
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.I1);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.I1);
         }
     }
 
@@ -116,26 +119,40 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected LLVMI8Vector doI8VectorDerefHandle(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected LLVMI8Vector doI8VectorDerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
+        }
+
+        @Specialization(guards = "isManagedMalloc(addr)")
+        @ExplodeLoop
+        protected LLVMI8Vector doManagedMalloc(LLVMManagedPointer addr,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            ManagedMallocObject object = (ManagedMallocObject) addr.getObject();
+            byte[] vector = new byte[getSize()];
+            long currentOffset = addr.getOffset();
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = object.getI8(memory, currentOffset);
+                currentOffset += I8_SIZE_IN_BYTES;
+            }
+            return LLVMI8Vector.create(vector);
         }
 
         @Specialization
         @ExplodeLoop
-        protected LLVMI8Vector doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected LLVMI8Vector doForeign(LLVMManagedPointer addr) {
+            LLVMForeignReadNode foreignRead = getForeignReadNode();
             byte[] vector = new byte[getSize()];
             LLVMManagedPointer currentPtr = addr;
             for (int i = 0; i < vector.length; i++) {
-                vector[i] = (Byte) foreignReads[i].execute(currentPtr);
+                vector[i] = (Byte) foreignRead.execute(currentPtr);
                 currentPtr = currentPtr.increment(I8_SIZE_IN_BYTES);
             }
             return LLVMI8Vector.create(vector);
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.I8);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.I8);
         }
     }
 
@@ -153,26 +170,40 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected LLVMI16Vector doI16VectorDerefHandle(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected LLVMI16Vector doI16VectorDerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
+        }
+
+        @Specialization(guards = "isManagedMalloc(addr)")
+        @ExplodeLoop
+        protected LLVMI16Vector doManagedMalloc(LLVMManagedPointer addr,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            ManagedMallocObject object = (ManagedMallocObject) addr.getObject();
+            short[] vector = new short[getSize()];
+            long currentOffset = addr.getOffset();
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = object.getI16(memory, currentOffset);
+                currentOffset += I16_SIZE_IN_BYTES;
+            }
+            return LLVMI16Vector.create(vector);
         }
 
         @Specialization
         @ExplodeLoop
-        protected LLVMI16Vector doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected LLVMI16Vector doForeign(LLVMManagedPointer addr) {
+            LLVMForeignReadNode foreignRead = getForeignReadNode();
             short[] vector = new short[getSize()];
             LLVMManagedPointer currentPtr = addr;
             for (int i = 0; i < vector.length; i++) {
-                vector[i] = (Short) foreignReads[i].execute(currentPtr);
+                vector[i] = (Short) foreignRead.execute(currentPtr);
                 currentPtr = currentPtr.increment(I16_SIZE_IN_BYTES);
             }
             return LLVMI16Vector.create(vector);
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.I16);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.I16);
         }
     }
 
@@ -190,26 +221,40 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected LLVMI32Vector doI32VectorDerefHandle(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected LLVMI32Vector doI32VectorDerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
+        }
+
+        @Specialization(guards = "isManagedMalloc(addr)")
+        @ExplodeLoop
+        protected LLVMI32Vector doManagedMalloc(LLVMManagedPointer addr,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            ManagedMallocObject object = (ManagedMallocObject) addr.getObject();
+            int[] vector = new int[getSize()];
+            long currentOffset = addr.getOffset();
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = object.getI32(memory, currentOffset);
+                currentOffset += I32_SIZE_IN_BYTES;
+            }
+            return LLVMI32Vector.create(vector);
         }
 
         @Specialization
         @ExplodeLoop
-        protected LLVMI32Vector doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected LLVMI32Vector doForeign(LLVMManagedPointer addr) {
+            LLVMForeignReadNode foreignRead = getForeignReadNode();
             int[] vector = new int[getSize()];
             LLVMManagedPointer currentPtr = addr;
             for (int i = 0; i < vector.length; i++) {
-                vector[i] = (Integer) foreignReads[i].execute(currentPtr);
+                vector[i] = (Integer) foreignRead.execute(currentPtr);
                 currentPtr = currentPtr.increment(I32_SIZE_IN_BYTES);
             }
             return LLVMI32Vector.create(vector);
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.I32);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.I32);
         }
     }
 
@@ -227,26 +272,40 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected LLVMI64Vector doI64VectorDerefHandle(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected LLVMI64Vector doI64VectorDerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
+        }
+
+        @Specialization(guards = "isManagedMalloc(addr)")
+        @ExplodeLoop
+        protected LLVMI64Vector doManagedMalloc(LLVMManagedPointer addr,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            ManagedMallocObject object = (ManagedMallocObject) addr.getObject();
+            long[] vector = new long[getSize()];
+            long currentOffset = addr.getOffset();
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = object.getI64(memory, currentOffset);
+                currentOffset += I64_SIZE_IN_BYTES;
+            }
+            return LLVMI64Vector.create(vector);
         }
 
         @Specialization
         @ExplodeLoop
-        protected LLVMI64Vector doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected LLVMI64Vector doForeign(LLVMManagedPointer addr) {
+            LLVMForeignReadNode foreignRead = getForeignReadNode();
             long[] vector = new long[getSize()];
             LLVMManagedPointer currentPtr = addr;
             for (int i = 0; i < vector.length; i++) {
-                vector[i] = (Long) foreignReads[i].execute(currentPtr);
+                vector[i] = (Long) foreignRead.execute(currentPtr);
                 currentPtr = currentPtr.increment(I64_SIZE_IN_BYTES);
             }
             return LLVMI64Vector.create(vector);
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.I64);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.I64);
         }
     }
 
@@ -264,26 +323,40 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected LLVMFloatVector doFloatVectorDerefHandle(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected LLVMFloatVector doFloatVectorDerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
+        }
+
+        @Specialization(guards = "isManagedMalloc(addr)")
+        @ExplodeLoop
+        protected LLVMFloatVector doManagedMalloc(LLVMManagedPointer addr,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            ManagedMallocObject object = (ManagedMallocObject) addr.getObject();
+            float[] vector = new float[getSize()];
+            long currentOffset = addr.getOffset();
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = object.getFloat(memory, currentOffset);
+                currentOffset += FLOAT_SIZE_IN_BYTES;
+            }
+            return LLVMFloatVector.create(vector);
         }
 
         @Specialization
         @ExplodeLoop
-        protected LLVMFloatVector doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected LLVMFloatVector doForeign(LLVMManagedPointer addr) {
+            LLVMForeignReadNode foreignRead = getForeignReadNode();
             float[] vector = new float[getSize()];
             LLVMManagedPointer currentPtr = addr;
             for (int i = 0; i < vector.length; i++) {
-                vector[i] = (Float) foreignReads[i].execute(currentPtr);
+                vector[i] = (Float) foreignRead.execute(currentPtr);
                 currentPtr = currentPtr.increment(FLOAT_SIZE_IN_BYTES);
             }
             return LLVMFloatVector.create(vector);
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.FLOAT);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.FLOAT);
         }
     }
 
@@ -301,26 +374,40 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected LLVMDoubleVector doDoubleVector(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected LLVMDoubleVector doDoubleVector(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
+        }
+
+        @Specialization(guards = "isManagedMalloc(addr)")
+        @ExplodeLoop
+        protected LLVMDoubleVector doManagedMalloc(LLVMManagedPointer addr,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            ManagedMallocObject object = (ManagedMallocObject) addr.getObject();
+            double[] vector = new double[getSize()];
+            long currentOffset = addr.getOffset();
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = object.getDouble(memory, currentOffset);
+                currentOffset += DOUBLE_SIZE_IN_BYTES;
+            }
+            return LLVMDoubleVector.create(vector);
         }
 
         @Specialization
         @ExplodeLoop
-        protected LLVMDoubleVector doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected LLVMDoubleVector doForeign(LLVMManagedPointer addr) {
+            LLVMForeignReadNode foreignRead = getForeignReadNode();
             double[] vector = new double[getSize()];
             LLVMManagedPointer currentPtr = addr;
             for (int i = 0; i < vector.length; i++) {
-                vector[i] = (Double) foreignReads[i].execute(currentPtr);
+                vector[i] = (Double) foreignRead.execute(currentPtr);
                 currentPtr = currentPtr.increment(DOUBLE_SIZE_IN_BYTES);
             }
             return LLVMDoubleVector.create(vector);
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.DOUBLE);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.DOUBLE);
         }
     }
 
@@ -338,22 +425,20 @@ public abstract class LLVMLoadVectorNode extends LLVMAbstractLoadNode {
         }
 
         @Specialization(guards = "isAutoDerefHandle(addr)")
-        protected Object doPointerVectorDerefHandle(LLVMNativePointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
-            return doForeign(getDerefHandleGetReceiverNode().execute(addr), foreignReads);
+        protected Object doPointerVectorDerefHandle(LLVMNativePointer addr) {
+            return doForeign(getDerefHandleGetReceiverNode().execute(addr));
         }
 
         @Specialization
-        @ExplodeLoop
         @SuppressWarnings("unused")
-        protected Object doForeign(LLVMManagedPointer addr,
-                        @Cached("createForeignReads()") LLVMForeignReadNode[] foreignReads) {
+        protected Object doForeign(LLVMManagedPointer addr) {
             // TODO (chaeubl): this one is more tricky as LLVMTruffleObjects can also be addresses
             throw new IllegalStateException("not yet implemented");
         }
 
-        protected LLVMForeignReadNode[] createForeignReads() {
-            return createForeignReads(ForeignToLLVMType.POINTER);
+        @Override
+        LLVMForeignReadNode createForeignRead() {
+            return new LLVMForeignReadNode(ForeignToLLVMType.POINTER);
         }
     }
 }
@@ -33,12 +33,16 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI16LoadNode;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI16LoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI16StoreNode;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI16StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ShortBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
@@ -55,6 +59,14 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         return LLVMI16StoreNodeGen.create(null, null);
     }
 
+    protected static boolean isManagedMalloc(LLVMManagedPointer address) {
+        return address.getObject() instanceof ManagedMallocObject;
+    }
+
+    protected static short getAndOpManagedMalloc(UnsafeArrayAccess memory, LLVMManagedPointer address, short value, ShortBinaryOperator f) {
+        return ((ManagedMallocObject) address.getObject()).getAndOpI16(memory, address.getOffset(), value, f);
+    }
+
     public abstract static class LLVMI16RMWXchgNode extends LLVMI16RMWNode {
         @Specialization
         protected short doOp(LLVMGlobal address, short value,
@@ -71,6 +83,18 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected short doOp(LLVMVirtualAllocationAddress address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI16(memory, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected short doOpManagedMalloc(LLVMManagedPointer address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected short doOp(LLVMManagedPointer address, short value,
                         @Cached("createRead()") LLVMI16LoadNode read,
                         @Cached("createWrite()") LLVMI16StoreNode write) {
@@ -98,6 +122,18 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected short doOp(LLVMVirtualAllocationAddress address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI16(memory, value, (a, b) -> ((short) (a + b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected short doOpManagedMalloc(LLVMManagedPointer address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((short) (a + b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected short doOp(LLVMManagedPointer address, short value,
                         @Cached("createRead()") LLVMI16LoadNode read,
                         @Cached("createWrite()") LLVMI16StoreNode write) {
@@ -125,6 +161,18 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected short doOp(LLVMVirtualAllocationAddress address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI16(memory, value, (a, b) -> ((short) (a - b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected short doOpManagedMalloc(LLVMManagedPointer address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((short) (a - b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected short doOp(LLVMManagedPointer address, short value,
                         @Cached("createRead()") LLVMI16LoadNode read,
                         @Cached("createWrite()") LLVMI16StoreNode write) {
@@ -152,6 +200,18 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected short doOp(LLVMVirtualAllocationAddress address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI16(memory, value, (a, b) -> ((short) (a & b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected short doOpManagedMalloc(LLVMManagedPointer address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((short) (a & b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected short doOp(LLVMManagedPointer address, short value,
                         @Cached("createRead()") LLVMI16LoadNode read,
                         @Cached("createWrite()") LLVMI16StoreNode write) {
@@ -179,6 +239,18 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected short doOp(LLVMVirtualAllocationAddress address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI16(memory, value, (a, b) -> ((short) ~(a & b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected short doOpManagedMalloc(LLVMManagedPointer address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((short) ~(a & b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected short doOp(LLVMManagedPointer address, short value,
                         @Cached("createRead()") LLVMI16LoadNode read,
                         @Cached("createWrite()") LLVMI16StoreNode write) {
@@ -206,6 +278,18 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected short doOp(LLVMVirtualAllocationAddress address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI16(memory, value, (a, b) -> ((short) (a | b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected short doOpManagedMalloc(LLVMManagedPointer address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((short) (a | b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected short doOp(LLVMManagedPointer address, short value,
                         @Cached("createRead()") LLVMI16LoadNode read,
                         @Cached("createWrite()") LLVMI16StoreNode write) {
@@ -233,6 +317,18 @@ public abstract class LLVMI16RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected short doOp(LLVMVirtualAllocationAddress address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI16(memory, value, (a, b) -> ((short) (a ^ b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected short doOpManagedMalloc(LLVMManagedPointer address, short value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((short) (a ^ b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected short doOp(LLVMManagedPointer address, short value,
                         @Cached("createRead()") LLVMI16LoadNode read,
                         @Cached("createWrite()") LLVMI16StoreNode write) {
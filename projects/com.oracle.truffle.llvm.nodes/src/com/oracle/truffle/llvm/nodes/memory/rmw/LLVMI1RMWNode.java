@@ -33,12 +33,16 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI1LoadNode;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI1LoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI1StoreNode;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI1StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.BooleanBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
@@ -55,6 +59,14 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         return LLVMI1StoreNodeGen.create(null, null);
     }
 
+    protected static boolean isManagedMalloc(LLVMManagedPointer address) {
+        return address.getObject() instanceof ManagedMallocObject;
+    }
+
+    protected static boolean getAndOpManagedMalloc(UnsafeArrayAccess memory, LLVMManagedPointer address, boolean value, BooleanBinaryOperator f) {
+        return ((ManagedMallocObject) address.getObject()).getAndOpI1(memory, address.getOffset(), value, f);
+    }
+
     public abstract static class LLVMI1RMWXchgNode extends LLVMI1RMWNode {
         @Specialization
         protected boolean doOp(LLVMGlobal address, boolean value,
@@ -71,6 +83,18 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected boolean doOp(LLVMVirtualAllocationAddress address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI1(memory, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected boolean doOpManagedMalloc(LLVMManagedPointer address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected boolean doOp(LLVMManagedPointer address, boolean value,
                         @Cached("createRead()") LLVMI1LoadNode read,
                         @Cached("createWrite()") LLVMI1StoreNode write) {
@@ -98,6 +122,18 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected boolean doOp(LLVMVirtualAllocationAddress address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI1(memory, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected boolean doOpManagedMalloc(LLVMManagedPointer address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected boolean doOp(LLVMManagedPointer address, boolean value,
                         @Cached("createRead()") LLVMI1LoadNode read,
                         @Cached("createWrite()") LLVMI1StoreNode write) {
@@ -125,6 +161,18 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected boolean doOp(LLVMVirtualAllocationAddress address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI1(memory, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected boolean doOpManagedMalloc(LLVMManagedPointer address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected boolean doOp(LLVMManagedPointer address, boolean value,
                         @Cached("createRead()") LLVMI1LoadNode read,
                         @Cached("createWrite()") LLVMI1StoreNode write) {
@@ -152,6 +200,18 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected boolean doOp(LLVMVirtualAllocationAddress address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI1(memory, value, (a, b) -> a & b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected boolean doOpManagedMalloc(LLVMManagedPointer address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a & b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected boolean doOp(LLVMManagedPointer address, boolean value,
                         @Cached("createRead()") LLVMI1LoadNode read,
                         @Cached("createWrite()") LLVMI1StoreNode write) {
@@ -179,6 +239,18 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected boolean doOp(LLVMVirtualAllocationAddress address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI1(memory, value, (a, b) -> !(a & b));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected boolean doOpManagedMalloc(LLVMManagedPointer address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> !(a & b));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected boolean doOp(LLVMManagedPointer address, boolean value,
                         @Cached("createRead()") LLVMI1LoadNode read,
                         @Cached("createWrite()") LLVMI1StoreNode write) {
@@ -206,6 +278,18 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected boolean doOp(LLVMVirtualAllocationAddress address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI1(memory, value, (a, b) -> a | b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected boolean doOpManagedMalloc(LLVMManagedPointer address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a | b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected boolean doOp(LLVMManagedPointer address, boolean value,
                         @Cached("createRead()") LLVMI1LoadNode read,
                         @Cached("createWrite()") LLVMI1StoreNode write) {
@@ -233,6 +317,18 @@ public abstract class LLVMI1RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected boolean doOp(LLVMVirtualAllocationAddress address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI1(memory, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected boolean doOpManagedMalloc(LLVMManagedPointer address, boolean value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected boolean doOp(LLVMManagedPointer address, boolean value,
                         @Cached("createRead()") LLVMI1LoadNode read,
                         @Cached("createWrite()") LLVMI1StoreNode write) {
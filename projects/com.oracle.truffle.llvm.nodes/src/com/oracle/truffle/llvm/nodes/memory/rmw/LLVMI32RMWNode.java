@@ -29,16 +29,21 @@
  */
 package com.oracle.truffle.llvm.nodes.memory.rmw;
 
+import java.util.function.IntBinaryOperator;
+
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI32LoadNode;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI32LoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI32StoreNode;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI32StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
@@ -55,6 +60,14 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         return LLVMI32StoreNodeGen.create(null, null);
     }
 
+    protected static boolean isManagedMalloc(LLVMManagedPointer address) {
+        return address.getObject() instanceof ManagedMallocObject;
+    }
+
+    protected static int getAndOpManagedMalloc(UnsafeArrayAccess memory, LLVMManagedPointer address, int value, IntBinaryOperator f) {
+        return ((ManagedMallocObject) address.getObject()).getAndOpI32(memory, address.getOffset(), value, f);
+    }
+
     public abstract static class LLVMI32RMWXchgNode extends LLVMI32RMWNode {
         @Specialization
         protected int doOp(LLVMGlobal address, int value,
@@ -71,6 +84,18 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected int doOp(LLVMVirtualAllocationAddress address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI32(memory, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected int doOpManagedMalloc(LLVMManagedPointer address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected int doOp(LLVMManagedPointer address, int value,
                         @Cached("createRead()") LLVMI32LoadNode read,
                         @Cached("createWrite()") LLVMI32StoreNode write) {
@@ -98,6 +123,18 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected int doOp(LLVMVirtualAllocationAddress address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI32(memory, value, (a, b) -> a + b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected int doOpManagedMalloc(LLVMManagedPointer address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a + b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected int doOp(LLVMManagedPointer address, int value,
                         @Cached("createRead()") LLVMI32LoadNode read,
                         @Cached("createWrite()") LLVMI32StoreNode write) {
@@ -125,6 +162,18 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected int doOp(LLVMVirtualAllocationAddress address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI32(memory, value, (a, b) -> a - b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected int doOpManagedMalloc(LLVMManagedPointer address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a - b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected int doOp(LLVMManagedPointer address, int value,
                         @Cached("createRead()") LLVMI32LoadNode read,
                         @Cached("createWrite()") LLVMI32StoreNode write) {
@@ -152,6 +201,18 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected int doOp(LLVMVirtualAllocationAddress address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI32(memory, value, (a, b) -> a & b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected int doOpManagedMalloc(LLVMManagedPointer address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a & b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected int doOp(LLVMManagedPointer address, int value,
                         @Cached("createRead()") LLVMI32LoadNode read,
                         @Cached("createWrite()") LLVMI32StoreNode write) {
@@ -179,6 +240,18 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected int doOp(LLVMVirtualAllocationAddress address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI32(memory, value, (a, b) -> ~(a & b));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected int doOpManagedMalloc(LLVMManagedPointer address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ~(a & b));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected int doOp(LLVMManagedPointer address, int value,
                         @Cached("createRead()") LLVMI32LoadNode read,
                         @Cached("createWrite()") LLVMI32StoreNode write) {
@@ -206,6 +279,18 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected int doOp(LLVMVirtualAllocationAddress address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI32(memory, value, (a, b) -> a | b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected int doOpManagedMalloc(LLVMManagedPointer address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a | b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected int doOp(LLVMManagedPointer address, int value,
                         @Cached("createRead()") LLVMI32LoadNode read,
                         @Cached("createWrite()") LLVMI32StoreNode write) {
@@ -233,6 +318,18 @@ public abstract class LLVMI32RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected int doOp(LLVMVirtualAllocationAddress address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI32(memory, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected int doOpManagedMalloc(LLVMManagedPointer address, int value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected int doOp(LLVMManagedPointer address, int value,
                         @Cached("createRead()") LLVMI32LoadNode read,
                         @Cached("createWrite()") LLVMI32StoreNode write) {
@@ -29,16 +29,21 @@
  */
 package com.oracle.truffle.llvm.nodes.memory.rmw;
 
+import java.util.function.LongBinaryOperator;
+
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI64LoadNode;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI64LoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI64StoreNode;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI64StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
@@ -55,6 +60,14 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         return LLVMI64StoreNodeGen.create(null, null);
     }
 
+    protected static boolean isManagedMalloc(LLVMManagedPointer address) {
+        return address.getObject() instanceof ManagedMallocObject;
+    }
+
+    protected static long getAndOpManagedMalloc(UnsafeArrayAccess memory, LLVMManagedPointer address, long value, LongBinaryOperator f) {
+        return ((ManagedMallocObject) address.getObject()).getAndOpI64(memory, address.getOffset(), value, f);
+    }
+
     public abstract static class LLVMI64RMWXchgNode extends LLVMI64RMWNode {
         @Specialization
         protected long doOp(LLVMGlobal address, long value,
@@ -71,6 +84,18 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected long doOp(LLVMVirtualAllocationAddress address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI64(memory, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected long doOpManagedMalloc(LLVMManagedPointer address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected long doOp(LLVMManagedPointer address, long value,
                         @Cached("createRead()") LLVMI64LoadNode read,
                         @Cached("createWrite()") LLVMI64StoreNode write) {
@@ -98,6 +123,18 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected long doOp(LLVMVirtualAllocationAddress address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI64(memory, value, (a, b) -> a + b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected long doOpManagedMalloc(LLVMManagedPointer address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a + b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected long doOp(LLVMManagedPointer address, long value,
                         @Cached("createRead()") LLVMI64LoadNode read,
                         @Cached("createWrite()") LLVMI64StoreNode write) {
@@ -125,6 +162,18 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected long doOp(LLVMVirtualAllocationAddress address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI64(memory, value, (a, b) -> a - b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected long doOpManagedMalloc(LLVMManagedPointer address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a - b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected long doOp(LLVMManagedPointer address, long value,
                         @Cached("createRead()") LLVMI64LoadNode read,
                         @Cached("createWrite()") LLVMI64StoreNode write) {
@@ -152,6 +201,18 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected long doOp(LLVMVirtualAllocationAddress address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI64(memory, value, (a, b) -> a & b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected long doOpManagedMalloc(LLVMManagedPointer address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a & b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected long doOp(LLVMManagedPointer address, long value,
                         @Cached("createRead()") LLVMI64LoadNode read,
                         @Cached("createWrite()") LLVMI64StoreNode write) {
@@ -179,6 +240,18 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected long doOp(LLVMVirtualAllocationAddress address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI64(memory, value, (a, b) -> ~(a & b));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected long doOpManagedMalloc(LLVMManagedPointer address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ~(a & b));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected long doOp(LLVMManagedPointer address, long value,
                         @Cached("createRead()") LLVMI64LoadNode read,
                         @Cached("createWrite()") LLVMI64StoreNode write) {
@@ -206,6 +279,18 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected long doOp(LLVMVirtualAllocationAddress address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI64(memory, value, (a, b) -> a | b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected long doOpManagedMalloc(LLVMManagedPointer address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a | b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected long doOp(LLVMManagedPointer address, long value,
                         @Cached("createRead()") LLVMI64LoadNode read,
                         @Cached("createWrite()") LLVMI64StoreNode write) {
@@ -233,6 +318,18 @@ public abstract class LLVMI64RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected long doOp(LLVMVirtualAllocationAddress address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI64(memory, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected long doOpManagedMalloc(LLVMManagedPointer address, long value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> a ^ b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected long doOp(LLVMManagedPointer address, long value,
                         @Cached("createRead()") LLVMI64LoadNode read,
                         @Cached("createWrite()") LLVMI64StoreNode write) {
@@ -33,12 +33,16 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI8LoadNode;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMI8LoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNode;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI8StoreNodeGen;
+import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ByteBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
@@ -55,6 +59,14 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         return LLVMI8StoreNodeGen.create(null, null);
     }
 
+    protected static boolean isManagedMalloc(LLVMManagedPointer address) {
+        return address.getObject() instanceof ManagedMallocObject;
+    }
+
+    protected static byte getAndOpManagedMalloc(UnsafeArrayAccess memory, LLVMManagedPointer address, byte value, ByteBinaryOperator f) {
+        return ((ManagedMallocObject) address.getObject()).getAndOpI8(memory, address.getOffset(), value, f);
+    }
+
     public abstract static class LLVMI8RMWXchgNode extends LLVMI8RMWNode {
         @Specialization
         protected byte doOp(LLVMGlobal address, byte value,
@@ -71,6 +83,18 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected byte doOp(LLVMVirtualAllocationAddress address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI8(memory, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected byte doOpManagedMalloc(LLVMManagedPointer address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> b);
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected byte doOp(LLVMManagedPointer address, byte value,
                         @Cached("createRead()") LLVMI8LoadNode read,
                         @Cached("createWrite()") LLVMI8StoreNode write) {
@@ -98,6 +122,18 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected byte doOp(LLVMVirtualAllocationAddress address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI8(memory, value, (a, b) -> ((byte) (a + b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected byte doOpManagedMalloc(LLVMManagedPointer address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((byte) (a + b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected byte doOp(LLVMManagedPointer address, byte value,
                         @Cached("createRead()") LLVMI8LoadNode read,
                         @Cached("createWrite()") LLVMI8StoreNode write) {
@@ -125,6 +161,18 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected byte doOp(LLVMVirtualAllocationAddress address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI8(memory, value, (a, b) -> ((byte) (a - b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected byte doOpManagedMalloc(LLVMManagedPointer address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((byte) (a - b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected byte doOp(LLVMManagedPointer address, byte value,
                         @Cached("createRead()") LLVMI8LoadNode read,
                         @Cached("createWrite()") LLVMI8StoreNode write) {
@@ -152,6 +200,18 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected byte doOp(LLVMVirtualAllocationAddress address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI8(memory, value, (a, b) -> ((byte) (a & b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected byte doOpManagedMalloc(LLVMManagedPointer address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((byte) (a & b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected byte doOp(LLVMManagedPointer address, byte value,
                         @Cached("createRead()") LLVMI8LoadNode read,
                         @Cached("createWrite()") LLVMI8StoreNode write) {
@@ -179,6 +239,18 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected byte doOp(LLVMVirtualAllocationAddress address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI8(memory, value, (a, b) -> ((byte) ~(a & b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected byte doOpManagedMalloc(LLVMManagedPointer address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((byte) ~(a & b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected byte doOp(LLVMManagedPointer address, byte value,
                         @Cached("createRead()") LLVMI8LoadNode read,
                         @Cached("createWrite()") LLVMI8StoreNode write) {
@@ -206,6 +278,18 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected byte doOp(LLVMVirtualAllocationAddress address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI8(memory, value, (a, b) -> ((byte) (a | b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected byte doOpManagedMalloc(LLVMManagedPointer address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((byte) (a | b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected byte doOp(LLVMManagedPointer address, byte value,
                         @Cached("createRead()") LLVMI8LoadNode read,
                         @Cached("createWrite()") LLVMI8StoreNode write) {
@@ -233,6 +317,18 @@ public abstract class LLVMI8RMWNode extends LLVMExpressionNode {
         }
 
         @Specialization
+        protected byte doOp(LLVMVirtualAllocationAddress address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return address.getAndOpI8(memory, value, (a, b) -> ((byte) (a ^ b)));
+        }
+
+        @Specialization(guards = "isManagedMalloc(address)")
+        protected byte doOpManagedMalloc(LLVMManagedPointer address, byte value,
+                        @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+            return getAndOpManagedMalloc(memory, address, value, (a, b) -> ((byte) (a ^ b)));
+        }
+
+        @Specialization(guards = "!isManagedMalloc(address)")
         protected byte doOp(LLVMManagedPointer address, byte value,
                         @Cached("createRead()") LLVMI8LoadNode read,
                         @Cached("createWrite()") LLVMI8StoreNode write) {
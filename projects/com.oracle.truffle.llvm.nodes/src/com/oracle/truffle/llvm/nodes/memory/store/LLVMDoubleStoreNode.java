@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.nodes.memory.store;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.LLVMBoxedPrimitive;
 import com.oracle.truffle.llvm.runtime.LLVMVirtualAllocationAddress;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
@@ -76,6 +77,13 @@ public abstract class LLVMDoubleStoreNode extends LLVMStoreNodeCommon {
         return null;
     }
 
+    @Specialization(guards = "isManagedMalloc(address)")
+    protected Object doOpManagedMalloc(LLVMManagedPointer address, double value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        ((ManagedMallocObject) address.getObject()).putDouble(memory, address.getOffset(), value);
+        return null;
+    }
+
     @Specialization
     protected Object doOpManaged(LLVMManagedPointer address, double value) {
         getForeignWriteNode().execute(address, value);
@@ -32,8 +32,10 @@ package com.oracle.truffle.llvm.nodes.memory.store;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.global.LLVMGlobal;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMToNativeNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMManagedPointer;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
@@ -238,6 +240,104 @@ public abstract class LLVMStoreVectorNode extends LLVMStoreNodeCommon {
         return LLVMStoreVectorNodeGen.create(vectorLength, null, null);
     }
 
+    @Specialization(guards = "isManagedMalloc(address)")
+    @ExplodeLoop
+    protected Object writeManagedMalloc(LLVMManagedPointer address, LLVMI1Vector value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        assert value.getLength() == vectorLength;
+        ManagedMallocObject object = (ManagedMallocObject) address.getObject();
+        long currentOffset = address.getOffset();
+        for (int i = 0; i < vectorLength; i++) {
+            object.putI1(memory, currentOffset, value.getValue(i));
+            currentOffset += I1_SIZE_IN_BYTES;
+        }
+        return null;
+    }
+
+    @Specialization(guards = "isManagedMalloc(address)")
+    @ExplodeLoop
+    protected Object writeManagedMalloc(LLVMManagedPointer address, LLVMI8Vector value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        assert value.getLength() == vectorLength;
+        ManagedMallocObject object = (ManagedMallocObject) address.getObject();
+        long currentOffset = address.getOffset();
+        for (int i = 0; i < vectorLength; i++) {
+            object.putI8(memory, currentOffset, value.getValue(i));
+            currentOffset += I8_SIZE_IN_BYTES;
+        }
+        return null;
+    }
+
+    @Specialization(guards = "isManagedMalloc(address)")
+    @ExplodeLoop
+    protected Object writeManagedMalloc(LLVMManagedPointer address, LLVMI16Vector value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        assert value.getLength() == vectorLength;
+        ManagedMallocObject object = (ManagedMallocObject) address.getObject();
+        long currentOffset = address.getOffset();
+        for (int i = 0; i < vectorLength; i++) {
+            object.putI16(memory, currentOffset, value.getValue(i));
+            currentOffset += I16_SIZE_IN_BYTES;
+        }
+        return null;
+    }
+
+    @Specialization(guards = "isManagedMalloc(address)")
+    @ExplodeLoop
+    protected Object writeManagedMalloc(LLVMManagedPointer address, LLVMI32Vector value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        assert value.getLength() == vectorLength;
+        ManagedMallocObject object = (ManagedMallocObject) address.getObject();
+        long currentOffset = address.getOffset();
+        for (int i = 0; i < vectorLength; i++) {
+            object.putI32(memory, currentOffset, value.getValue(i));
+            currentOffset += I32_SIZE_IN_BYTES;
+        }
+        return null;
+    }
+
+    @Specialization(guards = "isManagedMalloc(address)")
+    @ExplodeLoop
+    protected Object writeManagedMalloc(LLVMManagedPointer address, LLVMI64Vector value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        assert value.getLength() == vectorLength;
+        ManagedMallocObject object = (ManagedMallocObject) address.getObject();
+        long currentOffset = address.getOffset();
+        for (int i = 0; i < vectorLength; i++) {
+            object.putI64(memory, currentOffset, value.getValue(i));
+            currentOffset += I64_SIZE_IN_BYTES;
+        }
+        return null;
+    }
+
+    @Specialization(guards = "isManagedMalloc(address)")
+    @ExplodeLoop
+    protected Object writeManagedMalloc(LLVMManagedPointer address, LLVMFloatVector value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        assert value.getLength() == vectorLength;
+        ManagedMallocObject object = (ManagedMallocObject) address.getObject();
+        long currentOffset = address.getOffset();
+        for (int i = 0; i < vectorLength; i++) {
+            object.putFloat(memory, currentOffset, value.getValue(i));
+            currentOffset += FLOAT_SIZE_IN_BYTES;
+        }
+        return null;
+    }
+
+    @Specialization(guards = "isManagedMalloc(address)")
+    @ExplodeLoop
+    protected Object writeManagedMalloc(LLVMManagedPointer address, LLVMDoubleVector value,
+                    @Cached("getUnsafeArrayAccess()") UnsafeArrayAccess memory) {
+        assert value.getLength() == vectorLength;
+        ManagedMallocObject object = (ManagedMallocObject) address.getObject();
+        long currentOffset = address.getOffset();
+        for (int i = 0; i < vectorLength; i++) {
+            object.putDouble(memory, currentOffset, value.getValue(i));
+            currentOffset += DOUBLE_SIZE_IN_BYTES;
+        }
+        return null;
+    }
+
     @Specialization
     @ExplodeLoop
     protected Object writeVector(LLVMManagedPointer address, LLVMI1Vector value) {
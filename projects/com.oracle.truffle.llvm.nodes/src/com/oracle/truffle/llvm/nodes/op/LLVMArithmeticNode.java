@@ -106,39 +106,39 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
-        protected LLVMDoubleVector add(LLVMDoubleVector left, LLVMDoubleVector right) {
-            return left.add(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMDoubleVector add(LLVMDoubleVector left, LLVMDoubleVector right, @Cached("left.getLength()") int length) {
+            return left.add(right, length);
         }
 
-        @Specialization
-        protected LLVMFloatVector add(LLVMFloatVector left, LLVMFloatVector right) {
-            return left.add(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMFloatVector add(LLVMFloatVector left, LLVMFloatVector right, @Cached("left.getLength()") int length) {
+            return left.add(right, length);
         }
 
-        @Specialization
-        protected LLVMI16Vector add(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.add(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector add(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.add(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector add(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.add(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector add(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.add(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector add(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.add(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector add(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.add(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector add(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.add(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector add(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.add(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector add(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.add(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector add(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.add(right, length);
         }
     }
 
@@ -198,39 +198,39 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
-        protected LLVMDoubleVector mul(LLVMDoubleVector left, LLVMDoubleVector right) {
-            return left.mul(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMDoubleVector mul(LLVMDoubleVector left, LLVMDoubleVector right, @Cached("left.getLength()") int length) {
+            return left.mul(right, length);
         }
 
-        @Specialization
-        protected LLVMFloatVector mul(LLVMFloatVector left, LLVMFloatVector right) {
-            return left.mul(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMFloatVector mul(LLVMFloatVector left, LLVMFloatVector right, @Cached("left.getLength()") int length) {
+            return left.mul(right, length);
         }
 
-        @Specialization
-        protected LLVMI16Vector mul(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.mul(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector mul(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.mul(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector mul(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.mul(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector mul(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.mul(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector mul(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.mul(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector mul(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.mul(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector mul(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.mul(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector mul(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.mul(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector mul(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.mul(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector mul(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.mul(right, length);
         }
     }
 
@@ -290,39 +290,39 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
-        protected LLVMDoubleVector sub(LLVMDoubleVector left, LLVMDoubleVector right) {
-            return left.sub(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMDoubleVector sub(LLVMDoubleVector left, LLVMDoubleVector right, @Cached("left.getLength()") int length) {
+            return left.sub(right, length);
         }
 
-        @Specialization
-        protected LLVMFloatVector sub(LLVMFloatVector left, LLVMFloatVector right) {
-            return left.sub(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMFloatVector sub(LLVMFloatVector left, LLVMFloatVector right, @Cached("left.getLength()") int length) {
+            return left.sub(right, length);
         }
 
-        @Specialization
-        protected LLVMI16Vector sub(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.sub(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector sub(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.sub(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector sub(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.sub(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector sub(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.sub(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector sub(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.sub(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector sub(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.sub(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector sub(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.sub(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector sub(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.sub(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector sub(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.sub(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector sub(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.sub(right, length);
         }
     }
 
@@ -386,39 +386,39 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
-        protected LLVMDoubleVector div(LLVMDoubleVector left, LLVMDoubleVector right) {
-            return left.div(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMDoubleVector div(LLVMDoubleVector left, LLVMDoubleVector right, @Cached("left.getLength()") int length) {
+            return left.div(right, length);
         }
 
-        @Specialization
-        protected LLVMFloatVector div(LLVMFloatVector left, LLVMFloatVector right) {
-            return left.div(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMFloatVector div(LLVMFloatVector left, LLVMFloatVector right, @Cached("left.getLength()") int length) {
+            return left.div(right, length);
         }
 
-        @Specialization
-        protected LLVMI16Vector div(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.div(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector div(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.div(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector div(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.div(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector div(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.div(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector div(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.div(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector div(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.div(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector div(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.div(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector div(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.div(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector div(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.div(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector div(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.div(right, length);
         }
     }
 
@@ -458,31 +458,29 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left.unsignedDiv(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector udiv(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.divUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector udiv(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.divUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector udiv(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.divUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector udiv(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.divUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector udiv(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.divUnsigned(right);
-
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector udiv(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.divUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector udiv(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.divUnsigned(right);
-
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector udiv(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.divUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector udiv(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.divUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector udiv(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.divUnsigned(right, length);
         }
     }
 
@@ -546,39 +544,39 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             }
         }
 
-        @Specialization
-        protected LLVMDoubleVector rem(LLVMDoubleVector left, LLVMDoubleVector right) {
-            return left.rem(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMDoubleVector rem(LLVMDoubleVector left, LLVMDoubleVector right, @Cached("left.getLength()") int length) {
+            return left.rem(right, length);
         }
 
-        @Specialization
-        protected LLVMFloatVector rem(LLVMFloatVector left, LLVMFloatVector right) {
-            return left.rem(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMFloatVector rem(LLVMFloatVector left, LLVMFloatVector right, @Cached("left.getLength()") int length) {
+            return left.rem(right, length);
         }
 
-        @Specialization
-        protected LLVMI16Vector rem(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.rem(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector rem(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.rem(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector rem(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.rem(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector rem(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.rem(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector rem(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.rem(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector rem(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.rem(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector rem(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.rem(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector rem(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.rem(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector rem(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.rem(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector rem(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.rem(right, length);
         }
     }
 
@@ -618,29 +616,29 @@ public abstract class LLVMArithmeticNode extends LLVMExpressionNode {
             return left.unsignedRem(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector urem(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.remUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector urem(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.remUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector urem(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.remUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector urem(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.remUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector urem(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.remUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector urem(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.remUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector urem(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.remUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector urem(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.remUnsigned(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector urem(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.remUnsigned(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector urem(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.remUnsigned(right, length);
         }
     }
 }
@@ -29,6 +29,7 @@
  */
 package com.oracle.truffle.llvm.nodes.op;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -49,6 +50,13 @@ import com.oracle.truffle.llvm.runtime.vector.LLVMI8Vector;
 public abstract class LLVMCompareNode extends LLVMExpressionNode {
 
     public abstract static class LLVMEqNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison EQ_POINTER = (a, b) -> a == b;
+        private static final LLVMI64Vector.Comparison EQ_I64 = (a, b) -> a == b;
+        private static final LLVMI32Vector.Comparison EQ_I32 = (a, b) -> a == b;
+        private static final LLVMI1Vector.Comparison EQ_I1 = (a, b) -> a == b;
+        private static final LLVMI16Vector.Comparison EQ_I16 = (a, b) -> a == b;
+        private static final LLVMI8Vector.Comparison EQ_I8 = (a, b) -> a == b;
+
         @Specialization
         protected boolean eq(boolean val1, boolean val2) {
             return val1 == val2;
@@ -80,37 +88,44 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector eq(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> a.longValue() == b.longValue());
+        protected LLVMI1Vector eq(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, EQ_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector eq(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> a.longValue() == b.longValue());
+        protected LLVMI1Vector eq(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, EQ_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector eq(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> a.intValue() == b.intValue());
+        protected LLVMI1Vector eq(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, EQ_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector eq(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.doCompare(right, (a, b) -> a == b);
+        protected LLVMI1Vector eq(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, EQ_I1);
         }
 
         @Specialization
-        protected LLVMI1Vector eq(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> a.shortValue() == b.shortValue());
+        protected LLVMI1Vector eq(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, EQ_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector eq(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> a.byteValue() == b.byteValue());
+        protected LLVMI1Vector eq(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, EQ_I8);
         }
     }
 
     public abstract static class LLVMNqNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison NQ_POINTER = (a, b) -> a != b;
+        private static final LLVMI64Vector.Comparison NQ_I64 = (a, b) -> a != b;
+        private static final LLVMI32Vector.Comparison NQ_I32 = (a, b) -> a != b;
+        private static final LLVMI1Vector.Comparison NQ_I1 = (a, b) -> a != b;
+        private static final LLVMI16Vector.Comparison NQ_I16 = (a, b) -> a != b;
+        private static final LLVMI8Vector.Comparison NQ_I8 = (a, b) -> a != b;
+
         @Specialization
         protected boolean nq(boolean val1, boolean val2) {
             return val1 != val2;
@@ -152,60 +167,66 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector nq(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> a.longValue() != b.longValue());
+        protected LLVMI1Vector nq(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, NQ_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector nq(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> a.longValue() != b.longValue());
+        protected LLVMI1Vector nq(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, NQ_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector nq(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> a.intValue() != b.intValue());
+        protected LLVMI1Vector nq(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, NQ_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector nq(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.doCompare(right, (a, b) -> a != b);
+        protected LLVMI1Vector nq(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, NQ_I1);
         }
 
         @Specialization
-        protected LLVMI1Vector nq(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> a.shortValue() != b.shortValue());
+        protected LLVMI1Vector nq(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, NQ_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector nq(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> a.byteValue() != b.byteValue());
+        protected LLVMI1Vector nq(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, NQ_I8);
         }
     }
 
     public abstract static class LLVMSltNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison SLT_POINTER = (a, b) -> a < b;
+        private static final LLVMI64Vector.Comparison SLT_I64 = (a, b) -> a < b;
+        private static final LLVMI16Vector.Comparison SLT_I16 = (a, b) -> a < b;
+        private static final LLVMI32Vector.Comparison SLT_I32 = (a, b) -> a < b;
+        private static final LLVMI8Vector.Comparison SLT_I8 = (a, b) -> a < b;
+
         @Specialization
-        protected LLVMI1Vector slt(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> a < b);
+        protected LLVMI1Vector slt(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLT_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector slt(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> a < b);
+        protected LLVMI1Vector slt(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLT_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector slt(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> a < b);
+        protected LLVMI1Vector slt(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLT_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector slt(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> a < b);
+        protected LLVMI1Vector slt(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLT_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector slt(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> a < b);
+        protected LLVMI1Vector slt(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLT_I8);
         }
 
         @Specialization
@@ -235,29 +256,35 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMSleNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison SLE_POINTER = (a, b) -> a <= b;
+        private static final LLVMI64Vector.Comparison SLE_I64 = (a, b) -> a <= b;
+        private static final LLVMI16Vector.Comparison SLE_I16 = (a, b) -> a <= b;
+        private static final LLVMI32Vector.Comparison SLE_I32 = (a, b) -> a <= b;
+        private static final LLVMI8Vector.Comparison SLE_I8 = (a, b) -> a <= b;
+
         @Specialization
-        protected LLVMI1Vector sle(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> a <= b);
+        protected LLVMI1Vector sle(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLE_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector sle(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> a <= b);
+        protected LLVMI1Vector sle(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLE_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector sle(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> a <= b);
+        protected LLVMI1Vector sle(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLE_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector sle(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> a <= b);
+        protected LLVMI1Vector sle(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLE_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector sle(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> a <= b);
+        protected LLVMI1Vector sle(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SLE_I8);
         }
 
         @Specialization
@@ -287,29 +314,35 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMSgtNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison SGT_POINTER = (a, b) -> a > b;
+        private static final LLVMI64Vector.Comparison SGT_I64 = (a, b) -> a > b;
+        private static final LLVMI16Vector.Comparison SGT_I16 = (a, b) -> a > b;
+        private static final LLVMI32Vector.Comparison SGT_I32 = (a, b) -> a > b;
+        private static final LLVMI8Vector.Comparison SGT_I8 = (a, b) -> a > b;
+
         @Specialization
-        protected LLVMI1Vector sgt(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> a > b);
+        protected LLVMI1Vector sgt(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGT_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector sgt(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> a > b);
+        protected LLVMI1Vector sgt(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGT_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector sgt(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> a > b);
+        protected LLVMI1Vector sgt(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGT_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector sgt(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> a > b);
+        protected LLVMI1Vector sgt(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGT_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector sgt(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> a > b);
+        protected LLVMI1Vector sgt(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGT_I8);
         }
 
         @Specialization
@@ -339,29 +372,35 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMSgeNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison SGE_POINTER = (a, b) -> a >= b;
+        private static final LLVMI64Vector.Comparison SGE_I64 = (a, b) -> a >= b;
+        private static final LLVMI16Vector.Comparison SGE_I16 = (a, b) -> a >= b;
+        private static final LLVMI32Vector.Comparison SGE_I32 = (a, b) -> a >= b;
+        private static final LLVMI8Vector.Comparison SGE_I8 = (a, b) -> a >= b;
+
         @Specialization
-        protected LLVMI1Vector sge(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> a >= b);
+        protected LLVMI1Vector sge(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGE_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector sge(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> a >= b);
+        protected LLVMI1Vector sge(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGE_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector sge(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> a >= b);
+        protected LLVMI1Vector sge(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGE_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector sge(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> a >= b);
+        protected LLVMI1Vector sge(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGE_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector sge(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> a >= b);
+        protected LLVMI1Vector sge(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, SGE_I8);
         }
 
         @Specialization
@@ -391,34 +430,41 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMUgtNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison UGT_POINTER = (a, b) -> Long.compareUnsigned(a, b) > 0;
+        private static final LLVMI64Vector.Comparison UGT_I64 = (a, b) -> Long.compareUnsigned(a, b) > 0;
+        private static final LLVMI16Vector.Comparison UGT_I16 = (a, b) -> Integer.compareUnsigned(a, b) > 0;
+        private static final LLVMI32Vector.Comparison UGT_I32 = (a, b) -> Integer.compareUnsigned(a, b) > 0;
+        private static final LLVMI8Vector.Comparison UGT_I8 = (a, b) -> Integer.compareUnsigned(a, b) > 0;
+        private static final LLVMI1Vector.Comparison UGT_I1 = (a, b) -> a && !b;
+
         @Specialization
-        protected LLVMI1Vector ugt(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) > 0);
+        protected LLVMI1Vector ugt(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGT_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector ugt(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) > 0);
+        protected LLVMI1Vector ugt(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGT_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector ugt(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) > 0);
+        protected LLVMI1Vector ugt(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGT_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector ugt(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) > 0);
+        protected LLVMI1Vector ugt(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGT_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector ugt(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) > 0);
+        protected LLVMI1Vector ugt(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGT_I8);
         }
 
         @Specialization
-        protected LLVMI1Vector ugt(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.doCompare(right, (a, b) -> a && !b);
+        protected LLVMI1Vector ugt(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGT_I1);
         }
 
         @Specialization
@@ -467,34 +513,41 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMUgeNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison UGE_POINTER = (a, b) -> Long.compareUnsigned(a, b) >= 0;
+        private static final LLVMI64Vector.Comparison UGE_I64 = (a, b) -> Long.compareUnsigned(a, b) >= 0;
+        private static final LLVMI16Vector.Comparison UGE_I16 = (a, b) -> Integer.compareUnsigned(a, b) >= 0;
+        private static final LLVMI32Vector.Comparison UGE_I32 = (a, b) -> Integer.compareUnsigned(a, b) >= 0;
+        private static final LLVMI8Vector.Comparison UGE_I8 = (a, b) -> Integer.compareUnsigned(a, b) >= 0;
+        private static final LLVMI1Vector.Comparison UGE_I1 = (a, b) -> a || a == b;
+
         @Specialization
-        protected LLVMI1Vector uge(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) >= 0);
+        protected LLVMI1Vector uge(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGE_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector uge(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) >= 0);
+        protected LLVMI1Vector uge(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGE_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector uge(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) >= 0);
+        protected LLVMI1Vector uge(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGE_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector uge(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) >= 0);
+        protected LLVMI1Vector uge(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGE_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector uge(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) >= 0);
+        protected LLVMI1Vector uge(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGE_I8);
         }
 
         @Specialization
-        protected LLVMI1Vector uge(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.doCompare(right, (a, b) -> a || a == b);
+        protected LLVMI1Vector uge(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, UGE_I1);
         }
 
         @Specialization
@@ -539,34 +592,41 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMUltNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison ULT_POINTER = (a, b) -> Long.compareUnsigned(a, b) < 0;
+        private static final LLVMI64Vector.Comparison ULT_I64 = (a, b) -> Long.compareUnsigned(a, b) < 0;
+        private static final LLVMI16Vector.Comparison ULT_I16 = (a, b) -> Integer.compareUnsigned(a, b) < 0;
+        private static final LLVMI32Vector.Comparison ULT_I32 = (a, b) -> Integer.compareUnsigned(a, b) < 0;
+        private static final LLVMI8Vector.Comparison ULT_I8 = (a, b) -> Integer.compareUnsigned(a, b) < 0;
+        private static final LLVMI1Vector.Comparison ULT_I1 = (a, b) -> !a && b;
+
         @Specialization
-        protected LLVMI1Vector ult(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) < 0);
+        protected LLVMI1Vector ult(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULT_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector ult(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) < 0);
+        protected LLVMI1Vector ult(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULT_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector ult(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) < 0);
+        protected LLVMI1Vector ult(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULT_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector ult(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) < 0);
+        protected LLVMI1Vector ult(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULT_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector ult(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) < 0);
+        protected LLVMI1Vector ult(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULT_I8);
         }
 
         @Specialization
-        protected LLVMI1Vector ult(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.doCompare(right, (a, b) -> !a && b);
+        protected LLVMI1Vector ult(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULT_I1);
         }
 
         @Specialization
@@ -611,34 +671,41 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMUleNode extends LLVMCompareNode {
+        private static final LLVMPointerVector.Comparison ULE_POINTER = (a, b) -> Long.compareUnsigned(a, b) <= 0;
+        private static final LLVMI64Vector.Comparison ULE_I64 = (a, b) -> Long.compareUnsigned(a, b) <= 0;
+        private static final LLVMI16Vector.Comparison ULE_I16 = (a, b) -> Integer.compareUnsigned(a, b) <= 0;
+        private static final LLVMI32Vector.Comparison ULE_I32 = (a, b) -> Integer.compareUnsigned(a, b) <= 0;
+        private static final LLVMI8Vector.Comparison ULE_I8 = (a, b) -> Integer.compareUnsigned(a, b) <= 0;
+        private static final LLVMI1Vector.Comparison ULE_I1 = (a, b) -> !a || a == b;
+
         @Specialization
-        protected LLVMI1Vector ule(LLVMPointerVector left, LLVMPointerVector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) <= 0);
+        protected LLVMI1Vector ule(LLVMPointerVector left, LLVMPointerVector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULE_POINTER);
         }
 
         @Specialization
-        protected LLVMI1Vector ule(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.doCompare(right, (a, b) -> Long.compareUnsigned(a, b) <= 0);
+        protected LLVMI1Vector ule(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULE_I64);
         }
 
         @Specialization
-        protected LLVMI1Vector ule(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) <= 0);
+        protected LLVMI1Vector ule(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULE_I16);
         }
 
         @Specialization
-        protected LLVMI1Vector ule(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) <= 0);
+        protected LLVMI1Vector ule(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULE_I32);
         }
 
         @Specialization
-        protected LLVMI1Vector ule(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.doCompare(right, (a, b) -> Integer.compareUnsigned(a, b) <= 0);
+        protected LLVMI1Vector ule(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULE_I8);
         }
 
         @Specialization
-        protected LLVMI1Vector ule(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.doCompare(right, (a, b) -> !a || a == b);
+        protected LLVMI1Vector ule(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.doCompare(right, length, ULE_I1);
         }
 
         @Specialization
@@ -683,6 +750,9 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
     }
 
     public abstract static class LLVMOltNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison OLT_DOUBLE = (a, b) -> doubleCompare(a, b);
+        private static final LLVMFloatVector.Comparison OLT_FLOAT = (a, b) -> floatCompare(a, b);
+
         @Specialization
         protected boolean olt(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return LLVM80BitFloat.areOrdered(val1, val2) && LLVM80BitFloat.compare(val1, val2) < 0;
@@ -716,17 +786,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector oltDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> doubleCompare(a, b));
+        protected LLVMI1Vector oltDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OLT_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector oltFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> floatCompare(a, b));
+        protected LLVMI1Vector oltFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OLT_FLOAT);
         }
     }
 
     public abstract static class LLVMOgtNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison OGT_DOUBLE = (a, b) -> doubleCompare(a, b);
+        private static final LLVMFloatVector.Comparison OGT_FLOAT = (a, b) -> floatCompare(a, b);
+
         @Specialization
         protected boolean ogt(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return LLVM80BitFloat.areOrdered(val1, val2) && LLVM80BitFloat.compare(val1, val2) > 0;
@@ -760,17 +833,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector ogtDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> doubleCompare(a, b));
+        protected LLVMI1Vector ogtDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OGT_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector ogtFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> floatCompare(a, b));
+        protected LLVMI1Vector ogtFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OGT_FLOAT);
         }
     }
 
     public abstract static class LLVMOgeNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison OGE_DOUBLE = (a, b) -> doubleCompare(a, b);
+        private static final LLVMFloatVector.Comparison OGE_FLOAT = (a, b) -> floatCompare(a, b);
+
         @Specialization
         protected boolean oge(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return LLVM80BitFloat.areOrdered(val1, val2) && LLVM80BitFloat.compare(val1, val2) >= 0;
@@ -804,17 +880,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector ogeDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> doubleCompare(a, b));
+        protected LLVMI1Vector ogeDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OGE_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector ogeFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> floatCompare(a, b));
+        protected LLVMI1Vector ogeFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OGE_FLOAT);
         }
     }
 
     public abstract static class LLVMOleNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison OLE_DOUBLE = (a, b) -> doubleCompare(a, b);
+        private static final LLVMFloatVector.Comparison OLE_FLOAT = (a, b) -> floatCompare(a, b);
+
         @Specialization
         protected boolean ole(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return LLVM80BitFloat.areOrdered(val1, val2) && LLVM80BitFloat.compare(val1, val2) <= 0;
@@ -848,17 +927,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector oleDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> doubleCompare(a, b));
+        protected LLVMI1Vector oleDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OLE_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector oleFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> floatCompare(a, b));
+        protected LLVMI1Vector oleFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OLE_FLOAT);
         }
     }
 
     public abstract static class LLVMOeqNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison OEQ_DOUBLE = (a, b) -> doubleCompare(a, b);
+        private static final LLVMFloatVector.Comparison OEQ_FLOAT = (a, b) -> floatCompare(a, b);
+
         @Specialization
         protected boolean oeq(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return LLVM80BitFloat.areOrdered(val1, val2) && LLVM80BitFloat.compare(val1, val2) == 0;
@@ -892,17 +974,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector oeqDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> doubleCompare(a, b));
+        protected LLVMI1Vector oeqDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OEQ_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector oeqFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> floatCompare(a, b));
+        protected LLVMI1Vector oeqFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, OEQ_FLOAT);
         }
     }
 
     public abstract static class LLVMOneNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison ONE_DOUBLE = (a, b) -> doubleCompare(a, b);
+        private static final LLVMFloatVector.Comparison ONE_FLOAT = (a, b) -> floatCompare(a, b);
+
         @Specialization
         protected boolean one(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return LLVM80BitFloat.areOrdered(val1, val2) && LLVM80BitFloat.compare(val1, val2) != 0;
@@ -935,17 +1020,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector oneDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> doubleCompare(a, b));
+        protected LLVMI1Vector oneDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, ONE_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector oneFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> floatCompare(a, b));
+        protected LLVMI1Vector oneFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, ONE_FLOAT);
         }
     }
 
     public abstract static class LLVMOrdNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison ORD_DOUBLE = (a, b) -> areOrdered(a, b);
+        private static final LLVMFloatVector.Comparison ORD_FLOAT = (a, b) -> areOrdered(a, b);
+
         @Specialization
         protected boolean ord(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return LLVM80BitFloat.areOrdered(val1, val2);
@@ -962,17 +1050,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector ordDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> areOrdered(a, b));
+        protected LLVMI1Vector ordDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, ORD_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector ordFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> areOrdered(a, b));
+        protected LLVMI1Vector ordFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, ORD_FLOAT);
         }
     }
 
     public abstract static class LLVMUeqNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison UEQ_DOUBLE = (a, b) -> !areOrdered(a, b);
+        private static final LLVMFloatVector.Comparison UEQ_FLOAT = (a, b) -> !areOrdered(a, b);
+
         @Specialization
         protected boolean ueq(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return !LLVM80BitFloat.areOrdered(val1, val2) || LLVM80BitFloat.compare(val1, val2) == 0;
@@ -989,17 +1080,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector ueqDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> !areOrdered(a, b));
+        protected LLVMI1Vector ueqDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, UEQ_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector ueqFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> !areOrdered(a, b));
+        protected LLVMI1Vector ueqFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, UEQ_FLOAT);
         }
     }
 
     public abstract static class LLVMUneNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison UNE_DOUBLE = (a, b) -> doubleCompare(a, b);
+        private static final LLVMFloatVector.Comparison UNE_FLOAT = (a, b) -> floatCompare(a, b);
+
         @Specialization
         protected boolean une(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return !LLVM80BitFloat.areOrdered(val1, val2) || LLVM80BitFloat.compare(val1, val2) != 0;
@@ -1024,17 +1118,20 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector uneDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> doubleCompare(a, b));
+        protected LLVMI1Vector uneDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, UNE_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector uneFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> floatCompare(a, b));
+        protected LLVMI1Vector uneFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, UNE_FLOAT);
         }
     }
 
     public abstract static class LLVMUnoNode extends LLVMCompareNode {
+        private static final LLVMDoubleVector.Comparison UNO_DOUBLE = (a, b) -> !areOrdered(a, b);
+        private static final LLVMFloatVector.Comparison UNO_FLOAT = (a, b) -> !areOrdered(a, b);
+
         @Specialization
         protected boolean uno(LLVM80BitFloat val1, LLVM80BitFloat val2) {
             return !LLVM80BitFloat.areOrdered(val1, val2);
@@ -1051,13 +1148,13 @@ public abstract class LLVMCompareNode extends LLVMExpressionNode {
         }
 
         @Specialization
-        protected LLVMI1Vector unoDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2) {
-            return LLVMDoubleVector.compare(val1, val2, (a, b) -> !areOrdered(a, b));
+        protected LLVMI1Vector unoDoubleVector(LLVMDoubleVector val1, LLVMDoubleVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, UNO_DOUBLE);
         }
 
         @Specialization
-        protected LLVMI1Vector unoFloatVector(LLVMFloatVector val1, LLVMFloatVector val2) {
-            return LLVMFloatVector.compare(val1, val2, (a, b) -> !areOrdered(a, b));
+        protected LLVMI1Vector unoFloatVector(LLVMFloatVector val1, LLVMFloatVector val2, @Cached("val1.getLength()") int length) {
+            return val1.doCompare(val2, length, UNO_FLOAT);
         }
     }
 
@@ -29,6 +29,7 @@
  */
 package com.oracle.truffle.llvm.nodes.op;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -74,29 +75,29 @@ public abstract class LLVMLogicNode extends LLVMExpressionNode {
             return left.and(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.and(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.and(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.and(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.and(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.and(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.and(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.and(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.and(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.and(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.and(right, length);
         }
     }
 
@@ -131,29 +132,29 @@ public abstract class LLVMLogicNode extends LLVMExpressionNode {
             return left.or(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.or(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.or(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.or(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.or(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.or(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.or(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.or(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.or(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.or(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.or(right, length);
         }
     }
 
@@ -188,29 +189,29 @@ public abstract class LLVMLogicNode extends LLVMExpressionNode {
             return left.xor(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector xor(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.xor(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector xor(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.xor(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector xor(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.xor(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector xor(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.xor(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector xor(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.xor(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector xor(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.xor(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector xor(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.xor(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector xor(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.xor(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.xor(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.xor(right, length);
         }
     }
 
@@ -240,29 +241,29 @@ public abstract class LLVMLogicNode extends LLVMExpressionNode {
             return left.leftShift(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.leftShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.leftShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.leftShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.leftShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.leftShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.leftShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.leftShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.leftShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.leftShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.leftShift(right, length);
         }
     }
 
@@ -292,29 +293,29 @@ public abstract class LLVMLogicNode extends LLVMExpressionNode {
             return left.logicalRightShift(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.logicalRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.logicalRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.logicalRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.logicalRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.logicalRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.logicalRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.logicalRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.logicalRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.logicalRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.logicalRightShift(right, length);
         }
     }
 
@@ -344,29 +345,29 @@ public abstract class LLVMLogicNode extends LLVMExpressionNode {
             return left.arithmeticRightShift(right);
         }
 
-        @Specialization
-        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right) {
-            return left.arithmeticRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI16Vector doI16Vector(LLVMI16Vector left, LLVMI16Vector right, @Cached("left.getLength()") int length) {
+            return left.arithmeticRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right) {
-            return left.arithmeticRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI1Vector doI1Vector(LLVMI1Vector left, LLVMI1Vector right, @Cached("left.getLength()") int length) {
+            return left.arithmeticRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right) {
-            return left.arithmeticRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI32Vector doI32Vector(LLVMI32Vector left, LLVMI32Vector right, @Cached("left.getLength()") int length) {
+            return left.arithmeticRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right) {
-            return left.arithmeticRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI64Vector doI64Vector(LLVMI64Vector left, LLVMI64Vector right, @Cached("left.getLength()") int length) {
+            return left.arithmeticRightShift(right, length);
         }
 
-        @Specialization
-        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right) {
-            return left.arithmeticRightShift(right);
+        @Specialization(guards = "left.getLength() == length")
+        protected LLVMI8Vector doI8Vector(LLVMI8Vector left, LLVMI8Vector right, @Cached("left.getLength()") int length) {
+            return left.arithmeticRightShift(right, length);
         }
     }
 }
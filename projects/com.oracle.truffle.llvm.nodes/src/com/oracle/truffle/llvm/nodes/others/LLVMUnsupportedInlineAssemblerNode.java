@@ -29,13 +29,19 @@
  */
 package com.oracle.truffle.llvm.nodes.others;
 
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameInstance;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException.UnsupportedReason;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.floating.LLVM80BitFloat;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
 
 public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
@@ -52,6 +58,34 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
         return source;
     }
 
+    protected final LLVMUnsupportedException unsupported() {
+        CompilerDirectives.transferToInterpreter();
+        LLVMSourceLocation location = source != null ? source : getCallSiteLocation();
+        if (location == null) {
+            return new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+        }
+        return new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, String.format("%s (in %s)", message, location.describeLocation()));
+    }
+
+    /*
+     * Inline assembly is parsed once and shared between all call sites with the same assembly
+     * string and operand types, so the shared root does not know its call site. Use the location of
+     * the call node that invoked it instead.
+     */
+    @TruffleBoundary
+    private static LLVMSourceLocation getCallSiteLocation() {
+        FrameInstance caller = Truffle.getRuntime().getCallerFrame();
+        for (Node node = caller == null ? null : caller.getCallNode(); node != null; node = node.getParent()) {
+            if (node instanceof LLVMNode) {
+                LLVMSourceLocation location = ((LLVMNode) node).getSourceLocation();
+                if (location != null) {
+                    return location;
+                }
+            }
+        }
+        return null;
+    }
+
     public static class LLVMI1UnsupportedInlineAssemblerNode extends LLVMUnsupportedInlineAssemblerNode {
 
         public LLVMI1UnsupportedInlineAssemblerNode(LLVMSourceLocation sourceSection, String message) {
@@ -60,7 +94,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public boolean executeI1(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -77,7 +111,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public byte executeI8(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -94,7 +128,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public short executeI16(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -111,7 +145,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public int executeI32(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -128,7 +162,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public long executeI64(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -145,7 +179,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public float executeFloat(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -162,7 +196,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public double executeDouble(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -179,7 +213,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public LLVM80BitFloat executeLLVM80BitFloat(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -196,7 +230,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public Object executeGeneric(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
     }
 
@@ -208,7 +242,7 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
         @Override
         public LLVMFunctionDescriptor executeLLVMFunctionDescriptor(VirtualFrame frame) {
-            throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+            throw unsupported();
         }
 
         @Override
@@ -219,6 +253,6 @@ public class LLVMUnsupportedInlineAssemblerNode extends LLVMExpressionNode {
 
     @Override
     public Object executeGeneric(VirtualFrame frame) {
-        throw new LLVMUnsupportedException(UnsupportedReason.INLINE_ASSEMBLER, message);
+        throw unsupported();
     }
 }
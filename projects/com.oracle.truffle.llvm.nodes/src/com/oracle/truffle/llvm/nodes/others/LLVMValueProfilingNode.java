@@ -29,104 +29,154 @@
  */
 package com.oracle.truffle.llvm.nodes.others;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.ByteValueProfile;
-import com.oracle.truffle.api.profiles.DoubleValueProfile;
-import com.oracle.truffle.api.profiles.FloatValueProfile;
-import com.oracle.truffle.api.profiles.IntValueProfile;
-import com.oracle.truffle.api.profiles.LongValueProfile;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
-import com.oracle.truffle.llvm.runtime.profiling.BooleanValueProfile;
-import com.oracle.truffle.llvm.runtime.profiling.ShortValueProfile;
 
-@NodeChild
+/**
+ * Profiles the arguments and the return value of a function. The profiling nodes are part of the
+ * callee, so that the values from all call sites are merged into a single profile. As long as
+ * only one value was seen, this value is a constant in compiled code. As soon as a second value
+ * shows up, the profile is generic and the node removes itself from the AST, so that neither the
+ * interpreter nor compiled code pay for a check that can no longer succeed.
+ */
+@NodeChild(value = "value", type = LLVMExpressionNode.class)
 public abstract class LLVMValueProfilingNode extends LLVMExpressionNode {
 
-    public abstract Object executeWithTarget(Object value);
+    protected abstract LLVMExpressionNode getValue();
+
+    protected final void collapse() {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        replace(getValue(), "value profile is generic");
+    }
+
+    protected static boolean isSame(float a, float b) {
+        return Float.floatToRawIntBits(a) == Float.floatToRawIntBits(b);
+    }
+
+    protected static boolean isSame(double a, double b) {
+        return Double.doubleToRawLongBits(a) == Double.doubleToRawLongBits(b);
+    }
 
     public abstract static class LLVMI1ProfiledValueNode extends LLVMValueProfilingNode {
 
-        private final BooleanValueProfile profile = BooleanValueProfile.create();
+        @Specialization(guards = "value == cachedValue", limit = "1")
+        protected boolean doCached(@SuppressWarnings("unused") boolean value,
+                        @Cached("value") boolean cachedValue) {
+            return cachedValue;
+        }
 
-        @Specialization
-        protected boolean doI1(boolean value) {
-            return profile.profile(value);
+        @Specialization(replaces = "doCached")
+        protected boolean doGeneric(boolean value) {
+            collapse();
+            return value;
         }
     }
 
     public abstract static class LLVMI8ProfiledValueNode extends LLVMValueProfilingNode {
 
-        private final ByteValueProfile profile = ByteValueProfile.createIdentityProfile();
+        @Specialization(guards = "value == cachedValue", limit = "1")
+        protected byte doCached(@SuppressWarnings("unused") byte value,
+                        @Cached("value") byte cachedValue) {
+            return cachedValue;
+        }
 
-        @Specialization
-        protected byte doI8(byte value) {
-            return profile.profile(value);
+        @Specialization(replaces = "doCached")
+        protected byte doGeneric(byte value) {
+            collapse();
+            return value;
         }
     }
 
     public abstract static class LLVMI16ProfiledValueNode extends LLVMValueProfilingNode {
 
-        private final ShortValueProfile profile = ShortValueProfile.create();
+        @Specialization(guards = "value == cachedValue", limit = "1")
+        protected short doCached(@SuppressWarnings("unused") short value,
+                        @Cached("value") short cachedValue) {
+            return cachedValue;
+        }
 
-        @Specialization
-        protected short doI1(short value) {
-            return profile.profile(value);
+        @Specialization(replaces = "doCached")
+        protected short doGeneric(short value) {
+            collapse();
+            return value;
         }
     }
 
     public abstract static class LLVMI32ProfiledValueNode extends LLVMValueProfilingNode {
 
-        private final IntValueProfile profile = IntValueProfile.createIdentityProfile();
+        @Specialization(guards = "value == cachedValue", limit = "1")
+        protected int doCached(@SuppressWarnings("unused") int value,
+                        @Cached("value") int cachedValue) {
+            return cachedValue;
+        }
 
-        @Specialization
-        protected int doI32(int value) {
-            return profile.profile(value);
+        @Specialization(replaces = "doCached")
+        protected int doGeneric(int value) {
+            collapse();
+            return value;
         }
     }
 
     public abstract static class LLVMI64ProfiledValueNode extends LLVMValueProfilingNode {
 
-        private final LongValueProfile profile = LongValueProfile.createIdentityProfile();
+        @Specialization(guards = "value == cachedValue", limit = "1")
+        protected long doCached(@SuppressWarnings("unused") long value,
+                        @Cached("value") long cachedValue) {
+            return cachedValue;
+        }
 
-        @Specialization
-        protected long doI64(long value) {
-            return profile.profile(value);
+        @Specialization(replaces = "doCached")
+        protected long doGeneric(long value) {
+            collapse();
+            return value;
         }
     }
 
     public abstract static class LLVMFloatProfiledValueNode extends LLVMValueProfilingNode {
 
-        private final FloatValueProfile profile = FloatValueProfile.createRawIdentityProfile();
+        @Specialization(guards = "isSame(value, cachedValue)", limit = "1")
+        protected float doCached(@SuppressWarnings("unused") float value,
+                        @Cached("value") float cachedValue) {
+            return cachedValue;
+        }
 
-        @Specialization
-        protected float doFloat(float value) {
-            return profile.profile(value);
+        @Specialization(replaces = "doCached")
+        protected float doGeneric(float value) {
+            collapse();
+            return value;
         }
     }
 
     public abstract static class LLVMDoubleProfiledValueNode extends LLVMValueProfilingNode {
 
-        private final DoubleValueProfile profile = DoubleValueProfile.createRawIdentityProfile();
+        @Specialization(guards = "isSame(value, cachedValue)", limit = "1")
+        protected double doCached(@SuppressWarnings("unused") double value,
+                        @Cached("value") double cachedValue) {
+            return cachedValue;
+        }
 
-        @Specialization
-        protected double doFloat(double value) {
-            return profile.profile(value);
+        @Specialization(replaces = "doCached")
+        protected double doGeneric(double value) {
+            collapse();
+            return value;
         }
     }
 
     public abstract static class LLVMAddressProfiledValueNode extends LLVMValueProfilingNode {
 
-        @Specialization
-        protected LLVMNativePointer doPointer(LLVMNativePointer value,
-                        @Cached("createIdentityProfile()") LongValueProfile profile) {
-            return LLVMNativePointer.create(profile.profile(value.asNative())).export(value.getExportType());
+        @Specialization(guards = "value.asNative() == cachedAddress", limit = "1")
+        protected LLVMNativePointer doCached(LLVMNativePointer value,
+                        @Cached("value.asNative()") long cachedAddress) {
+            return LLVMNativePointer.create(cachedAddress).export(value.getExportType());
         }
 
-        @Specialization
-        protected Object noCache(Object value) {
+        @Specialization(replaces = "doCached")
+        protected Object doGeneric(Object value) {
+            collapse();
             return value;
         }
     }
@@ -29,6 +29,7 @@
  */
 package com.oracle.truffle.llvm.nodes.vector;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -47,57 +48,57 @@ public abstract class LLVMInsertElementNode extends LLVMExpressionNode {
 
     public abstract static class LLVMI1InsertElementNode extends LLVMInsertElementNode {
 
-        @Specialization
-        protected LLVMI1Vector doI1(LLVMI1Vector vector, boolean element, int index) {
-            return vector.insert(element, index);
+        @Specialization(guards = "vector.getLength() == length")
+        protected LLVMI1Vector doI1(LLVMI1Vector vector, boolean element, int index, @Cached("vector.getLength()") int length) {
+            return vector.insert(element, index, length);
         }
     }
 
     public abstract static class LLVMI8InsertElementNode extends LLVMInsertElementNode {
 
-        @Specialization
-        protected LLVMI8Vector doI8(LLVMI8Vector vector, byte element, int index) {
-            return vector.insert(element, index);
+        @Specialization(guards = "vector.getLength() == length")
+        protected LLVMI8Vector doI8(LLVMI8Vector vector, byte element, int index, @Cached("vector.getLength()") int length) {
+            return vector.insert(element, index, length);
         }
     }
 
     public abstract static class LLVMI16InsertElementNode extends LLVMInsertElementNode {
 
-        @Specialization
-        protected LLVMI16Vector doI16(LLVMI16Vector vector, short element, int index) {
-            return vector.insert(element, index);
+        @Specialization(guards = "vector.getLength() == length")
+        protected LLVMI16Vector doI16(LLVMI16Vector vector, short element, int index, @Cached("vector.getLength()") int length) {
+            return vector.insert(element, index, length);
         }
     }
 
     public abstract static class LLVMI32InsertElementNode extends LLVMInsertElementNode {
 
-        @Specialization
-        protected LLVMI32Vector doI32(LLVMI32Vector vector, int element, int index) {
-            return vector.insert(element, index);
+        @Specialization(guards = "vector.getLength() == length")
+        protected LLVMI32Vector doI32(LLVMI32Vector vector, int element, int index, @Cached("vector.getLength()") int length) {
+            return vector.insert(element, index, length);
         }
     }
 
     public abstract static class LLVMI64InsertElementNode extends LLVMInsertElementNode {
 
-        @Specialization
-        protected LLVMI64Vector doI64(LLVMI64Vector vector, long element, int index) {
-            return vector.insert(element, index);
+        @Specialization(guards = "vector.getLength() == length")
+        protected LLVMI64Vector doI64(LLVMI64Vector vector, long element, int index, @Cached("vector.getLength()") int length) {
+            return vector.insert(element, index, length);
         }
     }
 
     public abstract static class LLVMFloatInsertElementNode extends LLVMInsertElementNode {
 
-        @Specialization
-        protected LLVMFloatVector doFloat(LLVMFloatVector vector, float element, int index) {
-            return vector.insert(element, index);
+        @Specialization(guards = "vector.getLength() == length")
+        protected LLVMFloatVector doFloat(LLVMFloatVector vector, float element, int index, @Cached("vector.getLength()") int length) {
+            return vector.insert(element, index, length);
         }
     }
 
     public abstract static class LLVMDoubleInsertElementNode extends LLVMInsertElementNode {
 
-        @Specialization
-        protected LLVMDoubleVector doDouble(LLVMDoubleVector vector, double element, int index) {
-            return vector.insert(element, index);
+        @Specialization(guards = "vector.getLength() == length")
+        protected LLVMDoubleVector doDouble(LLVMDoubleVector vector, double element, int index, @Cached("vector.getLength()") int length) {
+            return vector.insert(element, index, length);
         }
     }
 }
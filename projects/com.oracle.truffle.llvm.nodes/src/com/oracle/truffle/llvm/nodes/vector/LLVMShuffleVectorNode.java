@@ -29,145 +29,132 @@
  */
 package com.oracle.truffle.llvm.nodes.vector;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMExpressionNode;
 import com.oracle.truffle.llvm.runtime.vector.LLVMDoubleVector;
 import com.oracle.truffle.llvm.runtime.vector.LLVMFloatVector;
+import com.oracle.truffle.llvm.runtime.vector.LLVMI16Vector;
+import com.oracle.truffle.llvm.runtime.vector.LLVMI1Vector;
 import com.oracle.truffle.llvm.runtime.vector.LLVMI32Vector;
 import com.oracle.truffle.llvm.runtime.vector.LLVMI64Vector;
 import com.oracle.truffle.llvm.runtime.vector.LLVMI8Vector;
 
-public class LLVMShuffleVectorNode {
+@NodeChildren({@NodeChild(value = "left"), @NodeChild(value = "right"), @NodeChild(value = "mask", type = LLVMExpressionNode.class)})
+public abstract class LLVMShuffleVectorNode extends LLVMExpressionNode {
 
-    @NodeChildren({@NodeChild(value = "left"), @NodeChild(value = "right"), @NodeChild(value = "mask", type = LLVMExpressionNode.class)})
-    public abstract static class LLVMShuffleI8VectorNode extends LLVMExpressionNode {
+    public abstract static class LLVMShuffleI1VectorNode extends LLVMShuffleVectorNode {
 
-        @Specialization
-        protected LLVMI8Vector doI8Vector(LLVMI8Vector leftVector, LLVMI8Vector rightVector, LLVMI32Vector maskVector) {
-            byte[] joinedValues = concat(leftVector.getValues(), rightVector.getValues());
-            byte[] newValues = new byte[maskVector.getLength()];
-            for (int i = 0; i < maskVector.getLength(); i++) {
-                int index = maskVector.getValue(i);
-                newValues[i] = joinedValues[index];
+        @Specialization(guards = {"leftVector.getLength() == inputLength", "maskVector.getLength() == resultLength"})
+        @ExplodeLoop
+        protected LLVMI1Vector doI1Vector(LLVMI1Vector leftVector, LLVMI1Vector rightVector, LLVMI32Vector maskVector,
+                        @Cached("leftVector.getLength()") int inputLength,
+                        @Cached("maskVector.getLength()") int resultLength) {
+            boolean[] newValues = new boolean[resultLength];
+            for (int i = 0; i < resultLength; i++) {
+                int element = maskVector.getValue(i);
+                newValues[i] = element < inputLength ? leftVector.getValue(element) : rightVector.getValue(element - inputLength);
             }
-            return LLVMI8Vector.create(newValues);
+            return LLVMI1Vector.create(newValues);
         }
+    }
 
-        private static byte[] concat(byte[] first, byte[] second) {
-            byte[] result = new byte[first.length + second.length];
-            for (int i = 0; i < first.length; i++) {
-                result[i] = first[i];
-            }
-            for (int i = first.length; i < first.length + second.length; i++) {
-                result[i] = second[i - first.length];
+    public abstract static class LLVMShuffleI8VectorNode extends LLVMShuffleVectorNode {
+
+        @Specialization(guards = {"leftVector.getLength() == inputLength", "maskVector.getLength() == resultLength"})
+        @ExplodeLoop
+        protected LLVMI8Vector doI8Vector(LLVMI8Vector leftVector, LLVMI8Vector rightVector, LLVMI32Vector maskVector,
+                        @Cached("leftVector.getLength()") int inputLength,
+                        @Cached("maskVector.getLength()") int resultLength) {
+            byte[] newValues = new byte[resultLength];
+            for (int i = 0; i < resultLength; i++) {
+                int element = maskVector.getValue(i);
+                newValues[i] = element < inputLength ? leftVector.getValue(element) : rightVector.getValue(element - inputLength);
             }
-            return result;
+            return LLVMI8Vector.create(newValues);
         }
     }
 
-    @NodeChildren({@NodeChild(value = "left"), @NodeChild(value = "right"), @NodeChild(value = "mask")})
-    public abstract static class LLVMShuffleI32VectorNode extends LLVMExpressionNode {
+    public abstract static class LLVMShuffleI16VectorNode extends LLVMShuffleVectorNode {
 
-        @Specialization
-        protected LLVMI32Vector doI32Vector(LLVMI32Vector leftVector, LLVMI32Vector rightVector, LLVMI32Vector maskVector) {
-            int[] joinedValues = concat(leftVector.getValues(), rightVector.getValues());
-            int[] newValues = new int[maskVector.getLength()];
-            for (int i = 0; i < maskVector.getLength(); i++) {
+        @Specialization(guards = {"leftVector.getLength() == inputLength", "maskVector.getLength() == resultLength"})
+        @ExplodeLoop
+        protected LLVMI16Vector doI16Vector(LLVMI16Vector leftVector, LLVMI16Vector rightVector, LLVMI32Vector maskVector,
+                        @Cached("leftVector.getLength()") int inputLength,
+                        @Cached("maskVector.getLength()") int resultLength) {
+            short[] newValues = new short[resultLength];
+            for (int i = 0; i < resultLength; i++) {
                 int element = maskVector.getValue(i);
-                newValues[i] = joinedValues[element];
+                newValues[i] = element < inputLength ? leftVector.getValue(element) : rightVector.getValue(element - inputLength);
             }
-            return LLVMI32Vector.create(newValues);
+            return LLVMI16Vector.create(newValues);
         }
+    }
 
-        private static int[] concat(int[] first, int[] second) {
-            int[] result = new int[first.length + second.length];
-            for (int i = 0; i < first.length; i++) {
-                result[i] = first[i];
-            }
-            for (int i = first.length; i < first.length + second.length; i++) {
-                result[i] = second[i - first.length];
+    public abstract static class LLVMShuffleI32VectorNode extends LLVMShuffleVectorNode {
+
+        @Specialization(guards = {"leftVector.getLength() == inputLength", "maskVector.getLength() == resultLength"})
+        @ExplodeLoop
+        protected LLVMI32Vector doI32Vector(LLVMI32Vector leftVector, LLVMI32Vector rightVector, LLVMI32Vector maskVector,
+                        @Cached("leftVector.getLength()") int inputLength,
+                        @Cached("maskVector.getLength()") int resultLength) {
+            int[] newValues = new int[resultLength];
+            for (int i = 0; i < resultLength; i++) {
+                int element = maskVector.getValue(i);
+                newValues[i] = element < inputLength ? leftVector.getValue(element) : rightVector.getValue(element - inputLength);
             }
-            return result;
+            return LLVMI32Vector.create(newValues);
         }
     }
 
-    @NodeChildren({@NodeChild(value = "left"), @NodeChild(value = "right"), @NodeChild(value = "mask")})
-    public abstract static class LLVMShuffleI64VectorNode extends LLVMExpressionNode {
+    public abstract static class LLVMShuffleI64VectorNode extends LLVMShuffleVectorNode {
 
-        @Specialization
-        protected LLVMI64Vector doI64Vector(LLVMI64Vector leftVector, LLVMI64Vector rightVector, LLVMI32Vector maskVector) {
-            long[] joinedValues = concat(leftVector.getValues(), rightVector.getValues());
-            long[] newValues = new long[maskVector.getLength()];
-            for (int i = 0; i < maskVector.getLength(); i++) {
+        @Specialization(guards = {"leftVector.getLength() == inputLength", "maskVector.getLength() == resultLength"})
+        @ExplodeLoop
+        protected LLVMI64Vector doI64Vector(LLVMI64Vector leftVector, LLVMI64Vector rightVector, LLVMI32Vector maskVector,
+                        @Cached("leftVector.getLength()") int inputLength,
+                        @Cached("maskVector.getLength()") int resultLength) {
+            long[] newValues = new long[resultLength];
+            for (int i = 0; i < resultLength; i++) {
                 int element = maskVector.getValue(i);
-                newValues[i] = joinedValues[element];
+                newValues[i] = element < inputLength ? leftVector.getValue(element) : rightVector.getValue(element - inputLength);
             }
             return LLVMI64Vector.create(newValues);
         }
-
-        private static long[] concat(long[] first, long[] second) {
-            long[] result = new long[first.length + second.length];
-            for (int i = 0; i < first.length; i++) {
-                result[i] = first[i];
-            }
-            for (int i = first.length; i < first.length + second.length; i++) {
-                result[i] = second[i - first.length];
-            }
-            return result;
-        }
     }
 
-    @NodeChildren({@NodeChild(value = "left"), @NodeChild(value = "right"), @NodeChild(value = "mask")})
-    public abstract static class LLVMShuffleFloatVectorNode extends LLVMExpressionNode {
+    public abstract static class LLVMShuffleFloatVectorNode extends LLVMShuffleVectorNode {
 
-        @Specialization
-        protected LLVMFloatVector doOp(LLVMFloatVector leftVector, LLVMFloatVector rightVector, LLVMI32Vector maskVector) {
-            float[] joinedValues = concat(leftVector.getValues(), rightVector.getValues());
-            float[] newValues = new float[maskVector.getLength()];
-            for (int i = 0; i < maskVector.getLength(); i++) {
+        @Specialization(guards = {"leftVector.getLength() == inputLength", "maskVector.getLength() == resultLength"})
+        @ExplodeLoop
+        protected LLVMFloatVector doOp(LLVMFloatVector leftVector, LLVMFloatVector rightVector, LLVMI32Vector maskVector,
+                        @Cached("leftVector.getLength()") int inputLength,
+                        @Cached("maskVector.getLength()") int resultLength) {
+            float[] newValues = new float[resultLength];
+            for (int i = 0; i < resultLength; i++) {
                 int element = maskVector.getValue(i);
-                newValues[i] = joinedValues[element];
+                newValues[i] = element < inputLength ? leftVector.getValue(element) : rightVector.getValue(element - inputLength);
             }
             return LLVMFloatVector.create(newValues);
         }
-
-        private static float[] concat(float[] first, float[] second) {
-            float[] result = new float[first.length + second.length];
-            for (int i = 0; i < first.length; i++) {
-                result[i] = first[i];
-            }
-            for (int i = first.length; i < first.length + second.length; i++) {
-                result[i] = second[i - first.length];
-            }
-            return result;
-        }
     }
 
-    @NodeChildren({@NodeChild(value = "left"), @NodeChild(value = "right"), @NodeChild(value = "mask")})
-    public abstract static class LLVMShuffleDoubleVectorNode extends LLVMExpressionNode {
+    public abstract static class LLVMShuffleDoubleVectorNode extends LLVMShuffleVectorNode {
 
-        @Specialization
-        protected LLVMDoubleVector doOp(LLVMDoubleVector leftVector, LLVMDoubleVector rightVector, LLVMI32Vector maskVector) {
-            double[] joinedValues = concat(leftVector.getValues(), rightVector.getValues());
-            double[] newValues = new double[maskVector.getLength()];
-            for (int i = 0; i < maskVector.getLength(); i++) {
+        @Specialization(guards = {"leftVector.getLength() == inputLength", "maskVector.getLength() == resultLength"})
+        @ExplodeLoop
+        protected LLVMDoubleVector doOp(LLVMDoubleVector leftVector, LLVMDoubleVector rightVector, LLVMI32Vector maskVector,
+                        @Cached("leftVector.getLength()") int inputLength,
+                        @Cached("maskVector.getLength()") int resultLength) {
+            double[] newValues = new double[resultLength];
+            for (int i = 0; i < resultLength; i++) {
                 int element = maskVector.getValue(i);
-                newValues[i] = joinedValues[element];
+                newValues[i] = element < inputLength ? leftVector.getValue(element) : rightVector.getValue(element - inputLength);
             }
             return LLVMDoubleVector.create(newValues);
         }
-
-        private static double[] concat(double[] first, double[] second) {
-            double[] result = new double[first.length + second.length];
-            for (int i = 0; i < first.length; i++) {
-                result[i] = first[i];
-            }
-            for (int i = first.length; i < first.length + second.length; i++) {
-                result[i] = second[i - first.length];
-            }
-            return result;
-        }
     }
 }
@@ -32,6 +32,7 @@ package com.oracle.truffle.llvm.parser.factories;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.UnaryOperator;
 
@@ -77,12 +78,26 @@ import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCTypeIntrinsicsFactory.LLV
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCTypeIntrinsicsFactory.LLVMToUpperNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCTypeIntrinsicsFactory.LLVMTolowerNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMExitNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMLongJmpNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMMemIntrinsicFactory.LLVMLibcMemcpyNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMMemIntrinsicFactory.LLVMLibcMemsetNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMSignalNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMSortIntrinsicFactory.LLVMBsearchNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMSortIntrinsicFactory.LLVMQsortNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMMemchrNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMMemcmpNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMStrchrNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMStrcmpNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMStrcpyNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMStrlenNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMStrncmpNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMStringIntrinsicFactory.LLVMStrncpyNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMSyscall;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMTruffleReadBytesNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMLoadLibraryNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMPolyglotArrayElements.ElementType;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMPolyglotArrayElementsFactory.LLVMPolyglotGetArrayElementsNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMPolyglotArrayElementsFactory.LLVMPolyglotSetArrayElementsNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMPolyglotAsString;
 import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMPolyglotBoxedPredicate.IsBoolean;
 import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMPolyglotBoxedPredicate.IsNumber;
@@ -325,6 +340,8 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
         registerRustIntrinsics();
         registerMathFunctionIntrinsics();
         registerMemoryFunctionIntrinsics(nodeFactory);
+        registerStringFunctionIntrinsics(nodeFactory);
+        registerSortIntrinsics();
         registerExceptionIntrinsics();
         registerComplexNumberIntrinsics();
         registerCTypeIntrinsics();
@@ -705,6 +722,24 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
             }
         });
 
+        for (ElementType elementType : ElementType.values()) {
+            String suffix = elementType.name().toLowerCase(Locale.ROOT);
+            factories.put("@polyglot_get_array_elements_" + suffix, new LLVMNativeIntrinsicFactory(true, true) {
+
+                @Override
+                protected LLVMExpressionNode generate(FunctionType type) {
+                    return LLVMPolyglotGetArrayElementsNodeGen.create(elementType, LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3), LLVMArgNodeGen.create(4));
+                }
+            });
+            factories.put("@polyglot_set_array_elements_" + suffix, new LLVMNativeIntrinsicFactory(true, true) {
+
+                @Override
+                protected LLVMExpressionNode generate(FunctionType type) {
+                    return LLVMPolyglotSetArrayElementsNodeGen.create(elementType, LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3), LLVMArgNodeGen.create(4));
+                }
+            });
+        }
+
         LLVMNativeIntrinsicFactory polyglotAsI8 = new LLVMNativeIntrinsicFactory(true, true) {
 
             @Override
@@ -1218,6 +1253,16 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
                 return LLVMSignalNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
             }
         });
+        LLVMNativeIntrinsicFactory longJmp = new LLVMNativeIntrinsicFactory(true, false) {
+
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMLongJmpNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+            }
+        };
+        factories.put("@longjmp", longJmp);
+        factories.put("@_longjmp", longJmp);
+        factories.put("@siglongjmp", longJmp);
         factories.put("@syscall", new LLVMNativeIntrinsicFactory(true, false) {
 
             @Override
@@ -1628,6 +1673,76 @@ public class BasicIntrinsicsProvider implements LLVMIntrinsicProvider, ContextEx
         factories.put("@__memcpy_chk", memcpy);
     }
 
+    protected void registerStringFunctionIntrinsics(NodeFactory factory) {
+        factories.put("@strlen", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMStrlenNodeGen.create(LLVMArgNodeGen.create(1));
+            }
+        });
+        factories.put("@strcmp", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMStrcmpNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+            }
+        });
+        factories.put("@strncmp", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMStrncmpNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
+            }
+        });
+        factories.put("@memcmp", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMMemcmpNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
+            }
+        });
+        factories.put("@memchr", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMMemchrNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
+            }
+        });
+        factories.put("@strchr", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMStrchrNodeGen.create(LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+            }
+        });
+        factories.put("@strcpy", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMStrcpyNodeGen.create(factory.createMemMove(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2));
+            }
+        });
+        factories.put("@strncpy", new LLVMNativeIntrinsicFactory(true, false) {
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMStrncpyNodeGen.create(factory.createMemMove(), factory.createMemSet(), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3));
+            }
+        });
+    }
+
+    protected void registerSortIntrinsics() {
+        // split per call site, so that each call site has its own comparator inline cache
+        factories.put("@qsort", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMQsortNodeGen.create(LLVMArgNodeGen.create(0), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3), LLVMArgNodeGen.create(4));
+            }
+        });
+        factories.put("@bsearch", new LLVMNativeIntrinsicFactory(true, true) {
+
+            @Override
+            protected LLVMExpressionNode generate(FunctionType type) {
+                return LLVMBsearchNodeGen.create(LLVMArgNodeGen.create(0), LLVMArgNodeGen.create(1), LLVMArgNodeGen.create(2), LLVMArgNodeGen.create(3), LLVMArgNodeGen.create(4),
+                                LLVMArgNodeGen.create(5));
+            }
+        });
+    }
+
     protected void registerExceptionIntrinsics() {
         factories.put("@_Unwind_RaiseException", new LLVMNativeIntrinsicFactory(true, true) {
 
@@ -33,7 +33,6 @@ import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
 
-import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
@@ -66,7 +65,6 @@ import com.oracle.truffle.llvm.nodes.control.LLVMWritePhisNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMArgNodeGen;
 import com.oracle.truffle.llvm.nodes.func.LLVMCallNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMFunctionStartNode;
-import com.oracle.truffle.llvm.nodes.func.LLVMInlineAssemblyRootNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMInvokeNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMLandingpadNode;
 import com.oracle.truffle.llvm.nodes.func.LLVMResumeNode;
@@ -74,6 +72,7 @@ import com.oracle.truffle.llvm.nodes.func.LLVMTypeIdForExceptionNode;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCMathsIntrinsicsFactory;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMFAbsNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMCMathsIntrinsicsFactory.LLVMPowNodeGen;
+import com.oracle.truffle.llvm.nodes.intrinsics.c.LLVMSetJmpNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleGetArgCountNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleGetArgNodeGen;
 import com.oracle.truffle.llvm.nodes.intrinsics.llvm.LLVMAssumeNodeGen;
@@ -140,6 +139,7 @@ import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMI8Litera
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMIVarBitLiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMManagedPointerLiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMNativePointerLiteralNode;
+import com.oracle.truffle.llvm.nodes.literals.LLVMSimpleLiteralNode.LLVMStringLiteralNode;
 import com.oracle.truffle.llvm.nodes.literals.LLVMVectorLiteralNodeFactory.LLVMVectorAddressLiteralNodeGen;
 import com.oracle.truffle.llvm.nodes.literals.LLVMVectorLiteralNodeFactory.LLVMVectorDoubleLiteralNodeGen;
 import com.oracle.truffle.llvm.nodes.literals.LLVMVectorLiteralNodeFactory.LLVMVectorFloatLiteralNodeGen;
@@ -153,10 +153,15 @@ import com.oracle.truffle.llvm.nodes.memory.LLVMAllocInstruction.LLVMAllocaConst
 import com.oracle.truffle.llvm.nodes.memory.LLVMAllocInstructionFactory.LLVMAllocaConstInstructionNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMAllocInstructionFactory.LLVMAllocaInstructionNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMCompareExchangeNodeGen;
-import com.oracle.truffle.llvm.nodes.memory.LLVMFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMAcquireFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMAcquireReleaseFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMReleaseFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMSequentiallyConsistentFenceNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMFenceFactory.LLVMSingleThreadFenceNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMGetElementPtrNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMInsertValueNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMNativeVarargsAreaStackAllocationNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.LLVMReadOnlyStructByValueNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMStructByValueNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.LLVMVarArgCompoundAddressNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.NativeAllocateStringNodeGen;
@@ -173,6 +178,7 @@ import com.oracle.truffle.llvm.nodes.memory.literal.LLVMI8ArrayLiteralNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.literal.LLVMPointerArrayLiteralNode;
 import com.oracle.truffle.llvm.nodes.memory.literal.LLVMPointerArrayLiteralNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.literal.LLVMStructArrayLiteralNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.load.LLVMAtomicLoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNode.LLVMGlobalDirectLoadNode;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVM80BitFloatDirectLoadNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.load.LLVMDirectLoadNodeFactory.LLVMFunctionDirectLoadNodeGen;
@@ -200,10 +206,12 @@ import com.oracle.truffle.llvm.nodes.memory.rmw.LLVMI32RMWNodeFactory;
 import com.oracle.truffle.llvm.nodes.memory.rmw.LLVMI64RMWNodeFactory;
 import com.oracle.truffle.llvm.nodes.memory.rmw.LLVMI8RMWNodeFactory;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVM80BitFloatStoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMConstantImageStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMDoubleStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMFloatStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMFunctionStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMGlobalVariableStoreNodeGen;
+import com.oracle.truffle.llvm.nodes.memory.store.LLVMAtomicStoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI16StoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI1StoreNodeGen;
 import com.oracle.truffle.llvm.nodes.memory.store.LLVMI32StoreNodeGen;
@@ -325,6 +333,8 @@ import com.oracle.truffle.llvm.nodes.vector.LLVMInsertElementNodeFactory.LLVMI64
 import com.oracle.truffle.llvm.nodes.vector.LLVMInsertElementNodeFactory.LLVMI8InsertElementNodeGen;
 import com.oracle.truffle.llvm.nodes.vector.LLVMShuffleVectorNodeFactory.LLVMShuffleDoubleVectorNodeGen;
 import com.oracle.truffle.llvm.nodes.vector.LLVMShuffleVectorNodeFactory.LLVMShuffleFloatVectorNodeGen;
+import com.oracle.truffle.llvm.nodes.vector.LLVMShuffleVectorNodeFactory.LLVMShuffleI16VectorNodeGen;
+import com.oracle.truffle.llvm.nodes.vector.LLVMShuffleVectorNodeFactory.LLVMShuffleI1VectorNodeGen;
 import com.oracle.truffle.llvm.nodes.vector.LLVMShuffleVectorNodeFactory.LLVMShuffleI32VectorNodeGen;
 import com.oracle.truffle.llvm.nodes.vector.LLVMShuffleVectorNodeFactory.LLVMShuffleI64VectorNodeGen;
 import com.oracle.truffle.llvm.nodes.vector.LLVMShuffleVectorNodeFactory.LLVMShuffleI8VectorNodeGen;
@@ -336,16 +346,18 @@ import com.oracle.truffle.llvm.parser.metadata.debuginfo.DebugInfoGenerator;
 import com.oracle.truffle.llvm.parser.model.attributes.Attribute;
 import com.oracle.truffle.llvm.parser.model.attributes.Attribute.KnownAttribute;
 import com.oracle.truffle.llvm.parser.model.attributes.AttributesGroup;
+import com.oracle.truffle.llvm.parser.model.enums.AtomicOrdering;
 import com.oracle.truffle.llvm.parser.model.enums.CompareOperator;
 import com.oracle.truffle.llvm.parser.model.enums.Flag;
 import com.oracle.truffle.llvm.parser.model.enums.ReadModifyWriteOperator;
+import com.oracle.truffle.llvm.parser.model.enums.SynchronizationScope;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDeclaration;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor;
-import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LLVMIRFunction;
 import com.oracle.truffle.llvm.runtime.LLVMIVarBit;
+import com.oracle.truffle.llvm.runtime.LLVMInlineAssemblyCache;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException;
 import com.oracle.truffle.llvm.runtime.LLVMUnsupportedException.UnsupportedReason;
@@ -443,8 +455,12 @@ public class BasicNodeFactory implements NodeFactory {
             throw new AssertionError(resultType);
         }
         switch (((PrimitiveType) resultType.getElementType()).getPrimitiveKind()) {
+            case I1:
+                return LLVMShuffleI1VectorNodeGen.create(vector1, vector2, mask);
             case I8:
                 return LLVMShuffleI8VectorNodeGen.create(vector1, vector2, mask);
+            case I16:
+                return LLVMShuffleI16VectorNodeGen.create(vector1, vector2, mask);
             case I32:
                 return LLVMShuffleI32VectorNodeGen.create(vector1, vector2, mask);
             case I64:
@@ -470,6 +486,26 @@ public class BasicNodeFactory implements NodeFactory {
         }
     }
 
+    @Override
+    public LLVMExpressionNode createAtomicLoad(Type resolvedResultType, LLVMExpressionNode loadTarget, AtomicOrdering ordering, SynchronizationScope scope) {
+        LLVMExpressionNode load = createLoad(resolvedResultType, loadTarget);
+        if (scope == SynchronizationScope.SINGLE_THREAD) {
+            return load;
+        }
+        switch (ordering) {
+            case NOT_ATOMIC:
+            case UNORDERED:
+            case MONOTONIC:
+                return load;
+            case ACQUIRE:
+            case ACQUIRE_RELEASE:
+            case SEQUENTIALLY_CONSISTENT:
+                return LLVMAtomicLoadNodeGen.create(load);
+            default:
+                throw new AssertionError(ordering);
+        }
+    }
+
     private static LLVMLoadNode createLoadVector(VectorType resultType, LLVMExpressionNode loadTarget, int size) {
         Type elemType = resultType.getElementType();
         if (elemType instanceof PrimitiveType) {
@@ -504,6 +540,28 @@ public class BasicNodeFactory implements NodeFactory {
         return createStore(pointerNode, valueNode, type, context.getByteSize(type), source);
     }
 
+    @Override
+    public LLVMExpressionNode createAtomicStore(LLVMContext context, LLVMExpressionNode pointerNode, LLVMExpressionNode valueNode, Type type, LLVMSourceLocation source,
+                    AtomicOrdering ordering, SynchronizationScope scope) {
+        LLVMExpressionNode store = createStore(context, pointerNode, valueNode, type, source);
+        if (scope == SynchronizationScope.SINGLE_THREAD) {
+            return store;
+        }
+        switch (ordering) {
+            case NOT_ATOMIC:
+            case UNORDERED:
+            case MONOTONIC:
+                return store;
+            case RELEASE:
+            case ACQUIRE_RELEASE:
+                return LLVMAtomicStoreNodeGen.create(store, false);
+            case SEQUENTIALLY_CONSISTENT:
+                return LLVMAtomicStoreNodeGen.create(store, true);
+            default:
+                throw new AssertionError(ordering);
+        }
+    }
+
     @Override
     public LLVMExpressionNode createReadModifyWrite(ReadModifyWriteOperator operator, LLVMExpressionNode pointerNode, LLVMExpressionNode valueNode, Type type) {
         if (type instanceof PrimitiveType) {
@@ -626,8 +684,21 @@ public class BasicNodeFactory implements NodeFactory {
     }
 
     @Override
-    public LLVMExpressionNode createFence() {
-        return LLVMFenceNodeGen.create();
+    public LLVMExpressionNode createFence(AtomicOrdering ordering, SynchronizationScope scope) {
+        if (scope == SynchronizationScope.SINGLE_THREAD) {
+            return LLVMSingleThreadFenceNodeGen.create();
+        }
+        switch (ordering) {
+            case ACQUIRE:
+                return LLVMAcquireFenceNodeGen.create();
+            case RELEASE:
+                return LLVMReleaseFenceNodeGen.create();
+            case ACQUIRE_RELEASE:
+                return LLVMAcquireReleaseFenceNodeGen.create();
+            default:
+                // fences are never weaker than acquire, be conservative with anything else
+                return LLVMSequentiallyConsistentFenceNodeGen.create();
+        }
     }
 
     @Override
@@ -799,59 +870,43 @@ public class BasicNodeFactory implements NodeFactory {
             // Do not profile the stackpointer
             return argNode;
         }
-        if (paramType instanceof PrimitiveType) {
-            switch (((PrimitiveType) paramType).getPrimitiveKind()) {
+        return createValueProfile(paramType, argNode);
+    }
+
+    /**
+     * Argument and return value profiles are created in the callee, so that all call sites share
+     * the same profile.
+     */
+    private static LLVMExpressionNode createValueProfile(Type type, LLVMExpressionNode node) {
+        if (type instanceof PrimitiveType) {
+            switch (((PrimitiveType) type).getPrimitiveKind()) {
                 case I8:
-                    return LLVMI8ProfiledValueNodeGen.create(argNode);
+                    return LLVMI8ProfiledValueNodeGen.create(node);
                 case I32:
-                    return LLVMI32ProfiledValueNodeGen.create(argNode);
+                    return LLVMI32ProfiledValueNodeGen.create(node);
                 case I64:
-                    return LLVMI64ProfiledValueNodeGen.create(argNode);
+                    return LLVMI64ProfiledValueNodeGen.create(node);
                 case FLOAT:
-                    return LLVMFloatProfiledValueNodeGen.create(argNode);
+                    return LLVMFloatProfiledValueNodeGen.create(node);
                 case DOUBLE:
-                    return LLVMDoubleProfiledValueNodeGen.create(argNode);
+                    return LLVMDoubleProfiledValueNodeGen.create(node);
                 case I1:
-                    return LLVMI1ProfiledValueNodeGen.create(argNode);
+                    return LLVMI1ProfiledValueNodeGen.create(node);
                 case I16:
-                    return LLVMI16ProfiledValueNodeGen.create(argNode);
+                    return LLVMI16ProfiledValueNodeGen.create(node);
                 default:
-                    return argNode;
+                    return node;
             }
-        } else if (paramType instanceof PointerType) {
-            return LLVMAddressProfiledValueNodeGen.create(argNode);
+        } else if (type instanceof PointerType) {
+            return LLVMAddressProfiledValueNodeGen.create(node);
         } else {
-            return argNode;
+            return node;
         }
     }
 
     @Override
     public LLVMExpressionNode createFunctionCall(LLVMExpressionNode functionNode, LLVMExpressionNode[] argNodes, FunctionType type, LLVMSourceLocation sourceSection) {
-        LLVMExpressionNode callNode = new LLVMCallNode(type, functionNode, argNodes, sourceSection);
-        if (type.getReturnType() instanceof PrimitiveType) {
-            switch (((PrimitiveType) type.getReturnType()).getPrimitiveKind()) {
-                case I8:
-                    return LLVMI8ProfiledValueNodeGen.create(callNode);
-                case I32:
-                    return LLVMI32ProfiledValueNodeGen.create(callNode);
-                case I64:
-                    return LLVMI64ProfiledValueNodeGen.create(callNode);
-                case FLOAT:
-                    return LLVMFloatProfiledValueNodeGen.create(callNode);
-                case DOUBLE:
-                    return LLVMDoubleProfiledValueNodeGen.create(callNode);
-                case I1:
-                    return LLVMI1ProfiledValueNodeGen.create(callNode);
-                case I16:
-                    return LLVMI16ProfiledValueNodeGen.create(callNode);
-                default:
-                    return callNode;
-            }
-        } else if (type.getReturnType() instanceof PointerType) {
-            return LLVMAddressProfiledValueNodeGen.create(callNode);
-        } else {
-            return callNode;
-        }
+        return new LLVMCallNode(type, functionNode, argNodes, sourceSection);
     }
 
     @Override
@@ -1192,6 +1247,8 @@ public class BasicNodeFactory implements NodeFactory {
                 return new LLVMManagedPointerLiteralNode(LLVMManagedPointer.cast(value));
             } else if (value instanceof LLVMGlobal) {
                 return new LLVMAccessGlobalVariableStorageNode((LLVMGlobal) value);
+            } else if (value instanceof String) {
+                return new LLVMStringLiteralNode((String) value);
             } else {
                 throw new AssertionError(value.getClass());
             }
@@ -1373,6 +1430,11 @@ public class BasicNodeFactory implements NodeFactory {
         return LLVMMemSetNodeGen.create(createMemSet(), addressNode, new LLVMI8LiteralNode((byte) 0), new LLVMI32LiteralNode(size), new LLVMI32LiteralNode(0), new LLVMI1LiteralNode(false), null);
     }
 
+    @Override
+    public LLVMExpressionNode createConstantImageStore(LLVMExpressionNode addressNode, byte[] image) {
+        return LLVMConstantImageStoreNodeGen.create(image, addressNode);
+    }
+
     @Override
     public LLVMExpressionNode createStructureConstantNode(LLVMContext context, Type structType, boolean packed, Type[] types, LLVMExpressionNode[] constants) {
         int[] offsets = new int[types.length];
@@ -1434,11 +1496,12 @@ public class BasicNodeFactory implements NodeFactory {
     }
 
     @Override
-    public RootNode createFunctionStartNode(LLVMContext context, LLVMExpressionNode functionBodyNode, SourceSection sourceSection, FrameDescriptor frame, FunctionDefinition functionHeader,
-                    Source bcSource, LLVMSourceLocation location) {
+    public RootNode createFunctionStartNode(LLVMContext context, LLVMExpressionNode functionBodyNode, SourceSection sourceSection, FrameDescriptor frame, FrameSlot[] frameSlotsToInitialize,
+                    FunctionDefinition functionHeader, Source bcSource, LLVMSourceLocation location) {
         final String originalName = DebugInfoGenerator.getSourceFunctionName(functionHeader);
-        return new LLVMFunctionStartNode(sourceSection, context.getLanguage(), functionBodyNode, frame, functionHeader.getName(), functionHeader.getParameters().size(), originalName, bcSource,
-                        location);
+        LLVMExpressionNode profiledBodyNode = createValueProfile(functionHeader.getType().getReturnType(), functionBodyNode);
+        return new LLVMFunctionStartNode(sourceSection, context.getLanguage(), profiledBodyNode, frame, frameSlotsToInitialize, functionHeader.getName(), functionHeader.getParameters().size(),
+                        originalName, bcSource, location);
     }
 
     @Override
@@ -1453,10 +1516,13 @@ public class BasicNodeFactory implements NodeFactory {
             retOffsets = alloca.getOffsets();
         }
 
-        Parser asmParser = new Parser(context.getLanguage(), sourceSection, asmExpression, asmFlags, argTypes, retType, retTypes, retOffsets);
-        LLVMInlineAssemblyRootNode assemblyRoot = asmParser.Parse();
-        LLVMFunctionDescriptor asm = LLVMFunctionDescriptor.createDescriptor(context, "<asm>", new FunctionType(MetaType.UNKNOWN, new Type[0], false), -1);
-        asm.define(library, new LLVMIRFunction(Truffle.getRuntime().createCallTarget(assemblyRoot), null));
+        Type[] finalRetTypes = retTypes;
+        int[] finalRetOffsets = retOffsets;
+        LLVMInlineAssemblyCache cache = context.getLanguage().getInlineAssemblyCache();
+        LLVMFunctionDescriptor asm = cache.getFunction(context, library, asmExpression, asmFlags, argTypes, retType, retTypes, retOffsets, sourceSection, location -> {
+            Parser asmParser = new Parser(context.getLanguage(), location, asmExpression, asmFlags, argTypes, retType, finalRetTypes, finalRetOffsets);
+            return asmParser.Parse();
+        });
         LLVMFunctionLiteralNode asmFunction = LLVMFunctionLiteralNodeGen.create(asm);
 
         return new LLVMCallNode(new FunctionType(MetaType.UNKNOWN, argTypes, false), asmFunction, args, sourceSection);
@@ -1538,6 +1604,11 @@ public class BasicNodeFactory implements NodeFactory {
                 // this function accesses the frame directly
                 // it must therefore not be hidden behind a call target
                 return LLVMTruffleGetArgCountNodeGen.create(sourceSection);
+            } else if (declaration.getName().equals("@setjmp") || declaration.getName().equals("@_setjmp") || declaration.getName().equals("@sigsetjmp") ||
+                            declaration.getName().equals("@__sigsetjmp")) {
+                // this function accesses the frame directly
+                // it must therefore not be hidden behind a call target
+                return LLVMSetJmpNodeGen.create(args[1], sourceSection);
             } else if (declaration.getName().equals("@__divsc3")) {
                 // this function allocates the result on the stack
                 return new LLVMComplexDivSC(args[1], args[2], args[3], args[4]);
@@ -1819,6 +1890,11 @@ public class BasicNodeFactory implements NodeFactory {
         return LLVMStructByValueNodeGen.create(createMemMove(), allocationNode, parameterNode, context.getByteSize(type));
     }
 
+    @Override
+    public LLVMExpressionNode createReadOnlyStructByValue(LLVMExpressionNode parameterNode) {
+        return LLVMReadOnlyStructByValueNodeGen.create(parameterNode);
+    }
+
     @Override
     public LLVMExpressionNode createVarArgCompoundValue(int length, int alignment, LLVMExpressionNode parameterNode) {
         return LLVMVarArgCompoundAddressNodeGen.create(parameterNode, length, alignment);
@@ -42,6 +42,11 @@ import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallCloseNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallConnectNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallDup2Node;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallDupNode;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEpollCreate1NodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEpollCtlNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEpollPwaitNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEpollWaitNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallEventfd2NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallExitNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFaccessatNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallFcntlNodeGen;
@@ -66,11 +71,19 @@ import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallIoctlNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallListenNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallLseekNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallLstatNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMadviseNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMmapNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMprotectNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMremapNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMsyncNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallMunmapNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallNanosleepNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallOpenNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPipe2NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPipeNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPollNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPread64NodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallPwrite64NodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallReadNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallReadvNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallRecvfromNodeGen;
@@ -90,6 +103,9 @@ import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallSocketNode;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallStatNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallStatfsNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallSyslogNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallTimerfdCreateNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallTimerfdGettimeNodeGen;
+import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallTimerfdSettimeNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallUnameNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallUnlinkNodeGen;
 import com.oracle.truffle.llvm.nodes.asm.syscall.LLVMAMD64SyscallUtimensatNodeGen;
@@ -131,6 +147,10 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return new LLVMAMD64SyscallLseekNode();
             case LLVMAMD64Syscall.SYS_mmap:
                 return LLVMAMD64SyscallMmapNodeGen.create();
+            case LLVMAMD64Syscall.SYS_mprotect:
+                return LLVMAMD64SyscallMprotectNodeGen.create();
+            case LLVMAMD64Syscall.SYS_munmap:
+                return LLVMAMD64SyscallMunmapNodeGen.create();
             case LLVMAMD64Syscall.SYS_brk:
                 return LLVMAMD64SyscallBrkNodeGen.create();
             case LLVMAMD64Syscall.SYS_rt_sigaction:
@@ -139,6 +159,10 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallRtSigprocmaskNodeGen.create();
             case LLVMAMD64Syscall.SYS_ioctl:
                 return LLVMAMD64SyscallIoctlNodeGen.create();
+            case LLVMAMD64Syscall.SYS_pread64:
+                return LLVMAMD64SyscallPread64NodeGen.create();
+            case LLVMAMD64Syscall.SYS_pwrite64:
+                return LLVMAMD64SyscallPwrite64NodeGen.create();
             case LLVMAMD64Syscall.SYS_readv:
                 return LLVMAMD64SyscallReadvNodeGen.create();
             case LLVMAMD64Syscall.SYS_writev:
@@ -147,10 +171,18 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallAccessNodeGen.create();
             case LLVMAMD64Syscall.SYS_pipe:
                 return LLVMAMD64SyscallPipeNodeGen.create();
+            case LLVMAMD64Syscall.SYS_mremap:
+                return LLVMAMD64SyscallMremapNodeGen.create();
+            case LLVMAMD64Syscall.SYS_msync:
+                return LLVMAMD64SyscallMsyncNodeGen.create();
+            case LLVMAMD64Syscall.SYS_madvise:
+                return LLVMAMD64SyscallMadviseNodeGen.create();
             case LLVMAMD64Syscall.SYS_dup:
                 return new LLVMAMD64SyscallDupNode();
             case LLVMAMD64Syscall.SYS_dup2:
                 return new LLVMAMD64SyscallDup2Node();
+            case LLVMAMD64Syscall.SYS_nanosleep:
+                return LLVMAMD64SyscallNanosleepNodeGen.create();
             case LLVMAMD64Syscall.SYS_getpid:
                 return new LLVMAMD64SyscallGetpidNode();
             case LLVMAMD64Syscall.SYS_sendfile:
@@ -234,12 +266,28 @@ public class BasicSystemContextExtension extends SystemContextExtension {
                 return LLVMAMD64SyscallSetTidAddressNodeGen.create();
             case LLVMAMD64Syscall.SYS_clock_gettime:
                 return LLVMAMD64SyscallClockGetTimeNodeGen.create();
+            case LLVMAMD64Syscall.SYS_epoll_wait:
+                return LLVMAMD64SyscallEpollWaitNodeGen.create();
+            case LLVMAMD64Syscall.SYS_epoll_ctl:
+                return LLVMAMD64SyscallEpollCtlNodeGen.create();
             case LLVMAMD64Syscall.SYS_renameat:
                 return LLVMAMD64SyscallRenameatNodeGen.create();
             case LLVMAMD64Syscall.SYS_faccessat:
                 return LLVMAMD64SyscallFaccessatNodeGen.create();
             case LLVMAMD64Syscall.SYS_utimensat:
                 return LLVMAMD64SyscallUtimensatNodeGen.create();
+            case LLVMAMD64Syscall.SYS_epoll_pwait:
+                return LLVMAMD64SyscallEpollPwaitNodeGen.create();
+            case LLVMAMD64Syscall.SYS_timerfd_create:
+                return LLVMAMD64SyscallTimerfdCreateNodeGen.create();
+            case LLVMAMD64Syscall.SYS_timerfd_settime:
+                return LLVMAMD64SyscallTimerfdSettimeNodeGen.create();
+            case LLVMAMD64Syscall.SYS_timerfd_gettime:
+                return LLVMAMD64SyscallTimerfdGettimeNodeGen.create();
+            case LLVMAMD64Syscall.SYS_eventfd2:
+                return LLVMAMD64SyscallEventfd2NodeGen.create();
+            case LLVMAMD64Syscall.SYS_epoll_create1:
+                return LLVMAMD64SyscallEpollCreate1NodeGen.create();
             case LLVMAMD64Syscall.SYS_pipe2:
                 return LLVMAMD64SyscallPipe2NodeGen.create();
             default:
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLocalReadVisitor;
+import com.oracle.truffle.llvm.parser.model.SymbolImpl;
+import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
+import com.oracle.truffle.llvm.parser.model.enums.AtomicOrdering;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.NullConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.integer.IntegerConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.LoadInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.PhiInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.StoreInstruction;
+import com.oracle.truffle.llvm.runtime.types.PointerType;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+import com.oracle.truffle.llvm.runtime.types.Type;
+
+/**
+ * Finds the allocas that can live in a frame slot instead of on the stack. This is the case for an
+ * alloca of a single primitive or pointer value whose address is only ever used to load and store
+ * a value of exactly that type. Any other use, e.g., passing the address to a call or to inline
+ * assembly, converting it with {@code ptrtoint}, a {@code bitcast} or a {@code getelementptr},
+ * storing the address itself or referencing it from debug information, keeps the alloca in memory.
+ */
+final class LLVMAllocaPromotionAnalysis {
+
+    private LLVMAllocaPromotionAnalysis() {
+    }
+
+    static Set<AllocateInstruction> getPromotableAllocas(FunctionDefinition function) {
+        Set<AllocateInstruction> candidates = new HashSet<>();
+        for (InstructionBlock block : function.getBlocks()) {
+            for (int i = 0; i < block.getInstructionCount(); i++) {
+                Instruction instruction = block.getInstruction(i);
+                if (instruction instanceof AllocateInstruction && isCandidate((AllocateInstruction) instruction)) {
+                    candidates.add((AllocateInstruction) instruction);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        EscapeVisitor visitor = new EscapeVisitor(candidates);
+        for (InstructionBlock block : function.getBlocks()) {
+            for (int i = 0; i < block.getInstructionCount() && !candidates.isEmpty(); i++) {
+                block.getInstruction(i).accept(visitor);
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean isCandidate(AllocateInstruction allocate) {
+        SymbolImpl count = allocate.getCount();
+        if (!(count instanceof NullConstant || (count instanceof IntegerConstant && ((IntegerConstant) count).getValue() == 1))) {
+            return false;
+        }
+        Type type = allocate.getPointeeType();
+        if (type instanceof PointerType) {
+            return true;
+        } else if (type instanceof PrimitiveType) {
+            switch (((PrimitiveType) type).getPrimitiveKind()) {
+                case I1:
+                case I8:
+                case I16:
+                case I32:
+                case I64:
+                case FLOAT:
+                case DOUBLE:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every candidate that is used as anything but the address of a plain load or store of
+     * its allocated type.
+     */
+    private static final class EscapeVisitor extends LLVMLocalReadVisitor {
+
+        private final Set<AllocateInstruction> candidates;
+
+        EscapeVisitor(Set<AllocateInstruction> candidates) {
+            this.candidates = candidates;
+        }
+
+        @Override
+        public void visit(LoadInstruction load) {
+            SymbolImpl source = load.getSource();
+            if (candidates.contains(source)) {
+                if (load.isVolatile() || load.getAtomicOrdering() != AtomicOrdering.NOT_ATOMIC || !load.getType().equals(((AllocateInstruction) source).getPointeeType())) {
+                    candidates.remove(source);
+                }
+            }
+        }
+
+        @Override
+        public void visit(StoreInstruction store) {
+            SymbolImpl destination = store.getDestination();
+            if (candidates.contains(destination)) {
+                if (store.isVolatile() || store.getAtomicOrdering() != AtomicOrdering.NOT_ATOMIC || !store.getSource().getType().equals(((AllocateInstruction) destination).getPointeeType())) {
+                    candidates.remove(destination);
+                }
+            }
+            visitLocalRead(store.getSource());
+        }
+
+        @Override
+        public void visit(PhiInstruction phi) {
+            for (int i = 0; i < phi.getSize(); i++) {
+                visitLocalRead(phi.getValue(i));
+            }
+        }
+
+        @Override
+        protected void visitLocalRead(SymbolImpl symbol) {
+            candidates.remove(symbol);
+        }
+    }
+}
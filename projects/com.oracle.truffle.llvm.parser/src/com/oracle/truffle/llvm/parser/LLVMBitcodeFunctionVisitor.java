@@ -36,6 +36,7 @@ import com.oracle.truffle.llvm.parser.LLVMPhiManager.Phi;
 import com.oracle.truffle.llvm.parser.metadata.debuginfo.SourceVariable;
 import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
 import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
 import com.oracle.truffle.llvm.parser.model.visitors.FunctionVisitor;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolReadResolver;
@@ -47,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
 
@@ -62,11 +64,13 @@ final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
     private final LLVMLivenessAnalysisResult liveness;
     private final List<FrameSlot> notNullable;
     private final LLVMRuntimeDebugInformation dbgInfoHandler;
+    private final Set<AllocateInstruction> promotedAllocas;
     private boolean initDebugValues;
 
     LLVMBitcodeFunctionVisitor(LLVMContext context, ExternalLibrary library, FrameDescriptor frame, Map<InstructionBlock, List<Phi>> phis, NodeFactory nodeFactory, int argCount,
                     LLVMSymbolReadResolver symbols,
-                    FunctionDefinition functionDefinition, LLVMLivenessAnalysisResult liveness, List<FrameSlot> notNullable, LLVMRuntimeDebugInformation dbgInfoHandler) {
+                    FunctionDefinition functionDefinition, LLVMLivenessAnalysisResult liveness, List<FrameSlot> notNullable, LLVMRuntimeDebugInformation dbgInfoHandler,
+                    Set<AllocateInstruction> promotedAllocas) {
         this.context = context;
         this.library = library;
         this.frame = frame;
@@ -78,6 +82,7 @@ final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
         this.liveness = liveness;
         this.notNullable = notNullable;
         this.dbgInfoHandler = dbgInfoHandler;
+        this.promotedAllocas = promotedAllocas;
         this.blocks = new ArrayList<>();
         this.initDebugValues = dbgInfoHandler.isEnabled();
     }
@@ -95,7 +100,7 @@ final class LLVMBitcodeFunctionVisitor implements FunctionVisitor {
         List<Phi> blockPhis = phis.get(block);
         ArrayList<LLVMLivenessAnalysis.NullerInformation> blockNullerInfos = liveness.getNullableWithinBlock()[block.getBlockIndex()];
         LLVMBitcodeInstructionVisitor visitor = new LLVMBitcodeInstructionVisitor(frame, blockPhis, nodeFactory, argCount, symbols, context, library, blockNullerInfos, function.getSourceFunction(),
-                        notNullable, dbgInfoHandler);
+                        notNullable, dbgInfoHandler, promotedAllocas);
 
         if (initDebugValues) {
             for (SourceVariable variable : function.getSourceFunction().getVariables()) {
@@ -30,8 +30,11 @@
 package com.oracle.truffle.llvm.parser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
@@ -46,6 +49,8 @@ import com.oracle.truffle.llvm.parser.model.SymbolImpl;
 import com.oracle.truffle.llvm.parser.model.attributes.Attribute;
 import com.oracle.truffle.llvm.parser.model.attributes.AttributesGroup;
 import com.oracle.truffle.llvm.parser.model.enums.AsmDialect;
+import com.oracle.truffle.llvm.parser.model.enums.AtomicOrdering;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDeclaration;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionParameter;
 import com.oracle.truffle.llvm.parser.model.symbols.constants.InlineAsmConstant;
 import com.oracle.truffle.llvm.parser.model.symbols.constants.NullConstant;
@@ -91,6 +96,7 @@ import com.oracle.truffle.llvm.parser.util.LLVMBitcodeTypeHelper;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
 import com.oracle.truffle.llvm.runtime.LLVMException;
+import com.oracle.truffle.llvm.runtime.LLVMIntrinsicProvider;
 import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack;
 import com.oracle.truffle.llvm.runtime.nodes.api.LLVMControlFlowNode;
@@ -105,6 +111,13 @@ import com.oracle.truffle.llvm.runtime.types.Type;
 
 final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
+    // the polyglot intrinsics that take the receiver as first and the member name as second argument
+    private static final Set<String> POLYGLOT_MEMBER_ACCESS = new HashSet<>(Arrays.asList("@polyglot_get_member", "@polyglot_put_member", "@polyglot_invoke", "@polyglot_remove_member",
+                    "@truffle_read", "@truffle_read_i", "@truffle_read_l", "@truffle_read_c", "@truffle_read_f", "@truffle_read_d", "@truffle_read_b",
+                    "@truffle_write", "@truffle_write_i", "@truffle_write_l", "@truffle_write_c", "@truffle_write_f", "@truffle_write_d", "@truffle_write_b",
+                    "@truffle_invoke", "@truffle_invoke_i", "@truffle_invoke_l", "@truffle_invoke_c", "@truffle_invoke_f", "@truffle_invoke_d", "@truffle_invoke_b"));
+    private static final int POLYGLOT_MEMBER_NAME_INDEX = 1;
+
     private final FrameDescriptor frame;
     private final List<Phi> blockPhis;
     private final NodeFactory nodeFactory;
@@ -117,6 +130,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
     private final SourceFunction sourceFunction;
     private final List<FrameSlot> notNullable;
     private final LLVMRuntimeDebugInformation dbgInfoHandler;
+    private final Set<AllocateInstruction> promotedAllocas;
 
     private final List<LLVMExpressionNode> blockInstructions;
     private int instructionIndex;
@@ -125,7 +139,8 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
     private LLVMSourceLocation lastLocation;
 
     LLVMBitcodeInstructionVisitor(FrameDescriptor frame, List<Phi> blockPhis, NodeFactory nodeFactory, int argCount, LLVMSymbolReadResolver symbols, LLVMContext context, ExternalLibrary library,
-                    ArrayList<LLVMLivenessAnalysis.NullerInformation> nullerInfos, SourceFunction sourceFunction, List<FrameSlot> notNullable, LLVMRuntimeDebugInformation dbgInfoHandler) {
+                    ArrayList<LLVMLivenessAnalysis.NullerInformation> nullerInfos, SourceFunction sourceFunction, List<FrameSlot> notNullable, LLVMRuntimeDebugInformation dbgInfoHandler,
+                    Set<AllocateInstruction> promotedAllocas) {
         this.frame = frame;
         this.blockPhis = blockPhis;
         this.nodeFactory = nodeFactory;
@@ -138,6 +153,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         this.sourceFunction = sourceFunction;
         this.notNullable = notNullable;
         this.dbgInfoHandler = dbgInfoHandler;
+        this.promotedAllocas = promotedAllocas;
         this.lastLocation = null;
 
         this.blockInstructions = new ArrayList<>();
@@ -163,6 +179,14 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
     @Override
     public void visit(AllocateInstruction allocate) {
         final Type type = allocate.getPointeeType();
+        if (promotedAllocas.contains(allocate)) {
+            // the value lives in the frame slot of the alloca, start with a defined value so that
+            // the slot always has the right kind when it is read
+            final LLVMExpressionNode initialValue = symbols.resolve(new NullConstant(type));
+            addInstruction(nodeFactory.createFrameWrite(type, initialValue, getSlot(allocate.getName()), null));
+            return;
+        }
+
         int alignment;
         if (allocate.getAlign() == 0) {
             alignment = context.getByteAlignment(type);
@@ -243,7 +267,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
             argIndex++;
         }
         for (int i = 0; argIndex < argumentCount; i++) {
-            argNodes[argIndex] = symbols.resolve(call.getArgument(i));
+            argNodes[argIndex] = resolveCallArgument(call.getCallTarget(), i, call.getArgument(i));
             argTypes[argIndex] = call.getArgument(i).getType();
             final AttributesGroup paramAttr = call.getParameterAttributesGroup(i);
             if (isByValue(paramAttr)) {
@@ -346,7 +370,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         argIndex++;
 
         for (int i = 0; i < call.getArgumentCount(); i++) {
-            args[argIndex] = symbols.resolve(call.getArgument(i));
+            args[argIndex] = resolveCallArgument(call.getCallTarget(), i, call.getArgument(i));
             argsType[argIndex] = call.getArgument(i).getType();
             final AttributesGroup paramAttr = call.getParameterAttributesGroup(i);
             if (isByValue(paramAttr)) {
@@ -387,7 +411,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
             argIndex++;
         }
         for (int i = 0; argIndex < argumentCount; i++, argIndex++) {
-            argNodes[argIndex] = symbols.resolve(call.getArgument(i));
+            argNodes[argIndex] = resolveCallArgument(call.getCallTarget(), i, call.getArgument(i));
             argTypes[argIndex] = call.getArgument(i).getType();
             final AttributesGroup paramAttr = call.getParameterAttributesGroup(i);
             if (isByValue(paramAttr)) {
@@ -452,7 +476,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         argIndex++;
 
         for (int i = 0; i < call.getArgumentCount(); i++) {
-            args[argIndex] = symbols.resolve(call.getArgument(i));
+            args[argIndex] = resolveCallArgument(call.getCallTarget(), i, call.getArgument(i));
             argsType[argIndex] = call.getArgument(i).getType();
             final AttributesGroup paramAttr = call.getParameterAttributesGroup(i);
             if (isByValue(paramAttr)) {
@@ -643,8 +667,19 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     @Override
     public void visit(LoadInstruction load) {
+        if (promotedAllocas.contains(load.getSource())) {
+            final FrameSlot allocaSlot = getSlot(((AllocateInstruction) load.getSource()).getName());
+            createFrameWrite(nodeFactory.createFrameRead(load.getType(), allocaSlot), load);
+            return;
+        }
+
         LLVMExpressionNode source = symbols.resolve(load.getSource());
-        LLVMExpressionNode result = nodeFactory.createLoad(load.getType(), source);
+        LLVMExpressionNode result;
+        if (load.getAtomicOrdering() == AtomicOrdering.NOT_ATOMIC) {
+            result = nodeFactory.createLoad(load.getType(), source);
+        } else {
+            result = nodeFactory.createAtomicLoad(load.getType(), source, load.getAtomicOrdering(), load.getSynchronizationScope());
+        }
         createFrameWrite(result, load);
     }
 
@@ -696,7 +731,6 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     @Override
     public void visit(StoreInstruction store) {
-        final LLVMExpressionNode pointerNode = symbols.resolve(store.getDestination());
         final LLVMExpressionNode valueNode = symbols.resolve(store.getSource());
 
         Type type = store.getSource().getType();
@@ -707,7 +741,19 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
             source = getSourceLocation(store);
         }
 
-        final LLVMExpressionNode node = nodeFactory.createStore(context, pointerNode, valueNode, type, source);
+        if (promotedAllocas.contains(store.getDestination())) {
+            final FrameSlot allocaSlot = getSlot(((AllocateInstruction) store.getDestination()).getName());
+            addInstruction(nodeFactory.createFrameWrite(type, valueNode, allocaSlot, source));
+            return;
+        }
+
+        final LLVMExpressionNode pointerNode = symbols.resolve(store.getDestination());
+        final LLVMExpressionNode node;
+        if (store.getAtomicOrdering() == AtomicOrdering.NOT_ATOMIC) {
+            node = nodeFactory.createStore(context, pointerNode, valueNode, type, source);
+        } else {
+            node = nodeFactory.createAtomicStore(context, pointerNode, valueNode, type, source, store.getAtomicOrdering(), store.getSynchronizationScope());
+        }
 
         addInstruction(node);
     }
@@ -726,7 +772,7 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
 
     @Override
     public void visit(FenceInstruction fence) {
-        final LLVMExpressionNode node = nodeFactory.createFence();
+        final LLVMExpressionNode node = nodeFactory.createFence(fence.getAtomicOrdering(), fence.getSynchronizationScope());
 
         addInstruction(node);
     }
@@ -882,6 +928,26 @@ final class LLVMBitcodeInstructionVisitor implements SymbolVisitor {
         this.controlFlowNode = controlFlowNode;
     }
 
+    private LLVMExpressionNode resolveCallArgument(SymbolImpl target, int index, SymbolImpl argument) {
+        if (index == POLYGLOT_MEMBER_NAME_INDEX && isPolyglotMemberAccess(target)) {
+            // pass constant member names as strings so that the intrinsic does not need to read
+            // them from memory on every call
+            final String name = LLVMSymbolReadResolver.evaluateCStringConstant(argument);
+            if (name != null) {
+                return nodeFactory.createLiteral(context.internString(name), argument.getType());
+            }
+        }
+        return symbols.resolve(argument);
+    }
+
+    private boolean isPolyglotMemberAccess(SymbolImpl target) {
+        if (target instanceof FunctionDeclaration && POLYGLOT_MEMBER_ACCESS.contains(((FunctionDeclaration) target).getName())) {
+            final LLVMIntrinsicProvider intrinsicProvider = context.getContextExtensionOrNull(LLVMIntrinsicProvider.class);
+            return intrinsicProvider != null && intrinsicProvider.isIntrinsified(((FunctionDeclaration) target).getName());
+        }
+        return false;
+    }
+
     private LLVMExpressionNode capsuleAddressByValue(LLVMExpressionNode child, Type type, AttributesGroup paramAttr) {
         final Type pointee = ((PointerType) type).getPointeeType();
 
@@ -74,6 +74,7 @@ import com.oracle.truffle.llvm.parser.model.symbols.instructions.VoidCallInstruc
 import com.oracle.truffle.llvm.parser.model.symbols.instructions.VoidInvokeInstruction;
 import com.oracle.truffle.llvm.parser.model.visitors.SymbolVisitor;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.LLVMException;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
 
 import java.util.ArrayDeque;
@@ -101,7 +102,7 @@ public final class LLVMLivenessAnalysis {
 
         LLVMLivenessAnalysisResult result = computeLivenessAnalysisResult(functionDefinition, blocks, frame, blockInfos, predecessors);
         if (printStatistics) {
-            printResult(context, frame, blocks, result);
+            printResult(context, frame, functionDefinition, blocks, result);
         }
         return result;
     }
@@ -183,6 +184,7 @@ public final class LLVMLivenessAnalysis {
         ArrayList<NullerInformation>[] nullableWithinBlock = new ArrayList[blocks.size()];
         BitSet[] nullableBeforeBlock = new BitSet[blocks.size()];
         BitSet[] nullableAfterBlock = new BitSet[blocks.size()];
+        BitSet frameSlotsToInitialize = computeFrameSlotsToInitialize(functionDefinition, frame, blockInfos);
 
         int[] lastInstructionIndexTouchingLocal = new int[frame.getSize()];
         LLVMNullerReadVisitor nullerReadVisitor = new LLVMNullerReadVisitor(frame, lastInstructionIndexTouchingLocal);
@@ -258,7 +260,27 @@ public final class LLVMLivenessAnalysis {
             nullableBeforeBlock[i] = blockInfo.kill;
             nullableAfterBlock[i] = blockInfo.phiDefs;
         }
-        return new LLVMLivenessAnalysisResult(nullableWithinBlock, nullableBeforeBlock, nullableAfterBlock);
+        return new LLVMLivenessAnalysisResult(nullableWithinBlock, nullableBeforeBlock, nullableAfterBlock, frameSlotsToInitialize, frame.getSize());
+    }
+
+    /**
+     * A frame slot can only be read before it is written on some path if it is alive at the
+     * beginning of the first block. All other frame slots are definitely assigned whenever they are
+     * read, so there is no need to initialize them on function entry. The arguments are written
+     * before the first block is executed.
+     */
+    private static BitSet computeFrameSlotsToInitialize(FunctionDefinition functionDefinition, FrameDescriptor frame, BlockInfo[] blockInfos) {
+        BitSet result = new BitSet(frame.getSize());
+        if (blockInfos.length > 0) {
+            result.or(blockInfos[0].in);
+        }
+        for (FunctionParameter param : functionDefinition.getParameters()) {
+            result.clear(frame.findFrameSlot(param.getName()).getIndex());
+        }
+
+        // the exception slot is not covered by the analysis
+        result.set(frame.findFrameSlot(LLVMException.FRAME_SLOT_ID).getIndex());
+        return result;
     }
 
     public static class NullerInformation implements Comparable<NullerInformation> {
@@ -436,8 +458,17 @@ public final class LLVMLivenessAnalysis {
         SulongEngineOption.getStream(context.getEnv().getOptions().get(SulongEngineOption.PRINT_LIFE_TIME_ANALYSIS_STATS)).println(builder.toString());
     }
 
-    private static void printResult(LLVMContext context, FrameDescriptor frame, List<InstructionBlock> blocks, LLVMLivenessAnalysisResult result) {
+    private static void printResult(LLVMContext context, FrameDescriptor frame, FunctionDefinition functionDefinition, List<InstructionBlock> blocks, LLVMLivenessAnalysisResult result) {
         StringBuilder builder = new StringBuilder();
+        builder.append(functionDefinition.getName());
+        builder.append(" (initializes ");
+        builder.append(result.frameSlotsToInitialize.cardinality());
+        builder.append(" of ");
+        builder.append(result.analyzedFrameSlots);
+        builder.append(" frame slots on entry)\n");
+        builder.append("  InitializedOnEntry: ");
+        builder.append(formatLocals(frame, result.frameSlotsToInitialize));
+        builder.append("\n");
         for (int i = 0; i < blocks.size(); i++) {
             builder.append("Basic block ");
             builder.append(i);
@@ -522,7 +553,7 @@ public final class LLVMLivenessAnalysis {
         }
     }
 
-    private abstract static class LLVMLocalReadVisitor implements SymbolVisitor {
+    abstract static class LLVMLocalReadVisitor implements SymbolVisitor {
 
         @Override
         public void visit(AllocateInstruction allocate) {
@@ -752,11 +783,16 @@ public final class LLVMLivenessAnalysis {
         private final ArrayList<NullerInformation>[] nullableWithinBlock;
         private final BitSet[] nullableBeforeBlock;
         private final BitSet[] nullableAfterBlock;
+        private final BitSet frameSlotsToInitialize;
+        private final int analyzedFrameSlots;
 
-        public LLVMLivenessAnalysisResult(ArrayList<NullerInformation>[] nullableWithinBlock, BitSet[] nullableBeforeBlock, BitSet[] nullableAfterBlock) {
+        public LLVMLivenessAnalysisResult(ArrayList<NullerInformation>[] nullableWithinBlock, BitSet[] nullableBeforeBlock, BitSet[] nullableAfterBlock, BitSet frameSlotsToInitialize,
+                        int analyzedFrameSlots) {
             this.nullableWithinBlock = nullableWithinBlock;
             this.nullableBeforeBlock = nullableBeforeBlock;
             this.nullableAfterBlock = nullableAfterBlock;
+            this.frameSlotsToInitialize = frameSlotsToInitialize;
+            this.analyzedFrameSlots = analyzedFrameSlots;
         }
 
         public ArrayList<NullerInformation>[] getNullableWithinBlock() {
@@ -770,5 +806,21 @@ public final class LLVMLivenessAnalysis {
         public BitSet[] getNullableAfterBlock() {
             return nullableAfterBlock;
         }
+
+        /**
+         * The frame slots that may be read before they are written on some path and therefore need
+         * to be initialized on function entry.
+         */
+        public BitSet getFrameSlotsToInitialize() {
+            return frameSlotsToInitialize;
+        }
+
+        /**
+         * The number of frame slots that existed when the analysis was run. Frame slots that are
+         * added afterwards (e.g., for debug information) are not covered by the analysis.
+         */
+        public int getAnalyzedFrameSlots() {
+            return analyzedFrameSlots;
+        }
     }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.oracle.truffle.llvm.parser.LLVMLivenessAnalysis.LLVMLocalReadVisitor;
+import com.oracle.truffle.llvm.parser.model.SymbolImpl;
+import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
+import com.oracle.truffle.llvm.parser.model.enums.CastOperator;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDeclaration;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
+import com.oracle.truffle.llvm.parser.model.functions.FunctionParameter;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.CallInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.CastInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.CompareExchangeInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.DbgDeclareInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.DbgValueInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.GetElementPointerInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.Instruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.InvokeInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.LoadInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.PhiInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.ReadModifyWriteInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.StoreInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.VoidCallInstruction;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.VoidInvokeInstruction;
+
+/**
+ * Finds the {@code byval} parameters that a function neither writes to nor lets escape. The copy
+ * of a {@code byval} struct is made on function entry, so such a parameter can simply use the
+ * memory of the caller. This is only correct if the struct cannot change while the function runs,
+ * which is why any call, atomic operation or store to memory other than the function's own
+ * allocas rules out all parameters.
+ */
+final class LLVMReadOnlyByValueAnalysis {
+
+    private LLVMReadOnlyByValueAnalysis() {
+    }
+
+    static Set<FunctionParameter> getReadOnlyParameters(FunctionDefinition function, List<FunctionParameter> byValueParameters) {
+        Set<FunctionParameter> result = new HashSet<>();
+        if (byValueParameters.isEmpty() || mayWriteNonLocalMemory(function)) {
+            return result;
+        }
+        for (FunctionParameter parameter : byValueParameters) {
+            Set<SymbolImpl> addresses = new HashSet<>();
+            addresses.add(parameter);
+            addDerivedAddresses(function, addresses);
+
+            EscapeVisitor visitor = new EscapeVisitor(addresses);
+            for (InstructionBlock block : function.getBlocks()) {
+                for (int i = 0; i < block.getInstructionCount() && !visitor.escapes; i++) {
+                    block.getInstruction(i).accept(visitor);
+                }
+            }
+            if (!visitor.escapes) {
+                result.add(parameter);
+            }
+        }
+        return result;
+    }
+
+    private static boolean mayWriteNonLocalMemory(FunctionDefinition function) {
+        Set<SymbolImpl> localAddresses = new HashSet<>();
+        for (InstructionBlock block : function.getBlocks()) {
+            for (int i = 0; i < block.getInstructionCount(); i++) {
+                if (block.getInstruction(i) instanceof AllocateInstruction) {
+                    localAddresses.add(block.getInstruction(i));
+                }
+            }
+        }
+        addDerivedAddresses(function, localAddresses);
+
+        for (InstructionBlock block : function.getBlocks()) {
+            for (int i = 0; i < block.getInstructionCount(); i++) {
+                Instruction instruction = block.getInstruction(i);
+                if (instruction instanceof StoreInstruction) {
+                    if (!localAddresses.contains(((StoreInstruction) instruction).getDestination())) {
+                        return true;
+                    }
+                } else if (instruction instanceof CallInstruction) {
+                    if (!isLifetimeMarker(((CallInstruction) instruction).getCallTarget())) {
+                        return true;
+                    }
+                } else if (instruction instanceof VoidCallInstruction) {
+                    if (!isLifetimeMarker(((VoidCallInstruction) instruction).getCallTarget())) {
+                        return true;
+                    }
+                } else if (instruction instanceof InvokeInstruction || instruction instanceof VoidInvokeInstruction || instruction instanceof ReadModifyWriteInstruction ||
+                                instruction instanceof CompareExchangeInstruction) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLifetimeMarker(SymbolImpl target) {
+        return target instanceof FunctionDeclaration && ((FunctionDeclaration) target).getName().startsWith("@llvm.lifetime.");
+    }
+
+    /**
+     * Adds all GEPs and bitcasts that are based on one of the {@code addresses}. The blocks are
+     * not necessarily in dominator order, so this iterates until nothing changes anymore.
+     */
+    private static void addDerivedAddresses(FunctionDefinition function, Set<SymbolImpl> addresses) {
+        boolean changed;
+        do {
+            changed = false;
+            for (InstructionBlock block : function.getBlocks()) {
+                for (int i = 0; i < block.getInstructionCount(); i++) {
+                    Instruction instruction = block.getInstruction(i);
+                    if (instruction instanceof GetElementPointerInstruction && addresses.contains(((GetElementPointerInstruction) instruction).getBasePointer())) {
+                        changed |= addresses.add(instruction);
+                    } else if (instruction instanceof CastInstruction && isAddressCast((CastInstruction) instruction) && addresses.contains(((CastInstruction) instruction).getValue())) {
+                        changed |= addresses.add(instruction);
+                    }
+                }
+            }
+        } while (changed);
+    }
+
+    private static boolean isAddressCast(CastInstruction cast) {
+        return cast.getOperator() == CastOperator.BITCAST;
+    }
+
+    /**
+     * Every use of an address except for loading from it, or for computing another address from
+     * it, lets the address escape or writes to it.
+     */
+    private static final class EscapeVisitor extends LLVMLocalReadVisitor {
+
+        private final Set<SymbolImpl> addresses;
+        private boolean escapes;
+
+        EscapeVisitor(Set<SymbolImpl> addresses) {
+            this.addresses = addresses;
+        }
+
+        @Override
+        public void visit(LoadInstruction load) {
+        }
+
+        @Override
+        public void visit(GetElementPointerInstruction gep) {
+            for (SymbolImpl index : gep.getIndices()) {
+                visitLocalRead(index);
+            }
+        }
+
+        @Override
+        public void visit(CastInstruction cast) {
+            if (!isAddressCast(cast)) {
+                visitLocalRead(cast.getValue());
+            }
+        }
+
+        @Override
+        public void visit(PhiInstruction phi) {
+            for (int i = 0; i < phi.getSize(); i++) {
+                visitLocalRead(phi.getValue(i));
+            }
+        }
+
+        @Override
+        public void visit(DbgDeclareInstruction inst) {
+        }
+
+        @Override
+        public void visit(DbgValueInstruction inst) {
+        }
+
+        @Override
+        protected void visitLocalRead(SymbolImpl symbol) {
+            if (addresses.contains(symbol)) {
+                escapes = true;
+            }
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.RootCallTarget;
@@ -51,6 +52,7 @@ import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionParameter;
 import com.oracle.truffle.llvm.parser.model.functions.LazyFunctionParser;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolReadResolver;
 import com.oracle.truffle.llvm.runtime.LLVMException;
 import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LazyToTruffleConverter;
@@ -89,8 +91,11 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         // prepare the phis
         final Map<InstructionBlock, List<Phi>> phis = LLVMPhiManager.getPhis(method);
 
+        // find the allocas that can live in the frame instead of on the stack
+        final Set<AllocateInstruction> promotedAllocas = LLVMAllocaPromotionAnalysis.getPromotableAllocas(method);
+
         // setup the frameDescriptor
-        final FrameDescriptor frame = StackManager.createFrame(method);
+        final FrameDescriptor frame = StackManager.createFrame(method, promotedAllocas);
 
         LLVMLivenessAnalysisResult liveness = LLVMLivenessAnalysis.computeLiveness(frame, runtime.getContext(), phis, method);
         LLVMSymbolReadResolver symbols = new LLVMSymbolReadResolver(runtime, frame);
@@ -100,10 +105,11 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         dbgInfoHandler.registerStaticDebugSymbols(method);
 
         LLVMBitcodeFunctionVisitor visitor = new LLVMBitcodeFunctionVisitor(runtime.getContext(), runtime.getLibrary(), frame, phis, runtime.getNodeFactory(), method.getParameters().size(), symbols,
-                        method, liveness, notNullable, dbgInfoHandler);
+                        method, liveness, notNullable, dbgInfoHandler, promotedAllocas);
         method.accept(visitor);
         FrameSlot[][] nullableBeforeBlock = getNullableFrameSlots(frame, liveness.getNullableBeforeBlock(), notNullable);
         FrameSlot[][] nullableAfterBlock = getNullableFrameSlots(frame, liveness.getNullableAfterBlock(), notNullable);
+        FrameSlot[] frameSlotsToInitialize = getFrameSlotsToInitialize(frame, liveness, notNullable);
         LLVMSourceLocation location = method.getLexicalScope();
 
         List<LLVMExpressionNode> copyArgumentsToFrame = copyArgumentsToFrame(frame);
@@ -112,7 +118,7 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
                         nullableAfterBlock,
                         location, copyArgumentsToFrameArray);
 
-        RootNode rootNode = runtime.getNodeFactory().createFunctionStartNode(runtime.getContext(), body, method.getSourceSection(), frame, method, source, location);
+        RootNode rootNode = runtime.getNodeFactory().createFunctionStartNode(runtime.getContext(), body, method.getSourceSection(), frame, frameSlotsToInitialize, method, source, location);
 
         return Truffle.getRuntime().createCallTarget(rootNode);
     }
@@ -146,12 +152,33 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         return result;
     }
 
+    private static FrameSlot[] getFrameSlotsToInitialize(FrameDescriptor frame, LLVMLivenessAnalysisResult liveness, List<FrameSlot> notNullable) {
+        BitSet toInitialize = liveness.getFrameSlotsToInitialize();
+        ArrayList<FrameSlot> result = new ArrayList<>();
+        for (FrameSlot frameSlot : frame.getSlots()) {
+            int index = frameSlot.getIndex();
+            // the slots that are only known to the debugger are always initialized
+            if (index >= liveness.getAnalyzedFrameSlots() || toInitialize.get(index) || notNullable.contains(frameSlot)) {
+                result.add(frameSlot);
+            }
+        }
+        return result.toArray(new FrameSlot[result.size()]);
+    }
+
     private List<LLVMExpressionNode> copyArgumentsToFrame(FrameDescriptor frame) {
         List<FunctionParameter> parameters = method.getParameters();
         List<LLVMExpressionNode> formalParamInits = new ArrayList<>();
         LLVMExpressionNode stackPointerNode = runtime.getNodeFactory().createFunctionArgNode(0, PrimitiveType.I64);
         formalParamInits.add(runtime.getNodeFactory().createFrameWrite(PointerType.VOID, stackPointerNode, frame.findFrameSlot(LLVMStack.FRAME_ID), null));
 
+        List<FunctionParameter> byValueParameters = new ArrayList<>();
+        for (FunctionParameter parameter : parameters) {
+            if (isStructByValue(parameter)) {
+                byValueParameters.add(parameter);
+            }
+        }
+        Set<FunctionParameter> readOnlyByValueParameters = LLVMReadOnlyByValueAnalysis.getReadOnlyParameters(method, byValueParameters);
+
         int argIndex = 1;
         if (method.getType().getReturnType() instanceof StructureType) {
             argIndex++;
@@ -159,7 +186,9 @@ public class LazyToTruffleConverterImpl implements LazyToTruffleConverter {
         for (FunctionParameter parameter : parameters) {
             LLVMExpressionNode parameterNode = runtime.getNodeFactory().createFunctionArgNode(argIndex++, parameter.getType());
             FrameSlot slot = frame.findFrameSlot(parameter.getName());
-            if (isStructByValue(parameter)) {
+            if (readOnlyByValueParameters.contains(parameter)) {
+                formalParamInits.add(runtime.getNodeFactory().createFrameWrite(parameter.getType(), runtime.getNodeFactory().createReadOnlyStructByValue(parameterNode), slot, null));
+            } else if (isStructByValue(parameter)) {
                 Type type = ((PointerType) parameter.getType()).getPointeeType();
                 formalParamInits.add(runtime.getNodeFactory().createFrameWrite(parameter.getType(), runtime.getNodeFactory().createCopyStructByValue(runtime.getContext(), type, parameterNode), slot,
                                 null));
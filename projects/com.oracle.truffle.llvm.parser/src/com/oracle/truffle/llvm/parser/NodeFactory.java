@@ -39,9 +39,11 @@ import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.llvm.parser.instructions.LLVMArithmeticInstructionType;
 import com.oracle.truffle.llvm.parser.instructions.LLVMConversionType;
 import com.oracle.truffle.llvm.parser.instructions.LLVMLogicalInstructionKind;
+import com.oracle.truffle.llvm.parser.model.enums.AtomicOrdering;
 import com.oracle.truffle.llvm.parser.model.enums.CompareOperator;
 import com.oracle.truffle.llvm.parser.model.enums.Flag;
 import com.oracle.truffle.llvm.parser.model.enums.ReadModifyWriteOperator;
+import com.oracle.truffle.llvm.parser.model.enums.SynchronizationScope;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
 import com.oracle.truffle.llvm.runtime.LLVMContext;
 import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
@@ -78,11 +80,16 @@ public interface NodeFactory extends InteropNodeFactory {
 
     LLVMExpressionNode createLoad(Type resolvedResultType, LLVMExpressionNode loadTarget);
 
+    LLVMExpressionNode createAtomicLoad(Type resolvedResultType, LLVMExpressionNode loadTarget, AtomicOrdering ordering, SynchronizationScope scope);
+
     LLVMExpressionNode createStore(LLVMContext context, LLVMExpressionNode pointerNode, LLVMExpressionNode valueNode, Type type, LLVMSourceLocation source);
 
+    LLVMExpressionNode createAtomicStore(LLVMContext context, LLVMExpressionNode pointerNode, LLVMExpressionNode valueNode, Type type, LLVMSourceLocation source, AtomicOrdering ordering,
+                    SynchronizationScope scope);
+
     LLVMExpressionNode createReadModifyWrite(ReadModifyWriteOperator operator, LLVMExpressionNode pointerNode, LLVMExpressionNode valueNode, Type type);
 
-    LLVMExpressionNode createFence();
+    LLVMExpressionNode createFence(AtomicOrdering ordering, SynchronizationScope scope);
 
     LLVMExpressionNode createLogicalOperation(LLVMExpressionNode left, LLVMExpressionNode right, LLVMLogicalInstructionKind opCode, Type llvmType, Flag[] flags);
 
@@ -160,6 +167,8 @@ public interface NodeFactory extends InteropNodeFactory {
 
     LLVMExpressionNode createZeroNode(LLVMExpressionNode addressNode, int size);
 
+    LLVMExpressionNode createConstantImageStore(LLVMExpressionNode addressNode, byte[] image);
+
     LLVMExpressionNode createStructureConstantNode(LLVMContext context, Type structureType, boolean packed, Type[] types, LLVMExpressionNode[] constants);
 
     LLVMExpressionNode createBasicBlockNode(LLVMExpressionNode[] statementNodes, LLVMControlFlowNode terminatorNode, int blockId, String blockName);
@@ -167,8 +176,8 @@ public interface NodeFactory extends InteropNodeFactory {
     LLVMExpressionNode createFunctionBlockNode(FrameSlot exceptionValueSlot, List<? extends LLVMExpressionNode> basicBlockNodes, FrameSlot[][] beforeBlockNuller,
                     FrameSlot[][] afterBlockNuller, LLVMSourceLocation sourceSection, LLVMExpressionNode[] copyArgumentsToFrame);
 
-    RootNode createFunctionStartNode(LLVMContext context, LLVMExpressionNode functionBodyNode, SourceSection sourceSection, FrameDescriptor frameDescriptor, FunctionDefinition functionHeader,
-                    Source bcSource, LLVMSourceLocation location);
+    RootNode createFunctionStartNode(LLVMContext context, LLVMExpressionNode functionBodyNode, SourceSection sourceSection, FrameDescriptor frameDescriptor, FrameSlot[] frameSlotsToInitialize,
+                    FunctionDefinition functionHeader, Source bcSource, LLVMSourceLocation location);
 
     LLVMExpressionNode createInlineAssemblerExpression(LLVMContext context, ExternalLibrary library, String asmExpression, String asmFlags, LLVMExpressionNode[] args, Type[] argTypes, Type retType,
                     LLVMSourceLocation sourceSection);
@@ -187,6 +196,8 @@ public interface NodeFactory extends InteropNodeFactory {
 
     LLVMExpressionNode createCopyStructByValue(LLVMContext context, Type type, LLVMExpressionNode parameterNode);
 
+    LLVMExpressionNode createReadOnlyStructByValue(LLVMExpressionNode parameterNode);
+
     LLVMExpressionNode createVarArgCompoundValue(int length, int alignment, LLVMExpressionNode parameterNode);
 
     LLVMExpressionNode createDebugWrite(boolean isDeclaration, LLVMExpressionNode valueRead, FrameSlot targetSlot, LLVMExpressionNode aggregateRead, int partIndex, int[] clearParts);
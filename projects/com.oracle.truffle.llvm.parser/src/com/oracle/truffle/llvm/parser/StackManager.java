@@ -29,11 +29,14 @@
  */
 package com.oracle.truffle.llvm.parser;
 
+import java.util.Set;
+
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlotKind;
 import com.oracle.truffle.llvm.parser.model.blocks.InstructionBlock;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionDefinition;
 import com.oracle.truffle.llvm.parser.model.functions.FunctionParameter;
+import com.oracle.truffle.llvm.parser.model.symbols.instructions.AllocateInstruction;
 import com.oracle.truffle.llvm.parser.model.symbols.instructions.ValueInstruction;
 import com.oracle.truffle.llvm.parser.model.visitors.FunctionVisitor;
 import com.oracle.truffle.llvm.parser.model.visitors.ValueInstructionVisitor;
@@ -53,7 +56,7 @@ public final class StackManager {
         return rootFrame;
     }
 
-    public static FrameDescriptor createFrame(FunctionDefinition function) {
+    public static FrameDescriptor createFrame(FunctionDefinition function, Set<AllocateInstruction> promotedAllocas) {
         final FrameDescriptor frame = new FrameDescriptor();
 
         frame.addFrameSlot(LLVMException.FRAME_SLOT_ID, null, FrameSlotKind.Object);
@@ -67,7 +70,7 @@ public final class StackManager {
             frame.addFrameSlot(parameter.getName(), type, Type.getFrameSlotKind(type));
         }
 
-        final StackAllocationFunctionVisitor functionVisitor = new StackAllocationFunctionVisitor(frame);
+        final StackAllocationFunctionVisitor functionVisitor = new StackAllocationFunctionVisitor(frame, promotedAllocas);
         function.accept((FunctionVisitor) functionVisitor);
 
         return frame;
@@ -76,9 +79,11 @@ public final class StackManager {
     private static final class StackAllocationFunctionVisitor extends ValueInstructionVisitor implements FunctionVisitor {
 
         private final FrameDescriptor frame;
+        private final Set<AllocateInstruction> promotedAllocas;
 
-        private StackAllocationFunctionVisitor(FrameDescriptor frame) {
+        private StackAllocationFunctionVisitor(FrameDescriptor frame, Set<AllocateInstruction> promotedAllocas) {
             this.frame = frame;
+            this.promotedAllocas = promotedAllocas;
         }
 
         @Override
@@ -86,6 +91,10 @@ public final class StackManager {
             final String slotName = valueInstruction.getName();
 
             Type type = valueInstruction.getType();
+            if (promotedAllocas.contains(valueInstruction)) {
+                // the slot holds the allocated value itself instead of its address
+                type = ((AllocateInstruction) valueInstruction).getPointeeType();
+            }
             final FrameSlotKind slotKind = Type.getFrameSlotKind(type);
 
             if (valueInstruction.isSourceVariable()) {
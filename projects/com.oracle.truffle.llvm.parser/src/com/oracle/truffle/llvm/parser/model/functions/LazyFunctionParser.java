@@ -48,11 +48,15 @@ public final class LazyFunctionParser {
     }
 
     public void parse(DebugInfoFunctionProcessor diProcessor, Source bitcodeSource) {
-        if (!isParsed) {
-            parser.setupScope();
-            scanner.scanBlock(parser);
-            diProcessor.process(parser.getFunction(), parser.getScope(), bitcodeSource);
-            isParsed = true;
+        // the scanner, the module scope and the debug info processor are shared by all functions
+        // of a module, so functions of the same module are parsed one after the other
+        synchronized (scanner.getLock()) {
+            if (!isParsed) {
+                parser.setupScope();
+                scanner.scanBlock(parser);
+                diProcessor.process(parser.getFunction(), parser.getScope(), bitcodeSource);
+                isParsed = true;
+            }
         }
     }
 }
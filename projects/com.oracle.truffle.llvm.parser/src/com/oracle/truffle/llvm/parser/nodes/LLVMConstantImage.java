@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.parser.nodes;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.oracle.truffle.llvm.parser.model.SymbolImpl;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.NullConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.StringConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.UndefinedConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.aggregate.ArrayConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.aggregate.StructureConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.floatingpoint.DoubleConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.floatingpoint.FloatConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.integer.BigIntegerConstant;
+import com.oracle.truffle.llvm.parser.model.symbols.constants.integer.IntegerConstant;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.types.PrimitiveType;
+import com.oracle.truffle.llvm.runtime.types.Type;
+
+/**
+ * The in-memory byte image of a constant initializer, serialized at parse time so that it can be
+ * copied into global memory at once. Values that cannot be serialized without knowing symbol
+ * addresses (pointers to globals and functions, constant expressions, ...) are left as zeros in
+ * the image and reported as {@link Relocation relocations} that have to be stored separately.
+ */
+public final class LLVMConstantImage {
+
+    public static final class Relocation {
+        private final int offset;
+        private final SymbolImpl value;
+        private final Type type;
+
+        private Relocation(int offset, SymbolImpl value, Type type) {
+            this.offset = offset;
+            this.value = value;
+            this.type = type;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public SymbolImpl getValue() {
+            return value;
+        }
+
+        public Type getType() {
+            return type;
+        }
+    }
+
+    private final LLVMContext context;
+    private final int size;
+    private ByteBuffer buffer;
+    private final List<Relocation> relocations = new ArrayList<>();
+
+    private LLVMConstantImage(LLVMContext context, int size) {
+        this.context = context;
+        this.size = size;
+    }
+
+    public static LLVMConstantImage create(LLVMContext context, SymbolImpl value, Type type) {
+        LLVMConstantImage image = new LLVMConstantImage(context, context.getByteSize(type));
+        image.serialize(value, type, 0);
+        return image;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the serialized bytes, or {@code null} if all bytes of the image are zero
+     */
+    public byte[] getData() {
+        return buffer == null ? null : buffer.array();
+    }
+
+    public List<Relocation> getRelocations() {
+        return Collections.unmodifiableList(relocations);
+    }
+
+    private ByteBuffer buffer() {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffer;
+    }
+
+    private void serialize(SymbolImpl value, Type type, int offset) {
+        if (value instanceof NullConstant || value instanceof UndefinedConstant) {
+            // zero-initialized
+        } else if (value instanceof ArrayConstant) {
+            ArrayConstant array = (ArrayConstant) value;
+            Type elementType = array.getType().getElementType();
+            int stride = context.getByteSize(elementType);
+            for (int i = 0; i < array.getElementCount(); i++) {
+                serialize(array.getElement(i), elementType, offset + i * stride);
+            }
+        } else if (value instanceof StructureConstant) {
+            StructureConstant struct = (StructureConstant) value;
+            int currentOffset = 0;
+            for (int i = 0; i < struct.getElementCount(); i++) {
+                Type elementType = struct.getElementType(i);
+                if (!struct.isPacked()) {
+                    currentOffset += context.getBytePadding(currentOffset, elementType);
+                }
+                serialize(struct.getElement(i), elementType, offset + currentOffset);
+                currentOffset += context.getByteSize(elementType);
+            }
+        } else if (value instanceof StringConstant) {
+            String chars = ((StringConstant) value).getString();
+            for (int i = 0; i < chars.length(); i++) {
+                if (chars.charAt(i) != 0) {
+                    buffer().put(offset + i, (byte) chars.charAt(i));
+                }
+            }
+        } else if (value instanceof IntegerConstant && type instanceof PrimitiveType) {
+            serializeInteger(((IntegerConstant) value).getValue(), (PrimitiveType) type, value, offset);
+        } else if (value instanceof BigIntegerConstant && type instanceof PrimitiveType && type.getBitSize() <= Long.SIZE) {
+            serializeInteger(((BigIntegerConstant) value).getValue().longValue(), (PrimitiveType) type, value, offset);
+        } else if (value instanceof FloatConstant) {
+            buffer().putFloat(offset, ((FloatConstant) value).getValue());
+        } else if (value instanceof DoubleConstant) {
+            buffer().putDouble(offset, ((DoubleConstant) value).getValue());
+        } else {
+            relocations.add(new Relocation(offset, value, type));
+        }
+    }
+
+    private void serializeInteger(long value, PrimitiveType type, SymbolImpl symbol, int offset) {
+        if (value == 0) {
+            return;
+        }
+        switch (type.getPrimitiveKind()) {
+            case I1:
+                buffer().put(offset, (byte) 1);
+                break;
+            case I8:
+                buffer().put(offset, (byte) value);
+                break;
+            case I16:
+                buffer().putShort(offset, (short) value);
+                break;
+            case I32:
+                buffer().putInt(offset, (int) value);
+                break;
+            case I64:
+                buffer().putLong(offset, value);
+                break;
+            default:
+                relocations.add(new Relocation(offset, symbol, type));
+        }
+    }
+}
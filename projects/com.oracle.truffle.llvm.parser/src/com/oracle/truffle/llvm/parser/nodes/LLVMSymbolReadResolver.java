@@ -445,6 +445,42 @@ public final class LLVMSymbolReadResolver {
         }
     }
 
+    /**
+     * Returns the contents of a C string literal, i.e., of a pointer to the start of a constant
+     * global that is not visible outside of its module and is initialized with a string. Returns
+     * {@code null} for any other symbol.
+     */
+    public static String evaluateCStringConstant(SymbolImpl pointer) {
+        SymbolImpl base = pointer;
+        if (pointer instanceof GetElementPointerConstant) {
+            for (SymbolImpl index : ((GetElementPointerConstant) pointer).getIndices()) {
+                final Long indexInteger = evaluateLongIntegerConstant(index);
+                if (indexInteger == null || indexInteger != 0) {
+                    return null;
+                }
+            }
+            base = ((GetElementPointerConstant) pointer).getBasePointer();
+        }
+
+        if (!(base instanceof GlobalVariable)) {
+            return null;
+        }
+        final GlobalVariable global = (GlobalVariable) base;
+        if (!global.isReadOnly() || global.isExported() || !(global.getValue() instanceof StringConstant)) {
+            return null;
+        }
+        final StringConstant constant = (StringConstant) global.getValue();
+        final String chars = constant.getString();
+        final int end = chars.indexOf('\0');
+        if (end >= 0) {
+            return chars.substring(0, end);
+        } else if (constant.isCString()) {
+            return chars;
+        } else {
+            return null;
+        }
+    }
+
     public LLVMExpressionNode resolveElementPointer(SymbolImpl base, List<SymbolImpl> indices) {
         LLVMExpressionNode currentAddress = resolve(base);
         Type currentType = base.getType();
@@ -456,6 +456,14 @@ public final class LLVMScanner {
             this.startingBlock = startingBlock;
         }
 
+        /**
+         * All lazy scanners of a module share the state of the scanner that created them, so only
+         * one of them may scan at a time.
+         */
+        public Object getLock() {
+            return LLVMScanner.this;
+        }
+
         public void scanBlock(ParserListener lazyParser) {
             assert parents.isEmpty();
             defaultAbbreviations.clear();
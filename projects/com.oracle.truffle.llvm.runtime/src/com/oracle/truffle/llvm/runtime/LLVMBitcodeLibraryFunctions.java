@@ -60,4 +60,15 @@ public final class LLVMBitcodeLibraryFunctions {
             return (int) execute(stack, unwindHeader, catchType.copy());
         }
     }
+
+    public static final class SulongGetExceptionTypeNode extends LibraryFunctionNode {
+
+        public SulongGetExceptionTypeNode(LLVMContext context) {
+            super(context, "@sulong_eh_getType");
+        }
+
+        public Object getType(LLVMStack.StackPointer stack, Object unwindHeader) {
+            return execute(stack, unwindHeader);
+        }
+    }
 }
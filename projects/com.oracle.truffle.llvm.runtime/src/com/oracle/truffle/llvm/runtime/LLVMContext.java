@@ -42,6 +42,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -63,6 +64,7 @@ import com.oracle.truffle.llvm.runtime.debug.LLVMSourceContext;
 import com.oracle.truffle.llvm.runtime.interop.LLVMTypedForeignObject;
 import com.oracle.truffle.llvm.runtime.interop.export.InteropNodeFactory;
 import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemoryMappings;
 import com.oracle.truffle.llvm.runtime.memory.LLVMStack.StackPointer;
 import com.oracle.truffle.llvm.runtime.memory.LLVMThreadingStack;
 import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
@@ -92,6 +94,8 @@ public final class LLVMContext {
     private final HashMap<LLVMNativePointer, TruffleObject> toManaged;
     private final LLVMSourceContext sourceContext;
     private final LLVMGlobalsStack globalStack;
+    private final LLVMMemoryMappings memoryMappings;
+    private final LLVMStdStreams stdStreams;
 
     private final LLVMLanguage language;
     private final Env env;
@@ -109,6 +113,12 @@ public final class LLVMContext {
     private final Map<Thread, Object> tls = new HashMap<>();
     private final Map<Thread, LLVMPointer> clearChildTid = new HashMap<>();
 
+    // names from constant C strings, shared so that name caches can compare them by identity
+    private final Map<String, String> internedStrings = new HashMap<>();
+
+    // function descriptors are per context, the call targets of inline assembly are shared
+    private final Map<LLVMInlineAssemblyCache.Entry, LLVMFunctionDescriptor> inlineAssemblyDescriptors = new ConcurrentHashMap<>();
+
     // signals
     private final LLVMNativePointer sigDfl;
     private final LLVMNativePointer sigIgn;
@@ -212,6 +222,8 @@ public final class LLVMContext {
         this.dataLayout = new DataLayout();
         this.destructorFunctions = new ArrayList<>();
         this.globalStack = new LLVMGlobalsStack();
+        this.memoryMappings = new LLVMMemoryMappings();
+        this.stdStreams = new LLVMStdStreams(env);
         this.nativeCallStatistics = SulongEngineOption.isTrue(env.getOptions().get(SulongEngineOption.NATIVE_CALL_STATS)) ? new HashMap<>() : null;
         this.threadingStack = new LLVMThreadingStack(Thread.currentThread(), env.getOptions().get(SulongEngineOption.STACK_SIZE_KB));
         this.sigDfl = LLVMNativePointer.create(0);
@@ -297,6 +309,7 @@ public final class LLVMContext {
 
     public void dispose(LLVMMemory memory) {
         printNativeCallStatistic();
+        printInlineAssemblyCacheStatistic();
 
         // the following cases exist for cleanup:
         // - exit() or interop: execute all atexit functions, shutdown stdlib, flush IO, and execute
@@ -312,9 +325,11 @@ public final class LLVMContext {
                 // nothing needs to be done as the behavior is not defined
             }
         }
+        stdStreams.flush();
 
         threadingStack.freeMainStack(memory);
         globalStack.free();
+        memoryMappings.release(this);
     }
 
     public LLVMGlobalsStack getGlobalsStack() {
@@ -463,6 +478,14 @@ public final class LLVMContext {
         clearChildTid.put(Thread.currentThread(), value);
     }
 
+    @TruffleBoundary
+    public String internString(String string) {
+        synchronized (internedStrings) {
+            String interned = internedStrings.putIfAbsent(string, string);
+            return interned == null ? string : interned;
+        }
+    }
+
     @TruffleBoundary
     public LLVMFunctionDescriptor getFunctionDescriptor(LLVMNativePointer handle) {
         return functionPointerRegistry.getDescriptor(handle);
@@ -577,6 +600,18 @@ public final class LLVMContext {
         return threadingStack;
     }
 
+    public LLVMMemoryMappings getMemoryMappings() {
+        return memoryMappings;
+    }
+
+    Map<LLVMInlineAssemblyCache.Entry, LLVMFunctionDescriptor> getInlineAssemblyDescriptors() {
+        return inlineAssemblyDescriptors;
+    }
+
+    public LLVMStdStreams getStdStreams() {
+        return stdStreams;
+    }
+
     public void registerDestructorFunctions(RootCallTarget destructor) {
         assert destructor != null;
         assert !destructorFunctions.contains(destructor);
@@ -691,6 +726,13 @@ public final class LLVMContext {
         }
     }
 
+    private void printInlineAssemblyCacheStatistic() {
+        String option = env.getOptions().get(SulongEngineOption.PRINT_INLINE_ASM_CACHE_STATS);
+        if (SulongEngineOption.isTrue(option)) {
+            language.getInlineAssemblyCache().printStatistics(SulongEngineOption.getStream(option));
+        }
+    }
+
     public static class ExternalLibrary {
         private final String name;
         private final Path path;
@@ -67,7 +67,7 @@ public final class LLVMFunctionDescriptor implements LLVMInternalTruffleObject,
 
     private ExternalLibrary library;
 
-    @CompilationFinal private Function function;
+    @CompilationFinal private volatile Function function;
     @CompilationFinal private Assumption functionAssumption;
 
     @CompilationFinal private TruffleObject nativeWrapper;
@@ -181,9 +181,16 @@ public final class LLVMFunctionDescriptor implements LLVMInternalTruffleObject,
 
         @Override
         void resolve(LLVMFunctionDescriptor descriptor) {
-            final RootCallTarget callTarget = converter.convert();
-            final LLVMSourceFunctionType sourceType = converter.getSourceType();
-            descriptor.setFunction(new LLVMIRFunction(callTarget, sourceType));
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            // concurrent first calls must not convert the same function twice, so all threads
+            // that see the lazy function wait here for the one that does the conversion
+            synchronized (this) {
+                if (descriptor.function == this) {
+                    final RootCallTarget callTarget = converter.convert();
+                    final LLVMSourceFunctionType sourceType = converter.getSourceType();
+                    descriptor.setFunction(new LLVMIRFunction(callTarget, sourceType));
+                }
+            }
         }
     }
 
@@ -206,18 +213,24 @@ public final class LLVMFunctionDescriptor implements LLVMInternalTruffleObject,
         @Override
         void resolve(LLVMFunctionDescriptor descriptor) {
             CompilerAsserts.neverPartOfCompilation();
-            // we already did the initial function resolution after parsing but further native
-            // libraries could have been loaded in the meantime
-            LLVMContext context = descriptor.getContext();
-            NFIContextExtension nfiContextExtension = context.getContextExtensionOrNull(NFIContextExtension.class);
-            LLVMIntrinsicProvider intrinsicProvider = context.getContextExtensionOrNull(LLVMIntrinsicProvider.class);
-            assert !descriptor.isNullFunction() && (intrinsicProvider == null || !intrinsicProvider.isIntrinsified(descriptor.getName()));
-            if (nfiContextExtension != null) {
-                NativeLookupResult nativeFunction = nfiContextExtension.getNativeFunctionOrNull(context, descriptor.getName());
-                if (nativeFunction != null) {
-                    descriptor.define(nativeFunction.getLibrary(), new LLVMFunctionDescriptor.NativeFunction(nativeFunction.getObject()));
+            synchronized (this) {
+                if (descriptor.function != this) {
+                    // another thread resolved the function in the meantime
                     return;
                 }
+                // we already did the initial function resolution after parsing but further native
+                // libraries could have been loaded in the meantime
+                LLVMContext context = descriptor.getContext();
+                NFIContextExtension nfiContextExtension = context.getContextExtensionOrNull(NFIContextExtension.class);
+                LLVMIntrinsicProvider intrinsicProvider = context.getContextExtensionOrNull(LLVMIntrinsicProvider.class);
+                assert !descriptor.isNullFunction() && (intrinsicProvider == null || !intrinsicProvider.isIntrinsified(descriptor.getName()));
+                if (nfiContextExtension != null) {
+                    NativeLookupResult nativeFunction = nfiContextExtension.getNativeFunctionOrNull(context, descriptor.getName());
+                    if (nativeFunction != null) {
+                        descriptor.define(nativeFunction.getLibrary(), new LLVMFunctionDescriptor.NativeFunction(nativeFunction.getObject()));
+                        return;
+                    }
+                }
             }
             throw new LinkageError(String.format("External function %s cannot be found.", descriptor.getName()));
         }
@@ -259,9 +272,10 @@ public final class LLVMFunctionDescriptor implements LLVMInternalTruffleObject,
 
     private void setFunction(Function newFunction) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
-        functionAssumption.invalidate();
-        this.function = newFunction;
+        Assumption oldAssumption = functionAssumption;
         this.functionAssumption = Truffle.getRuntime().createAssumption("LLVMFunctionDescriptor.functionAssumption");
+        this.function = newFunction;
+        oldAssumption.invalidate();
     }
 
     public Function getFunction() {
@@ -298,9 +312,15 @@ public final class LLVMFunctionDescriptor implements LLVMInternalTruffleObject,
         LLVMSourceFunctionType getSourceType();
     }
 
+    /**
+     * Converts a lazily parsed function. Once the function is resolved, this is a single read of
+     * the function field. Threads that race on the first call block until the one that converts
+     * the function has finished.
+     */
     public void resolveIfLazyLLVMIRFunction() {
-        if (getFunction() instanceof LazyLLVMIRFunction) {
-            getFunction().resolve(this);
+        Function current = getFunction();
+        if (current instanceof LazyLLVMIRFunction) {
+            current.resolve(this);
             assert getFunction() instanceof LLVMIRFunction;
         }
     }
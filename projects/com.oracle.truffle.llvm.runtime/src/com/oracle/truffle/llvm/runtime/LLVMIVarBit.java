@@ -42,54 +42,138 @@ import com.oracle.truffle.api.CompilerDirectives.ValueType;
 @ValueType
 public final class LLVMIVarBit {
 
+    private static final int I128_BITS = 128;
+
     private final int bits;
 
-    private final byte[] arr; // represents value as big-endian two's-complement
+    // represents value as big-endian two's-complement, null for 128 bit values
+    private final byte[] arr;
+
+    /*
+     * 128 bit values (__int128) are kept as two longs so that the common operations on them do not
+     * need to go through BigInteger. Their byte representation is derived on demand.
+     */
+    private final long high;
+    private final long low;
 
     private LLVMIVarBit() {
         this.bits = 0;
         this.arr = null;
+        this.high = 0;
+        this.low = 0;
+    }
+
+    private LLVMIVarBit(long high, long low) {
+        this.bits = I128_BITS;
+        this.arr = null;
+        this.high = high;
+        this.low = low;
     }
 
     private LLVMIVarBit(int bits, byte[] arr, int arrBits, boolean signExtend) {
         this.bits = bits;
 
-        this.arr = new byte[getByteSize()];
+        byte[] result = new byte[getByteSize()];
         if (getByteSize() >= arr.length) {
-            System.arraycopy(arr, 0, this.arr, getByteSize() - arr.length, arr.length);
+            System.arraycopy(arr, 0, result, getByteSize() - arr.length, arr.length);
         } else {
-            System.arraycopy(arr, arr.length - getByteSize(), this.arr, 0, this.arr.length);
+            System.arraycopy(arr, arr.length - getByteSize(), result, 0, result.length);
         }
 
         int mostSignificantByte = arr.length - (arrBits / Byte.SIZE) - (arrBits % Byte.SIZE != 0 ? 1 : 0);
         if (mostSignificantByte >= 0) {
             boolean shouldAddLeadingOnes = signExtend && ((arr[mostSignificantByte] & (1 << ((arrBits - 1) %
                             Byte.SIZE))) != 0);
-            int thisArrMostSignificantByte = Math.max(0, this.arr.length - arr.length + mostSignificantByte);
+            int thisArrMostSignificantByte = Math.max(0, result.length - arr.length + mostSignificantByte);
             if (shouldAddLeadingOnes) {
                 // set MSB bit's outside of given bitwidth
                 if (getByteSize() >= arr.length) {
                     for (int i = 0; i < thisArrMostSignificantByte; i++) {
-                        this.arr[i] = (byte) 0xFF;
+                        result[i] = (byte) 0xFF;
                     }
                 }
                 if (arrBits % Byte.SIZE != 0) {
-                    this.arr[thisArrMostSignificantByte] |= 0xFF << (arrBits % Byte.SIZE);
+                    result[thisArrMostSignificantByte] |= 0xFF << (arrBits % Byte.SIZE);
                 }
             } else {
                 // clear MSB bit's outside of given bitwidth
                 if (getByteSize() >= arr.length) {
                     for (int i = 0; i < thisArrMostSignificantByte; i++) {
-                        this.arr[i] = (byte) 0x00;
+                        result[i] = (byte) 0x00;
                     }
                 }
                 if (arrBits % Byte.SIZE != 0) {
-                    this.arr[thisArrMostSignificantByte] &= 0xFF >>> (8 - (arrBits % Byte.SIZE));
+                    result[thisArrMostSignificantByte] &= 0xFF >>> (8 - (arrBits % Byte.SIZE));
                 }
             }
         }
 
-        assert this.arr.length == getByteSize();
+        assert result.length == getByteSize();
+
+        if (bits == I128_BITS) {
+            this.arr = null;
+            this.high = getLong(result, 0);
+            this.low = getLong(result, Long.BYTES);
+        } else {
+            this.arr = result;
+            this.high = 0;
+            this.low = 0;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << Byte.SIZE) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[offset + i] = (byte) (value >>> ((Long.BYTES - 1 - i) * Byte.SIZE));
+        }
+    }
+
+    /**
+     * @return the big-endian two's-complement representation, a fresh array for 128 bit values
+     */
+    private byte[] bytes() {
+        if (bits == I128_BITS) {
+            byte[] bytes = new byte[2 * Long.BYTES];
+            putLong(bytes, 0, high);
+            putLong(bytes, Long.BYTES, low);
+            return bytes;
+        }
+        return arr;
+    }
+
+    private boolean isI128() {
+        return bits == I128_BITS;
+    }
+
+    private boolean isI128(LLVMIVarBit other) {
+        return bits == I128_BITS && other.bits == I128_BITS;
+    }
+
+    public static LLVMIVarBit createI128(long high, long low) {
+        return new LLVMIVarBit(high, low);
+    }
+
+    /**
+     * @return the upper 64 bits of a 128 bit value
+     */
+    public long getI128High() {
+        assert isI128();
+        return high;
+    }
+
+    /**
+     * @return the lower 64 bits of a 128 bit value
+     */
+    public long getI128Low() {
+        assert isI128();
+        return low;
     }
 
     public static LLVMIVarBit create(int bitWidth, byte[] loadedBytes, int loadedArrBits, boolean signExtend) {
@@ -101,18 +185,30 @@ public final class LLVMIVarBit {
     }
 
     public static LLVMIVarBit createZeroExt(int bits, byte from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(0, from & 0xFFL);
+        }
         return create(bits, ByteBuffer.allocate(Byte.BYTES).put(from).array(), Byte.SIZE, false);
     }
 
     public static LLVMIVarBit createZeroExt(int bits, short from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(0, from & 0xFFFFL);
+        }
         return create(bits, ByteBuffer.allocate(Short.BYTES).putShort(from).array(), Short.SIZE, false);
     }
 
     public static LLVMIVarBit createZeroExt(int bits, int from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(0, from & 0xFFFFFFFFL);
+        }
         return create(bits, ByteBuffer.allocate(Integer.BYTES).putInt(from).array(), Integer.SIZE, false);
     }
 
     public static LLVMIVarBit createZeroExt(int bits, long from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(0, from);
+        }
         return create(bits, ByteBuffer.allocate(Long.BYTES).putLong(from).array(), Long.SIZE, false);
     }
 
@@ -121,18 +217,30 @@ public final class LLVMIVarBit {
     }
 
     public static LLVMIVarBit fromByte(int bits, byte from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(from >> (Long.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Byte.BYTES).put(from).array(), Byte.SIZE, true);
     }
 
     public static LLVMIVarBit fromShort(int bits, short from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(from >> (Long.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Short.BYTES).putShort(from).array(), Short.SIZE, true);
     }
 
     public static LLVMIVarBit fromInt(int bits, int from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(from >> (Long.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Integer.BYTES).putInt(from).array(), Integer.SIZE, true);
     }
 
     public static LLVMIVarBit fromLong(int bits, long from) {
+        if (bits == I128_BITS) {
+            return new LLVMIVarBit(from >> (Long.SIZE - 1), from);
+        }
         return create(bits, ByteBuffer.allocate(Long.BYTES).putLong(from).array(), Long.SIZE, true);
     }
 
@@ -155,18 +263,20 @@ public final class LLVMIVarBit {
 
     @TruffleBoundary
     public BigInteger asUnsignedBigInteger() {
-        if (arr == null || arr.length == 0) {
+        byte[] bytes = bytes();
+        if (bytes == null || bytes.length == 0) {
             return BigInteger.ZERO;
         }
-        byte[] newArr = new byte[arr.length + 1];
-        System.arraycopy(arr, 0, newArr, 1, arr.length);
+        byte[] newArr = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, newArr, 1, bytes.length);
         return new BigInteger(newArr);
     }
 
     @TruffleBoundary
     public BigInteger asBigInteger() {
-        if (arr != null && arr.length != 0) {
-            return new BigInteger(arr);
+        byte[] bytes = bytes();
+        if (bytes != null && bytes.length != 0) {
+            return new BigInteger(bytes);
         } else {
             return BigInteger.ZERO;
         }
@@ -190,13 +300,14 @@ public final class LLVMIVarBit {
                 }
             }
         }
+        byte[] bytes = bytes();
         if (bits % Byte.SIZE == 0) {
-            bb.put(arr, 0, getByteSize());
+            bb.put(bytes, 0, getByteSize());
         } else {
             BitSet bitSet = new BitSet(Byte.SIZE);
             int bitsToSet = bits % Byte.SIZE;
             for (int i = 0; i < bitsToSet; i++) {
-                boolean isBitSet = ((arr[0] >> i) & 1) == 1;
+                boolean isBitSet = ((bytes[0] >> i) & 1) == 1;
                 if (isBitSet) {
                     bitSet.set(i);
                 }
@@ -215,8 +326,8 @@ public final class LLVMIVarBit {
             }
             // FIXME actually need to truncate or sign extend individual bits
             bb.put(firstByteResult);
-            for (int i = 1; i < arr.length; i++) {
-                bb.put(arr[i]);
+            for (int i = 1; i < bytes.length; i++) {
+                bb.put(bytes[i]);
             }
         }
 
@@ -229,49 +340,108 @@ public final class LLVMIVarBit {
     }
 
     private boolean getBit(int pos) {
+        if (isI128()) {
+            return ((pos < Long.SIZE ? low >>> pos : high >>> (pos - Long.SIZE)) & 1) == 1;
+        }
         int selectedBytePos = arr.length - 1 - (pos / Byte.SIZE);
         byte selectedByte = arr[selectedBytePos];
         int selectedBitPos = pos % Byte.SIZE;
         return ((selectedByte >> selectedBitPos) & 1) == 1;
     }
 
-    @TruffleBoundary
     public byte getByteValue() {
-        return getByteBuffer(Byte.BYTES, true).get();
+        if (isI128()) {
+            return (byte) low;
+        }
+        return getByteValueGeneric();
     }
 
     @TruffleBoundary
+    private byte getByteValueGeneric() {
+        return getByteBuffer(Byte.BYTES, true).get();
+    }
+
     public byte getZeroExtendedByteValue() {
-        return getByteBuffer(Byte.BYTES, false).get();
+        if (isI128()) {
+            return (byte) low;
+        }
+        return getZeroExtendedByteValueGeneric();
     }
 
     @TruffleBoundary
+    private byte getZeroExtendedByteValueGeneric() {
+        return getByteBuffer(Byte.BYTES, false).get();
+    }
+
     public short getShortValue() {
-        return getByteBuffer(Short.BYTES, true).getShort();
+        if (isI128()) {
+            return (short) low;
+        }
+        return getShortValueGeneric();
     }
 
     @TruffleBoundary
+    private short getShortValueGeneric() {
+        return getByteBuffer(Short.BYTES, true).getShort();
+    }
+
     public short getZeroExtendedShortValue() {
-        return getByteBuffer(Short.BYTES, false).getShort();
+        if (isI128()) {
+            return (short) low;
+        }
+        return getZeroExtendedShortValueGeneric();
     }
 
     @TruffleBoundary
+    private short getZeroExtendedShortValueGeneric() {
+        return getByteBuffer(Short.BYTES, false).getShort();
+    }
+
     public int getIntValue() {
-        return getByteBuffer(Integer.BYTES, true).getInt();
+        if (isI128()) {
+            return (int) low;
+        }
+        return getIntValueGeneric();
     }
 
     @TruffleBoundary
+    private int getIntValueGeneric() {
+        return getByteBuffer(Integer.BYTES, true).getInt();
+    }
+
     public int getZeroExtendedIntValue() {
-        return getByteBuffer(Integer.BYTES, false).getInt();
+        if (isI128()) {
+            return (int) low;
+        }
+        return getZeroExtendedIntValueGeneric();
     }
 
     @TruffleBoundary
+    private int getZeroExtendedIntValueGeneric() {
+        return getByteBuffer(Integer.BYTES, false).getInt();
+    }
+
     public long getLongValue() {
-        return getByteBuffer(Long.BYTES, true).getLong();
+        if (isI128()) {
+            return low;
+        }
+        return getLongValueGeneric();
     }
 
     @TruffleBoundary
+    private long getLongValueGeneric() {
+        return getByteBuffer(Long.BYTES, true).getLong();
+    }
+
     public long getZeroExtendedLongValue() {
+        if (isI128()) {
+            return low;
+        }
+        return getZeroExtendedLongValueGeneric();
+    }
+
+    @TruffleBoundary
+    private long getZeroExtendedLongValueGeneric() {
         return getByteBuffer(Long.BYTES, false).getLong();
     }
 
@@ -280,69 +450,154 @@ public final class LLVMIVarBit {
     }
 
     public byte[] getBytes() {
-        assert arr.length == getByteSize() : arr.length + " " + getByteSize();
-        return arr;
+        byte[] bytes = bytes();
+        assert bytes.length == getByteSize() : bytes.length + " " + getByteSize();
+        return bytes;
     }
 
     @TruffleBoundary
     public byte[] getSignExtendedBytes() {
-        return getByteBuffer(arr.length, true).array();
+        return getByteBuffer(getByteSize(), true).array();
     }
 
-    @TruffleBoundary
     public LLVMIVarBit add(LLVMIVarBit right) {
-        return asIVar(asBigInteger().add(asBigInteger(right)));
+        if (isI128(right)) {
+            long resultLow = low + right.low;
+            long carry = Long.compareUnsigned(resultLow, low) < 0 ? 1 : 0;
+            return new LLVMIVarBit(high + right.high + carry, resultLow);
+        }
+        return addGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit addGeneric(LLVMIVarBit right) {
+        return asIVar(asBigInteger().add(asBigInteger(right)));
+    }
+
     public LLVMIVarBit mul(LLVMIVarBit right) {
-        return asIVar(asBigInteger().multiply(asBigInteger(right)));
+        if (isI128(right)) {
+            long resultHigh = multiplyHighUnsigned(low, right.low) + low * right.high + high * right.low;
+            return new LLVMIVarBit(resultHigh, low * right.low);
+        }
+        return mulGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit mulGeneric(LLVMIVarBit right) {
+        return asIVar(asBigInteger().multiply(asBigInteger(right)));
+    }
+
     public LLVMIVarBit sub(LLVMIVarBit right) {
-        return asIVar(asBigInteger().subtract(asBigInteger(right)));
+        if (isI128(right)) {
+            long borrow = Long.compareUnsigned(low, right.low) < 0 ? 1 : 0;
+            return new LLVMIVarBit(high - right.high - borrow, low - right.low);
+        }
+        return subGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit subGeneric(LLVMIVarBit right) {
+        return asIVar(asBigInteger().subtract(asBigInteger(right)));
+    }
+
     public LLVMIVarBit div(LLVMIVarBit right) {
-        return asIVar(asBigInteger().divide(asBigInteger(right)));
+        if (isI128(right)) {
+            if (fitsInLong() && right.fitsInLong() && !(low == Long.MIN_VALUE && right.low == -1)) {
+                return fromLong(I128_BITS, low / right.low);
+            }
+        }
+        return divGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit divGeneric(LLVMIVarBit right) {
+        return asIVar(asBigInteger().divide(asBigInteger(right)));
+    }
+
     public LLVMIVarBit rem(LLVMIVarBit right) {
-        return asIVar(asBigInteger().remainder(asBigInteger(right)));
+        if (isI128(right)) {
+            if (fitsInLong() && right.fitsInLong()) {
+                return fromLong(I128_BITS, low % right.low);
+            }
+        }
+        return remGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit remGeneric(LLVMIVarBit right) {
+        return asIVar(asBigInteger().remainder(asBigInteger(right)));
+    }
+
     public LLVMIVarBit unsignedRem(LLVMIVarBit right) {
-        return asIVar(asUnsignedBigInteger().remainder(asBigInteger(right)));
+        if (isI128(right)) {
+            if (high == 0 && right.high == 0) {
+                return new LLVMIVarBit(0, Long.remainderUnsigned(low, right.low));
+            }
+        }
+        return unsignedRemGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit unsignedRemGeneric(LLVMIVarBit right) {
+        return asIVar(asUnsignedBigInteger().remainder(asBigInteger(right)));
+    }
+
     public LLVMIVarBit unsignedDiv(LLVMIVarBit right) {
+        if (isI128(right)) {
+            if (high == 0 && right.high == 0) {
+                return new LLVMIVarBit(0, Long.divideUnsigned(low, right.low));
+            }
+        }
+        return unsignedDivGeneric(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit unsignedDivGeneric(LLVMIVarBit right) {
         return asIVar(asUnsignedBigInteger().divide(asBigInteger(right)));
     }
 
     public int compare(LLVMIVarBit other) {
+        if (isI128(other)) {
+            return high != other.high ? Long.compare(high, other.high) : Long.compareUnsigned(low, other.low);
+        }
         int thisWidth = bits;
         int otherWidth = other.bits;
         if (thisWidth != otherWidth) {
             return thisWidth - otherWidth;
         }
+        byte[] thisBytes = bytes();
+        byte[] otherBytes = other.bytes();
         for (int i = 0; i < getByteSize() - 1; i++) {
-            int diff = arr[i] - other.getBytes()[i];
+            int diff = thisBytes[i] - otherBytes[i];
             if (diff != 0) {
                 return diff;
             }
         }
-        byte thisByte = arr[getByteSize() - 1];
-        byte otherByte = other.getBytes()[getByteSize() - 1];
+        byte thisByte = thisBytes[getByteSize() - 1];
+        byte otherByte = otherBytes[getByteSize() - 1];
         int maskLength = Byte.SIZE - (getByteSize() * Byte.SIZE - bits);
         byte mask = (byte) (((1 << maskLength) - 1) & 0xFF);
         return (thisByte & mask) - (otherByte & mask);
     }
 
+    private boolean fitsInLong() {
+        return high == low >> (Long.SIZE - 1);
+    }
+
+    /**
+     * @return the upper 64 bits of the unsigned 128 bit product of x and y
+     */
+    private static long multiplyHighUnsigned(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long w0 = x0 * y0;
+        long t = x1 * y0 + (w0 >>> 32);
+        long w1 = (t & 0xFFFFFFFFL) + x0 * y1;
+        return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+    }
+
     private interface SimpleOp {
         byte op(byte a, byte b);
     }
@@ -350,31 +605,68 @@ public final class LLVMIVarBit {
     private LLVMIVarBit performOp(LLVMIVarBit right, SimpleOp op) {
         assert bits == right.bits;
         byte[] newArr = new byte[getByteSize()];
+        byte[] bytes = bytes();
         byte[] other = right.getBytes();
-        assert arr.length == other.length : Arrays.toString(arr) + " " + Arrays.toString(other);
+        assert bytes.length == other.length : Arrays.toString(bytes) + " " + Arrays.toString(other);
         for (int i = 0; i < newArr.length; i++) {
-            newArr[i] = op.op(arr[i], other[i]);
+            newArr[i] = op.op(bytes[i], other[i]);
         }
         return new LLVMIVarBit(bits, newArr, bits, false);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit and(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a & b));
+        if (isI128(right)) {
+            return new LLVMIVarBit(high & right.high, low & right.low);
+        }
+        return andGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit andGeneric(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a & b));
+    }
+
     public LLVMIVarBit or(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a | b));
+        if (isI128(right)) {
+            return new LLVMIVarBit(high | right.high, low | right.low);
+        }
+        return orGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit orGeneric(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a | b));
+    }
+
     public LLVMIVarBit xor(LLVMIVarBit right) {
-        return performOp(right, (byte a, byte b) -> (byte) (a ^ b));
+        if (isI128(right)) {
+            return new LLVMIVarBit(high ^ right.high, low ^ right.low);
+        }
+        return xorGeneric(right);
     }
 
     @TruffleBoundary
+    private LLVMIVarBit xorGeneric(LLVMIVarBit right) {
+        return performOp(right, (byte a, byte b) -> (byte) (a ^ b));
+    }
+
     public LLVMIVarBit leftShift(LLVMIVarBit right) {
+        if (isI128(right)) {
+            int shift = right.getIntValue();
+            if (shift < 0 || shift >= I128_BITS) {
+                return new LLVMIVarBit(0, 0);
+            } else if (shift >= Long.SIZE) {
+                return new LLVMIVarBit(low << (shift - Long.SIZE), 0);
+            } else if (shift == 0) {
+                return this;
+            }
+            return new LLVMIVarBit((high << shift) | (low >>> (Long.SIZE - shift)), low << shift);
+        }
+        return leftShiftGeneric(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit leftShiftGeneric(LLVMIVarBit right) {
         BigInteger result = asBigInteger().shiftLeft(right.getIntValue());
         return asIVar(bits, result);
     }
@@ -407,32 +699,84 @@ public final class LLVMIVarBit {
         return new LLVMIVarBit(bitSize, newArr, resultLengthIncludingSign, result.signum() == -1);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit logicalRightShift(LLVMIVarBit right) {
+        if (isI128(right)) {
+            int shift = right.getIntValue();
+            if (shift < 0 || shift >= I128_BITS) {
+                return new LLVMIVarBit(0, 0);
+            } else if (shift >= Long.SIZE) {
+                return new LLVMIVarBit(0, high >>> (shift - Long.SIZE));
+            } else if (shift == 0) {
+                return this;
+            }
+            return new LLVMIVarBit(high >>> shift, (low >>> shift) | (high << (Long.SIZE - shift)));
+        }
+        return logicalRightShiftGeneric(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit logicalRightShiftGeneric(LLVMIVarBit right) {
         int shiftAmount = right.getIntValue();
         BigInteger mask = BigInteger.valueOf(-1).shiftLeft(bits - shiftAmount).not();
-        BigInteger result = new BigInteger(arr).shiftRight(shiftAmount).and(mask);
+        BigInteger result = new BigInteger(bytes()).shiftRight(shiftAmount).and(mask);
         return asIVar(result);
     }
 
-    @TruffleBoundary
     public LLVMIVarBit arithmeticRightShift(LLVMIVarBit right) {
+        if (isI128(right)) {
+            int shift = right.getIntValue();
+            if (shift < 0 || shift >= I128_BITS) {
+                long sign = high >> (Long.SIZE - 1);
+                return new LLVMIVarBit(sign, sign);
+            } else if (shift >= Long.SIZE) {
+                return new LLVMIVarBit(high >> (Long.SIZE - 1), high >> (shift - Long.SIZE));
+            } else if (shift == 0) {
+                return this;
+            }
+            return new LLVMIVarBit(high >> shift, (low >>> shift) | (high << (Long.SIZE - shift)));
+        }
+        return arithmeticRightShiftGeneric(right);
+    }
+
+    @TruffleBoundary
+    private LLVMIVarBit arithmeticRightShiftGeneric(LLVMIVarBit right) {
         BigInteger result = asBigInteger().shiftRight(right.getIntValue());
         return asIVar(result);
     }
 
-    @TruffleBoundary
     public int signedCompare(LLVMIVarBit other) {
-        return asBigInteger().compareTo(other.asBigInteger());
+        if (isI128(other)) {
+            return high != other.high ? Long.compare(high, other.high) : Long.compareUnsigned(low, other.low);
+        }
+        return signedCompareGeneric(other);
     }
 
     @TruffleBoundary
+    private int signedCompareGeneric(LLVMIVarBit other) {
+        return asBigInteger().compareTo(other.asBigInteger());
+    }
+
     public int unsignedCompare(LLVMIVarBit other) {
-        return asUnsignedBigInteger().compareTo(other.asUnsignedBigInteger());
+        if (isI128(other)) {
+            return high != other.high ? Long.compareUnsigned(high, other.high) : Long.compareUnsigned(low, other.low);
+        }
+        return unsignedCompareGeneric(other);
     }
 
     @TruffleBoundary
+    private int unsignedCompareGeneric(LLVMIVarBit other) {
+        return asUnsignedBigInteger().compareTo(other.asUnsignedBigInteger());
+    }
+
     public boolean isZero() {
+        if (isI128()) {
+            return (high | low) == 0;
+        }
+        return isZeroGeneric();
+    }
+
+    @TruffleBoundary
+    private boolean isZeroGeneric() {
         return arr == null || arr.length == 0 || BigInteger.ZERO.equals(asBigInteger());
     }
 
@@ -446,7 +790,12 @@ public final class LLVMIVarBit {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + Arrays.hashCode(arr);
+        if (isI128()) {
+            result = prime * result + Long.hashCode(high);
+            result = prime * result + Long.hashCode(low);
+        } else {
+            result = prime * result + Arrays.hashCode(arr);
+        }
         result = prime * result + bits;
         return result;
     }
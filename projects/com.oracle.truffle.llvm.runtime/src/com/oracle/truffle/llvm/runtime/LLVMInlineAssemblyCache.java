@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.debug.DebuggerTags;
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.llvm.runtime.LLVMContext.ExternalLibrary;
+import com.oracle.truffle.llvm.runtime.LLVMFunctionDescriptor.LLVMIRFunction;
+import com.oracle.truffle.llvm.runtime.debug.scope.LLVMSourceLocation;
+import com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode;
+import com.oracle.truffle.llvm.runtime.types.FunctionType;
+import com.oracle.truffle.llvm.runtime.types.MetaType;
+import com.oracle.truffle.llvm.runtime.types.PointerType;
+import com.oracle.truffle.llvm.runtime.types.Type;
+
+/**
+ * Per-language cache of parsed inline assembly. Inline assembly in {@code static inline} helpers
+ * of system headers is duplicated at every call site, but the parsed root node only depends on the
+ * assembly string, the constraints and the operand types. All call sites with the same key share
+ * one call target, and each context keeps one function descriptor per entry. The shared root node
+ * is parsed without a source location, the call node at each call site carries its own. Parse
+ * errors report the call site that triggered the parse. Assembly that halts the debugger (e.g.
+ * {@code int3}) needs the location of its call site and is parsed per call site instead.
+ */
+public final class LLVMInlineAssemblyCache {
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LLVMFunctionDescriptor getFunction(LLVMContext context, ExternalLibrary library, String asmExpression, String asmFlags, Type[] argTypes, Type retType, Type[] retTypes,
+                    int[] retOffsets, LLVMSourceLocation location, Function<LLVMSourceLocation, RootNode> parser) {
+        lookups.incrementAndGet();
+        Key key = new Key(asmExpression, asmFlags, argTypes, retType, retTypes, retOffsets);
+        Entry entry = entries.computeIfAbsent(key, k -> {
+            misses.incrementAndGet();
+            RootNode root = parse(parser, location, true);
+            return new Entry(needsLocation(root) ? null : Truffle.getRuntime().createCallTarget(root));
+        });
+        if (entry.callTarget == null) {
+            misses.incrementAndGet();
+            return createDescriptor(context, library, Truffle.getRuntime().createCallTarget(parse(parser, location, false)));
+        }
+        return context.getInlineAssemblyDescriptors().computeIfAbsent(entry, e -> createDescriptor(context, library, e.callTarget));
+    }
+
+    public void printStatistics(PrintStream stream) {
+        long total = lookups.get();
+        long parsed = misses.get();
+        long hits = total - parsed;
+        double hitRate = total == 0 ? 0 : 100.0 * hits / total;
+        stream.println(String.format("Inline assembly cache: %d lookups, %d parsed, %d hits (%.1f%%)", total, parsed, hits, hitRate));
+    }
+
+    private static RootNode parse(Function<LLVMSourceLocation, RootNode> parser, LLVMSourceLocation location, boolean shared) {
+        try {
+            return parser.apply(shared ? null : location);
+        } catch (RuntimeException e) {
+            if (location == null) {
+                throw e;
+            }
+            throw new RuntimeException(String.format("%s (in %s)", e.getMessage(), location.describeLocation()), e);
+        }
+    }
+
+    private static boolean needsLocation(RootNode root) {
+        for (LLVMNode node : NodeUtil.findAllNodeInstances(root, LLVMNode.class)) {
+            if (node.hasTag(DebuggerTags.AlwaysHalt.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LLVMFunctionDescriptor createDescriptor(LLVMContext context, ExternalLibrary library, RootCallTarget callTarget) {
+        LLVMFunctionDescriptor descriptor = LLVMFunctionDescriptor.createDescriptor(context, "<asm>", new FunctionType(MetaType.UNKNOWN, new Type[0], false), -1);
+        descriptor.define(library, new LLVMIRFunction(callTarget, null));
+        return descriptor;
+    }
+
+    static final class Entry {
+        // null if the root node depends on the call site and cannot be shared
+        private final RootCallTarget callTarget;
+
+        Entry(RootCallTarget callTarget) {
+            this.callTarget = callTarget;
+        }
+    }
+
+    private static final class Key {
+        private final String asmExpression;
+        private final String asmFlags;
+        private final Type[] argTypes;
+        private final Type retType;
+        private final Type[] retTypes;
+        private final int[] retOffsets;
+        private final int hash;
+
+        Key(String asmExpression, String asmFlags, Type[] argTypes, Type retType, Type[] retTypes, int[] retOffsets) {
+            this.asmExpression = asmExpression;
+            this.asmFlags = asmFlags;
+            this.argTypes = argTypes;
+            this.retType = retType;
+            this.retTypes = retTypes;
+            this.retOffsets = retOffsets;
+            this.hash = Objects.hash(asmExpression, asmFlags, typesHash(argTypes), typeHash(retType), typesHash(retTypes), Arrays.hashCode(retOffsets));
+        }
+
+        /*
+         * PointerType#equals ignores the pointee type, but the parser uses it to determine the size
+         * of memory operands.
+         */
+        private static boolean typeEquals(Type a, Type b) {
+            if (a instanceof PointerType && b instanceof PointerType) {
+                return typeEquals(((PointerType) a).getPointeeType(), ((PointerType) b).getPointeeType());
+            }
+            return Objects.equals(a, b);
+        }
+
+        private static boolean typesEqual(Type[] a, Type[] b) {
+            if (a == null || b == null || a.length != b.length) {
+                return a == b;
+            }
+            for (int i = 0; i < a.length; i++) {
+                if (!typeEquals(a[i], b[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int typeHash(Type type) {
+            if (type instanceof PointerType) {
+                return 31 * typeHash(((PointerType) type).getPointeeType()) + 1;
+            }
+            return Objects.hashCode(type);
+        }
+
+        private static int typesHash(Type[] types) {
+            if (types == null) {
+                return 0;
+            }
+            int result = 1;
+            for (Type type : types) {
+                result = 31 * result + typeHash(type);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && asmExpression.equals(other.asmExpression) && asmFlags.equals(other.asmFlags) && typesEqual(argTypes, other.argTypes) &&
+                            typeEquals(retType, other.retType) && typesEqual(retTypes, other.retTypes) && Arrays.equals(retOffsets, other.retOffsets);
+        }
+    }
+}
@@ -61,6 +61,8 @@ public abstract class LLVMLanguage extends TruffleLanguage<LLVMContext> {
 
     public static final String NAME = "llvm";
 
+    private final LLVMInlineAssemblyCache inlineAssemblyCache = new LLVMInlineAssemblyCache();
+
     public abstract LLVMContext findLLVMContext();
 
     public static ContextReference<LLVMContext> getLLVMContextReference() {
@@ -72,4 +74,8 @@ public abstract class LLVMLanguage extends TruffleLanguage<LLVMContext> {
     }
 
     public abstract <E> E getCapability(Class<E> type);
+
+    public LLVMInlineAssemblyCache getInlineAssemblyCache() {
+        return inlineAssemblyCache;
+    }
 }
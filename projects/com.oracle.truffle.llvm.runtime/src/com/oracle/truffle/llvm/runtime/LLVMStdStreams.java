@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory;
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+
+/**
+ * The standard streams of the embedder, as seen by the read, write, and writev system calls on file
+ * descriptors 0, 1, and 2. Only the system calls executed by Sulong itself (inline assembly and
+ * {@code syscall()}) use these streams. The stdio functions of the native C library write to the
+ * native file descriptors directly and are not affected.
+ *
+ * Stdout is only buffered if a buffer size is configured, since a buffered write can then be
+ * overtaken by output of the native C library. Stderr is never buffered. Stdout is flushed before
+ * anything is written to stderr or read from stdin, so that the relative order of the output and
+ * prompts is preserved.
+ */
+public final class LLVMStdStreams {
+
+    private static final int STDIN = 0;
+    private static final int STDOUT = 1;
+    private static final int STDERR = 2;
+
+    private static final int TRANSFER_CHUNK_SIZE = 8192;
+
+    private final boolean enabled;
+    private final InputStream in;
+    private final OutputStream out;
+    private final OutputStream err;
+
+    private byte[] transferBuffer;
+
+    LLVMStdStreams(Env env) {
+        this.enabled = env.getOptions().get(SulongEngineOption.ENV_STD_STREAMS);
+        int bufferSize = env.getOptions().get(SulongEngineOption.STD_STREAM_BUFFER_SIZE);
+        this.in = env.in();
+        this.out = bufferSize > 0 ? new BufferedOutputStream(env.out(), bufferSize) : env.out();
+        this.err = env.err();
+    }
+
+    public boolean isRedirectedInput(long fd) {
+        return enabled && fd == STDIN;
+    }
+
+    public boolean isRedirectedOutput(long fd) {
+        return enabled && (fd == STDOUT || fd == STDERR);
+    }
+
+    /**
+     * Writes {@code size} bytes starting at the native address {@code ptr} to stdout or stderr.
+     *
+     * @return the number of bytes written
+     */
+    @TruffleBoundary
+    public synchronized long write(long fd, LLVMMemory memory, long ptr, long size) throws IOException {
+        assert isRedirectedOutput(fd);
+        OutputStream stream;
+        if (fd == STDERR) {
+            out.flush();
+            stream = err;
+        } else {
+            stream = out;
+        }
+        byte[] buffer = getTransferBuffer();
+        long written = 0;
+        while (written < size) {
+            int length = (int) Math.min(buffer.length, size - written);
+            memory.getByteArray(ptr + written, buffer, length);
+            stream.write(buffer, 0, length);
+            written += length;
+        }
+        if (fd == STDERR) {
+            err.flush();
+        }
+        return written;
+    }
+
+    /**
+     * Reads at most {@code size} bytes from stdin to the native address {@code ptr}.
+     *
+     * @return the number of bytes read, or 0 at the end of the stream
+     */
+    @TruffleBoundary
+    public synchronized long read(long fd, LLVMMemory memory, long ptr, long size) throws IOException {
+        assert isRedirectedInput(fd);
+        out.flush();
+        if (size <= 0) {
+            return 0;
+        }
+        byte[] buffer = getTransferBuffer();
+        int count = in.read(buffer, 0, (int) Math.min(buffer.length, size));
+        if (count <= 0) {
+            return 0;
+        }
+        if (count == buffer.length) {
+            memory.putByteArray(ptr, buffer);
+        } else {
+            byte[] bytes = new byte[count];
+            System.arraycopy(buffer, 0, bytes, 0, count);
+            memory.putByteArray(ptr, bytes);
+        }
+        return count;
+    }
+
+    @TruffleBoundary
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            out.flush();
+            err.flush();
+        } catch (IOException e) {
+            // nothing can be reported at this point, the streams of the embedder are gone
+        }
+    }
+
+    private byte[] getTransferBuffer() {
+        if (transferBuffer == null) {
+            transferBuffer = new byte[TRANSFER_CHUNK_SIZE];
+        }
+        return transferBuffer;
+    }
+}
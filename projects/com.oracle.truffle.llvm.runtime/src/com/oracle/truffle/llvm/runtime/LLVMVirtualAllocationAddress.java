@@ -29,9 +29,19 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 import com.oracle.truffle.api.interop.ForeignAccess;
 import com.oracle.truffle.llvm.runtime.interop.LLVMInternalTruffleObject;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.BooleanBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ByteBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI16;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI32;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI64;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI8;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ShortBinaryOperator;
 import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
 
 @ValueType
@@ -123,6 +133,42 @@ public final class LLVMVirtualAllocationAddress {
         return memory.getDouble(object, offset);
     }
 
+    public boolean getAndOpI1(UnsafeArrayAccess memory, boolean value, BooleanBinaryOperator f) {
+        return memory.getAndOpI1(object, offset, value, f);
+    }
+
+    public byte getAndOpI8(UnsafeArrayAccess memory, byte value, ByteBinaryOperator f) {
+        return memory.getAndOpI8(object, offset, value, f);
+    }
+
+    public short getAndOpI16(UnsafeArrayAccess memory, short value, ShortBinaryOperator f) {
+        return memory.getAndOpI16(object, offset, value, f);
+    }
+
+    public int getAndOpI32(UnsafeArrayAccess memory, int value, IntBinaryOperator f) {
+        return memory.getAndOpI32(object, offset, value, f);
+    }
+
+    public long getAndOpI64(UnsafeArrayAccess memory, long value, LongBinaryOperator f) {
+        return memory.getAndOpI64(object, offset, value, f);
+    }
+
+    public CMPXCHGI8 compareAndSwapI8(UnsafeArrayAccess memory, byte comparisonValue, byte newValue) {
+        return memory.compareAndSwapI8(object, offset, comparisonValue, newValue);
+    }
+
+    public CMPXCHGI16 compareAndSwapI16(UnsafeArrayAccess memory, short comparisonValue, short newValue) {
+        return memory.compareAndSwapI16(object, offset, comparisonValue, newValue);
+    }
+
+    public CMPXCHGI32 compareAndSwapI32(UnsafeArrayAccess memory, int comparisonValue, int newValue) {
+        return memory.compareAndSwapI32(object, offset, comparisonValue, newValue);
+    }
+
+    public CMPXCHGI64 compareAndSwapI64(UnsafeArrayAccess memory, long comparisonValue, long newValue) {
+        return memory.compareAndSwapI64(object, offset, comparisonValue, newValue);
+    }
+
     public LLVMVirtualAllocationAddress copy() {
         return new LLVMVirtualAllocationAddress(this.object, this.offset);
     }
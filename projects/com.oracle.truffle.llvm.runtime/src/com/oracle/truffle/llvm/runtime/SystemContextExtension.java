@@ -29,14 +29,51 @@
  */
 package com.oracle.truffle.llvm.runtime;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationNode;
+import com.oracle.truffle.llvm.runtime.memory.LLVMSyscallOperationRootNode;
 
 public abstract class SystemContextExtension implements ContextExtension {
 
+    private static final int SYSCALL_TABLE_SIZE = 512;
+
+    // lazily populated, indexed by syscall number
+    private final RootCallTarget[] syscallTargets = new RootCallTarget[SYSCALL_TABLE_SIZE];
+
     public abstract String[] getSulongDefaultLibraries();
 
     public abstract LLVMSyscallOperationNode createSyscallNode(long index);
 
+    /**
+     * Returns the call target of the syscall operation with the given number. The call targets are
+     * created once per context and shared by all syscall sites that went megamorphic, so that
+     * dispatching on a syscall number that is not a compilation constant stays in compiled code.
+     */
+    public final RootCallTarget getSyscallTarget(LLVMLanguage language, long index) {
+        if (index >= 0 && index < SYSCALL_TABLE_SIZE) {
+            RootCallTarget target = syscallTargets[(int) index];
+            if (target != null) {
+                return target;
+            }
+        }
+        return createSyscallTarget(language, index);
+    }
+
+    @TruffleBoundary
+    private synchronized RootCallTarget createSyscallTarget(LLVMLanguage language, long index) {
+        boolean inTable = index >= 0 && index < SYSCALL_TABLE_SIZE;
+        if (inTable && syscallTargets[(int) index] != null) {
+            return syscallTargets[(int) index];
+        }
+        RootCallTarget target = Truffle.getRuntime().createCallTarget(new LLVMSyscallOperationRootNode(language, createSyscallNode(index)));
+        if (inTable) {
+            syscallTargets[(int) index] = target;
+        }
+        return target;
+    }
+
     @Override
     public final Class<?> extensionClass() {
         return SystemContextExtension.class;
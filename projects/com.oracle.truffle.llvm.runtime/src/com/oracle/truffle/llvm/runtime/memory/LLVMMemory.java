@@ -39,7 +39,6 @@ import static com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode.I64_SIZE_IN_BYT
 import static com.oracle.truffle.llvm.runtime.nodes.api.LLVMNode.I8_SIZE_IN_BYTES;
 
 import java.lang.reflect.Field;
-import java.util.function.BinaryOperator;
 import java.util.function.IntBinaryOperator;
 import java.util.function.LongBinaryOperator;
 
@@ -75,6 +74,8 @@ public final class LLVMMemory {
     private static final long DEREF_HANDLE_SPACE_START = 0x0FFFFFFFFFFFFFFFL & ~DEREF_HANDLE_OBJECT_MASK;
     private static final long DEREF_HANDLE_SPACE_END = 0x0FFF800000000000L & ~DEREF_HANDLE_OBJECT_MASK;
 
+    private static final int I128_SIZE_IN_BITS = 128;
+
     private static final Unsafe unsafe = getUnsafe();
 
     private final Object freeListLock = new Object();
@@ -249,6 +250,11 @@ public final class LLVMMemory {
             CompilerDirectives.transferToInterpreter();
             throw new AssertionError();
         }
+        if (bitWidth == I128_SIZE_IN_BITS) {
+            long low = getI64(addr);
+            long high = getI64(addr.asNative() + Long.BYTES);
+            return LLVMIVarBit.createI128(high, low);
+        }
         int bytes = bitWidth / Byte.SIZE;
         byte[] loadedBytes = new byte[bytes];
         long currentAddressPtr = addr.asNative();
@@ -323,6 +329,16 @@ public final class LLVMMemory {
         unsafe.putByte(ptr, value);
     }
 
+    public void putByteArray(long ptr, byte[] bytes) {
+        assert ptr != 0;
+        unsafe.copyMemory(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, ptr, bytes.length);
+    }
+
+    public void getByteArray(long ptr, byte[] bytes, int length) {
+        assert ptr != 0 && length <= bytes.length;
+        unsafe.copyMemory(null, ptr, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, length);
+    }
+
     public void putI16(LLVMNativePointer addr, short value) {
         putI16(addr.asNative(), value);
     }
@@ -351,6 +367,11 @@ public final class LLVMMemory {
     }
 
     public void putIVarBit(LLVMNativePointer addr, LLVMIVarBit value) {
+        if (value.getBitSize() == I128_SIZE_IN_BITS) {
+            putI64(addr, value.getI128Low());
+            putI64(addr.asNative() + Long.BYTES, value.getI128High());
+            return;
+        }
         byte[] bytes = value.getBytes();
         long currentptr = addr.asNative();
         for (int i = bytes.length - 1; i >= 0; i--) {
@@ -493,10 +514,10 @@ public final class LLVMMemory {
 
     @ExplodeLoop
     public LLVMPointerVector getPointerVector(LLVMNativePointer address, int vectorLength) {
-        LLVMNativePointer[] vector = new LLVMNativePointer[vectorLength];
+        long[] vector = new long[vectorLength];
         long currentPtr = address.asNative();
         for (int i = 0; i < vectorLength; i++) {
-            vector[i] = getPointer(currentPtr);
+            vector[i] = getPointer(currentPtr).asNative();
             currentPtr += ADDRESS_SIZE_IN_BYTES;
         }
         return LLVMPointerVector.create(vector);
@@ -637,7 +658,7 @@ public final class LLVMMemory {
         private final int value;
         private final boolean swap;
 
-        private CMPXCHGI32(int value, boolean swap) {
+        CMPXCHGI32(int value, boolean swap) {
             this.value = value;
             this.swap = swap;
         }
@@ -672,7 +693,7 @@ public final class LLVMMemory {
         private final long value;
         private final boolean swap;
 
-        private CMPXCHGI64(long value, boolean swap) {
+        CMPXCHGI64(long value, boolean swap) {
             this.value = value;
             this.swap = swap;
         }
@@ -707,7 +728,7 @@ public final class LLVMMemory {
         private final byte value;
         private final boolean swap;
 
-        private CMPXCHGI8(byte value, boolean swap) {
+        CMPXCHGI8(byte value, boolean swap) {
             this.value = value;
             this.swap = swap;
         }
@@ -721,21 +742,21 @@ public final class LLVMMemory {
         }
     }
 
-    private static long alignToI32(long address) {
+    static long alignToI32(long address) {
         long mask = 3;
         return (address & ~mask);
     }
 
-    private static int getI8Index(long address) {
+    static int getI8Index(long address) {
         long mask = 3;
         return (int) (address & mask);
     }
 
-    private static byte getI8At(int value, int index) {
+    static byte getI8At(int value, int index) {
         return (byte) ((value >> (8 * index)) & 0xff);
     }
 
-    private static int replaceI8(int index, int value, byte replaceByte) {
+    static int replaceI8(int index, int value, byte replaceByte) {
         return (value & ~(0xFF << (index * 8))) | ((replaceByte & 0xFF) << (index * 8));
     }
 
@@ -778,16 +799,16 @@ public final class LLVMMemory {
         }
     }
 
-    private static int getI16Index(long address) {
+    static int getI16Index(long address) {
         long mask = 3;
         return (int) (address & mask) >> 1;
     }
 
-    private static short getI16At(int value, int index) {
+    static short getI16At(int value, int index) {
         return (short) ((value >> (16 * index)) & 0xFFFF);
     }
 
-    private static int replaceI16(int index, int value, short replace) {
+    static int replaceI16(int index, int value, short replace) {
         return (value & ~(0xFFFF << (index * 16))) | ((replace & 0xFFFF) << (index * 16));
     }
 
@@ -857,40 +878,75 @@ public final class LLVMMemory {
         return old;
     }
 
-    public short getAndOpI16(LLVMNativePointer address, short value, BinaryOperator<Short> f) {
-        short old;
-        short nevv;
+    @FunctionalInterface
+    public interface ShortBinaryOperator {
+        short apply(short a, short b);
+    }
+
+    @FunctionalInterface
+    public interface ByteBinaryOperator {
+        byte apply(byte a, byte b);
+    }
+
+    @FunctionalInterface
+    public interface BooleanBinaryOperator {
+        boolean apply(boolean a, boolean b);
+    }
+
+    /*
+     * The sub-word operations do a CAS on the aligned 32 bit word that contains the value, so that
+     * neither the values nor a CMPXCHG result need to be boxed.
+     */
+
+    public short getAndOpI16(LLVMNativePointer address, short value, ShortBinaryOperator f) {
+        int idx = getI16Index(address.asNative());
+        long addr = alignToI32(address.asNative());
+        int old;
+        int nevv;
         do {
-            old = getI16(address);
-            nevv = f.apply(old, value);
-        } while (!compareAndSwapI16(address, old, nevv).swap);
-        return old;
+            old = unsafe.getIntVolatile(null, addr);
+            nevv = replaceI16(idx, old, f.apply(getI16At(old, idx), value));
+        } while (!unsafe.compareAndSwapInt(null, addr, old, nevv));
+        return getI16At(old, idx);
     }
 
-    public byte getAndOpI8(LLVMNativePointer address, byte value, BinaryOperator<Byte> f) {
-        byte old;
-        byte nevv;
+    public byte getAndOpI8(LLVMNativePointer address, byte value, ByteBinaryOperator f) {
+        int byteIndex = getI8Index(address.asNative());
+        long addr = alignToI32(address.asNative());
+        int old;
+        int nevv;
         do {
-            old = getI8(address);
-            nevv = f.apply(old, value);
-        } while (!compareAndSwapI8(address, old, nevv).swap);
-        return old;
+            old = unsafe.getIntVolatile(null, addr);
+            nevv = replaceI8(byteIndex, old, f.apply(getI8At(old, byteIndex), value));
+        } while (!unsafe.compareAndSwapInt(null, addr, old, nevv));
+        return getI8At(old, byteIndex);
     }
 
-    public boolean getAndOpI1(LLVMNativePointer address, boolean value, BinaryOperator<Boolean> f) {
-        byte old;
-        boolean nevv;
+    public boolean getAndOpI1(LLVMNativePointer address, boolean value, BooleanBinaryOperator f) {
+        int byteIndex = getI8Index(address.asNative());
+        long addr = alignToI32(address.asNative());
+        int old;
+        int nevv;
         do {
-            old = getI8(address);
-            nevv = f.apply(old != 0, value);
-        } while (!compareAndSwapI8(address, old, (byte) (nevv ? 1 : 0)).swap);
-        return old != 0;
+            old = unsafe.getIntVolatile(null, addr);
+            boolean result = f.apply(getI8At(old, byteIndex) != 0, value);
+            nevv = replaceI8(byteIndex, old, (byte) (result ? 1 : 0));
+        } while (!unsafe.compareAndSwapInt(null, addr, old, nevv));
+        return getI8At(old, byteIndex) != 0;
     }
 
     public void fullFence() {
         unsafe.fullFence();
     }
 
+    public void loadFence() {
+        unsafe.loadFence();
+    }
+
+    public void storeFence() {
+        unsafe.storeFence();
+    }
+
     public Assumption getNoDerefHandleAssumption() {
         return noDerefHandleAssumption;
     }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.runtime.memory;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.llvm.runtime.LLVMContext;
+import com.oracle.truffle.llvm.runtime.NFIContextExtension;
+
+/**
+ * Keeps track of the page ranges that were mapped by the mmap/mremap syscalls of one particular
+ * LLVMContext, so that mappings the program did not unmap itself are released when the context is
+ * disposed.
+ */
+public final class LLVMMemoryMappings {
+    private static final long PAGE_SIZE = 4096;
+
+    // start address -> end address (exclusive), the ranges never overlap
+    private final TreeMap<Long, Long> mappings = new TreeMap<>();
+
+    @TruffleBoundary
+    public synchronized void map(long address, long length) {
+        long end = address + pageAlign(length);
+        remove(address, end);
+        mappings.put(address, end);
+    }
+
+    @TruffleBoundary
+    public synchronized void unmap(long address, long length) {
+        remove(address, address + pageAlign(length));
+    }
+
+    @TruffleBoundary
+    public synchronized void remap(long oldAddress, long oldLength, long newAddress, long newLength) {
+        remove(oldAddress, oldAddress + pageAlign(oldLength));
+        map(newAddress, newLength);
+    }
+
+    @TruffleBoundary
+    public synchronized void release(LLVMContext context) {
+        if (mappings.isEmpty()) {
+            return;
+        }
+        NFIContextExtension nfiContextExtension = context.getContextExtensionOrNull(NFIContextExtension.class);
+        if (nfiContextExtension != null) {
+            TruffleObject munmap = nfiContextExtension.getNativeFunction(context, "@__sulong_posix_munmap", "(POINTER,UINT64):SINT32");
+            Node nativeExecute = Message.createExecute(2).createNode();
+            for (Map.Entry<Long, Long> entry : mappings.entrySet()) {
+                try {
+                    ForeignAccess.sendExecute(nativeExecute, munmap, entry.getKey(), entry.getValue() - entry.getKey());
+                } catch (InteropException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+        mappings.clear();
+    }
+
+    private void remove(long start, long end) {
+        Map.Entry<Long, Long> entry = mappings.lowerEntry(end);
+        while (entry != null && entry.getValue() > start) {
+            long entryStart = entry.getKey();
+            long entryEnd = entry.getValue();
+            mappings.remove(entryStart);
+            if (entryStart < start) {
+                mappings.put(entryStart, start);
+            }
+            if (entryEnd > end) {
+                mappings.put(end, entryEnd);
+            }
+            entry = mappings.lowerEntry(entryStart);
+        }
+    }
+
+    private static long pageAlign(long length) {
+        return (length + PAGE_SIZE - 1) & -PAGE_SIZE;
+    }
+}
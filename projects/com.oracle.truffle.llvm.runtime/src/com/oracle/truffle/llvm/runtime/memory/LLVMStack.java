@@ -50,6 +50,8 @@ public final class LLVMStack {
 
     private long stackPointer;
 
+    private long setJmpActivations;
+
     public LLVMStack(int stackSize) {
         this.stackSize = stackSize;
 
@@ -89,6 +91,14 @@ public final class LLVMStack {
         public StackPointer newFrame() {
             return new StackPointer(stackPointer);
         }
+
+        /**
+         * Returns a new identifier for a function activation that executes setjmp. The identifiers
+         * are unique per thread, as is the stack.
+         */
+        public long nextSetJmpActivation() {
+            return ++setJmpActivations;
+        }
     }
 
     @TruffleBoundary
@@ -30,9 +30,18 @@
 package com.oracle.truffle.llvm.runtime.memory;
 
 import java.lang.reflect.Field;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.llvm.runtime.LLVMLanguage;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.BooleanBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ByteBinaryOperator;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI16;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI32;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI64;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.CMPXCHGI8;
+import com.oracle.truffle.llvm.runtime.memory.LLVMMemory.ShortBinaryOperator;
 
 import sun.misc.Unsafe;
 
@@ -186,4 +195,182 @@ public final class UnsafeArrayAccess {
     public double getDouble(Object arr, long baseOffset, long offset) {
         return unsafe.getDouble(arr, baseOffset + offset);
     }
+
+    /*
+     * Atomic accesses to int[] backed allocations. Sub-word values are updated with a CAS on the
+     * containing int element, in the same way as LLVMMemory does it for native memory.
+     */
+
+    public boolean getAndOpI1(int[] arr, long offset, boolean value, BooleanBinaryOperator f) {
+        return getAndOpI1(arr, ARRAY_INT_BASE_OFFSET, offset, value, f);
+    }
+
+    public byte getAndOpI8(int[] arr, long offset, byte value, ByteBinaryOperator f) {
+        return getAndOpI8(arr, ARRAY_INT_BASE_OFFSET, offset, value, f);
+    }
+
+    public short getAndOpI16(int[] arr, long offset, short value, ShortBinaryOperator f) {
+        return getAndOpI16(arr, ARRAY_INT_BASE_OFFSET, offset, value, f);
+    }
+
+    public int getAndOpI32(int[] arr, long offset, int value, IntBinaryOperator f) {
+        return getAndOpI32(arr, ARRAY_INT_BASE_OFFSET, offset, value, f);
+    }
+
+    public long getAndOpI64(int[] arr, long offset, long value, LongBinaryOperator f) {
+        return getAndOpI64(arr, ARRAY_INT_BASE_OFFSET, offset, value, f);
+    }
+
+    public CMPXCHGI8 compareAndSwapI8(int[] arr, long offset, byte comparisonValue, byte newValue) {
+        return compareAndSwapI8(arr, ARRAY_INT_BASE_OFFSET, offset, comparisonValue, newValue);
+    }
+
+    public CMPXCHGI16 compareAndSwapI16(int[] arr, long offset, short comparisonValue, short newValue) {
+        return compareAndSwapI16(arr, ARRAY_INT_BASE_OFFSET, offset, comparisonValue, newValue);
+    }
+
+    public CMPXCHGI32 compareAndSwapI32(int[] arr, long offset, int comparisonValue, int newValue) {
+        return compareAndSwapI32(arr, ARRAY_INT_BASE_OFFSET, offset, comparisonValue, newValue);
+    }
+
+    public CMPXCHGI64 compareAndSwapI64(int[] arr, long offset, long comparisonValue, long newValue) {
+        return compareAndSwapI64(arr, ARRAY_INT_BASE_OFFSET, offset, comparisonValue, newValue);
+    }
+
+    /*
+     * Atomic accesses to arbitrary primitive arrays, at a byte offset relative to the array base
+     * offset of the array type. The array base offsets are a multiple of 8, so aligned values in the
+     * allocation are also aligned in memory.
+     */
+
+    public boolean getAndOpI1(Object arr, long baseOffset, long offset, boolean value, BooleanBinaryOperator f) {
+        int byteIndex = LLVMMemory.getI8Index(baseOffset + offset);
+        long address = LLVMMemory.alignToI32(baseOffset + offset);
+        int old;
+        int nevv;
+        do {
+            old = unsafe.getIntVolatile(arr, address);
+            boolean result = f.apply(LLVMMemory.getI8At(old, byteIndex) != 0, value);
+            nevv = LLVMMemory.replaceI8(byteIndex, old, (byte) (result ? 1 : 0));
+        } while (!unsafe.compareAndSwapInt(arr, address, old, nevv));
+        return LLVMMemory.getI8At(old, byteIndex) != 0;
+    }
+
+    public byte getAndOpI8(Object arr, long baseOffset, long offset, byte value, ByteBinaryOperator f) {
+        int byteIndex = LLVMMemory.getI8Index(baseOffset + offset);
+        long address = LLVMMemory.alignToI32(baseOffset + offset);
+        int old;
+        int nevv;
+        do {
+            old = unsafe.getIntVolatile(arr, address);
+            nevv = LLVMMemory.replaceI8(byteIndex, old, f.apply(LLVMMemory.getI8At(old, byteIndex), value));
+        } while (!unsafe.compareAndSwapInt(arr, address, old, nevv));
+        return LLVMMemory.getI8At(old, byteIndex);
+    }
+
+    public short getAndOpI16(Object arr, long baseOffset, long offset, short value, ShortBinaryOperator f) {
+        int idx = LLVMMemory.getI16Index(baseOffset + offset);
+        long address = LLVMMemory.alignToI32(baseOffset + offset);
+        int old;
+        int nevv;
+        do {
+            old = unsafe.getIntVolatile(arr, address);
+            nevv = LLVMMemory.replaceI16(idx, old, f.apply(LLVMMemory.getI16At(old, idx), value));
+        } while (!unsafe.compareAndSwapInt(arr, address, old, nevv));
+        return LLVMMemory.getI16At(old, idx);
+    }
+
+    public int getAndOpI32(Object arr, long baseOffset, long offset, int value, IntBinaryOperator f) {
+        long address = baseOffset + offset;
+        assert (address & 3) == 0 : "unaligned atomic access";
+        int old;
+        int nevv;
+        do {
+            old = unsafe.getIntVolatile(arr, address);
+            nevv = f.applyAsInt(old, value);
+        } while (!unsafe.compareAndSwapInt(arr, address, old, nevv));
+        return old;
+    }
+
+    public long getAndOpI64(Object arr, long baseOffset, long offset, long value, LongBinaryOperator f) {
+        long address = baseOffset + offset;
+        assert (address & 7) == 0 : "unaligned atomic access";
+        long old;
+        long nevv;
+        do {
+            old = unsafe.getLongVolatile(arr, address);
+            nevv = f.applyAsLong(old, value);
+        } while (!unsafe.compareAndSwapLong(arr, address, old, nevv));
+        return old;
+    }
+
+    public CMPXCHGI8 compareAndSwapI8(Object arr, long baseOffset, long offset, byte comparisonValue, byte newValue) {
+        int byteIndex = LLVMMemory.getI8Index(baseOffset + offset);
+        long address = LLVMMemory.alignToI32(baseOffset + offset);
+        while (true) {
+            int t = unsafe.getIntVolatile(arr, address);
+            byte b = LLVMMemory.getI8At(t, byteIndex);
+            if (b != comparisonValue) {
+                return new CMPXCHGI8(b, false);
+            } else if (unsafe.compareAndSwapInt(arr, address, t, LLVMMemory.replaceI8(byteIndex, t, newValue))) {
+                return new CMPXCHGI8(comparisonValue, true);
+            }
+        }
+    }
+
+    public CMPXCHGI16 compareAndSwapI16(Object arr, long baseOffset, long offset, short comparisonValue, short newValue) {
+        int idx = LLVMMemory.getI16Index(baseOffset + offset);
+        long address = LLVMMemory.alignToI32(baseOffset + offset);
+        while (true) {
+            int t = unsafe.getIntVolatile(arr, address);
+            short b = LLVMMemory.getI16At(t, idx);
+            if (b != comparisonValue) {
+                return new CMPXCHGI16(b, false);
+            } else if (unsafe.compareAndSwapInt(arr, address, t, LLVMMemory.replaceI16(idx, t, newValue))) {
+                return new CMPXCHGI16(comparisonValue, true);
+            }
+        }
+    }
+
+    public CMPXCHGI32 compareAndSwapI32(Object arr, long baseOffset, long offset, int comparisonValue, int newValue) {
+        long address = baseOffset + offset;
+        assert (address & 3) == 0 : "unaligned atomic access";
+        while (true) {
+            int t = unsafe.getIntVolatile(arr, address);
+            if (t != comparisonValue) {
+                return new CMPXCHGI32(t, false);
+            } else if (unsafe.compareAndSwapInt(arr, address, t, newValue)) {
+                return new CMPXCHGI32(comparisonValue, true);
+            }
+        }
+    }
+
+    public CMPXCHGI64 compareAndSwapI64(Object arr, long baseOffset, long offset, long comparisonValue, long newValue) {
+        long address = baseOffset + offset;
+        assert (address & 7) == 0 : "unaligned atomic access";
+        while (true) {
+            long t = unsafe.getLongVolatile(arr, address);
+            if (t != comparisonValue) {
+                return new CMPXCHGI64(t, false);
+            } else if (unsafe.compareAndSwapLong(arr, address, t, newValue)) {
+                return new CMPXCHGI64(comparisonValue, true);
+            }
+        }
+    }
+
+    /**
+     * Copies {@code length} bytes from a primitive Java array, starting at the raw byte offset
+     * {@code arrayOffset} (including the array base offset), to native memory.
+     */
+    public void copyToNative(Object array, long arrayOffset, long address, long length) {
+        unsafe.copyMemory(array, arrayOffset, null, address, length);
+    }
+
+    /**
+     * Copies {@code length} bytes from native memory into a primitive Java array, starting at the
+     * raw byte offset {@code arrayOffset} (including the array base offset).
+     */
+    public void copyFromNative(long address, Object array, long arrayOffset, long length) {
+        unsafe.copyMemory(null, address, array, arrayOffset, length);
+    }
 }
@@ -66,6 +66,14 @@ public final class SulongEngineOption {
     public static final String ENABLE_NFI_NAME = "llvm.enableExternalNativeAccess";
     public static final String ENABLE_NFI_INFO = "Enable Sulongs native interface.";
 
+    public static final OptionKey<Boolean> ENV_STD_STREAMS = new OptionKey<>(false);
+    public static final String ENV_STD_STREAMS_NAME = "llvm.envStdStreams";
+    public static final String ENV_STD_STREAMS_INFO = "Route read, write, and writev system calls made by Sulong on file descriptors 0, 1, and 2 through the standard streams of the embedder. Output of the native C library does not go through these system calls.";
+
+    public static final OptionKey<Integer> STD_STREAM_BUFFER_SIZE = new OptionKey<>(0);
+    public static final String STD_STREAM_BUFFER_SIZE_NAME = "llvm.stdStreamBufferSize";
+    public static final String STD_STREAM_BUFFER_SIZE_INFO = "The size in bytes of the stdout buffer used with llvm.envStdStreams. 0 disables buffering. Buffered output is not ordered with output of the native C library.";
+
     public static final OptionKey<String> DEBUG = new OptionKey<>(String.valueOf(false));
     public static final String DEBUG_NAME = "llvm.debug";
     public static final String DEBUG_INFO = "Turns debugging on/off. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath.";
@@ -82,6 +90,10 @@ public final class SulongEngineOption {
     public static final String PRINT_LIFE_TIME_ANALYSIS_STATS_NAME = "llvm.printLifetimeAnalysisStats";
     public static final String PRINT_LIFE_TIME_ANALYSIS_STATS_INFO = "Prints the results of the lifetime analysis. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath.";
 
+    public static final OptionKey<String> PRINT_INLINE_ASM_CACHE_STATS = new OptionKey<>(String.valueOf(false));
+    public static final String PRINT_INLINE_ASM_CACHE_STATS_NAME = "llvm.printInlineAsmCacheStats";
+    public static final String PRINT_INLINE_ASM_CACHE_STATS_INFO = "Prints the hit rate of the inline assembly parse cache. Can be \'true\', \'false\', \'stdout\', \'stderr\' or a filepath.";
+
     public static final OptionKey<Boolean> PARSE_ONLY = new OptionKey<>(false);
     public static final String PARSE_ONLY_NAME = "llvm.parseOnly";
     public static final String PARSE_ONLY_INFO = "Only parses a bc file; execution is not possible.";
@@ -105,9 +117,12 @@ public final class SulongEngineOption {
         options.add(OptionDescriptor.newBuilder(LIBRARIES, LIBRARIES_NAME).help(LIBRARIES_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(LIBRARY_PATH, LIBRARY_PATH_NAME).help(LIBRARY_PATH_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(ENABLE_NFI, ENABLE_NFI_NAME).help(ENABLE_NFI_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(ENV_STD_STREAMS, ENV_STD_STREAMS_NAME).help(ENV_STD_STREAMS_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(STD_STREAM_BUFFER_SIZE, STD_STREAM_BUFFER_SIZE_NAME).help(STD_STREAM_BUFFER_SIZE_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(DEBUG_SYSCALLS, DEBUG_SYSCALLS_NAME).help(DEBUG_SYSCALLS_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(NATIVE_CALL_STATS, NATIVE_CALL_STATS_NAME).help(NATIVE_CALL_STATS_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(PRINT_LIFE_TIME_ANALYSIS_STATS, PRINT_LIFE_TIME_ANALYSIS_STATS_NAME).help(PRINT_LIFE_TIME_ANALYSIS_STATS_INFO).category(OptionCategory.USER).build());
+        options.add(OptionDescriptor.newBuilder(PRINT_INLINE_ASM_CACHE_STATS, PRINT_INLINE_ASM_CACHE_STATS_NAME).help(PRINT_INLINE_ASM_CACHE_STATS_INFO).category(OptionCategory.USER).build());
         options.add(OptionDescriptor.newBuilder(PARSE_ONLY, PARSE_ONLY_NAME).help(PARSE_ONLY_INFO).category(OptionCategory.EXPERT).build());
         options.add(OptionDescriptor.newBuilder(ENABLE_LVI, ENABLE_LVI_NAME).help(ENABLE_LVI_INFO).category(OptionCategory.DEBUG).build());
         options.add(OptionDescriptor.newBuilder(LAZY_PARSING, LAZY_PARSING_NAME).help(LAZY_PARSING_INFO).category(OptionCategory.EXPERT).build());
@@ -29,11 +29,10 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import java.util.Arrays;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 
 @ValueType
 public final class LLVMDoubleVector {
@@ -48,88 +47,97 @@ public final class LLVMDoubleVector {
         this.vector = vector;
     }
 
-    // We do not want to use lambdas because of bad startup
-    private interface Operation {
-        double eval(double a, double b);
+    public interface Comparison {
+        boolean eval(double a, double b);
     }
 
-    private static LLVMDoubleVector doOperation(LLVMDoubleVector lhs, LLVMDoubleVector rhs, Operation op) {
-        double[] left = lhs.vector;
-        double[] right = rhs.vector;
-
-        // not sure if this assert is true for llvm ir in general
-        // this implementation however assumes it
-        assert left.length == right.length;
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMDoubleVector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = comparison.eval(vector[i], other.vector[i]);
+        }
+        return LLVMI1Vector.create(values);
+    }
 
-        double[] result = new double[left.length];
+    public LLVMDoubleVector apply(Function<Double, Double> function) {
+        double[] result = new double[vector.length];
 
-        for (int i = 0; i < left.length; i++) {
-            result[i] = op.eval(left[i], right[i]);
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = function.apply(vector[i]);
         }
         return create(result);
     }
 
-    public static LLVMI1Vector compare(LLVMDoubleVector a, LLVMDoubleVector b, BiFunction<Double, Double, Boolean> function) {
-        boolean[] result = new boolean[a.vector.length];
+    // We do not want to use lambdas because of bad startup
+    private interface Operation {
+        double eval(double a, double b);
+    }
 
-        for (int i = 0; i < a.vector.length; i++) {
-            result[i] = function.apply(a.vector[i], b.vector[i]);
+    private static final Operation ADD = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a + b;
         }
-        return LLVMI1Vector.create(result);
-    }
+    };
 
-    public LLVMDoubleVector apply(Function<Double, Double> function) {
-        double[] result = new double[vector.length];
+    private static final Operation MUL = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a * b;
+        }
+    };
 
-        for (int i = 0; i < vector.length; i++) {
-            result[i] = function.apply(vector[i]);
+    private static final Operation SUB = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a - b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a / b;
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public double eval(double a, double b) {
+            return a % b;
+        }
+    };
+
+    @ExplodeLoop
+    private LLVMDoubleVector doOperation(LLVMDoubleVector rightValue, int length, Operation op) {
+        assert vector.length == length && rightValue.vector.length == length;
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = op.eval(vector[i], rightValue.vector[i]);
         }
         return create(result);
     }
 
-    public LLVMDoubleVector add(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a + b;
-            }
-        });
+    public LLVMDoubleVector add(LLVMDoubleVector rightValue, int length) {
+        return doOperation(rightValue, length, ADD);
     }
 
-    public LLVMDoubleVector mul(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a * b;
-            }
-        });
+    public LLVMDoubleVector mul(LLVMDoubleVector rightValue, int length) {
+        return doOperation(rightValue, length, MUL);
     }
 
-    public LLVMDoubleVector sub(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a - b;
-            }
-        });
+    public LLVMDoubleVector sub(LLVMDoubleVector rightValue, int length) {
+        return doOperation(rightValue, length, SUB);
     }
 
-    public LLVMDoubleVector div(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a / b;
-            }
-        });
+    public LLVMDoubleVector div(LLVMDoubleVector rightValue, int length) {
+        return doOperation(rightValue, length, DIV);
     }
 
-    public LLVMDoubleVector rem(LLVMDoubleVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public double eval(double a, double b) {
-                return a % b;
-            }
-        });
+    public LLVMDoubleVector rem(LLVMDoubleVector rightValue, int length) {
+        return doOperation(rightValue, length, REM);
     }
 
     public double[] getValues() {
@@ -140,10 +148,14 @@ public final class LLVMDoubleVector {
         return vector[index];
     }
 
-    public LLVMDoubleVector insert(double element, int index) {
-        double[] copyOf = Arrays.copyOf(vector, vector.length);
-        copyOf[index] = element;
-        return create(copyOf);
+    @ExplodeLoop
+    public LLVMDoubleVector insert(double element, int index, int length) {
+        assert vector.length == length;
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i == index ? element : vector[i];
+        }
+        return create(result);
     }
 
     public int getLength() {
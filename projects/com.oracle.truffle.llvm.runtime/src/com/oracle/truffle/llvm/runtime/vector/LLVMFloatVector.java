@@ -29,10 +29,8 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import java.util.Arrays;
-import java.util.function.BiFunction;
-
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 
 @ValueType
 public final class LLVMFloatVector {
@@ -47,79 +45,88 @@ public final class LLVMFloatVector {
         this.vector = vector;
     }
 
+    public interface Comparison {
+        boolean eval(float a, float b);
+    }
+
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMFloatVector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = comparison.eval(vector[i], other.vector[i]);
+        }
+        return LLVMI1Vector.create(values);
+    }
+
     // We do not want to use lambdas because of bad startup
     private interface Operation {
         float eval(float a, float b);
     }
 
-    private static LLVMFloatVector doOperation(LLVMFloatVector lhs, LLVMFloatVector rhs, Operation op) {
-        float[] left = lhs.vector;
-        float[] right = rhs.vector;
-
-        // not sure if this assert is true for llvm ir in general
-        // this implementation however assumes it
-        assert left.length == right.length;
+    private static final Operation ADD = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a + b;
+        }
+    };
 
-        float[] result = new float[left.length];
+    private static final Operation MUL = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a * b;
+        }
+    };
 
-        for (int i = 0; i < left.length; i++) {
-            result[i] = op.eval(left[i], right[i]);
+    private static final Operation SUB = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a - b;
         }
-        return create(result);
-    }
+    };
 
-    public static LLVMI1Vector compare(LLVMFloatVector a, LLVMFloatVector b, BiFunction<Float, Float, Boolean> function) {
-        boolean[] result = new boolean[a.vector.length];
+    private static final Operation DIV = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a / b;
+        }
+    };
 
-        for (int i = 0; i < a.vector.length; i++) {
-            result[i] = function.apply(a.vector[i], b.vector[i]);
+    private static final Operation REM = new Operation() {
+        @Override
+        public float eval(float a, float b) {
+            return a % b;
         }
-        return LLVMI1Vector.create(result);
+    };
+
+    @ExplodeLoop
+    private LLVMFloatVector doOperation(LLVMFloatVector rightValue, int length, Operation op) {
+        assert vector.length == length && rightValue.vector.length == length;
+        float[] result = new float[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = op.eval(vector[i], rightValue.vector[i]);
+        }
+        return create(result);
     }
 
-    public LLVMFloatVector add(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a + b;
-            }
-        });
+    public LLVMFloatVector add(LLVMFloatVector rightValue, int length) {
+        return doOperation(rightValue, length, ADD);
     }
 
-    public LLVMFloatVector mul(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a * b;
-            }
-        });
+    public LLVMFloatVector mul(LLVMFloatVector rightValue, int length) {
+        return doOperation(rightValue, length, MUL);
     }
 
-    public LLVMFloatVector sub(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a - b;
-            }
-        });
+    public LLVMFloatVector sub(LLVMFloatVector rightValue, int length) {
+        return doOperation(rightValue, length, SUB);
     }
 
-    public LLVMFloatVector div(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a / b;
-            }
-        });
+    public LLVMFloatVector div(LLVMFloatVector rightValue, int length) {
+        return doOperation(rightValue, length, DIV);
     }
 
-    public LLVMFloatVector rem(LLVMFloatVector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public float eval(float a, float b) {
-                return a % b;
-            }
-        });
+    public LLVMFloatVector rem(LLVMFloatVector rightValue, int length) {
+        return doOperation(rightValue, length, REM);
     }
 
     public float[] getValues() {
@@ -130,10 +137,14 @@ public final class LLVMFloatVector {
         return vector[index];
     }
 
-    public LLVMFloatVector insert(float element, int index) {
-        float[] copyOf = Arrays.copyOf(vector, vector.length);
-        copyOf[index] = element;
-        return create(copyOf);
+    @ExplodeLoop
+    public LLVMFloatVector insert(float element, int index, int length) {
+        assert vector.length == length;
+        float[] result = new float[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i == index ? element : vector[i];
+        }
+        return create(result);
     }
 
     public int getLength() {
@@ -29,10 +29,8 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import java.util.Arrays;
-import java.util.function.BiFunction;
-
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 
 @ValueType
 public final class LLVMI16Vector {
@@ -54,137 +52,157 @@ public final class LLVMI16Vector {
         short eval(short a, short b);
     }
 
-    private static LLVMI16Vector doOperation(LLVMI16Vector lhs, LLVMI16Vector rhs, Operation op) {
-        short[] left = lhs.vector;
-        short[] right = rhs.vector;
+    private static final Operation ADD = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a + b);
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a * b);
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a - b);
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a / b);
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) ((a & MASK) / (b & MASK));
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a % b);
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) ((a & MASK) % (b & MASK));
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a & b);
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a | b);
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a << b);
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a >>> b);
+        }
+    };
 
-        // not sure if this assert is true for llvm ir in general
-        // this implementation however assumes it
-        assert left.length == right.length;
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a >> b);
+        }
+    };
 
-        short[] result = new short[left.length];
+    private static final Operation XOR = new Operation() {
+        @Override
+        public short eval(short a, short b) {
+            return (short) (a ^ b);
+        }
+    };
 
-        for (int i = 0; i < left.length; i++) {
-            result[i] = op.eval(left[i], right[i]);
+    @ExplodeLoop
+    private LLVMI16Vector doOperation(LLVMI16Vector rightValue, int length, Operation op) {
+        assert vector.length == length && rightValue.vector.length == length;
+        short[] result = new short[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = op.eval(vector[i], rightValue.vector[i]);
         }
         return create(result);
     }
 
-    public LLVMI16Vector add(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a + b);
-            }
-        });
-    }
-
-    public LLVMI16Vector mul(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a * b);
-            }
-        });
-    }
-
-    public LLVMI16Vector sub(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a - b);
-            }
-        });
-    }
-
-    public LLVMI16Vector div(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a / b);
-            }
-        });
-    }
-
-    public LLVMI16Vector divUnsigned(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) ((a & MASK) / (b & MASK));
-            }
-        });
-    }
-
-    public LLVMI16Vector rem(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a % b);
-            }
-        });
-    }
-
-    public LLVMI16Vector remUnsigned(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) ((a & MASK) % (b & MASK));
-            }
-        });
-    }
-
-    public LLVMI16Vector and(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a & b);
-            }
-        });
-    }
-
-    public LLVMI16Vector or(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a | b);
-            }
-        });
-    }
-
-    public LLVMI16Vector leftShift(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a << b);
-            }
-        });
-    }
-
-    public LLVMI16Vector logicalRightShift(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a >>> b);
-            }
-        });
-    }
-
-    public LLVMI16Vector arithmeticRightShift(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a >> b);
-            }
-        });
-    }
-
-    public LLVMI16Vector xor(LLVMI16Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public short eval(short a, short b) {
-                return (short) (a ^ b);
-            }
-        });
+    public LLVMI16Vector add(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, ADD);
+    }
+
+    public LLVMI16Vector mul(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, MUL);
+    }
+
+    public LLVMI16Vector sub(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, SUB);
+    }
+
+    public LLVMI16Vector div(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV);
+    }
+
+    public LLVMI16Vector divUnsigned(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV_UNSIGNED);
+    }
+
+    public LLVMI16Vector rem(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM);
+    }
+
+    public LLVMI16Vector remUnsigned(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM_UNSIGNED);
+    }
+
+    public LLVMI16Vector and(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, AND);
+    }
+
+    public LLVMI16Vector or(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, OR);
+    }
+
+    public LLVMI16Vector leftShift(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, LEFT_SHIFT);
+    }
+
+    public LLVMI16Vector logicalRightShift(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, LOGICAL_RIGHT_SHIFT);
+    }
+
+    public LLVMI16Vector arithmeticRightShift(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, ARITHMETIC_RIGHT_SHIFT);
+    }
+
+    public LLVMI16Vector xor(LLVMI16Vector rightValue, int length) {
+        return doOperation(rightValue, length, XOR);
     }
 
     public short[] getValues() {
@@ -195,24 +213,31 @@ public final class LLVMI16Vector {
         return vector[index];
     }
 
-    public LLVMI16Vector insert(short element, int index) {
-        short[] copyOf = Arrays.copyOf(vector, vector.length);
-        copyOf[index] = element;
-        return create(copyOf);
+    @ExplodeLoop
+    public LLVMI16Vector insert(short element, int index, int length) {
+        assert vector.length == length;
+        short[] result = new short[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i == index ? element : vector[i];
+        }
+        return create(result);
     }
 
     public int getLength() {
         return vector.length;
     }
 
-    public LLVMI1Vector doCompare(LLVMI16Vector other, BiFunction<Short, Short, Boolean> comparison) {
-        int length = getLength();
-        boolean[] values = new boolean[length];
+    public interface Comparison {
+        boolean eval(short a, short b);
+    }
 
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMI16Vector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
         for (int i = 0; i < length; i++) {
-            values[i] = comparison.apply(getValue(i), other.getValue(i));
+            values[i] = comparison.eval(vector[i], other.vector[i]);
         }
-
         return LLVMI1Vector.create(values);
     }
 }
@@ -29,11 +29,9 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import java.util.Arrays;
-import java.util.function.BiFunction;
-
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 
 @ValueType
 public final class LLVMI1Vector {
@@ -53,153 +51,173 @@ public final class LLVMI1Vector {
         boolean eval(boolean a, boolean b);
     }
 
-    private static LLVMI1Vector doOperation(LLVMI1Vector lhs, LLVMI1Vector rhs, Operation op) {
-        boolean[] left = lhs.vector;
-        boolean[] right = rhs.vector;
+    private static final Operation ADD = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a ^ b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & b;
+        }
+    };
 
-        // not sure if this assert is true for llvm ir in general
-        // this implementation however assumes it
-        assert left.length == right.length;
+    private static final Operation SUB = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a ^ b;
+        }
+    };
 
-        boolean[] result = new boolean[left.length];
+    private static final Operation DIV = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return a;
+        }
+    };
 
-        for (int i = 0; i < left.length; i++) {
-            result[i] = op.eval(left[i], right[i]);
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return a;
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return false;
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            if (!b) {
+                CompilerDirectives.transferToInterpreter();
+                throw new ArithmeticException("Division by zero!");
+            }
+            return false;
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & b;
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a | b;
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & !b;
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a & !b;
+        }
+    };
+
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a;
+        }
+    };
+
+    private static final Operation XOR = new Operation() {
+        @Override
+        public boolean eval(boolean a, boolean b) {
+            return a ^ b;
+        }
+    };
+
+    @ExplodeLoop
+    private LLVMI1Vector doOperation(LLVMI1Vector rightValue, int length, Operation op) {
+        assert vector.length == length && rightValue.vector.length == length;
+        boolean[] result = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = op.eval(vector[i], rightValue.vector[i]);
         }
         return create(result);
     }
 
-    public LLVMI1Vector add(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a ^ b;
-            }
-        });
+    public LLVMI1Vector add(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, ADD);
     }
 
-    public LLVMI1Vector mul(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & b;
-            }
-        });
+    public LLVMI1Vector mul(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, MUL);
     }
 
-    public LLVMI1Vector sub(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a ^ b;
-            }
-        });
-    }
-
-    public LLVMI1Vector div(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return a;
-            }
-        });
-    }
-
-    public LLVMI1Vector divUnsigned(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return a;
-            }
-        });
-    }
-
-    public LLVMI1Vector rem(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return false;
-            }
-        });
-    }
-
-    public LLVMI1Vector remUnsigned(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                if (!b) {
-                    CompilerDirectives.transferToInterpreter();
-                    throw new ArithmeticException("Division by zero!");
-                }
-                return false;
-            }
-        });
+    public LLVMI1Vector sub(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, SUB);
     }
 
-    public LLVMI1Vector and(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & b;
-            }
-        });
+    public LLVMI1Vector div(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV);
     }
 
-    public LLVMI1Vector or(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a | b;
-            }
-        });
+    public LLVMI1Vector divUnsigned(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV_UNSIGNED);
     }
 
-    public LLVMI1Vector leftShift(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & !b;
-            }
-        });
+    public LLVMI1Vector rem(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM);
     }
 
-    public LLVMI1Vector logicalRightShift(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a & !b;
-            }
-        });
+    public LLVMI1Vector remUnsigned(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM_UNSIGNED);
     }
 
-    public LLVMI1Vector arithmeticRightShift(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a;
-            }
-        });
+    public LLVMI1Vector and(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, AND);
     }
 
-    public LLVMI1Vector xor(LLVMI1Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public boolean eval(boolean a, boolean b) {
-                return a ^ b;
-            }
-        });
+    public LLVMI1Vector or(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, OR);
+    }
+
+    public LLVMI1Vector leftShift(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, LEFT_SHIFT);
+    }
+
+    public LLVMI1Vector logicalRightShift(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, LOGICAL_RIGHT_SHIFT);
+    }
+
+    public LLVMI1Vector arithmeticRightShift(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, ARITHMETIC_RIGHT_SHIFT);
+    }
+
+    public LLVMI1Vector xor(LLVMI1Vector rightValue, int length) {
+        return doOperation(rightValue, length, XOR);
     }
 
     public boolean[] getValues() {
@@ -210,24 +228,31 @@ public final class LLVMI1Vector {
         return vector[index];
     }
 
-    public LLVMI1Vector insert(boolean element, int index) {
-        boolean[] copyOf = Arrays.copyOf(vector, vector.length);
-        copyOf[index] = element;
-        return create(copyOf);
+    @ExplodeLoop
+    public LLVMI1Vector insert(boolean element, int index, int length) {
+        assert vector.length == length;
+        boolean[] result = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i == index ? element : vector[i];
+        }
+        return create(result);
     }
 
     public int getLength() {
         return vector.length;
     }
 
-    public LLVMI1Vector doCompare(LLVMI1Vector other, BiFunction<Boolean, Boolean, Boolean> comparison) {
-        int length = getLength();
-        boolean[] values = new boolean[length];
+    public interface Comparison {
+        boolean eval(boolean a, boolean b);
+    }
 
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMI1Vector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
         for (int i = 0; i < length; i++) {
-            values[i] = comparison.apply(getValue(i), other.getValue(i));
+            values[i] = comparison.eval(vector[i], other.vector[i]);
         }
-
         return LLVMI1Vector.create(values);
     }
 }
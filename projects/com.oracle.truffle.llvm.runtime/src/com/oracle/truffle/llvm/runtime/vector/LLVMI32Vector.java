@@ -29,10 +29,8 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import java.util.Arrays;
-import java.util.function.BiFunction;
-
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 
 @ValueType
 public final class LLVMI32Vector {
@@ -52,137 +50,157 @@ public final class LLVMI32Vector {
         int eval(int a, int b);
     }
 
-    private static LLVMI32Vector doOperation(LLVMI32Vector lhs, LLVMI32Vector rhs, Operation op) {
-        int[] left = lhs.vector;
-        int[] right = rhs.vector;
+    private static final Operation ADD = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a + b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a * b;
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a - b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a / b;
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return Integer.divideUnsigned(a, b);
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a % b;
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return Integer.remainderUnsigned(a, b);
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a & b;
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a | b;
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a << b;
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a >>> b;
+        }
+    };
 
-        // not sure if this assert is true for llvm ir in general
-        // this implementation however assumes it
-        assert left.length == right.length;
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a >> b;
+        }
+    };
 
-        int[] result = new int[left.length];
+    private static final Operation XOR = new Operation() {
+        @Override
+        public int eval(int a, int b) {
+            return a ^ b;
+        }
+    };
 
-        for (int i = 0; i < left.length; i++) {
-            result[i] = op.eval(left[i], right[i]);
+    @ExplodeLoop
+    private LLVMI32Vector doOperation(LLVMI32Vector rightValue, int length, Operation op) {
+        assert vector.length == length && rightValue.vector.length == length;
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = op.eval(vector[i], rightValue.vector[i]);
         }
         return create(result);
     }
 
-    public LLVMI32Vector add(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a + b;
-            }
-        });
-    }
-
-    public LLVMI32Vector mul(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a * b;
-            }
-        });
-    }
-
-    public LLVMI32Vector sub(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a - b;
-            }
-        });
-    }
-
-    public LLVMI32Vector div(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a / b;
-            }
-        });
-    }
-
-    public LLVMI32Vector divUnsigned(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return Integer.divideUnsigned(a, b);
-            }
-        });
-    }
-
-    public LLVMI32Vector rem(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a % b;
-            }
-        });
-    }
-
-    public LLVMI32Vector remUnsigned(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return Integer.remainderUnsigned(a, b);
-            }
-        });
-    }
-
-    public LLVMI32Vector and(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a & b;
-            }
-        });
-    }
-
-    public LLVMI32Vector or(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a | b;
-            }
-        });
-    }
-
-    public LLVMI32Vector leftShift(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a << b;
-            }
-        });
-    }
-
-    public LLVMI32Vector logicalRightShift(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a >>> b;
-            }
-        });
-    }
-
-    public LLVMI32Vector arithmeticRightShift(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a >> b;
-            }
-        });
-    }
-
-    public LLVMI32Vector xor(LLVMI32Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public int eval(int a, int b) {
-                return a ^ b;
-            }
-        });
+    public LLVMI32Vector add(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, ADD);
+    }
+
+    public LLVMI32Vector mul(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, MUL);
+    }
+
+    public LLVMI32Vector sub(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, SUB);
+    }
+
+    public LLVMI32Vector div(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV);
+    }
+
+    public LLVMI32Vector divUnsigned(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV_UNSIGNED);
+    }
+
+    public LLVMI32Vector rem(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM);
+    }
+
+    public LLVMI32Vector remUnsigned(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM_UNSIGNED);
+    }
+
+    public LLVMI32Vector and(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, AND);
+    }
+
+    public LLVMI32Vector or(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, OR);
+    }
+
+    public LLVMI32Vector leftShift(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, LEFT_SHIFT);
+    }
+
+    public LLVMI32Vector logicalRightShift(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, LOGICAL_RIGHT_SHIFT);
+    }
+
+    public LLVMI32Vector arithmeticRightShift(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, ARITHMETIC_RIGHT_SHIFT);
+    }
+
+    public LLVMI32Vector xor(LLVMI32Vector rightValue, int length) {
+        return doOperation(rightValue, length, XOR);
     }
 
     public int[] getValues() {
@@ -193,24 +211,31 @@ public final class LLVMI32Vector {
         return vector[index];
     }
 
-    public LLVMI32Vector insert(int element, int index) {
-        int[] copyOf = Arrays.copyOf(vector, vector.length);
-        copyOf[index] = element;
-        return create(copyOf);
+    @ExplodeLoop
+    public LLVMI32Vector insert(int element, int index, int length) {
+        assert vector.length == length;
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i == index ? element : vector[i];
+        }
+        return create(result);
     }
 
     public int getLength() {
         return vector.length;
     }
 
-    public LLVMI1Vector doCompare(LLVMI32Vector other, BiFunction<Integer, Integer, Boolean> comparison) {
-        int length = getLength();
-        boolean[] values = new boolean[length];
+    public interface Comparison {
+        boolean eval(int a, int b);
+    }
 
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMI32Vector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
         for (int i = 0; i < length; i++) {
-            values[i] = comparison.apply(getValue(i), other.getValue(i));
+            values[i] = comparison.eval(vector[i], other.vector[i]);
         }
-
         return LLVMI1Vector.create(values);
     }
 }
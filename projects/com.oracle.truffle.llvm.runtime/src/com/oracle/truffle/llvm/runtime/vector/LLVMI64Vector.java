@@ -29,10 +29,8 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import java.util.Arrays;
-import java.util.function.BiFunction;
-
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 
 @ValueType
 public final class LLVMI64Vector {
@@ -52,137 +50,157 @@ public final class LLVMI64Vector {
         long eval(long a, long b);
     }
 
-    private static LLVMI64Vector doOperation(LLVMI64Vector lhs, LLVMI64Vector rhs, Operation op) {
-        long[] left = lhs.vector;
-        long[] right = rhs.vector;
+    private static final Operation ADD = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a + b;
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a * b;
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a - b;
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a / b;
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return Long.divideUnsigned(a, b);
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a % b;
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return Long.remainderUnsigned(a, b);
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a & b;
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a | b;
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a << b;
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a >>> b;
+        }
+    };
 
-        // not sure if this assert is true for llvm ir in general
-        // this implementation however assumes it
-        assert left.length == right.length;
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a >> b;
+        }
+    };
 
-        long[] result = new long[left.length];
+    private static final Operation XOR = new Operation() {
+        @Override
+        public long eval(long a, long b) {
+            return a ^ b;
+        }
+    };
 
-        for (int i = 0; i < left.length; i++) {
-            result[i] = op.eval(left[i], right[i]);
+    @ExplodeLoop
+    private LLVMI64Vector doOperation(LLVMI64Vector rightValue, int length, Operation op) {
+        assert vector.length == length && rightValue.vector.length == length;
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = op.eval(vector[i], rightValue.vector[i]);
         }
         return create(result);
     }
 
-    public LLVMI64Vector add(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a + b;
-            }
-        });
-    }
-
-    public LLVMI64Vector mul(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a * b;
-            }
-        });
-    }
-
-    public LLVMI64Vector sub(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a - b;
-            }
-        });
-    }
-
-    public LLVMI64Vector div(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a / b;
-            }
-        });
-    }
-
-    public LLVMI64Vector divUnsigned(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return Long.divideUnsigned(a, b);
-            }
-        });
-    }
-
-    public LLVMI64Vector rem(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a % b;
-            }
-        });
-    }
-
-    public LLVMI64Vector remUnsigned(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return Long.remainderUnsigned(a, b);
-            }
-        });
-    }
-
-    public LLVMI64Vector and(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a & b;
-            }
-        });
-    }
-
-    public LLVMI64Vector or(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a | b;
-            }
-        });
-    }
-
-    public LLVMI64Vector leftShift(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a << b;
-            }
-        });
-    }
-
-    public LLVMI64Vector logicalRightShift(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a >>> b;
-            }
-        });
-    }
-
-    public LLVMI64Vector arithmeticRightShift(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a >> b;
-            }
-        });
-    }
-
-    public LLVMI64Vector xor(LLVMI64Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public long eval(long a, long b) {
-                return a ^ b;
-            }
-        });
+    public LLVMI64Vector add(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, ADD);
+    }
+
+    public LLVMI64Vector mul(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, MUL);
+    }
+
+    public LLVMI64Vector sub(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, SUB);
+    }
+
+    public LLVMI64Vector div(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV);
+    }
+
+    public LLVMI64Vector divUnsigned(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV_UNSIGNED);
+    }
+
+    public LLVMI64Vector rem(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM);
+    }
+
+    public LLVMI64Vector remUnsigned(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM_UNSIGNED);
+    }
+
+    public LLVMI64Vector and(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, AND);
+    }
+
+    public LLVMI64Vector or(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, OR);
+    }
+
+    public LLVMI64Vector leftShift(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, LEFT_SHIFT);
+    }
+
+    public LLVMI64Vector logicalRightShift(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, LOGICAL_RIGHT_SHIFT);
+    }
+
+    public LLVMI64Vector arithmeticRightShift(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, ARITHMETIC_RIGHT_SHIFT);
+    }
+
+    public LLVMI64Vector xor(LLVMI64Vector rightValue, int length) {
+        return doOperation(rightValue, length, XOR);
     }
 
     public long[] getValues() {
@@ -193,24 +211,31 @@ public final class LLVMI64Vector {
         return vector[index];
     }
 
-    public LLVMI64Vector insert(long element, int index) {
-        long[] copyOf = Arrays.copyOf(vector, vector.length);
-        copyOf[index] = element;
-        return create(copyOf);
+    @ExplodeLoop
+    public LLVMI64Vector insert(long element, int index, int length) {
+        assert vector.length == length;
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i == index ? element : vector[i];
+        }
+        return create(result);
     }
 
     public int getLength() {
         return vector.length;
     }
 
-    public LLVMI1Vector doCompare(LLVMI64Vector other, BiFunction<Long, Long, Boolean> comparison) {
-        int length = getLength();
-        boolean[] values = new boolean[length];
+    public interface Comparison {
+        boolean eval(long a, long b);
+    }
 
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMI64Vector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
         for (int i = 0; i < length; i++) {
-            values[i] = comparison.apply(getValue(i), other.getValue(i));
+            values[i] = comparison.eval(vector[i], other.vector[i]);
         }
-
         return LLVMI1Vector.create(values);
     }
 }
@@ -29,10 +29,8 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import java.util.Arrays;
-import java.util.function.BiFunction;
-
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 
 @ValueType
 public final class LLVMI8Vector {
@@ -52,137 +50,157 @@ public final class LLVMI8Vector {
         byte eval(byte a, byte b);
     }
 
-    private static LLVMI8Vector doOperation(LLVMI8Vector lhs, LLVMI8Vector rhs, Operation op) {
-        byte[] left = lhs.vector;
-        byte[] right = rhs.vector;
+    private static final Operation ADD = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a + b);
+        }
+    };
+
+    private static final Operation MUL = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a * b);
+        }
+    };
+
+    private static final Operation SUB = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a - b);
+        }
+    };
+
+    private static final Operation DIV = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a / b);
+        }
+    };
+
+    private static final Operation DIV_UNSIGNED = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (Byte.toUnsignedInt(a) / Byte.toUnsignedInt(b));
+        }
+    };
+
+    private static final Operation REM = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a % b);
+        }
+    };
+
+    private static final Operation REM_UNSIGNED = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (Byte.toUnsignedInt(a) % Byte.toUnsignedInt(b));
+        }
+    };
+
+    private static final Operation AND = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a & b);
+        }
+    };
+
+    private static final Operation OR = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a | b);
+        }
+    };
+
+    private static final Operation LEFT_SHIFT = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a << b);
+        }
+    };
+
+    private static final Operation LOGICAL_RIGHT_SHIFT = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a >>> b);
+        }
+    };
 
-        // not sure if this assert is true for llvm ir in general
-        // this implementation however assumes it
-        assert left.length == right.length;
+    private static final Operation ARITHMETIC_RIGHT_SHIFT = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a >> b);
+        }
+    };
 
-        byte[] result = new byte[left.length];
+    private static final Operation XOR = new Operation() {
+        @Override
+        public byte eval(byte a, byte b) {
+            return (byte) (a ^ b);
+        }
+    };
 
-        for (int i = 0; i < left.length; i++) {
-            result[i] = op.eval(left[i], right[i]);
+    @ExplodeLoop
+    private LLVMI8Vector doOperation(LLVMI8Vector rightValue, int length, Operation op) {
+        assert vector.length == length && rightValue.vector.length == length;
+        byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = op.eval(vector[i], rightValue.vector[i]);
         }
         return create(result);
     }
 
-    public LLVMI8Vector add(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a + b);
-            }
-        });
-    }
-
-    public LLVMI8Vector mul(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a * b);
-            }
-        });
-    }
-
-    public LLVMI8Vector sub(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a - b);
-            }
-        });
-    }
-
-    public LLVMI8Vector div(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a / b);
-            }
-        });
-    }
-
-    public LLVMI8Vector divUnsigned(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (Byte.toUnsignedInt(a) / Byte.toUnsignedInt(b));
-            }
-        });
-    }
-
-    public LLVMI8Vector rem(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a % b);
-            }
-        });
-    }
-
-    public LLVMI8Vector remUnsigned(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (Byte.toUnsignedInt(a) % Byte.toUnsignedInt(b));
-            }
-        });
-    }
-
-    public LLVMI8Vector and(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a & b);
-            }
-        });
-    }
-
-    public LLVMI8Vector or(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a | b);
-            }
-        });
-    }
-
-    public LLVMI8Vector leftShift(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a << b);
-            }
-        });
-    }
-
-    public LLVMI8Vector logicalRightShift(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a >>> b);
-            }
-        });
-    }
-
-    public LLVMI8Vector arithmeticRightShift(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a >> b);
-            }
-        });
-    }
-
-    public LLVMI8Vector xor(LLVMI8Vector rightValue) {
-        return doOperation(this, rightValue, new Operation() {
-            @Override
-            public byte eval(byte a, byte b) {
-                return (byte) (a ^ b);
-            }
-        });
+    public LLVMI8Vector add(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, ADD);
+    }
+
+    public LLVMI8Vector mul(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, MUL);
+    }
+
+    public LLVMI8Vector sub(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, SUB);
+    }
+
+    public LLVMI8Vector div(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV);
+    }
+
+    public LLVMI8Vector divUnsigned(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, DIV_UNSIGNED);
+    }
+
+    public LLVMI8Vector rem(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM);
+    }
+
+    public LLVMI8Vector remUnsigned(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, REM_UNSIGNED);
+    }
+
+    public LLVMI8Vector and(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, AND);
+    }
+
+    public LLVMI8Vector or(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, OR);
+    }
+
+    public LLVMI8Vector leftShift(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, LEFT_SHIFT);
+    }
+
+    public LLVMI8Vector logicalRightShift(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, LOGICAL_RIGHT_SHIFT);
+    }
+
+    public LLVMI8Vector arithmeticRightShift(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, ARITHMETIC_RIGHT_SHIFT);
+    }
+
+    public LLVMI8Vector xor(LLVMI8Vector rightValue, int length) {
+        return doOperation(rightValue, length, XOR);
     }
 
     public byte[] getValues() {
@@ -193,24 +211,31 @@ public final class LLVMI8Vector {
         return vector[index];
     }
 
-    public LLVMI8Vector insert(byte element, int index) {
-        byte[] copyOf = Arrays.copyOf(vector, vector.length);
-        copyOf[index] = element;
-        return create(copyOf);
+    @ExplodeLoop
+    public LLVMI8Vector insert(byte element, int index, int length) {
+        assert vector.length == length;
+        byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i == index ? element : vector[i];
+        }
+        return create(result);
     }
 
     public int getLength() {
         return vector.length;
     }
 
-    public LLVMI1Vector doCompare(LLVMI8Vector other, BiFunction<Byte, Byte, Boolean> comparison) {
-        int length = getLength();
-        boolean[] values = new boolean[length];
+    public interface Comparison {
+        boolean eval(byte a, byte b);
+    }
 
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMI8Vector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
         for (int i = 0; i < length; i++) {
-            values[i] = comparison.apply(getValue(i), other.getValue(i));
+            values[i] = comparison.eval(vector[i], other.vector[i]);
         }
-
         return LLVMI1Vector.create(values);
     }
 }
@@ -29,9 +29,10 @@
  */
 package com.oracle.truffle.llvm.runtime.vector;
 
-import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 import java.util.Arrays;
-import java.util.function.BiFunction;
+
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.llvm.runtime.pointer.LLVMNativePointer;
 
 public final class LLVMPointerVector {
     private final long[] vector;    // no LLVMNativePointer stored to improve performance
@@ -237,14 +238,17 @@ public final class LLVMPointerVector {
         return vector.length;
     }
 
-    public LLVMI1Vector doCompare(LLVMPointerVector other, BiFunction<Long, Long, Boolean> compare) {
-        int length = other.getLength();
-        boolean[] values = new boolean[length];
+    public interface Comparison {
+        boolean eval(long a, long b);
+    }
 
+    @ExplodeLoop
+    public LLVMI1Vector doCompare(LLVMPointerVector other, int length, Comparison comparison) {
+        assert vector.length == length && other.vector.length == length;
+        boolean[] values = new boolean[length];
         for (int i = 0; i < length; i++) {
-            values[i] = compare.apply(getValue(i), other.getValue(i));
+            values[i] = comparison.eval(vector[i], other.vector[i]);
         }
-
         return LLVMI1Vector.create(values);
     }
 }
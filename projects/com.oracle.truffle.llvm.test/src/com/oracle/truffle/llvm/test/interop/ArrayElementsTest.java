@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.interop;
+
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Copies ranges of primitive elements between C buffers and polyglot arrays, both for host arrays
+ * of the matching type, which are copied in bulk, and for other arrays, which are copied element
+ * by element.
+ */
+public final class ArrayElementsTest extends InteropTestBase {
+
+    private static final int LENGTH = 100000;
+
+    private static Value testLibrary;
+
+    @BeforeClass
+    public static void loadTestBitcode() {
+        testLibrary = InteropTestBase.loadTestBitcodeValue("arrayElements");
+    }
+
+    @Test
+    public void testGetHostArray() {
+        int[] array = new int[LENGTH];
+        long expected = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            array[i] = i * 3;
+            expected += i * 3;
+        }
+        Value result = testLibrary.getMember("sumI32").execute(array, LENGTH);
+        Assert.assertEquals(expected, result.asLong());
+    }
+
+    @Test
+    public void testSetHostArray() {
+        double[] array = new double[LENGTH + 2];
+        testLibrary.getMember("fillDouble").execute(array, 1, LENGTH);
+        Assert.assertEquals(0.0, array[0], 0.0);
+        for (int i = 0; i < LENGTH; i++) {
+            Assert.assertEquals(i * 0.5, array[i + 1], 0.0);
+        }
+        Assert.assertEquals(0.0, array[LENGTH + 1], 0.0);
+    }
+
+    @Test
+    public void testRoundTripHostArray() {
+        short[] src = new short[LENGTH];
+        short[] dst = new short[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            src[i] = (short) i;
+        }
+        testLibrary.getMember("incrementI16").execute(src, dst, LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            Assert.assertEquals((short) (i + 1), dst[i]);
+        }
+    }
+
+    @Test
+    public void testStackBuffer() {
+        Value result = testLibrary.getMember("sumStackI64").execute(new long[]{1, 2, 3, 4, 5, 6});
+        Assert.assertEquals(14, result.asLong());
+    }
+
+    @Test
+    public void testReadBytesHostArray() {
+        byte[] array = new byte[256];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (byte) i;
+        }
+        Value result = testLibrary.getMember("readBytes").execute(array, 10, 100);
+        Assert.assertEquals(100, result.getArraySize());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(array[10 + i], result.getArrayElement(i).asByte());
+        }
+    }
+
+    @Test
+    public void testGetProxyArray() {
+        Object[] array = new Object[1000];
+        long expected = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i * 3;
+            expected += i * 3;
+        }
+        Value result = testLibrary.getMember("sumI32").execute(ProxyArray.fromArray(array), array.length);
+        Assert.assertEquals(expected, result.asLong());
+    }
+
+    @Test
+    public void testSetProxyArray() {
+        Object[] array = new Object[12];
+        testLibrary.getMember("fillDouble").execute(ProxyArray.fromArray(array), 2, 10);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i * 0.5, ((Value) array[i + 2]).asDouble(), 0.0);
+        }
+    }
+
+    @Test
+    public void testMismatchedHostArray() {
+        // a long[] does not match the i32 element type, so this takes the element-wise path
+        long[] array = new long[]{10, 20, 30};
+        Value result = testLibrary.getMember("sumI32").execute(array, 3);
+        Assert.assertEquals(60, result.asLong());
+    }
+
+    @Test(expected = PolyglotException.class)
+    public void testOutOfRangeHostArray() {
+        // start + count overflows, so this must not be taken as an in-range bulk copy
+        testLibrary.getMember("fillDouble").execute(new double[4], Long.MAX_VALUE, 2);
+    }
+
+    @Test(expected = PolyglotException.class)
+    public void testCountExceedsHostArray() {
+        testLibrary.getMember("fillDouble").execute(new double[4], 2, 10);
+    }
+}
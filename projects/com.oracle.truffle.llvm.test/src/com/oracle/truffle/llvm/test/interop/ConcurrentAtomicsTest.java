@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.interop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.graalvm.polyglot.Value;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs atomic read-modify-write and compare-exchange loops on native globals of every width and on
+ * a managed malloc object from several threads at once, and checks that no update is lost. The
+ * managed object also has narrow fields inside a word, whose neighbours must stay untouched.
+ */
+public final class ConcurrentAtomicsTest extends InteropTestBase {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int ITERATIONS = 1000;
+    private static final int TOTAL = THREAD_COUNT * ITERATIONS;
+
+    private static Value testLibrary;
+
+    @BeforeClass
+    public static void loadTestBitcode() {
+        testLibrary = InteropTestBase.loadTestBitcodeValue("concurrentAtomics");
+    }
+
+    private static long get(int which) {
+        return testLibrary.getMember("get").execute(which).asLong();
+    }
+
+    @Test
+    public void testConcurrentAtomics() throws Exception {
+        testLibrary.getMember("init").execute();
+        CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    testLibrary.getMember("run").execute(ITERATIONS);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals((byte) TOTAL, get(0));
+        Assert.assertEquals((short) TOTAL, get(1));
+        Assert.assertEquals(TOTAL, get(2));
+        Assert.assertEquals(TOTAL, get(3));
+        Assert.assertEquals(TOTAL, get(4));
+        Assert.assertEquals(TOTAL, get(5));
+        Assert.assertEquals(-2L * TOTAL, get(6));
+        Assert.assertEquals(3L * TOTAL, get(7));
+
+        // fields of a managed struct that do not start at a word boundary
+        Assert.assertEquals(TOTAL, get(8));
+        Assert.assertEquals(TOTAL, get(9));
+        Assert.assertEquals(0, get(10));
+        Assert.assertEquals((short) TOTAL, get(11));
+        Assert.assertEquals(0, get(12));
+        Assert.assertEquals((byte) TOTAL, get(13));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.interop;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.runtime.options.SulongEngineOption;
+import com.oracle.truffle.llvm.test.options.TestOptions;
+
+/**
+ * Checks that the write system calls of a program end up in the streams given to
+ * {@link Context.Builder#out} and {@link Context.Builder#err}.
+ */
+public final class EnvStdStreamsTest {
+
+    private static final File TEST_FILE = new File(new File(TestOptions.TEST_SUITE_PATH, "interop"), "envStdStreams/O0_MEM2REG.bc");
+
+    private static void run(int bufferSize, ByteArrayOutputStream out, ByteArrayOutputStream err) throws IOException {
+        Source source = Source.newBuilder("llvm", TEST_FILE).build();
+        Context.Builder builder = Context.newBuilder().allowAllAccess(true).out(out).err(err);
+        builder.option(SulongEngineOption.ENV_STD_STREAMS_NAME, String.valueOf(true));
+        builder.option(SulongEngineOption.STD_STREAM_BUFFER_SIZE_NAME, String.valueOf(bufferSize));
+        try (Context context = builder.build()) {
+            Assert.assertEquals(0, context.eval(source).execute().asInt());
+        }
+    }
+
+    @Test
+    public void testUnbuffered() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        run(0, out, err);
+        Assert.assertEquals("Hello world\n", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        Assert.assertEquals("error\n", new String(err.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testBuffered() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        run(4096, out, err);
+        Assert.assertEquals("Hello world\n", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        Assert.assertEquals("error\n", new String(err.toByteArray(), StandardCharsets.US_ASCII));
+    }
+}
@@ -1160,6 +1160,13 @@ public class LLVMInteropTest {
         }
     }
 
+    @Test
+    public void testManagedMallocTyped() throws Exception {
+        try (Runner runner = new Runner("managedMallocTyped")) {
+            Assert.assertEquals(0, runner.run());
+        }
+    }
+
     @Test
     public void testVirtualMallocArray() throws Exception {
         try (Runner runner = new Runner("virtualMallocArray")) {
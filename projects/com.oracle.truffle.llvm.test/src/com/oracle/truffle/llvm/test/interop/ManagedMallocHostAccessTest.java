@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.interop;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.llvm.nodes.intrinsics.interop.LLVMTruffleManagedMalloc.ManagedMallocObject;
+import com.oracle.truffle.llvm.runtime.memory.UnsafeArrayAccess;
+
+/**
+ * Pins how a managed malloc object looks as a polyglot array: one element per 8-byte word,
+ * independent of the width of the values stored into it from C.
+ */
+public final class ManagedMallocHostAccessTest {
+
+    @SuppressWarnings("deprecation") private static final UnsafeArrayAccess memory = UnsafeArrayAccess.getInstance();
+
+    @Test
+    public void testWordIndexing() {
+        ManagedMallocObject object = new ManagedMallocObject(4);
+        for (int i = 0; i < 8; i++) {
+            object.putI32(memory, (long) i * Integer.BYTES, i + 1);
+        }
+        Assert.assertEquals(4, object.getSize());
+        Assert.assertEquals(3, object.get(memory, 1));
+        Assert.assertEquals(7, object.get(memory, 3));
+
+        object.set(memory, 3, 42);
+        Assert.assertEquals(42, object.getI32(memory, 24));
+        Assert.assertEquals(0, object.getI32(memory, 28));
+    }
+
+    @Test
+    public void testUnwrittenWord() {
+        ManagedMallocObject object = new ManagedMallocObject(2);
+        Assert.assertEquals(0L, object.get(memory, 1));
+    }
+
+    @Test
+    public void testObjectInWord() {
+        ManagedMallocObject object = new ManagedMallocObject(2);
+        object.putDouble(memory, 0, 1.5);
+        Object value = new Object();
+        object.set(memory, 1, value);
+        Assert.assertEquals(1.5, object.get(memory, 0));
+        Assert.assertSame(value, object.get(memory, 1));
+
+        object.putDouble(memory, 8, 2.5);
+        Assert.assertEquals(2.5, object.get(memory, 1));
+    }
+
+    @Test
+    public void testAtomicOnUnalignedField() {
+        ManagedMallocObject object = new ManagedMallocObject(1);
+        object.putI32(memory, 0, 5);
+        Assert.assertEquals(0, object.getAndOpI32(memory, 4, 1, (a, b) -> a + b));
+        Assert.assertEquals(0, object.getAndOpI16(memory, 2, (short) 3, (a, b) -> (short) (a + b)));
+        Assert.assertEquals(1, object.compareAndSwapI32(memory, 4, 1, 9).getValue());
+        Assert.assertEquals(9, object.getI32(memory, 4));
+        Assert.assertEquals(5 | (3 << 16), object.getI32(memory, 0));
+    }
+}
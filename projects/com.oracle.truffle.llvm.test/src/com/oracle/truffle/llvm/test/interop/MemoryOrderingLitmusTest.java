@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of
+ * conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided
+ * with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS
+ * OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE
+ * COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE
+ * GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.oracle.truffle.llvm.test.interop;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
+
+import org.graalvm.polyglot.Value;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Litmus tests for the memory ordering of atomic loads, stores and fences. Each test runs the two
+ * sides of a litmus program concurrently for many rounds and checks that the outcome forbidden by
+ * the C11 memory model never shows up.
+ */
+public final class MemoryOrderingLitmusTest extends InteropTestBase {
+
+    private static final int ROUNDS = 2000;
+
+    private static Value testLibrary;
+
+    @BeforeClass
+    public static void loadTestBitcode() {
+        testLibrary = InteropTestBase.loadTestBitcodeValue("memoryOrderingLitmus");
+    }
+
+    /**
+     * Runs {@code thread0} and {@code thread1} concurrently for {@link #ROUNDS} rounds. The shared
+     * state is reset before each round, and each side gets the round number as argument.
+     */
+    private static int[][] runRounds(IntUnaryOperator thread0, IntUnaryOperator thread1) throws Exception {
+        Value reset = testLibrary.getMember("reset");
+        CyclicBarrier barrier = new CyclicBarrier(2, () -> reset.execute());
+        int[][] results = new int[2][ROUNDS];
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    barrier.await();
+                    results[0][round] = thread0.applyAsInt(round);
+                }
+                return null;
+            });
+            Future<?> second = executor.submit(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    barrier.await();
+                    results[1][round] = thread1.applyAsInt(round);
+                }
+                return null;
+            });
+            first.get();
+            second.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private static IntUnaryOperator writer(String name) {
+        Value write = testLibrary.getMember(name);
+        return round -> {
+            write.execute(round + 1);
+            return 0;
+        };
+    }
+
+    private static IntUnaryOperator spinningReader(String name) {
+        Value read = testLibrary.getMember(name);
+        return round -> {
+            int result;
+            do {
+                result = read.execute().asInt();
+            } while (result < 0);
+            return result;
+        };
+    }
+
+    private static IntUnaryOperator call(String name) {
+        Value function = testLibrary.getMember(name);
+        return round -> function.execute().asInt();
+    }
+
+    private static void checkMessagePassing(int[][] results) {
+        for (int round = 0; round < ROUNDS; round++) {
+            Assert.assertEquals("stale data in round " + round, round + 1, results[1][round]);
+        }
+    }
+
+    private static void checkStoreBuffering(int[][] results) {
+        for (int round = 0; round < ROUNDS; round++) {
+            Assert.assertFalse("both loads saw 0 in round " + round, results[0][round] == 0 && results[1][round] == 0);
+        }
+    }
+
+    @Test
+    public void testMessagePassingReleaseAcquire() throws Exception {
+        checkMessagePassing(runRounds(writer("mp_write"), spinningReader("mp_read")));
+    }
+
+    @Test
+    public void testMessagePassingFences() throws Exception {
+        checkMessagePassing(runRounds(writer("mp_fence_write"), spinningReader("mp_fence_read")));
+    }
+
+    @Test
+    public void testStoreBufferingSequentiallyConsistent() throws Exception {
+        checkStoreBuffering(runRounds(call("sb_thread0"), call("sb_thread1")));
+    }
+
+    @Test
+    public void testStoreBufferingFences() throws Exception {
+        checkStoreBuffering(runRounds(call("sb_fence_thread0"), call("sb_fence_thread1")));
+    }
+}
@@ -85,6 +85,7 @@ import com.oracle.truffle.llvm.parser.model.functions.FunctionSymbol;
 import com.oracle.truffle.llvm.parser.model.symbols.constants.aggregate.ArrayConstant;
 import com.oracle.truffle.llvm.parser.model.symbols.constants.aggregate.StructureConstant;
 import com.oracle.truffle.llvm.parser.model.symbols.globals.GlobalVariable;
+import com.oracle.truffle.llvm.parser.nodes.LLVMConstantImage;
 import com.oracle.truffle.llvm.parser.nodes.LLVMSymbolReadResolver;
 import com.oracle.truffle.llvm.parser.scanner.LLVMScanner;
 import com.oracle.truffle.llvm.parser.util.Pair;
@@ -666,10 +667,7 @@ public final class Runner {
         LLVMSymbolReadResolver symbolResolver = new LLVMSymbolReadResolver(parserResult.getRuntime(), rootFrame);
         final List<LLVMExpressionNode> globalNodes = new ArrayList<>();
         for (GlobalVariable global : parserResult.getDefinedGlobals()) {
-            final LLVMExpressionNode store = createGlobalInitialization(symbolResolver, global);
-            if (store != null) {
-                globalNodes.add(store);
-            }
+            createGlobalInitialization(symbolResolver, global, globalNodes);
         }
 
         if (!globalNodes.isEmpty()) {
@@ -680,28 +678,50 @@ public final class Runner {
         return null;
     }
 
-    private LLVMExpressionNode createGlobalInitialization(LLVMSymbolReadResolver symbolResolver, GlobalVariable global) {
+    private void createGlobalInitialization(LLVMSymbolReadResolver symbolResolver, GlobalVariable global, List<LLVMExpressionNode> globalNodes) {
         if (global == null || global.getValue() == null) {
-            return null;
+            return;
         }
 
-        LLVMExpressionNode constant = symbolResolver.resolve(global.getValue());
-        if (constant != null) {
-            final Type type = global.getType().getPointeeType();
-            final int size = context.getByteSize(type);
+        final Type type = global.getType().getPointeeType();
+        if (type instanceof ArrayType || type instanceof StructureType) {
+            createGlobalImageInitialization(symbolResolver, global, type, globalNodes);
+            return;
+        }
 
+        LLVMExpressionNode constant = symbolResolver.resolve(global.getValue());
+        if (constant != null && context.getByteSize(type) != 0) {
             final LLVMExpressionNode globalVarAddress = symbolResolver.resolve(global);
-            if (size != 0) {
-                if (type instanceof ArrayType || type instanceof StructureType) {
-                    return nodeFactory.createStore(context, globalVarAddress, constant, type, null);
-                } else {
-                    Type t = global.getValue().getType();
-                    return nodeFactory.createStore(context, globalVarAddress, constant, t, null);
-                }
-            }
+            globalNodes.add(nodeFactory.createStore(context, globalVarAddress, constant, global.getValue().getType(), null));
         }
+    }
 
-        return null;
+    /**
+     * Aggregate initializers are serialized into a byte image that is copied into the global at
+     * once. Only the values that depend on symbol addresses are stored with separate nodes.
+     */
+    private void createGlobalImageInitialization(LLVMSymbolReadResolver symbolResolver, GlobalVariable global, Type type, List<LLVMExpressionNode> globalNodes) {
+        final int size = context.getByteSize(type);
+        if (size == 0) {
+            return;
+        }
+
+        final LLVMConstantImage image = LLVMConstantImage.create(context, global.getValue(), type);
+        final byte[] data = image.getData();
+        if (data != null) {
+            globalNodes.add(nodeFactory.createConstantImageStore(symbolResolver.resolve(global), data));
+        } else {
+            globalNodes.add(nodeFactory.createZeroNode(symbolResolver.resolve(global), size));
+        }
+
+        for (LLVMConstantImage.Relocation relocation : image.getRelocations()) {
+            final LLVMExpressionNode value = symbolResolver.resolve(relocation.getValue());
+            if (value != null) {
+                final LLVMExpressionNode offset = nodeFactory.createLiteral(relocation.getOffset(), PrimitiveType.I32);
+                final LLVMExpressionNode address = nodeFactory.createTypedElementPointer(symbolResolver.resolve(global), offset, 1, relocation.getType());
+                globalNodes.add(nodeFactory.createStore(context, address, value, relocation.getType(), null));
+            }
+        }
     }
 
     private RootCallTarget createConstructor(LLVMParserResult parserResult) {
@@ -0,0 +1,44 @@
+#include <polyglot.h>
+#include <truffle.h>
+#include <stdlib.h>
+
+int64_t sumI32(void *array, int32_t len) {
+  int32_t *buffer = malloc(len * sizeof(int32_t));
+  polyglot_get_array_elements_i32(array, 0, buffer, len);
+
+  int64_t sum = 0;
+  for (int32_t i = 0; i < len; i++) {
+    sum += buffer[i];
+  }
+  free(buffer);
+  return sum;
+}
+
+void fillDouble(void *array, uint64_t start, int32_t count) {
+  double *buffer = malloc(count * sizeof(double));
+  for (int32_t i = 0; i < count; i++) {
+    buffer[i] = i * 0.5;
+  }
+  polyglot_set_array_elements_double(array, start, buffer, count);
+  free(buffer);
+}
+
+void incrementI16(void *src, void *dst, int32_t len) {
+  int16_t *buffer = malloc(len * sizeof(int16_t));
+  polyglot_get_array_elements_i16(src, 0, buffer, len);
+  for (int32_t i = 0; i < len; i++) {
+    buffer[i]++;
+  }
+  polyglot_set_array_elements_i16(dst, 0, buffer, len);
+  free(buffer);
+}
+
+int64_t sumStackI64(void *array) {
+  int64_t buffer[4];
+  polyglot_get_array_elements_i64(array, 1, buffer, 4);
+  return buffer[0] + buffer[1] + buffer[2] + buffer[3];
+}
+
+void *readBytes(const char *bytes, int32_t start, int32_t n) {
+  return truffle_read_n_bytes(bytes + start, n);
+}
@@ -0,0 +1,92 @@
+#include <stdint.h>
+#include <string.h>
+#include <truffle.h>
+
+static int8_t nativeI8;
+static int16_t nativeI16;
+static int32_t nativeI32;
+static int64_t nativeI64;
+static int32_t nativeCas;
+
+static int64_t *managed;
+
+struct fields {
+  int32_t i32[2];
+  int16_t i16[2];
+  int8_t i8[4];
+};
+
+static struct fields *managedFields;
+
+void init() {
+  managed = (int64_t *)truffle_managed_malloc(3 * sizeof(int64_t));
+  managed[0] = 0;
+  managed[1] = 0;
+  managed[2] = 0;
+
+  managedFields = (struct fields *)truffle_managed_malloc(sizeof(struct fields));
+  memset(managedFields, 0, sizeof(struct fields));
+}
+
+void run(int iterations) {
+  for (int i = 0; i < iterations; i++) {
+    __atomic_fetch_add(&nativeI8, 1, __ATOMIC_SEQ_CST);
+    __atomic_fetch_add(&nativeI16, 1, __ATOMIC_SEQ_CST);
+    __atomic_fetch_add(&nativeI32, 1, __ATOMIC_SEQ_CST);
+    __atomic_fetch_add(&nativeI64, 1, __ATOMIC_SEQ_CST);
+
+    int32_t expected = nativeCas;
+    while (!__sync_bool_compare_and_swap(&nativeCas, expected, expected + 1)) {
+      expected = nativeCas;
+    }
+
+    __atomic_fetch_add(&managed[0], 1, __ATOMIC_SEQ_CST);
+    __atomic_fetch_sub(&managed[1], 2, __ATOMIC_SEQ_CST);
+
+    int64_t old = managed[2];
+    int64_t witness;
+    while ((witness = __sync_val_compare_and_swap(&managed[2], old, old + 3)) != old) {
+      old = witness;
+    }
+
+    __atomic_fetch_add(&managedFields->i32[1], 1, __ATOMIC_SEQ_CST);
+    __atomic_fetch_add(&managedFields->i16[1], 1, __ATOMIC_SEQ_CST);
+    __atomic_fetch_add(&managedFields->i8[3], 1, __ATOMIC_SEQ_CST);
+
+    int32_t expectedField = managedFields->i32[0];
+    while (!__sync_bool_compare_and_swap(&managedFields->i32[0], expectedField, expectedField + 1)) {
+      expectedField = managedFields->i32[0];
+    }
+  }
+}
+
+int64_t get(int which) {
+  switch (which) {
+  case 0:
+    return nativeI8;
+  case 1:
+    return nativeI16;
+  case 2:
+    return nativeI32;
+  case 3:
+    return nativeI64;
+  case 4:
+    return nativeCas;
+  case 5:
+  case 6:
+  case 7:
+    return managed[which - 5];
+  case 8:
+    return managedFields->i32[0];
+  case 9:
+    return managedFields->i32[1];
+  case 10:
+    return managedFields->i16[0];
+  case 11:
+    return managedFields->i16[1];
+  case 12:
+    return managedFields->i8[2];
+  default:
+    return managedFields->i8[3];
+  }
+}
@@ -0,0 +1,35 @@
+#define DEFINE_FN(n)                                                                                                                       \
+  int fn##n(int x) {                                                                                                                       \
+    int result = 0;                                                                                                                        \
+    for (int i = 0; i <= x; i++) {                                                                                                         \
+      result += n;                                                                                                                         \
+    }                                                                                                                                      \
+    return result - x * n;                                                                                                                 \
+  }
+
+#define DEFINE_FN8(n)                                                                                                                      \
+  DEFINE_FN(n##0)                                                                                                                          \
+  DEFINE_FN(n##1)                                                                                                                          \
+  DEFINE_FN(n##2)                                                                                                                          \
+  DEFINE_FN(n##3)                                                                                                                          \
+  DEFINE_FN(n##4)                                                                                                                          \
+  DEFINE_FN(n##5)                                                                                                                          \
+  DEFINE_FN(n##6)                                                                                                                          \
+  DEFINE_FN(n##7)
+
+DEFINE_FN8(1)
+DEFINE_FN8(2)
+DEFINE_FN8(3)
+DEFINE_FN8(4)
+DEFINE_FN8(5)
+DEFINE_FN8(6)
+DEFINE_FN8(7)
+DEFINE_FN8(8)
+
+#define CALL_FN8(n, x) (fn##n##0(x) + fn##n##1(x) + fn##n##2(x) + fn##n##3(x) + fn##n##4(x) + fn##n##5(x) + fn##n##6(x) + fn##n##7(x))
+
+/* every fnXY returns XY, so the result is independent of x */
+int call_all(int x) {
+  return CALL_FN8(1, x) + CALL_FN8(2, x) + CALL_FN8(3, x) + CALL_FN8(4, x) + CALL_FN8(5, x) + CALL_FN8(6, x) + CALL_FN8(7, x) +
+         CALL_FN8(8, x);
+}
@@ -0,0 +1,9 @@
+#include <sys/syscall.h>
+#include <unistd.h>
+
+int main() {
+  syscall(SYS_write, 1, "Hello ", 6);
+  syscall(SYS_write, 2, "error\n", 6);
+  syscall(SYS_write, 1, "world\n", 6);
+  return 0;
+}
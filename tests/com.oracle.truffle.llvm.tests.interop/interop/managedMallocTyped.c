@@ -0,0 +1,84 @@
+#include <stdint.h>
+#include <string.h>
+#include <truffle.h>
+
+typedef int32_t v4si __attribute__((vector_size(16)));
+
+struct mixed {
+  int32_t a;
+  int32_t b;
+  void *p;
+};
+
+int main() {
+  int32_t *ints = truffle_managed_malloc(sizeof(int32_t) * 1000);
+  for (int i = 0; i < 1000; i++) {
+    ints[i] = i;
+  }
+  int64_t sum = 0;
+  for (int i = 0; i < 1000; i++) {
+    sum += ints[i];
+  }
+  if (sum != 499500) {
+    return 1;
+  }
+
+  double *doubles = truffle_managed_malloc(sizeof(double) * 16);
+  for (int i = 0; i < 16; i++) {
+    doubles[i] = i * 0.25;
+  }
+  if (doubles[15] != 3.75) {
+    return 2;
+  }
+
+  int64_t *longs = truffle_managed_malloc(sizeof(int64_t) * 2);
+  longs[0] = 0x0102030405060708L;
+  uint8_t *bytes = (uint8_t *) longs;
+  int32_t *halves = (int32_t *) longs;
+  if (bytes[0] != 0x08 || bytes[7] != 0x01 || halves[1] != 0x01020304) {
+    return 3;
+  }
+  bytes[1] = 0xff;
+  if (longs[0] != 0x010203040506ff08L) {
+    return 4;
+  }
+  if (longs[1] != 0) {
+    return 5;
+  }
+
+  struct mixed *m = truffle_managed_malloc(sizeof(struct mixed));
+  m->a = 17;
+  m->b = 25;
+  m->p = m;
+  if (m->a != 17 || m->b != 25 || m->p != m) {
+    return 6;
+  }
+
+  int16_t *shorts = truffle_managed_malloc(sizeof(int16_t) * 8);
+  shorts[3] = 42;
+  memset(shorts, 0, sizeof(int16_t) * 8);
+  if (shorts[3] != 0) {
+    return 7;
+  }
+
+  int32_t *counters = truffle_managed_malloc(sizeof(int32_t) * 2);
+  counters[0] = 5;
+  counters[1] = 0;
+  __atomic_fetch_add(&counters[1], 1, __ATOMIC_SEQ_CST);
+  if (counters[0] != 5 || counters[1] != 1) {
+    return 8;
+  }
+  if (__sync_val_compare_and_swap(&counters[1], 1, 7) != 1 || counters[0] != 5 || counters[1] != 7) {
+    return 9;
+  }
+
+  v4si *vectors = truffle_managed_malloc(sizeof(v4si) * 2);
+  vectors[0] = (v4si){ 1, 2, 3, 4 };
+  vectors[1] = vectors[0] * 2;
+  int32_t *lanes = (int32_t *) vectors;
+  if (lanes[1] != 2 || lanes[4] != 2 || lanes[7] != 8) {
+    return 10;
+  }
+
+  return 0;
+}
@@ -0,0 +1,20 @@
+#include <polyglot.h>
+
+int accumulate(void *obj, int iterations) {
+  int i;
+  for (i = 0; i < iterations; i++) {
+    int a = polyglot_as_i32(polyglot_get_member(obj, "a"));
+    int b = polyglot_as_i32(polyglot_get_member(obj, "b"));
+    int sum = polyglot_as_i32(polyglot_get_member(obj, "sum"));
+    polyglot_put_member(obj, "sum", a + b + sum);
+  }
+  return polyglot_as_i32(polyglot_invoke(obj, "twice", polyglot_as_i32(polyglot_get_member(obj, "sum"))));
+}
+
+int readMutableName(void *obj) {
+  char name[] = "a";
+  int result = polyglot_as_i32(polyglot_get_member(obj, name)) * 10;
+  name[0] = 'b';
+  result += polyglot_as_i32(polyglot_get_member(obj, name));
+  return result;
+}
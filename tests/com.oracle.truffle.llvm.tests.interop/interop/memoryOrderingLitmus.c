@@ -0,0 +1,67 @@
+#include <stdatomic.h>
+
+static int data;
+static atomic_int flag;
+
+static atomic_int x;
+static atomic_int y;
+
+void reset() {
+  data = 0;
+  atomic_store_explicit(&flag, 0, memory_order_relaxed);
+  atomic_store_explicit(&x, 0, memory_order_relaxed);
+  atomic_store_explicit(&y, 0, memory_order_relaxed);
+}
+
+/* message passing with release store and acquire load */
+void mp_write(int value) {
+  data = value;
+  atomic_store_explicit(&flag, 1, memory_order_release);
+}
+
+/* returns -1 as long as the flag is not set, so that the caller spins outside of the bitcode */
+int mp_read() {
+  if (atomic_load_explicit(&flag, memory_order_acquire)) {
+    return data;
+  }
+  return -1;
+}
+
+/* message passing with relaxed accesses and explicit fences */
+void mp_fence_write(int value) {
+  data = value;
+  atomic_thread_fence(memory_order_release);
+  atomic_store_explicit(&flag, 1, memory_order_relaxed);
+}
+
+int mp_fence_read() {
+  if (atomic_load_explicit(&flag, memory_order_relaxed)) {
+    atomic_thread_fence(memory_order_acquire);
+    return data;
+  }
+  return -1;
+}
+
+/* store buffering: with seq_cst both threads can never read 0 */
+int sb_thread0() {
+  atomic_store_explicit(&x, 1, memory_order_seq_cst);
+  return atomic_load_explicit(&y, memory_order_seq_cst);
+}
+
+int sb_thread1() {
+  atomic_store_explicit(&y, 1, memory_order_seq_cst);
+  return atomic_load_explicit(&x, memory_order_seq_cst);
+}
+
+/* store buffering with relaxed accesses and seq_cst fences */
+int sb_fence_thread0() {
+  atomic_store_explicit(&x, 1, memory_order_relaxed);
+  atomic_thread_fence(memory_order_seq_cst);
+  return atomic_load_explicit(&y, memory_order_relaxed);
+}
+
+int sb_fence_thread1() {
+  atomic_store_explicit(&y, 1, memory_order_relaxed);
+  atomic_thread_fence(memory_order_seq_cst);
+  return atomic_load_explicit(&x, memory_order_relaxed);
+}
@@ -0,0 +1,55 @@
+#define _GNU_SOURCE
+#include <errno.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/mman.h>
+
+int main() {
+  long *area = mmap(NULL, 4096, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS, -1, 0);
+  if (area == MAP_FAILED) {
+    printf("error mapping memory!\n");
+    exit(1);
+  }
+  long sum = 0;
+  for (int i = 0; i < 512; i++) {
+    sum += area[i];
+    area[i] = i;
+  }
+  printf("initial sum: %ld\n", sum);
+
+  area = mremap(area, 4096, 3 * 4096, MREMAP_MAYMOVE);
+  if (area == MAP_FAILED) {
+    printf("error remapping memory!\n");
+    exit(2);
+  }
+  sum = 0;
+  for (int i = 0; i < 3 * 512; i++) {
+    sum += area[i];
+  }
+  printf("sum after mremap: %ld\n", sum);
+
+  char *fixed = (char *) area + 4096;
+  char *result = mmap(fixed, 4096, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS | MAP_FIXED, -1, 0);
+  if (result != fixed) {
+    printf("error mapping fixed memory!\n");
+    exit(3);
+  }
+  strcpy(fixed, "fixed");
+  printf("%s %ld\n", fixed, area[511]);
+
+  if (mprotect(area, 3 * 4096, PROT_READ)) {
+    printf("error protecting memory!\n");
+    exit(4);
+  }
+  printf("%ld\n", area[100]);
+  if (munmap(area, 3 * 4096)) {
+    printf("error unmapping memory!\n");
+    exit(5);
+  }
+  if (munmap((char *) area + 1, 4096) == 0 || errno != EINVAL) {
+    printf("unaligned munmap did not fail with EINVAL!\n");
+    exit(6);
+  }
+  return 0;
+}
@@ -0,0 +1,69 @@
+#define _GNU_SOURCE
+#include <fcntl.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/mman.h>
+#include <unistd.h>
+
+#define SIZE 8192
+
+int main() {
+  remove("sulong_mmap_test_file");
+  int fd = open("sulong_mmap_test_file", O_RDWR | O_CREAT | O_TRUNC, 0600);
+  if (fd < 0) {
+    printf("error opening file!\n");
+    exit(1);
+  }
+  if (ftruncate(fd, SIZE)) {
+    printf("error resizing file!\n");
+    exit(2);
+  }
+
+  char *shared = mmap(NULL, SIZE, PROT_READ | PROT_WRITE, MAP_SHARED, fd, 0);
+  if (shared == MAP_FAILED) {
+    printf("error mapping file!\n");
+    exit(3);
+  }
+  strcpy(shared, "first page");
+  strcpy(shared + 4096, "second page");
+  if (msync(shared, SIZE, MS_SYNC)) {
+    printf("error syncing mapping!\n");
+    exit(4);
+  }
+  if (munmap(shared, SIZE)) {
+    printf("error unmapping file!\n");
+    exit(5);
+  }
+
+  char buf[32];
+  lseek(fd, 4096, SEEK_SET);
+  read(fd, buf, sizeof(buf));
+  printf("%s\n", buf);
+
+  char *private = mmap(NULL, 4096, PROT_READ | PROT_WRITE, MAP_PRIVATE, fd, 4096);
+  if (private == MAP_FAILED) {
+    printf("error mapping file privately!\n");
+    exit(6);
+  }
+  printf("%s\n", private);
+  strcpy(private, "private copy");
+  printf("%s\n", private);
+  if (madvise(private, 4096, MADV_DONTNEED)) {
+    printf("error advising mapping!\n");
+    exit(7);
+  }
+  printf("%s\n", private);
+  munmap(private, 4096);
+
+  char *first = mmap(NULL, 4096, PROT_READ, MAP_SHARED, fd, 0);
+  printf("%s\n", first);
+  munmap(first, 4096);
+
+  close(fd);
+  if (remove("sulong_mmap_test_file")) {
+    printf("error removing file!\n");
+    exit(8);
+  }
+  return 0;
+}
@@ -0,0 +1,134 @@
+#include <stdio.h>
+#include <stdlib.h>
+
+#define N 20000
+
+struct triple {
+  char key;
+  short pad;
+  int value;
+  int index;
+};
+
+static unsigned int seed = 42;
+
+int primes[] = { 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47 };
+
+static int nextRandom() {
+  seed = seed * 1103515245 + 12345;
+  return (seed >> 8) & 0xffffff;
+}
+
+static int compareInt(const void *a, const void *b) {
+  int x = *(const int *)a;
+  int y = *(const int *)b;
+  return (x > y) - (x < y);
+}
+
+static int compareTriple(const void *a, const void *b) {
+  const struct triple *x = a;
+  const struct triple *y = b;
+  if (x->key != y->key) {
+    return x->key - y->key;
+  }
+  return (x->value > y->value) - (x->value < y->value);
+}
+
+static int compareByte(const void *a, const void *b) {
+  return *(const unsigned char *)a - *(const unsigned char *)b;
+}
+
+static void check(const char *name, int *values, int count) {
+  long sum = 0;
+  for (int i = 0; i < count; i++) {
+    if (i > 0 && values[i - 1] > values[i]) {
+      printf("%s: not sorted at %d\n", name, i);
+      abort();
+    }
+    sum += values[i];
+  }
+  printf("%s: %ld\n", name, sum);
+}
+
+int main() {
+  static int values[N];
+  static struct triple triples[N];
+  static unsigned char bytes[N + 3];
+
+  for (int i = 0; i < N; i++) {
+    values[i] = nextRandom();
+  }
+  qsort(values, N, sizeof(int), compareInt);
+  check("random", values, N);
+
+  qsort(values, N, sizeof(int), compareInt);
+  check("sorted", values, N);
+
+  for (int i = 0; i < N; i++) {
+    values[i] = N - i;
+  }
+  qsort(values, N, sizeof(int), compareInt);
+  check("reverse", values, N);
+
+  for (int i = 0; i < N; i++) {
+    values[i] = nextRandom() % 4;
+  }
+  qsort(values, N, sizeof(int), compareInt);
+  check("duplicates", values, N);
+
+  for (int i = 0; i < N; i++) {
+    triples[i].key = nextRandom() % 16;
+    triples[i].value = nextRandom();
+    triples[i].index = i;
+  }
+  qsort(triples, N, sizeof(struct triple), compareTriple);
+  for (int i = 1; i < N; i++) {
+    if (compareTriple(&triples[i - 1], &triples[i]) > 0) {
+      abort();
+    }
+  }
+  printf("triples: %d %d\n", triples[0].key, triples[N - 1].key);
+
+  for (int i = 0; i < N + 3; i++) {
+    bytes[i] = nextRandom();
+  }
+  qsort(bytes, N + 3, 1, compareByte);
+  for (int i = 1; i < N + 3; i++) {
+    if (bytes[i - 1] > bytes[i]) {
+      abort();
+    }
+  }
+  qsort(values, 0, sizeof(int), compareInt);
+  qsort(values, 1, sizeof(int), compareInt);
+
+  for (int i = 0; i < N; i++) {
+    values[i] = 2 * i;
+  }
+  int found = 0;
+  for (int i = -1; i < 2 * N + 1; i++) {
+    int *result = bsearch(&i, values, N, sizeof(int), compareInt);
+    if (result != NULL) {
+      if (*result != i || i % 2 != 0) {
+        abort();
+      }
+      found++;
+    } else if (i % 2 == 0 && i >= 0 && i < 2 * N) {
+      abort();
+    }
+  }
+  printf("bsearch found %d\n", found);
+
+  int primeCount = sizeof(primes) / sizeof(primes[0]);
+  found = 0;
+  for (int i = 0; i < 50; i++) {
+    int *result = bsearch(&i, primes, primeCount, sizeof(int), compareInt);
+    if (result != NULL) {
+      if (*result != i) {
+        abort();
+      }
+      found++;
+    }
+  }
+  printf("bsearch global found %d\n", found);
+  return 0;
+}
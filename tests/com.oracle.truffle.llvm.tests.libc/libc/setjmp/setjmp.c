@@ -0,0 +1,49 @@
+#include <setjmp.h>
+#include <stdio.h>
+
+static jmp_buf outer;
+static jmp_buf inner;
+
+static void jumpDeep(jmp_buf env, int depth, int value) {
+  if (depth == 0) {
+    longjmp(env, value);
+  }
+  jumpDeep(env, depth - 1, value);
+  printf("not reached\n");
+}
+
+static int nested() {
+  volatile int result = 0;
+  if (setjmp(inner) == 0) {
+    jumpDeep(inner, 3, 7);
+  } else {
+    result += 10;
+  }
+  if (setjmp(inner) == 0) {
+    longjmp(outer, 5);
+  }
+  return result;
+}
+
+int main() {
+  volatile int count = 0;
+  int value = setjmp(outer);
+  printf("setjmp returned %d\n", value);
+  if (count < 3) {
+    count++;
+    jumpDeep(outer, count, count);
+  }
+
+  value = setjmp(outer);
+  if (value == 0) {
+    jumpDeep(outer, 2, 0);
+  }
+  printf("longjmp with 0 returned %d\n", value);
+
+  if ((value = setjmp(outer)) == 0) {
+    printf("nested returned %d\n", nested());
+  } else {
+    printf("jumped out of nested with %d\n", value);
+  }
+  return count;
+}
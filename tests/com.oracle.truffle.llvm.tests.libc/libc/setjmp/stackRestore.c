@@ -0,0 +1,27 @@
+#include <alloca.h>
+#include <setjmp.h>
+#include <stdio.h>
+#include <string.h>
+
+static jmp_buf env;
+
+static void allocate(int size) {
+  char *buf = alloca(size);
+  memset(buf, 1, size);
+  longjmp(env, buf[size - 1]);
+}
+
+int main() {
+  volatile int i = 0;
+  volatile int sum = 0;
+  setjmp(env);
+  if (i < 1000) {
+    char *buf = alloca(64 * 1024);
+    memset(buf, 0, 64 * 1024);
+    sum += buf[i];
+    i++;
+    allocate(64 * 1024);
+  }
+  printf("%d %d\n", i, sum);
+  return 0;
+}
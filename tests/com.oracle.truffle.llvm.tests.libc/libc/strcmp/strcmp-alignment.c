@@ -0,0 +1,65 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+#define SIZE 48
+
+static int sign(int value) {
+  return value < 0 ? -1 : value > 0 ? 1 : 0;
+}
+
+int main() {
+  char *a = malloc(SIZE + 16);
+  char *b = malloc(SIZE + 16);
+  char *c = malloc(SIZE + 16);
+  int sum = 0;
+  for (int offA = 0; offA < 8; offA++) {
+    for (int offB = 0; offB < 8; offB++) {
+      for (int len = 0; len < SIZE; len++) {
+        for (int diff = 0; diff <= len; diff++) {
+          char *s1 = a + offA;
+          char *s2 = b + offB;
+          memset(s1, 'x', len);
+          memset(s2, 'x', len);
+          s1[len] = '\0';
+          s2[len] = '\0';
+          if (diff < len) {
+            s2[diff] = (diff & 1) ? (char) 0xf0 : 'a';
+          }
+          int expected = diff < len ? ((diff & 1) ? -1 : 1) : 0;
+          if (sign(strcmp(s1, s2)) != expected || sign(strcmp(s2, s1)) != -expected) {
+            abort();
+          }
+          if (sign(strncmp(s1, s2, diff)) != 0 || sign(strncmp(s1, s2, len + 1)) != expected) {
+            abort();
+          }
+          if (sign(memcmp(s1, s2, diff)) != 0 || sign(memcmp(s1, s2, len)) != expected) {
+            abort();
+          }
+          if (strcpy(c, s2) != c || strcmp(c, s2) != 0) {
+            abort();
+          }
+          memset(c, 'y', SIZE + 16);
+          if (strncpy(c, s1, len + 8) != c || memcmp(c, s1, len) != 0) {
+            abort();
+          }
+          for (int i = len; i < len + 8; i++) {
+            if (c[i] != '\0') {
+              abort();
+            }
+          }
+          if (c[len + 8] != 'y') {
+            abort();
+          }
+          sum += expected;
+        }
+      }
+    }
+  }
+  printf("%d\n", sum);
+  printf("%d %d %d\n", sign(strcmp("abc", "abd")), sign(strncmp("abc", "abd", 2)), sign(memcmp("\x80", "\x01", 1)));
+  free(a);
+  free(b);
+  free(c);
+  return 0;
+}
@@ -0,0 +1,40 @@
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+
+#define SIZE 64
+
+int main() {
+  char *buf = malloc(SIZE + 1);
+  for (int start = 0; start < 16; start++) {
+    for (int len = 0; start + len < SIZE; len++) {
+      memset(buf, 'a', SIZE);
+      buf[start + len] = '\0';
+      buf[SIZE] = '\0';
+      if (strlen(buf + start) != len) {
+        abort();
+      }
+      if (len > 0) {
+        buf[start + len / 2] = (char) 0x80;
+        if (strchr(buf + start, 0x80) != buf + start + len / 2) {
+          abort();
+        }
+      }
+      if (strchr(buf + start, '\0') != buf + start + len) {
+        abort();
+      }
+      if (strchr(buf + start, 'b') != NULL) {
+        abort();
+      }
+      if (memchr(buf + start, '\0', SIZE - start) != buf + start + len) {
+        abort();
+      }
+      if (memchr(buf + start, '\0', len) != NULL) {
+        abort();
+      }
+    }
+  }
+  printf("%lu %lu\n", strlen(""), strlen("0123456789abcdefghijklmnopqrstuvwxyz"));
+  free(buf);
+  return 0;
+}
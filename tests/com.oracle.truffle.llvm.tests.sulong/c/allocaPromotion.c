@@ -0,0 +1,50 @@
+#include <stdbool.h>
+
+static void increment(int *value) {
+  (*value)++;
+}
+
+static int sumUntil(int n) {
+  int sum = 0;
+  int i;
+  for (i = 0; i < n; i++) {
+    sum += i;
+  }
+  return sum;
+}
+
+int main() {
+  bool flag = true;
+  char c = 'a';
+  short s = -3;
+  long l = 1L << 40;
+  float f = 1.5f;
+  double d = 2.25;
+  int escaped = 41;
+  int aliased = 0x01020304;
+  volatile int v = 7;
+  int *p = &escaped;
+  int i;
+
+  for (i = 0; i < 10; i++) {
+    c++;
+    s += 2;
+    l >>= 1;
+    f *= 2;
+    d += 0.75;
+    flag = !flag;
+  }
+  increment(p);
+  *((char *) &aliased) = 0;
+
+  if (c != 'k' || s != 17 || l != (1L << 30) || f != 1536.0f || d != 9.75 || !flag) {
+    return 1;
+  }
+  if (escaped != 42 || *p != 42 || aliased != 0x01020300 || v != 7) {
+    return 2;
+  }
+  if (sumUntil(100) != 4950) {
+    return 3;
+  }
+  return 0;
+}
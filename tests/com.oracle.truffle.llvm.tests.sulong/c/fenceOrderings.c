@@ -0,0 +1,20 @@
+#include <stdatomic.h>
+
+static atomic_int value;
+
+int main() {
+  int result = 0;
+
+  atomic_store_explicit(&value, 1, memory_order_relaxed);
+  atomic_thread_fence(memory_order_release);
+  atomic_store_explicit(&value, 2, memory_order_release);
+  atomic_thread_fence(memory_order_seq_cst);
+  result += atomic_load_explicit(&value, memory_order_relaxed);
+  atomic_thread_fence(memory_order_acquire);
+  result += atomic_load_explicit(&value, memory_order_acquire);
+  atomic_thread_fence(memory_order_acq_rel);
+  atomic_store_explicit(&value, 3, memory_order_seq_cst);
+  atomic_signal_fence(memory_order_seq_cst);
+  result += atomic_load_explicit(&value, memory_order_seq_cst);
+  return result;
+}
@@ -0,0 +1,86 @@
+#include <stdbool.h>
+#include <stdio.h>
+#include <string.h>
+
+struct entry {
+  char tag;
+  long value;
+  const char *name;
+  short small;
+  double weight;
+  bool flag;
+};
+
+struct __attribute__((packed)) packed {
+  char c;
+  int i;
+  long l;
+};
+
+static int counter = 7;
+
+static const unsigned char table[256] = {
+  0,   1,   4,   9,   16,  25,  36,  49,  64,  81,  100, 121, 144, 169, 196, 225,
+  255, 254, 253, 252, 251, 250, 249, 248, 247, 246, 245, 244, 243, 242, 241, 240,
+  [128] = 0x80, [200] = 0xc8, [255] = 0xff,
+};
+
+static const int primes[] = { 2, 3, 5, 7, 11, 13, 17, 19, 23, 29, -31, -37 };
+
+static const char *names[] = { "zero", "one", NULL, "three" };
+
+static struct entry entries[] = {
+  { 'a', 1L << 40, "first", -2, 0.5, true },
+  { 'b', -1, NULL, 32767, -1.25, false },
+  { 'c', 0, "third", 0, 3.0e100, true },
+};
+
+static struct packed packedEntries[2] = { { 'x', 0x12345678, -0x123456789abL }, { 'y', -1, 42 } };
+
+static int *pointers[] = { &counter, NULL, &counter };
+
+static char message[32] = "embedded resource";
+
+static float floats[4] = { 1.5f, -0.0f, 0.0f, 3.25f };
+
+static int zeros[1024];
+
+int main() {
+  long sum = 0;
+  for (int i = 0; i < 256; i++) {
+    sum += table[i] * (i + 1);
+  }
+  printf("table: %ld\n", sum);
+
+  sum = 0;
+  for (unsigned i = 0; i < sizeof(primes) / sizeof(primes[0]); i++) {
+    sum += primes[i];
+  }
+  printf("primes: %ld\n", sum);
+
+  for (int i = 0; i < 4; i++) {
+    printf("names[%d]: %s\n", i, names[i] ? names[i] : "(null)");
+  }
+
+  for (int i = 0; i < 3; i++) {
+    printf("%c %ld %s %d %g %d\n", entries[i].tag, entries[i].value, entries[i].name ? entries[i].name : "(null)", entries[i].small,
+           entries[i].weight, entries[i].flag);
+  }
+
+  for (int i = 0; i < 2; i++) {
+    printf("%c %x %lx\n", packedEntries[i].c, packedEntries[i].i, packedEntries[i].l);
+  }
+
+  *pointers[0] += 1;
+  printf("pointers: %d %d %d\n", *pointers[2], pointers[1] == NULL, pointers[0] == pointers[2]);
+
+  printf("%s %zu %d\n", message, strlen(message), message[31]);
+  printf("floats: %g %g %g %g\n", floats[0], floats[1], floats[2], floats[3]);
+
+  sum = 0;
+  for (int i = 0; i < 1024; i++) {
+    sum += zeros[i];
+  }
+  printf("zeros: %ld\n", sum);
+  return 0;
+}
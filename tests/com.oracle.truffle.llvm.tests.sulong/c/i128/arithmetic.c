@@ -0,0 +1,44 @@
+#include <stdio.h>
+
+typedef __int128 i128;
+typedef unsigned __int128 u128;
+
+static void print(const char *name, u128 value) {
+  printf("%s: %016llx%016llx\n", name, (unsigned long long) (value >> 64), (unsigned long long) value);
+}
+
+int main() {
+  volatile u128 a = ((u128) 0x0123456789abcdefULL << 64) | 0xfedcba9876543210ULL;
+  volatile u128 b = ((u128) 0xffffffffffffffffULL << 64) | 0x8000000000000001ULL;
+  volatile i128 c = -123456789012345LL;
+  volatile i128 d = 98765;
+
+  print("add", a + b);
+  print("sub", a - b);
+  print("mul", a * b);
+  print("and", a & b);
+  print("or", a | b);
+  print("xor", a ^ b);
+  print("not", ~a);
+  print("neg", -a);
+  print("shl", a << 71);
+  print("lshr", b >> 67);
+  print("ashr", (u128) ((i128) b >> 67));
+  print("sdiv", (u128) (c / d));
+  print("srem", (u128) (c % d));
+  print("udiv", a / 0x1234567u);
+  print("urem", a % 0x1234567u);
+  print("udiv-wide", a / ((u128) 3 << 64));
+  printf("cmp: %d %d %d %d\n", a < b, (i128) a < (i128) b, c < d, a == a + 0);
+  printf("trunc: %lld %d\n", (long long) c, (int) (a >> 32));
+
+  /* a simple 128 bit multiplicative hash, FNV-1a style */
+  u128 hash = ((u128) 0x6c62272e07bb0142ULL << 64) | 0x62b821756295c58dULL;
+  u128 prime = ((u128) 0x0000000001000000ULL << 64) | 0x000000000000013bULL;
+  for (int i = 0; i < 1000; i++) {
+    hash ^= (unsigned char) (i * 31);
+    hash *= prime;
+  }
+  print("hash", hash);
+  return 0;
+}
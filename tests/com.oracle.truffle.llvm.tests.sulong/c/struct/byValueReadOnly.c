@@ -0,0 +1,56 @@
+struct vec {
+  double x;
+  double y;
+  double z;
+  double w;
+};
+
+/* only reads its arguments, so they can be passed without a copy */
+__attribute__((noinline)) double dot(struct vec a, struct vec b) {
+  return a.x * b.x + a.y * b.y + a.z * b.z + a.w * b.w;
+}
+
+/* writes to its argument, which must not be visible to the caller */
+__attribute__((noinline)) double normalizeX(struct vec a) {
+  a.x = 1;
+  return a.x + a.y;
+}
+
+/* writes to the caller's struct through another pointer while reading the copy */
+__attribute__((noinline)) double aliased(struct vec a, struct vec *b) {
+  b->x = 100;
+  return a.x;
+}
+
+/* lets the address of its argument escape */
+static struct vec *escaped;
+
+__attribute__((noinline)) void escape(struct vec a) {
+  escaped = &a;
+  escaped->y = 42;
+}
+
+int main() {
+  struct vec v = {1, 2, 3, 4};
+  struct vec u = {4, 3, 2, 1};
+  int result = 0;
+
+  if (dot(v, u) != 20) {
+    result |= 1;
+  }
+  if (normalizeX(v) != 3 || v.x != 1) {
+    result |= 2;
+  }
+  v.x = 7;
+  if (normalizeX(v) != 3 || v.x != 7) {
+    result |= 4;
+  }
+  if (aliased(v, &v) != 7 || v.x != 100) {
+    result |= 8;
+  }
+  escape(u);
+  if (u.y != 3) {
+    result |= 16;
+  }
+  return result;
+}
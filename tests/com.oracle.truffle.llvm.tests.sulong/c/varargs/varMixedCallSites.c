@@ -0,0 +1,38 @@
+#include <stdarg.h>
+
+long sum(const char *format, ...) {
+  va_list args;
+  va_start(args, format);
+  long result = 0;
+  for (const char *c = format; *c != '\0'; c++) {
+    switch (*c) {
+      case 'i':
+        result += va_arg(args, int);
+        break;
+      case 'l':
+        result += va_arg(args, long);
+        break;
+      case 'd':
+        result += (long) va_arg(args, double);
+        break;
+      case 'p':
+        result += *va_arg(args, int *);
+        break;
+    }
+  }
+  va_end(args);
+  return result;
+}
+
+int main() {
+  int value = 7;
+  long result = 0;
+  for (int i = 0; i < 1000; i++) {
+    result += sum("ii", 1, 2);
+    result += sum("ldi", 3L, 4.0, 5);
+    result += sum("pdddddddddi", &value, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10);
+    result += sum("iiiiiiil", 1, 2, 3, 4, 5, 6, 7, 8L);
+    result += sum("");
+  }
+  return result % 256;
+}
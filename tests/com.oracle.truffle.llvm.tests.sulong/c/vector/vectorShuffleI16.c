@@ -0,0 +1,28 @@
+typedef short vec8 __attribute__((vector_size(16)));
+typedef int vec4 __attribute__((vector_size(16)));
+
+int main() {
+  volatile vec8 a = { 1, 2, 3, 4, 5, 6, 7, 8 };
+  volatile vec8 b = { -1, -2, -3, -4, -5, -6, -7, -8 };
+  vec4 acc = { 0, 0, 0, 0 };
+  vec4 step = { 1, 2, 3, 4 };
+
+  for (int i = 0; i < 1000; i++) {
+    acc = (acc + step) ^ (acc >> 3);
+    acc[i & 3] += i;
+  }
+  if (acc[0] + acc[1] + acc[2] + acc[3] == 0) {
+    return 1;
+  }
+#ifdef __clang__ // TODO: dragonegg uses incompatibe builtins!
+  vec8 c = __builtin_shufflevector(a, b, 0, 8, 1, 9, 2, 10, 3, 11);
+  if (c[0] != 1 || c[1] != -1 || c[2] != 2 || c[3] != -2 || c[6] != 4 || c[7] != -4) {
+    return 1;
+  }
+  vec8 d = __builtin_shufflevector(a, b, 15, 14, 13, 12, 3, 2, 1, 0);
+  if (d[0] != -8 || d[3] != -5 || d[4] != 4 || d[7] != 1) {
+    return 1;
+  }
+#endif
+  return 0;
+}
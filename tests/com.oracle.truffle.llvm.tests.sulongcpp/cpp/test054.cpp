@@ -0,0 +1,59 @@
+#include <stdio.h>
+
+struct Base {
+  int base;
+  Base(int b) : base(b) {}
+  virtual ~Base() {}
+};
+
+struct Other {
+  int other;
+  Other(int o) : other(o) {}
+  virtual ~Other() {}
+};
+
+struct Derived : Other, Base {
+  Derived(int v) : Other(v * 2), Base(v) {}
+};
+
+struct Unrelated {};
+
+static void thrower(int i) {
+  switch (i % 5) {
+  case 0:
+    throw i;
+  case 1:
+    throw Derived(i);
+  case 2:
+    throw Other(i);
+  case 3:
+    throw (double) i;
+  default:
+    throw new Derived(i);
+  }
+}
+
+int main() {
+  long sum = 0;
+  for (int i = 0; i < 1000; i++) {
+    try {
+      thrower(i);
+    } catch (Unrelated &u) {
+      sum -= 1000000;
+    } catch (Base &b) {
+      // requires the adjusted pointer of the thrown Derived object
+      sum += b.base;
+    } catch (int v) {
+      sum += v * 3;
+    } catch (Other &o) {
+      sum += o.other * 5;
+    } catch (Base *b) {
+      sum += b->base * 7;
+      delete b;
+    } catch (...) {
+      sum += 11;
+    }
+  }
+  printf("%ld\n", sum);
+  return 0;
+}
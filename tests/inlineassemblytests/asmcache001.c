@@ -0,0 +1,40 @@
+#include <stdio.h>
+
+#define BSWAP(type, suffix) \
+  static inline type bswap_##suffix(type x) { \
+    __asm__("bswap %0" : "+r"(x)); \
+    return x; \
+  }
+
+BSWAP(unsigned int, 32)
+BSWAP(unsigned long, 64)
+
+static inline void xadd(void *ptr, int size, long *value) {
+  if (size == 4) {
+    int v = (int) *value;
+    __asm__("xaddl %0, %1" : "+r"(v), "+m"(*(int *) ptr));
+    *value = v;
+  } else {
+    __asm__("xaddq %0, %1" : "+r"(*value), "+m"(*(long *) ptr));
+  }
+}
+
+int main() {
+  unsigned long sum = 0;
+  for (int i = 0; i < 4; i++) {
+    sum += bswap_32(0x01020304u + i);
+    sum += bswap_64(0x0102030405060708ul + i);
+    printf("%08x %016lx\n", bswap_32(0x11223344u << i), bswap_64(0x1122334455667788ul << i));
+  }
+  printf("%016lx\n", sum);
+
+  int i32 = 0x7fffffff;
+  long i64 = 0x7fffffff;
+  long v = 1;
+  xadd(&i32, 4, &v);
+  printf("%x %lx\n", i32, v);
+  v = 1;
+  xadd(&i64, 8, &v);
+  printf("%lx %lx\n", i64, v);
+  return 0;
+}
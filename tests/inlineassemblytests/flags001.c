@@ -0,0 +1,56 @@
+#include <stdio.h>
+
+void test_add128(unsigned long alo, unsigned long ahi, unsigned long blo, unsigned long bhi) {
+  unsigned long lo = alo;
+  unsigned long hi = ahi;
+  unsigned char carry;
+  __asm__("addq %[blo], %[lo]\n"
+          "adcq %[bhi], %[hi]\n"
+          "setc %[carry]\n"
+          : [lo] "+r"(lo), [hi] "+r"(hi), [carry] "=r"(carry)
+          : [blo] "r"(blo), [bhi] "r"(bhi));
+  printf("%016lx%016lx + %016lx%016lx = %x:%016lx%016lx\n", ahi, alo, bhi, blo, carry, hi, lo);
+}
+
+void test_inc_keeps_carry(unsigned int a, unsigned int b) {
+  unsigned int out = a;
+  unsigned char carry;
+  unsigned char zero;
+  __asm__("addl %[b], %[out]\n"
+          "incl %[out]\n"
+          "setc %[carry]\n"
+          "setz %[zero]\n"
+          : [out] "+r"(out), [carry] "=r"(carry), [zero] "=r"(zero)
+          : [b] "r"(b));
+  printf("%08x + %08x + 1 = %08x:%x:%x\n", a, b, out, carry, zero);
+}
+
+void test_overwritten(unsigned int a, unsigned int b, unsigned int c) {
+  unsigned int out = a;
+  unsigned long ax = 0;
+  __asm__("subl %[b], %[out]\n"
+          "andl %[c], %[out]\n"
+          "lahf\n"
+          : [out] "+r"(out), "+a"(ax)
+          : [b] "r"(b), [c] "r"(c));
+  printf("(%08x - %08x) & %08x = %08x:%02lx\n", a, b, c, out, (ax >> 8) & 0xc4);
+}
+
+int main() {
+  test_add128(0, 0, 0, 0);
+  test_add128(0xffffffffffffffffUL, 0, 1, 0);
+  test_add128(0xffffffffffffffffUL, 0xffffffffffffffffUL, 1, 0);
+  test_add128(0x8000000000000000UL, 0x7fffffffffffffffUL, 0x8000000000000000UL, 0);
+  test_add128(0x0123456789abcdefUL, 0xfedcba9876543210UL, 0xfedcba9876543210UL, 0x0123456789abcdefUL);
+  test_inc_keeps_carry(0, 0);
+  test_inc_keeps_carry(0xffffffff, 1);
+  test_inc_keeps_carry(0xffffffff, 0);
+  test_inc_keeps_carry(0x7fffffff, 0);
+  test_inc_keeps_carry(0x80000000, 0x80000000);
+  test_overwritten(0, 1, 0xffffffff);
+  test_overwritten(1, 2, 0);
+  test_overwritten(5, 3, 0x80000003);
+  test_overwritten(0x80000000, 1, 0x7fffffff);
+  test_overwritten(0, 0x80000000, 0x80000000);
+  return 0;
+}
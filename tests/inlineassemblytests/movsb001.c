@@ -0,0 +1,34 @@
+#include <stdio.h>
+#include <stdlib.h>
+
+#define SIZE (1024 * 1024)
+
+int main() {
+  unsigned char *src = malloc(SIZE);
+  unsigned char *dst = malloc(SIZE + 2);
+  unsigned long out_rsi, out_rdi, out_rcx;
+  unsigned long sum = 0;
+  unsigned int i;
+
+  for (i = 0; i < SIZE; i++) {
+    src[i] = (unsigned char)(i * 7);
+  }
+  dst[0] = 0xCC;
+  dst[SIZE + 1] = 0xCC;
+  __asm__("cld\n"
+          "rep movsb\n"
+          : "=S"(out_rsi), "=D"(out_rdi), "=c"(out_rcx)
+          : "S"(src), "D"(dst + 1), "c"((unsigned long)SIZE)
+          : "memory");
+  for (i = 0; i < SIZE; i++) {
+    sum += dst[i + 1] == src[i];
+  }
+  printf("equal: %lu\n", sum);
+  printf("guards: %x %x\n", dst[0], dst[SIZE + 1]);
+  printf("rcx: %lu\n", out_rcx);
+  printf("rsi: %d\n", out_rsi == (unsigned long)(src + SIZE));
+  printf("rdi: %d\n", out_rdi == (unsigned long)(dst + SIZE + 1));
+  free(src);
+  free(dst);
+  return 0;
+}
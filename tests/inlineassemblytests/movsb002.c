@@ -0,0 +1,20 @@
+#include <stdio.h>
+
+int main() {
+  unsigned char buf[16] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 };
+  unsigned long out_rdi;
+  unsigned int i;
+
+  /* overlapping forward copy replicates the first two bytes, unlike memmove */
+  __asm__("cld\n"
+          "movq $12, %%rcx\n"
+          "rep movsb\n"
+          : "=D"(out_rdi)
+          : "S"(&buf[0]), "D"(&buf[2])
+          : "rcx", "memory");
+  printf("buf:");
+  for (i = 0; i < 16; i++)
+    printf(" %d", buf[i]);
+  printf("\n");
+  return out_rdi == (unsigned long)&buf[14];
+}
@@ -0,0 +1,21 @@
+#include <stdio.h>
+
+int main() {
+  unsigned long src[8] = { 1, 2, 3, 4, 5, 6, 7, 8 };
+  unsigned long dst[8] = { 0 };
+  unsigned long out_rsi, out_rdi;
+  unsigned int i;
+
+  __asm__("cld\n"
+          "movsq\n"
+          "movq $6, %%rcx\n"
+          "rep movsq\n"
+          : "=S"(out_rsi), "=D"(out_rdi)
+          : "S"(src), "D"(dst)
+          : "rcx", "memory");
+  printf("dst:");
+  for (i = 0; i < 8; i++)
+    printf(" %lu", dst[i]);
+  printf("\n");
+  return (out_rsi == (unsigned long)&src[7]) + 2 * (out_rdi == (unsigned long)&dst[7]);
+}
@@ -0,0 +1,22 @@
+#include <stdio.h>
+#include <string.h>
+
+int main() {
+  unsigned int buf[16];
+  unsigned long out_rdi, out_rcx;
+  unsigned int i;
+
+  memset(buf, 0xCC, sizeof(buf));
+  __asm__("std\n"
+          "rep stosl\n"
+          "cld\n"
+          : "=D"(out_rdi), "=c"(out_rcx)
+          : "a"(0x11223344), "D"(&buf[12]), "c"(10UL)
+          : "memory");
+  printf("buf:");
+  for (i = 0; i < 16; i++)
+    printf(" %08X", buf[i]);
+  printf("\n");
+  printf("rcx: %lu\n", out_rcx);
+  return out_rdi == (unsigned long)&buf[2];
+}
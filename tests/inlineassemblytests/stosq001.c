@@ -0,0 +1,27 @@
+#include <stdio.h>
+#include <stdlib.h>
+
+#define COUNT (128 * 1024)
+
+int main() {
+  unsigned long *buf = malloc((COUNT + 2) * sizeof(unsigned long));
+  unsigned long out_rdi, out_rcx;
+  unsigned long sum = 0;
+  unsigned int i;
+
+  buf[0] = 0xCC;
+  buf[COUNT + 1] = 0xCC;
+  __asm__("cld\n"
+          "rep stosq\n"
+          : "=D"(out_rdi), "=c"(out_rcx)
+          : "a"(0x0102030405060708UL), "D"(&buf[1]), "c"((unsigned long)COUNT)
+          : "memory");
+  for (i = 1; i <= COUNT; i++) {
+    sum += buf[i] ^ i;
+  }
+  printf("sum: %lx\n", sum);
+  printf("guards: %lx %lx\n", buf[0], buf[COUNT + 1]);
+  printf("rcx: %lu\n", out_rcx);
+  free(buf);
+  return out_rdi == (unsigned long)&buf[COUNT + 1];
+}
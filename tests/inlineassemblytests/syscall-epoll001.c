@@ -0,0 +1,94 @@
+#include <stdint.h>
+#include <stdio.h>
+#include <fcntl.h>
+#include <time.h>
+#include <sys/epoll.h>
+#include <sys/eventfd.h>
+#include <sys/syscall.h>
+#include <sys/timerfd.h>
+
+static long sys6(long nr, long a1, long a2, long a3, long a4, long a5) {
+  long result;
+  register long r10 __asm__("r10") = a4;
+  register long r8 __asm__("r8") = a5;
+  __asm__ volatile("syscall" : "=a"(result) : "a"(nr), "D"(a1), "S"(a2), "d"(a3), "r"(r10), "r"(r8) : "memory", "rcx", "r11");
+  return result;
+}
+
+#define PIPE_TAG 1
+#define EVENT_TAG 2
+#define TIMER_TAG 3
+
+static int add(int epfd, int fd, int tag) {
+  struct epoll_event event;
+  event.events = EPOLLIN;
+  event.data.u64 = tag;
+  return sys6(SYS_epoll_ctl, epfd, EPOLL_CTL_ADD, fd, (long) &event, 0);
+}
+
+int main(void) {
+  int fds[2];
+  if (sys6(SYS_pipe2, (long) fds, O_NONBLOCK, 0, 0, 0) != 0) {
+    return 1;
+  }
+  int efd = sys6(SYS_eventfd2, 0, EFD_NONBLOCK, 0, 0, 0);
+  int tfd = sys6(SYS_timerfd_create, CLOCK_MONOTONIC, TFD_NONBLOCK, 0, 0, 0);
+  int epfd = sys6(SYS_epoll_create1, EPOLL_CLOEXEC, 0, 0, 0, 0);
+  if (efd < 0 || tfd < 0 || epfd < 0) {
+    return 2;
+  }
+  if (add(epfd, fds[0], PIPE_TAG) || add(epfd, efd, EVENT_TAG) || add(epfd, tfd, TIMER_TAG)) {
+    return 3;
+  }
+
+  struct epoll_event events[4];
+  printf("idle: %ld\n", sys6(SYS_epoll_wait, epfd, (long) events, 4, 0, 0));
+
+  struct itimerspec timer = { { 0, 0 }, { 0, 2000000 } };
+  if (sys6(SYS_timerfd_settime, tfd, 0, (long) &timer, 0, 0) != 0) {
+    return 4;
+  }
+  struct timespec delay = { 0, 5000000 };
+  if (sys6(SYS_nanosleep, (long) &delay, 0, 0, 0, 0) != 0) {
+    return 5;
+  }
+  sys6(SYS_write, fds[1], (long) "ping", 4, 0, 0);
+  uint64_t increment = 3;
+  sys6(SYS_write, efd, (long) &increment, sizeof(increment), 0, 0);
+  sys6(SYS_write, efd, (long) &increment, sizeof(increment), 0, 0);
+
+  int seen = 0;
+  while (seen != 7) {
+    int count = sys6(SYS_epoll_pwait, epfd, (long) events, 4, 1000, 0);
+    if (count <= 0) {
+      return 6;
+    }
+    for (int i = 0; i < count; i++) {
+      char buf[16] = { 0 };
+      uint64_t value = 0;
+      switch (events[i].data.u64) {
+      case PIPE_TAG:
+        printf("pipe: %ld '%s'\n", sys6(SYS_read, fds[0], (long) buf, sizeof(buf) - 1, 0, 0), buf);
+        seen |= 1;
+        break;
+      case EVENT_TAG:
+        sys6(SYS_read, efd, (long) &value, sizeof(value), 0, 0);
+        printf("eventfd: %lu\n", (unsigned long) value);
+        seen |= 2;
+        break;
+      case TIMER_TAG:
+        sys6(SYS_read, tfd, (long) &value, sizeof(value), 0, 0);
+        printf("timerfd expirations: %lu\n", (unsigned long) value);
+        seen |= 4;
+        break;
+      }
+    }
+  }
+
+  sys6(SYS_epoll_ctl, epfd, EPOLL_CTL_DEL, efd, 0, 0);
+  sys6(SYS_write, efd, (long) &increment, sizeof(increment), 0, 0);
+  printf("after delete: %ld\n", sys6(SYS_epoll_wait, epfd, (long) events, 4, 0, 0));
+  sys6(SYS_timerfd_gettime, tfd, (long) &timer, 0, 0, 0);
+  printf("timer disarmed: %d\n", timer.it_value.tv_sec == 0 && timer.it_value.tv_nsec == 0);
+  return 0;
+}
@@ -0,0 +1,39 @@
+#include <stdio.h>
+#include <sys/syscall.h>
+
+// all syscalls go through this single syscall site
+__attribute__((noinline)) long do_syscall(long nr, long a1, long a2, long a3) {
+  long result;
+  __asm__ volatile("syscall" : "=a"(result) : "a"(nr), "D"(a1), "S"(a2), "d"(a3) : "memory", "rcx", "r11");
+  return result;
+}
+
+// more distinct numbers than the per-site cache limit of LLVMAMD64SyscallNode
+#define COUNT 17
+#define ITERATIONS 10000
+
+static const long numbers[COUNT] = { SYS_getpid, SYS_getppid, SYS_getuid, SYS_geteuid, SYS_getgid, SYS_getegid,
+                                     SYS_gettid, SYS_getpgid, SYS_close,  SYS_dup,     SYS_lseek,  SYS_fcntl,
+                                     SYS_read,   SYS_write,   SYS_ftruncate, SYS_dup2, SYS_getgroups };
+
+int main(void) {
+  long expected[COUNT];
+  for (int i = 0; i < COUNT; i++) {
+    expected[i] = do_syscall(numbers[i], -1, 0, 0);
+  }
+  expected[7] = do_syscall(SYS_getpgid, 0, 0, 0);
+
+  long mismatches = 0;
+  for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+    for (int i = 0; i < COUNT; i++) {
+      long result = i == 7 ? do_syscall(SYS_getpgid, 0, 0, 0) : do_syscall(numbers[i], -1, 0, 0);
+      if (result != expected[i]) {
+        mismatches++;
+      }
+    }
+  }
+  printf("mismatches: %ld\n", mismatches);
+  printf("close: %ld, dup: %ld, lseek: %ld, fcntl: %ld\n", expected[8], expected[9], expected[10], expected[11]);
+  printf("read: %ld, write: %ld, ftruncate: %ld, dup2: %ld\n", expected[12], expected[13], expected[14], expected[15]);
+  return 0;
+}
@@ -0,0 +1,30 @@
+#include <stdio.h>
+#include <fcntl.h>
+#include <sys/syscall.h>
+
+static long sys6(long nr, long a1, long a2, long a3, long a4, long a5) {
+  long result;
+  register long r10 __asm__("r10") = a4;
+  register long r8 __asm__("r8") = a5;
+  __asm__ volatile("syscall" : "=a"(result) : "a"(nr), "D"(a1), "S"(a2), "d"(a3), "r"(r10), "r"(r8) : "memory", "rcx", "r11");
+  return result;
+}
+
+int main(void) {
+  const char *path = "/tmp/sulong-syscall-pread001.tmp";
+  int fd = sys6(SYS_open, (long) path, O_RDWR | O_CREAT | O_TRUNC, 0600, 0, 0);
+  if (fd < 0) {
+    return 1;
+  }
+  sys6(SYS_unlink, (long) path, 0, 0, 0, 0);
+  printf("pwrite: %ld\n", sys6(SYS_pwrite64, fd, (long) "0123456789", 10, 0, 0));
+  printf("pwrite: %ld\n", sys6(SYS_pwrite64, fd, (long) "abc", 3, 4, 0));
+  char buf[8] = { 0 };
+  printf("pread: %ld\n", sys6(SYS_pread64, fd, (long) buf, 6, 2, 0));
+  printf("data: '%s'\n", buf);
+  // pread and pwrite must not move the file offset
+  printf("offset: %ld\n", sys6(SYS_lseek, fd, 0, SEEK_CUR, 0, 0));
+  printf("pread beyond end: %ld\n", sys6(SYS_pread64, fd, (long) buf, 6, 100, 0));
+  printf("pread on bad fd: %ld\n", sys6(SYS_pread64, -1, (long) buf, 6, 0, 0));
+  return 0;
+}